@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.exception;
+
+/**
+ * Exception is thrown if the content of a downloaded file does not match its expected checksum, e.g., because it
+ * has been corrupted during transfer or has been modified on the server while resuming a download.
+ */
+public class ChecksumMismatchException extends ConnectivityException {
+
+    /**
+     * Constructs a new exception with the specified detail message.
+     *
+     * @param message the detail message
+     */
+    public ChecksumMismatchException(String message) {
+        super(message);
+    }
+}
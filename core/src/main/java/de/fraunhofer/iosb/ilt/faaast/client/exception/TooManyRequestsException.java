@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.exception;
+
+import de.fraunhofer.iosb.ilt.faaast.client.util.HttpRequestHelper;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Optional;
+
+
+/**
+ * The user has sent too many requests in a given amount of time (rate limiting).
+ */
+public class TooManyRequestsException extends StatusCodeException {
+
+    private final Duration retryAfter;
+
+    /**
+     * Constructs a new exception.
+     *
+     * @param response the response representing the exception
+     */
+    public TooManyRequestsException(HttpResponse<?> response) {
+        super(response);
+        this.retryAfter = HttpRequestHelper.parseRetryAfter(response.headers()).orElse(null);
+    }
+
+
+    /**
+     * Gets the time the server asked to wait before sending further requests, as given by the Retry-After header.
+     *
+     * @return the time to wait, empty if the response did not contain a valid Retry-After header
+     */
+    public Optional<Duration> getRetryAfter() {
+        return Optional.ofNullable(retryAfter);
+    }
+}
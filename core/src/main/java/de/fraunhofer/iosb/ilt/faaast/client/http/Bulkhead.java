@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.http;
+
+import de.fraunhofer.iosb.ilt.faaast.service.util.Ensure;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+
+/**
+ * Per-origin bulkheads isolating servers from each other. Each origin (scheme, host and port) gets a compartment of at
+ * most {@code maxConcurrentCalls} concurrent calls. Further calls wait in a queue of at most {@code maxWaitQueueSize}
+ * calls for up to {@code maxWaitDuration}. Calls that find the queue full or time out waiting are rejected with a
+ * {@link BulkheadFullException}, so a slow server cannot take up all threads of the application.
+ *
+ * <p>
+ * An instance can be shared by multiple interfaces so that their calls to the same server use the same compartment.
+ */
+public class Bulkhead {
+
+    private static final CompletableFuture<Void> GRANTED = CompletableFuture.completedFuture(null);
+
+    private final int maxConcurrentCalls;
+    private final int maxWaitQueueSize;
+    private final Duration maxWaitDuration;
+    private final Map<String, Compartment> compartments = new ConcurrentHashMap<>();
+
+    private Bulkhead(Builder builder) {
+        this.maxConcurrentCalls = builder.maxConcurrentCalls;
+        this.maxWaitQueueSize = builder.maxWaitQueueSize;
+        this.maxWaitDuration = builder.maxWaitDuration;
+    }
+
+
+    /**
+     * Creates a new builder.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+
+    /**
+     * Gets the maximum time a call waits for a free slot.
+     *
+     * @return the maximum wait duration
+     */
+    public Duration getMaxWaitDuration() {
+        return maxWaitDuration;
+    }
+
+
+    /**
+     * Returns the number of calls to the origin (scheme, host and port) of the given URI that are currently active.
+     *
+     * @param uri any URI of the origin
+     * @return the number of active calls
+     */
+    public int getActiveCalls(URI uri) {
+        Compartment compartment = compartments.get(Origins.of(uri));
+        return compartment != null ? compartment.getActiveCalls() : 0;
+    }
+
+
+    /**
+     * Returns the number of calls to the origin of the given URI that are waiting for a free slot.
+     *
+     * @param uri any URI of the origin
+     * @return the number of waiting calls
+     */
+    public int getQueuedCalls(URI uri) {
+        Compartment compartment = compartments.get(Origins.of(uri));
+        return compartment != null ? compartment.getQueuedCalls() : 0;
+    }
+
+
+    /**
+     * Returns the number of calls to the origin of the given URI that have been rejected.
+     *
+     * @param uri any URI of the origin
+     * @return the number of rejected calls
+     */
+    public long getRejectedCalls(URI uri) {
+        Compartment compartment = compartments.get(Origins.of(uri));
+        return compartment != null ? compartment.rejectedCalls.sum() : 0;
+    }
+
+
+    /**
+     * Returns the number of rejected calls of all origins calls have been rejected for.
+     *
+     * @return map of origin (e.g. https://example.org:443) to the number of rejected calls
+     */
+    public Map<String, Long> getRejectedCalls() {
+        return compartments.entrySet().stream()
+                .filter(x -> x.getValue().rejectedCalls.sum() > 0)
+                .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, x -> x.getValue().rejectedCalls.sum()));
+    }
+
+
+    /**
+     * Returns the origins whose compartments are currently saturated, i.e., all slots are in use.
+     *
+     * @return the saturated origins
+     */
+    public Set<String> getSaturatedOrigins() {
+        return compartments.entrySet().stream()
+                .filter(x -> x.getValue().getActiveCalls() >= maxConcurrentCalls)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+
+    /**
+     * Gets the compartment of the given origin.
+     *
+     * @param origin the origin
+     * @return the compartment
+     */
+    Compartment get(String origin) {
+        return compartments.computeIfAbsent(origin, x -> new Compartment());
+    }
+
+    /**
+     * The compartment of a single origin. All state is guarded by the instance lock; waiting calls are granted their
+     * slot after releasing the lock.
+     */
+    class Compartment {
+        private final Deque<CompletableFuture<Void>> queue = new ArrayDeque<>();
+        private final LongAdder rejectedCalls = new LongAdder();
+        private int activeCalls;
+
+        synchronized int getActiveCalls() {
+            return activeCalls;
+        }
+
+
+        synchronized int getQueuedCalls() {
+            return queue.size();
+        }
+
+
+        /**
+         * Acquires a slot.
+         *
+         * @return a future completing when the slot has been granted, or null if the queue is full
+         */
+        CompletableFuture<Void> acquire() {
+            synchronized (this) {
+                if (activeCalls < maxConcurrentCalls) {
+                    activeCalls++;
+                    return GRANTED;
+                }
+                if (queue.size() < maxWaitQueueSize) {
+                    CompletableFuture<Void> result = new CompletableFuture<>();
+                    queue.add(result);
+                    return result;
+                }
+            }
+            rejectedCalls.increment();
+            return null;
+        }
+
+
+        /**
+         * Gives up waiting for a slot, e.g., after a timeout.
+         *
+         * @param slot the slot as returned by {@link #acquire()}
+         * @param rejected whether the call counts as rejected
+         * @return true if the call stopped waiting, false if the slot has already been granted
+         */
+        boolean cancel(CompletableFuture<Void> slot, boolean rejected) {
+            synchronized (this) {
+                if (!queue.remove(slot)) {
+                    return false;
+                }
+            }
+            if (rejected) {
+                rejectedCalls.increment();
+            }
+            slot.cancel(false);
+            return true;
+        }
+
+
+        /**
+         * Releases a slot.
+         */
+        void release() {
+            List<CompletableFuture<Void>> granted = new ArrayList<>();
+            synchronized (this) {
+                activeCalls--;
+                while (activeCalls < maxConcurrentCalls && !queue.isEmpty()) {
+                    CompletableFuture<Void> next = queue.poll();
+                    if (!next.isDone()) {
+                        activeCalls++;
+                        granted.add(next);
+                    }
+                }
+            }
+            for (CompletableFuture<Void> next : granted) {
+                if (!next.complete(null)) {
+                    release();
+                }
+            }
+        }
+    }
+
+    public static class Builder {
+        private int maxConcurrentCalls = 25;
+        private int maxWaitQueueSize;
+        private Duration maxWaitDuration = Duration.ZERO;
+
+        public Builder maxConcurrentCalls(int value) {
+            Ensure.require(value > 0, "maxConcurrentCalls must be positive");
+            this.maxConcurrentCalls = value;
+            return this;
+        }
+
+
+        public Builder maxWaitQueueSize(int value) {
+            Ensure.require(value >= 0, "maxWaitQueueSize must not be negative");
+            this.maxWaitQueueSize = value;
+            return this;
+        }
+
+
+        public Builder maxWaitDuration(Duration value) {
+            Ensure.requireNonNull(value, "maxWaitDuration must be non-null");
+            this.maxWaitDuration = value;
+            return this;
+        }
+
+
+        public Bulkhead build() {
+            return new Bulkhead(this);
+        }
+    }
+}
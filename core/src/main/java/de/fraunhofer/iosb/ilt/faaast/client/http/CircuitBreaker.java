@@ -0,0 +1,420 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.http;
+
+import de.fraunhofer.iosb.ilt.faaast.service.util.Ensure;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+
+/**
+ * Per-origin circuit breaker. Requests to an origin (scheme, host and port) are recorded in a sliding window of the
+ * last {@code slidingWindowSize} calls. A call is a failure if it fails with an I/O error or the server responds with a
+ * 5xx status code, and it is slow if it takes at least {@code slowCallDuration}.
+ *
+ * <p>
+ * Once the window holds at least {@code minimumNumberOfCalls} calls and the failure rate or the slow call rate reaches
+ * its threshold, the circuit of the origin opens and further requests fail immediately with a
+ * {@link CircuitBreakerOpenException} without being sent. After {@code waitDurationInOpenState} the circuit becomes
+ * half-open and lets {@code permittedCallsInHalfOpenState} trial calls pass. If their failure and slow call rates are
+ * below the thresholds the circuit closes again, otherwise it opens again. Circuits of different origins are
+ * independent, so a dead server does not affect calls to healthy ones.
+ *
+ * <p>
+ * State transitions can be observed via {@link #addListener(StateTransitionListener)}. An instance can be shared by
+ * multiple interfaces to share the state of the circuits.
+ */
+public class CircuitBreaker {
+
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long slowCallDurationNanos;
+    private final int slidingWindowSize;
+    private final int minimumNumberOfCalls;
+    private final long waitDurationInOpenStateNanos;
+    private final int permittedCallsInHalfOpenState;
+    private final Map<String, Circuit> circuits = new ConcurrentHashMap<>();
+    private final List<StateTransitionListener> listeners = new CopyOnWriteArrayList<>();
+    private final LongAdder rejectedCalls = new LongAdder();
+
+    private CircuitBreaker(Builder builder) {
+        this.failureRateThreshold = builder.failureRateThreshold;
+        this.slowCallRateThreshold = builder.slowCallRateThreshold;
+        this.slowCallDurationNanos = builder.slowCallDuration.toNanos();
+        this.slidingWindowSize = builder.slidingWindowSize;
+        this.minimumNumberOfCalls = Math.min(builder.minimumNumberOfCalls, builder.slidingWindowSize);
+        this.waitDurationInOpenStateNanos = builder.waitDurationInOpenState.toNanos();
+        this.permittedCallsInHalfOpenState = builder.permittedCallsInHalfOpenState;
+    }
+
+
+    /**
+     * Creates a new builder.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+
+    /**
+     * Registers a listener that is notified about every state transition of any circuit. Listeners are called
+     * synchronously on the thread completing the call causing the transition and therefore should return quickly.
+     *
+     * @param listener the listener
+     */
+    public void addListener(StateTransitionListener listener) {
+        Ensure.requireNonNull(listener, "listener must be non-null");
+        listeners.add(listener);
+    }
+
+
+    /**
+     * Removes a previously registered listener.
+     *
+     * @param listener the listener
+     */
+    public void removeListener(StateTransitionListener listener) {
+        listeners.remove(listener);
+    }
+
+
+    /**
+     * Returns the state of the circuit of the origin (scheme, host and port) of the given URI.
+     *
+     * @param uri any URI of the origin
+     * @return the state of the circuit, {@link State#CLOSED} if no request has been sent to the origin yet
+     */
+    public State getState(URI uri) {
+        Circuit circuit = circuits.get(Origins.of(uri));
+        return circuit != null ? circuit.getState() : State.CLOSED;
+    }
+
+
+    /**
+     * Returns the states of the circuits of all origins requests have been sent to.
+     *
+     * @return map of origin (e.g. https://example.org:443) to the state of its circuit
+     */
+    public Map<String, State> getStates() {
+        return circuits.entrySet().stream()
+                .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, x -> x.getValue().getState()));
+    }
+
+
+    /**
+     * Gets the number of calls that have been rejected because their circuit was open.
+     *
+     * @return the number of rejected calls
+     */
+    public long getRejectedCalls() {
+        return rejectedCalls.sum();
+    }
+
+
+    /**
+     * Closes all circuits and discards all recorded calls.
+     */
+    public void reset() {
+        circuits.clear();
+    }
+
+
+    /**
+     * Checks whether a call to the given origin may be sent and, if the circuit is half-open, reserves one of the trial
+     * calls.
+     *
+     * @param origin the origin
+     * @return the circuit to record the result of the call with, or null if the call is not permitted
+     */
+    Circuit tryAcquirePermission(String origin) {
+        Circuit circuit = circuits.computeIfAbsent(origin, Circuit::new);
+        if (circuit.tryAcquirePermission()) {
+            return circuit;
+        }
+        rejectedCalls.increment();
+        return null;
+    }
+
+
+    /**
+     * Checks whether a response with the given status code counts as failure.
+     *
+     * @param statusCode the status code
+     * @return true if the status code indicates a server error, false otherwise
+     */
+    static boolean isFailure(int statusCode) {
+        return statusCode >= 500;
+    }
+
+
+    /**
+     * Gets the remaining time until the open circuit of the given origin becomes half-open.
+     *
+     * @param origin the origin
+     * @return the remaining time, zero if the circuit is not open
+     */
+    Duration getRemainingOpenDuration(String origin) {
+        Circuit circuit = circuits.get(origin);
+        return circuit != null ? circuit.getRemainingOpenDuration() : Duration.ZERO;
+    }
+
+
+    private void notifyListeners(String origin, State from, State to) {
+        for (StateTransitionListener listener : listeners) {
+            listener.onStateTransition(origin, from, to);
+        }
+    }
+
+    /**
+     * The states of a circuit.
+     */
+    public enum State {
+        /**
+         * Calls are permitted and recorded.
+         */
+        CLOSED,
+        /**
+         * Calls are rejected.
+         */
+        OPEN,
+        /**
+         * A limited number of trial calls is permitted to decide whether the circuit closes or opens again.
+         */
+        HALF_OPEN
+    }
+
+    /**
+     * Listener notified about state transitions of circuits.
+     */
+    @FunctionalInterface
+    public interface StateTransitionListener {
+
+        /**
+         * Called when the circuit of an origin changes its state.
+         *
+         * @param origin the origin, e.g. https://example.org:443
+         * @param from the previous state
+         * @param to the new state
+         */
+        public void onStateTransition(String origin, State from, State to);
+    }
+
+    /**
+     * The circuit of a single origin. All methods synchronize on the circuit; listeners are notified after releasing
+     * the lock.
+     */
+    class Circuit {
+        private final String origin;
+        private final boolean[] failures = new boolean[slidingWindowSize];
+        private final boolean[] slowCalls = new boolean[slidingWindowSize];
+        private State state = State.CLOSED;
+        private int index;
+        private int calls;
+        private int failureCount;
+        private int slowCallCount;
+        private long openedAt;
+        private int halfOpenPermits;
+
+        Circuit(String origin) {
+            this.origin = origin;
+        }
+
+
+        synchronized State getState() {
+            return state;
+        }
+
+
+        /**
+         * Gets the remaining time until an open circuit becomes half-open.
+         *
+         * @return the remaining time, zero if the circuit is not open
+         */
+        synchronized Duration getRemainingOpenDuration() {
+            if (state != State.OPEN) {
+                return Duration.ZERO;
+            }
+            return Duration.ofNanos(Math.max(0, openedAt + waitDurationInOpenStateNanos - System.nanoTime()));
+        }
+
+
+        boolean tryAcquirePermission() {
+            boolean permitted;
+            boolean transitioned = false;
+            synchronized (this) {
+                if (state == State.OPEN && System.nanoTime() - openedAt >= waitDurationInOpenStateNanos) {
+                    transitionTo(State.HALF_OPEN);
+                    transitioned = true;
+                }
+                if (state == State.HALF_OPEN && halfOpenPermits > 0) {
+                    halfOpenPermits--;
+                    permitted = true;
+                }
+                else {
+                    permitted = state == State.CLOSED;
+                }
+            }
+            if (transitioned) {
+                notifyListeners(origin, State.OPEN, State.HALF_OPEN);
+            }
+            return permitted;
+        }
+
+
+        /**
+         * Records the result of a permitted call.
+         *
+         * @param failure whether the call failed
+         * @param durationNanos the duration of the call
+         */
+        void onResult(boolean failure, long durationNanos) {
+            State from;
+            State to;
+            synchronized (this) {
+                if (state == State.OPEN) {
+                    return;
+                }
+                from = state;
+                record(failure, durationNanos >= slowCallDurationNanos);
+                if (state == State.CLOSED && calls >= minimumNumberOfCalls && exceedsThresholds()) {
+                    transitionTo(State.OPEN);
+                }
+                else if (state == State.HALF_OPEN && calls >= permittedCallsInHalfOpenState) {
+                    transitionTo(exceedsThresholds() ? State.OPEN : State.CLOSED);
+                }
+                to = state;
+            }
+            if (from != to) {
+                notifyListeners(origin, from, to);
+            }
+        }
+
+
+        /**
+         * Releases the permission of a call that has neither succeeded nor failed, e.g., because it has been
+         * interrupted.
+         */
+        synchronized void onIgnored() {
+            if (state == State.HALF_OPEN) {
+                halfOpenPermits++;
+            }
+        }
+
+
+        private void record(boolean failure, boolean slow) {
+            if (calls == slidingWindowSize) {
+                failureCount -= failures[index] ? 1 : 0;
+                slowCallCount -= slowCalls[index] ? 1 : 0;
+            }
+            else {
+                calls++;
+            }
+            failures[index] = failure;
+            slowCalls[index] = slow;
+            failureCount += failure ? 1 : 0;
+            slowCallCount += slow ? 1 : 0;
+            index = (index + 1) % slidingWindowSize;
+        }
+
+
+        private boolean exceedsThresholds() {
+            return failureCount >= failureRateThreshold * calls || slowCallCount >= slowCallRateThreshold * calls;
+        }
+
+
+        private void transitionTo(State newState) {
+            state = newState;
+            index = 0;
+            calls = 0;
+            failureCount = 0;
+            slowCallCount = 0;
+            if (newState == State.OPEN) {
+                openedAt = System.nanoTime();
+            }
+            halfOpenPermits = newState == State.HALF_OPEN ? permittedCallsInHalfOpenState : 0;
+        }
+    }
+
+    public static class Builder {
+        private double failureRateThreshold = 0.5;
+        private double slowCallRateThreshold = 1;
+        private Duration slowCallDuration = Duration.ofSeconds(60);
+        private int slidingWindowSize = 100;
+        private int minimumNumberOfCalls = 10;
+        private Duration waitDurationInOpenState = Duration.ofSeconds(30);
+        private int permittedCallsInHalfOpenState = 5;
+
+        public Builder failureRateThreshold(double value) {
+            Ensure.require(value > 0 && value <= 1, "failureRateThreshold must be greater than 0 and at most 1");
+            this.failureRateThreshold = value;
+            return this;
+        }
+
+
+        public Builder slowCallRateThreshold(double value) {
+            Ensure.require(value > 0 && value <= 1, "slowCallRateThreshold must be greater than 0 and at most 1");
+            this.slowCallRateThreshold = value;
+            return this;
+        }
+
+
+        public Builder slowCallDuration(Duration value) {
+            Ensure.requireNonNull(value, "slowCallDuration must be non-null");
+            this.slowCallDuration = value;
+            return this;
+        }
+
+
+        public Builder slidingWindowSize(int value) {
+            Ensure.require(value > 0, "slidingWindowSize must be positive");
+            this.slidingWindowSize = value;
+            return this;
+        }
+
+
+        public Builder minimumNumberOfCalls(int value) {
+            Ensure.require(value > 0, "minimumNumberOfCalls must be positive");
+            this.minimumNumberOfCalls = value;
+            return this;
+        }
+
+
+        public Builder waitDurationInOpenState(Duration value) {
+            Ensure.requireNonNull(value, "waitDurationInOpenState must be non-null");
+            this.waitDurationInOpenState = value;
+            return this;
+        }
+
+
+        public Builder permittedCallsInHalfOpenState(int value) {
+            Ensure.require(value > 0, "permittedCallsInHalfOpenState must be positive");
+            this.permittedCallsInHalfOpenState = value;
+            return this;
+        }
+
+
+        public CircuitBreaker build() {
+            return new CircuitBreaker(this);
+        }
+    }
+}
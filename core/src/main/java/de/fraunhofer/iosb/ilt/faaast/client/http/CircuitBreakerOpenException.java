@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.http;
+
+import java.time.Duration;
+
+
+/**
+ * Signals that a request has not been sent because the circuit of its origin is open, see {@link CircuitBreaker}.
+ */
+public class CircuitBreakerOpenException extends RequestRejectedException {
+
+    private final Duration remainingOpenDuration;
+
+    /**
+     * Constructs a new exception.
+     *
+     * @param origin the origin whose circuit is open
+     * @param remainingOpenDuration the remaining time until the circuit becomes half-open
+     */
+    public CircuitBreakerOpenException(String origin, Duration remainingOpenDuration) {
+        super(origin, String.format("circuit breaker for %s is open, requests are rejected for %d ms", origin, remainingOpenDuration.toMillis()));
+        this.remainingOpenDuration = remainingOpenDuration;
+    }
+
+
+    /**
+     * Gets the remaining time until the circuit becomes half-open, at the time the request was rejected.
+     *
+     * @return the remaining time
+     */
+    public Duration getRemainingOpenDuration() {
+        return remainingOpenDuration;
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.http;
+
+import de.fraunhofer.iosb.ilt.faaast.service.util.Ensure;
+import java.net.URI;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Defines if responses are decompressed and request bodies are compressed. If response decompression is enabled,
+ * requests without an Accept-Encoding header are sent with {@code Accept-Encoding: gzip, deflate} and compressed
+ * responses are inflated while they are received, i.e., without buffering the compressed body. The headers of the
+ * returned response still describe the compressed body.
+ *
+ * <p>
+ * If request compression is enabled, POST, PUT and PATCH bodies of at least {@code requestCompressionThreshold} bytes
+ * are gzip-compressed while they are sent. Bodies of unknown length, e.g., streamed bodies, are never compressed, as
+ * they cannot be sent again. If the server rejects a compressed body with 415 (Unsupported Media Type), the request is
+ * repeated uncompressed and bodies are no longer compressed for that origin (scheme, host and port). An instance can
+ * be shared by multiple interfaces to share this knowledge and the counters.
+ */
+public class CompressionPolicy {
+
+    private static final Set<String> COMPRESSIBLE_METHODS = Set.of("POST", "PUT", "PATCH");
+
+    private final boolean decompressResponses;
+    private final boolean compressRequests;
+    private final long requestCompressionThreshold;
+    private final Set<String> uncompressedOrigins = ConcurrentHashMap.newKeySet();
+    private final LongAdder decompressedResponses = new LongAdder();
+    private final LongAdder compressedBytesReceived = new LongAdder();
+    private final LongAdder decompressedBytes = new LongAdder();
+    private final LongAdder compressedRequests = new LongAdder();
+    private final LongAdder rejectedCompressedRequests = new LongAdder();
+
+    private CompressionPolicy(Builder builder) {
+        this.decompressResponses = builder.decompressResponses;
+        this.compressRequests = builder.compressRequests;
+        this.requestCompressionThreshold = builder.requestCompressionThreshold;
+    }
+
+
+    /**
+     * Creates a new builder.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+
+    /**
+     * Checks whether compressed responses are requested and decompressed.
+     *
+     * @return true if responses are decompressed, false otherwise
+     */
+    public boolean isDecompressResponses() {
+        return decompressResponses;
+    }
+
+
+    /**
+     * Checks whether request bodies are compressed.
+     *
+     * @return true if request bodies are compressed, false otherwise
+     */
+    public boolean isCompressRequests() {
+        return compressRequests;
+    }
+
+
+    /**
+     * Gets the number of compressed responses that have been decompressed.
+     *
+     * @return the number of decompressed responses
+     */
+    public long getDecompressedResponses() {
+        return decompressedResponses.sum();
+    }
+
+
+    /**
+     * Gets the number of compressed bytes received in decompressed responses.
+     *
+     * @return the number of compressed bytes
+     */
+    public long getCompressedBytesReceived() {
+        return compressedBytesReceived.sum();
+    }
+
+
+    /**
+     * Gets the number of bytes the decompressed responses have been inflated to.
+     *
+     * @return the number of decompressed bytes
+     */
+    public long getDecompressedBytes() {
+        return decompressedBytes.sum();
+    }
+
+
+    /**
+     * Gets the number of requests that have been sent with a compressed body.
+     *
+     * @return the number of compressed requests
+     */
+    public long getCompressedRequests() {
+        return compressedRequests.sum();
+    }
+
+
+    /**
+     * Gets the number of compressed requests the server rejected with 415 (Unsupported Media Type).
+     *
+     * @return the number of rejected compressed requests
+     */
+    public long getRejectedCompressedRequests() {
+        return rejectedCompressedRequests.sum();
+    }
+
+
+    /**
+     * Checks whether request bodies are compressed for the origin (scheme, host and port) of the given URI.
+     *
+     * @param uri any URI of the origin
+     * @return true if request bodies are compressed, false if disabled or the server rejected compressed bodies
+     */
+    public boolean isCompressingRequests(URI uri) {
+        return compressRequests && !uncompressedOrigins.contains(Origins.of(uri));
+    }
+
+
+    /**
+     * Gets the origins that rejected compressed request bodies.
+     *
+     * @return the origins request bodies are not compressed for
+     */
+    public Set<String> getUncompressedOrigins() {
+        return Set.copyOf(uncompressedOrigins);
+    }
+
+
+    boolean shouldCompress(String method, String origin, long contentLength) {
+        return compressRequests
+                && COMPRESSIBLE_METHODS.contains(method)
+                && contentLength >= requestCompressionThreshold
+                && !uncompressedOrigins.contains(origin);
+    }
+
+
+    void requestCompressed() {
+        compressedRequests.increment();
+    }
+
+
+    void compressionRejected(String origin) {
+        rejectedCompressedRequests.increment();
+        uncompressedOrigins.add(origin);
+    }
+
+
+    void responseDecompressed(long compressedBytes, long bytes) {
+        decompressedResponses.increment();
+        compressedBytesReceived.add(compressedBytes);
+        decompressedBytes.add(bytes);
+    }
+
+    public static class Builder {
+        private boolean decompressResponses = true;
+        private boolean compressRequests;
+        private long requestCompressionThreshold = 8192;
+
+        public Builder decompressResponses(boolean value) {
+            this.decompressResponses = value;
+            return this;
+        }
+
+
+        public Builder compressRequests(boolean value) {
+            this.compressRequests = value;
+            return this;
+        }
+
+
+        public Builder requestCompressionThreshold(long value) {
+            Ensure.require(value >= 0, "requestCompressionThreshold must not be negative");
+            this.requestCompressionThreshold = value;
+            return this;
+        }
+
+
+        public CompressionPolicy build() {
+            return new CompressionPolicy(this);
+        }
+    }
+}
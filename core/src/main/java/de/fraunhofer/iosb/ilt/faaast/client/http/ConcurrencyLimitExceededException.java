@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.http;
+
+/**
+ * Signals that a request has not been sent because the maximum number of concurrent requests to its origin has been
+ * reached and the wait queue is full or no slot became free within the maximum wait duration, see
+ * {@link ConcurrencyLimiter}.
+ */
+public class ConcurrencyLimitExceededException extends RequestRejectedException {
+
+    /**
+     * Constructs a new exception.
+     *
+     * @param origin the origin the request was addressed to
+     */
+    public ConcurrencyLimitExceededException(String origin) {
+        super(origin, String.format("concurrency limit for %s reached and no slot available", origin));
+    }
+}
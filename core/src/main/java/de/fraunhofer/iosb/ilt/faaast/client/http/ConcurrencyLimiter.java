@@ -0,0 +1,320 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.http;
+
+import de.fraunhofer.iosb.ilt.faaast.service.util.Ensure;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Adaptive per-origin limit of concurrent requests using additive increase, multiplicative decrease (AIMD). The limit
+ * of an origin (scheme, host and port) starts at {@code initialLimit}. Each successful request completing while at
+ * least half of the limit is in use increases the limit by one. Each dropped request decreases the limit by
+ * {@code backoffRatio}. A request counts as dropped if it fails with an I/O error, the server responds with 429 or 503,
+ * or it takes at least {@code timeout}. The limit always stays between {@code minLimit} and {@code maxLimit}.
+ *
+ * <p>
+ * Requests exceeding the limit wait in a queue of at most {@code maxQueueSize} requests per origin for up to
+ * {@code maxWaitDuration}. Requests that find the queue full or time out waiting are rejected with a
+ * {@link ConcurrencyLimitExceededException}. An instance can be shared by multiple interfaces to limit their combined
+ * concurrency.
+ */
+public class ConcurrencyLimiter {
+
+    private static final CompletableFuture<Void> GRANTED = CompletableFuture.completedFuture(null);
+
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long timeoutNanos;
+    private final int maxQueueSize;
+    private final Duration maxWaitDuration;
+    private final Map<String, Limit> limits = new ConcurrentHashMap<>();
+    private final LongAdder rejectedRequests = new LongAdder();
+
+    private ConcurrencyLimiter(Builder builder) {
+        this.minLimit = builder.minLimit;
+        this.maxLimit = Math.max(builder.maxLimit, builder.minLimit);
+        this.initialLimit = Math.min(Math.max(builder.initialLimit, minLimit), maxLimit);
+        this.backoffRatio = builder.backoffRatio;
+        this.timeoutNanos = builder.timeout.toNanos();
+        this.maxQueueSize = builder.maxQueueSize;
+        this.maxWaitDuration = builder.maxWaitDuration;
+    }
+
+
+    /**
+     * Creates a new builder.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+
+    /**
+     * Gets the maximum time a request waits for a free slot.
+     *
+     * @return the maximum wait duration
+     */
+    public Duration getMaxWaitDuration() {
+        return maxWaitDuration;
+    }
+
+
+    /**
+     * Returns the current limit of concurrent requests to the origin (scheme, host and port) of the given URI.
+     *
+     * @param uri any URI of the origin
+     * @return the current limit, the initial limit if no request has been sent to the origin yet
+     */
+    public int getLimit(URI uri) {
+        Limit limit = limits.get(Origins.of(uri));
+        return limit != null ? limit.getLimit() : initialLimit;
+    }
+
+
+    /**
+     * Returns the number of requests to the origin of the given URI that are currently in flight.
+     *
+     * @param uri any URI of the origin
+     * @return the number of requests in flight
+     */
+    public int getInFlight(URI uri) {
+        Limit limit = limits.get(Origins.of(uri));
+        return limit != null ? limit.getInFlight() : 0;
+    }
+
+
+    /**
+     * Returns the number of requests to the origin of the given URI that are waiting for a free slot.
+     *
+     * @param uri any URI of the origin
+     * @return the queue depth
+     */
+    public int getQueueDepth(URI uri) {
+        Limit limit = limits.get(Origins.of(uri));
+        return limit != null ? limit.getQueueDepth() : 0;
+    }
+
+
+    /**
+     * Gets the number of requests that have been rejected because the queue of their origin was full or they timed out
+     * waiting for a free slot.
+     *
+     * @return the number of rejected requests
+     */
+    public long getRejectedRequests() {
+        return rejectedRequests.sum();
+    }
+
+
+    /**
+     * Gets the limit of the given origin.
+     *
+     * @param origin the origin
+     * @return the limit of the origin
+     */
+    Limit get(String origin) {
+        return limits.computeIfAbsent(origin, x -> new Limit());
+    }
+
+
+    /**
+     * Checks whether a response with the given status code signals overload.
+     *
+     * @param statusCode the status code
+     * @return true if the server signals overload, false otherwise
+     */
+    static boolean isDrop(int statusCode) {
+        return statusCode == HttpStatus.TOO_MANY_REQUESTS.getCode() || statusCode == HttpStatus.SERVICE_UNAVAILABLE.getCode();
+    }
+
+    /**
+     * The limit of a single origin. All state is guarded by the instance lock; waiting requests are granted their slot
+     * after releasing the lock.
+     */
+    class Limit {
+        private final Deque<CompletableFuture<Void>> queue = new ArrayDeque<>();
+        private double limit = initialLimit;
+        private int inFlight;
+
+        synchronized int getLimit() {
+            return (int) limit;
+        }
+
+
+        synchronized int getInFlight() {
+            return inFlight;
+        }
+
+
+        synchronized int getQueueDepth() {
+            return queue.size();
+        }
+
+
+        /**
+         * Acquires a slot.
+         *
+         * @return a future completing when the slot has been granted, or null if the queue is full
+         */
+        CompletableFuture<Void> acquire() {
+            synchronized (this) {
+                if (inFlight < (int) limit) {
+                    inFlight++;
+                    return GRANTED;
+                }
+                if (queue.size() < maxQueueSize) {
+                    CompletableFuture<Void> result = new CompletableFuture<>();
+                    queue.add(result);
+                    return result;
+                }
+            }
+            rejectedRequests.increment();
+            return null;
+        }
+
+
+        /**
+         * Gives up waiting for a slot, e.g., after a timeout or because the request has been cancelled.
+         *
+         * @param slot the slot as returned by {@link #acquire()}
+         * @param rejected whether the request counts as rejected
+         * @return true if the request stopped waiting, false if the slot has already been granted
+         */
+        boolean cancel(CompletableFuture<Void> slot, boolean rejected) {
+            synchronized (this) {
+                if (!queue.remove(slot)) {
+                    return false;
+                }
+            }
+            if (rejected) {
+                rejectedRequests.increment();
+            }
+            slot.cancel(false);
+            return true;
+        }
+
+
+        /**
+         * Releases a slot and adjusts the limit.
+         *
+         * @param drop whether the request has been dropped
+         * @param durationNanos the duration of the request, or a negative value to release the slot without
+         *            adjusting the limit
+         */
+        void release(boolean drop, long durationNanos) {
+            List<CompletableFuture<Void>> granted = new ArrayList<>();
+            synchronized (this) {
+                if (durationNanos >= 0) {
+                    if (drop || durationNanos >= timeoutNanos) {
+                        limit = Math.max(minLimit, limit * backoffRatio);
+                    }
+                    else if (inFlight * 2 >= limit) {
+                        limit = Math.min(maxLimit, limit + 1);
+                    }
+                }
+                inFlight--;
+                while (inFlight < (int) limit && !queue.isEmpty()) {
+                    CompletableFuture<Void> next = queue.poll();
+                    if (!next.isDone()) {
+                        inFlight++;
+                        granted.add(next);
+                    }
+                }
+            }
+            for (CompletableFuture<Void> next : granted) {
+                if (!next.complete(null)) {
+                    release(false, -1);
+                }
+            }
+        }
+    }
+
+    public static class Builder {
+        private int initialLimit = 20;
+        private int minLimit = 1;
+        private int maxLimit = 200;
+        private double backoffRatio = 0.9;
+        private Duration timeout = Duration.ofSeconds(5);
+        private int maxQueueSize = 100;
+        private Duration maxWaitDuration = Duration.ofSeconds(30);
+
+        public Builder initialLimit(int value) {
+            Ensure.require(value > 0, "initialLimit must be positive");
+            this.initialLimit = value;
+            return this;
+        }
+
+
+        public Builder minLimit(int value) {
+            Ensure.require(value > 0, "minLimit must be positive");
+            this.minLimit = value;
+            return this;
+        }
+
+
+        public Builder maxLimit(int value) {
+            Ensure.require(value > 0, "maxLimit must be positive");
+            this.maxLimit = value;
+            return this;
+        }
+
+
+        public Builder backoffRatio(double value) {
+            Ensure.require(value > 0 && value < 1, "backoffRatio must be between 0 and 1");
+            this.backoffRatio = value;
+            return this;
+        }
+
+
+        public Builder timeout(Duration value) {
+            Ensure.requireNonNull(value, "timeout must be non-null");
+            this.timeout = value;
+            return this;
+        }
+
+
+        public Builder maxQueueSize(int value) {
+            Ensure.require(value >= 0, "maxQueueSize must not be negative");
+            this.maxQueueSize = value;
+            return this;
+        }
+
+
+        public Builder maxWaitDuration(Duration value) {
+            Ensure.requireNonNull(value, "maxWaitDuration must be non-null");
+            this.maxWaitDuration = value;
+            return this;
+        }
+
+
+        public ConcurrencyLimiter build() {
+            return new ConcurrencyLimiter(this);
+        }
+    }
+}
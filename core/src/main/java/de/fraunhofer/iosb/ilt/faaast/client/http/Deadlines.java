@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.http;
+
+import de.fraunhofer.iosb.ilt.faaast.client.exception.DeadlineExceededException;
+import de.fraunhofer.iosb.ilt.faaast.client.util.Deadline;
+import java.net.http.HttpRequest;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+
+/**
+ * Applies the {@link Deadline} of a call within the decorators, which wait, retry or start requests on other threads.
+ * All methods accept a null deadline, meaning no deadline is attached.
+ */
+final class Deadlines {
+
+    private Deadlines() {}
+
+
+    /**
+     * Limits the timeout of the request to the remaining time of the deadline.
+     *
+     * @param deadline the deadline, may be null
+     * @param req the request
+     * @return the request with adjusted timeout
+     * @throws RequestDeadlineExceededException if the deadline has passed or has been cancelled
+     */
+    static HttpRequest apply(Deadline deadline, HttpRequest req) throws RequestDeadlineExceededException {
+        if (Objects.isNull(deadline)) {
+            return req;
+        }
+        try {
+            return deadline.apply(req);
+        }
+        catch (DeadlineExceededException e) {
+            throw new RequestDeadlineExceededException(Origins.of(req.uri()));
+        }
+    }
+
+
+    /**
+     * Checks whether the deadline leaves time to wait for the given delay before sending a request.
+     *
+     * @param deadline the deadline, may be null
+     * @param delayNanos the delay in nanoseconds
+     * @return true if the deadline does not pass within the delay, false otherwise
+     */
+    static boolean allows(Deadline deadline, long delayNanos) {
+        return Objects.isNull(deadline) || delayNanos < deadline.getRemaining().toNanos();
+    }
+
+
+    /**
+     * Throws if the deadline passes before the given delay before sending a request is over.
+     *
+     * @param deadline the deadline, may be null
+     * @param req the request
+     * @param delayNanos the delay in nanoseconds
+     * @throws RequestDeadlineExceededException if the deadline passes within the delay
+     */
+    static void checkDelay(Deadline deadline, HttpRequest req, long delayNanos) throws RequestDeadlineExceededException {
+        if (!allows(deadline, delayNanos)) {
+            throw new RequestDeadlineExceededException(Origins.of(req.uri()));
+        }
+    }
+
+
+    /**
+     * Limits the maximum time to wait to the remaining time of the deadline.
+     *
+     * @param deadline the deadline, may be null
+     * @param maxWaitNanos the maximum time to wait in nanoseconds
+     * @return the time to wait in nanoseconds
+     */
+    static long capWait(Deadline deadline, long maxWaitNanos) {
+        return Objects.isNull(deadline) ? maxWaitNanos : Math.min(maxWaitNanos, deadline.getRemaining().toNanos());
+    }
+
+
+    /**
+     * Starts an asynchronous request with its timeout limited to the remaining time and the deadline attached to the
+     * current thread.
+     *
+     * @param <T> the type of the result
+     * @param deadline the deadline, may be null
+     * @param req the request
+     * @param send starts the request with adjusted timeout
+     * @return the future of the request, failed with a {@link RequestDeadlineExceededException} if the deadline has
+     *         passed or has been cancelled
+     */
+    static <T> CompletableFuture<T> sendAsync(Deadline deadline, HttpRequest req, Function<HttpRequest, CompletableFuture<T>> send) {
+        HttpRequest actual;
+        try {
+            actual = apply(deadline, req);
+        }
+        catch (RequestDeadlineExceededException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return attached(deadline, () -> send.apply(actual));
+    }
+
+
+    /**
+     * Starts an asynchronous request with the deadline attached to the current thread, so that decorators further down
+     * apply it even if the request is started from another thread, e.g., after a delay.
+     *
+     * @param <T> the type of the result
+     * @param deadline the deadline, may be null
+     * @param request starts the request
+     * @return the future of the request
+     */
+    static <T> CompletableFuture<T> attached(Deadline deadline, Supplier<CompletableFuture<T>> request) {
+        if (Objects.isNull(deadline)) {
+            return request.get();
+        }
+        try (Deadline.Scope scope = deadline.attach()) {
+            return request.get();
+        }
+    }
+}
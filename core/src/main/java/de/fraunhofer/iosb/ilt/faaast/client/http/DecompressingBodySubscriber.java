@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.http;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+
+/**
+ * Body subscriber inflating a gzip or deflate compressed response body while it is received and passing the
+ * decompressed bytes on to another body subscriber. Each chunk received is inflated and passed on as one chunk, so the
+ * demand of the downstream subscriber is preserved.
+ *
+ * @param <T> the type of the response body
+ */
+class DecompressingBodySubscriber<T> implements HttpResponse.BodySubscriber<T> {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final int GZIP_HEADER_SIZE = 10;
+    private static final int GZIP_FLAG_HCRC = 2;
+    private static final int GZIP_FLAG_EXTRA = 4;
+    private static final int GZIP_FLAG_NAME = 8;
+    private static final int GZIP_FLAG_COMMENT = 16;
+
+    private final HttpResponse.BodySubscriber<T> downstream;
+    private final boolean gzip;
+    private final CompressionPolicy policy;
+    private Flow.Subscription subscription;
+    private Inflater inflater;
+    private byte[] header = new byte[0];
+    private long received;
+    private long inflated;
+    private boolean failed;
+
+    DecompressingBodySubscriber(HttpResponse.BodySubscriber<T> downstream, boolean gzip, CompressionPolicy policy) {
+        this.downstream = downstream;
+        this.gzip = gzip;
+        this.policy = policy;
+    }
+
+
+    @Override
+    public CompletionStage<T> getBody() {
+        return downstream.getBody();
+    }
+
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        downstream.onSubscribe(subscription);
+    }
+
+
+    @Override
+    public void onNext(List<ByteBuffer> item) {
+        if (failed) {
+            return;
+        }
+        List<ByteBuffer> result = new ArrayList<>();
+        try {
+            for (ByteBuffer buffer : item) {
+                received += buffer.remaining();
+                ByteBuffer input = inflater != null ? buffer : consumeHeader(buffer);
+                if (input != null) {
+                    inflate(input, result);
+                }
+            }
+        }
+        catch (IOException | DataFormatException e) {
+            fail(e);
+            return;
+        }
+        if (result.isEmpty()) {
+            subscription.request(1);
+            return;
+        }
+        downstream.onNext(result);
+    }
+
+
+    @Override
+    public void onError(Throwable throwable) {
+        end();
+        if (!failed) {
+            downstream.onError(throwable);
+        }
+    }
+
+
+    @Override
+    public void onComplete() {
+        if (failed) {
+            return;
+        }
+        if (received > 0 && (inflater == null || !inflater.finished())) {
+            fail(new EOFException("unexpected end of compressed response body"));
+            return;
+        }
+        end();
+        policy.responseDecompressed(received, inflated);
+        downstream.onComplete();
+    }
+
+
+    private ByteBuffer consumeHeader(ByteBuffer buffer) throws IOException {
+        int offset = header.length;
+        header = Arrays.copyOf(header, offset + buffer.remaining());
+        buffer.get(header, offset, header.length - offset);
+        int headerSize = gzip ? gzipHeaderSize(header) : 0;
+        if (headerSize < 0 || header.length < 2) {
+            return null;
+        }
+        inflater = new Inflater(gzip || !isZlibHeader(header));
+        ByteBuffer result = ByteBuffer.wrap(header, headerSize, header.length - headerSize);
+        header = null;
+        return result;
+    }
+
+
+    private void inflate(ByteBuffer input, List<ByteBuffer> result) throws DataFormatException {
+        inflater.setInput(input);
+        byte[] buffer = new byte[BUFFER_SIZE];
+        while (!inflater.finished()) {
+            int count = inflater.inflate(buffer);
+            if (count > 0) {
+                inflated += count;
+                result.add(ByteBuffer.wrap(buffer, 0, count));
+                buffer = new byte[BUFFER_SIZE];
+            }
+            else if (inflater.needsInput() || inflater.needsDictionary()) {
+                break;
+            }
+        }
+    }
+
+
+    private void fail(Throwable error) {
+        failed = true;
+        end();
+        subscription.cancel();
+        downstream.onError(error);
+    }
+
+
+    private void end() {
+        if (inflater != null) {
+            inflater.end();
+        }
+    }
+
+
+    /**
+     * Computes the size of a gzip header as defined by RFC 1952.
+     *
+     * @param data the bytes received so far
+     * @return the size of the header, or -1 if more bytes are needed
+     * @throws IOException if the data does not start with a gzip header
+     */
+    private static int gzipHeaderSize(byte[] data) throws IOException {
+        if (data.length < GZIP_HEADER_SIZE) {
+            return -1;
+        }
+        if ((data[0] & 0xff) != 0x1f || (data[1] & 0xff) != 0x8b || data[2] != Deflater.DEFLATED) {
+            throw new IOException("invalid gzip header in compressed response body");
+        }
+        int flags = data[3];
+        int result = GZIP_HEADER_SIZE;
+        if ((flags & GZIP_FLAG_EXTRA) != 0) {
+            if (data.length < result + 2) {
+                return -1;
+            }
+            result += 2 + ((data[result] & 0xff) | ((data[result + 1] & 0xff) << 8));
+        }
+        if ((flags & GZIP_FLAG_NAME) != 0) {
+            result = skipZeroTerminated(data, result);
+        }
+        if (result >= 0 && (flags & GZIP_FLAG_COMMENT) != 0) {
+            result = skipZeroTerminated(data, result);
+        }
+        if (result >= 0 && (flags & GZIP_FLAG_HCRC) != 0) {
+            result += 2;
+        }
+        return result >= 0 && result <= data.length ? result : -1;
+    }
+
+
+    private static int skipZeroTerminated(byte[] data, int offset) {
+        for (int i = offset; i < data.length; i++) {
+            if (data[i] == 0) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+
+    private static boolean isZlibHeader(byte[] data) {
+        int cmf = data[0] & 0xff;
+        int flg = data[1] & 0xff;
+        return (cmf & 0x0f) == Deflater.DEFLATED && ((cmf << 8) | flg) % 31 == 0;
+    }
+}
@@ -0,0 +1,403 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.http;
+
+import de.fraunhofer.iosb.ilt.faaast.service.util.Ensure;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * A set of replicated endpoints serving the same resources, e.g., multiple instances of an AAS repository behind no
+ * common load balancer. Interfaces are built against the primary (first) endpoint; requests to it are distributed
+ * over all endpoints of the set according to the selection {@link Strategy}.
+ *
+ * <p>
+ * The health of each endpoint is tracked passively: an endpoint that fails with an I/O error or responds with 502, 503
+ * or 504 is considered unhealthy for {@code unhealthyDuration} and is only selected if no healthy endpoint is left.
+ * Idempotent requests (GET, HEAD, PUT, DELETE and OPTIONS) failing this way fail over to the next endpoint that has
+ * not been tried yet. An instance can be shared by multiple interfaces to share the health state and statistics.
+ */
+public class EndpointSet {
+
+    private static final Set<String> IDEMPOTENT_METHODS = Set.of("GET", "HEAD", "PUT", "DELETE", "OPTIONS");
+    private static final Set<Integer> FAILOVER_STATUS_CODES = Set.of(502, 503, 504);
+    private static final double LATENCY_SMOOTHING = 0.2;
+    private static final long MIN_LATENCY_NANOS = Duration.ofMillis(1).toNanos();
+
+    private final List<Endpoint> endpoints;
+    private final Strategy strategy;
+    private final long unhealthyNanos;
+    private final AtomicInteger next = new AtomicInteger();
+    private final LongAdder failovers = new LongAdder();
+
+    private EndpointSet(Builder builder) {
+        this.endpoints = builder.endpoints.stream().map(Endpoint::new).toList();
+        this.strategy = builder.strategy;
+        this.unhealthyNanos = builder.unhealthyDuration.toNanos();
+    }
+
+
+    /**
+     * Creates a new builder.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+
+    /**
+     * Creates a set of the given endpoints using round-robin selection.
+     *
+     * @param endpoints the endpoints, the first one being the primary endpoint
+     * @return the endpoint set
+     */
+    public static EndpointSet of(URI... endpoints) {
+        return builder().endpoints(List.of(endpoints)).build();
+    }
+
+
+    /**
+     * Gets the primary endpoint, i.e., the endpoint interfaces using this set are built against.
+     *
+     * @return the primary endpoint
+     */
+    public URI getPrimary() {
+        return endpoints.get(0).uri;
+    }
+
+
+    /**
+     * Gets all endpoints of the set, starting with the primary endpoint.
+     *
+     * @return the endpoints
+     */
+    public List<URI> getEndpoints() {
+        return endpoints.stream().map(x -> x.uri).toList();
+    }
+
+
+    /**
+     * Gets the strategy used to select the endpoint of a request.
+     *
+     * @return the selection strategy
+     */
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+
+    /**
+     * Checks whether the given endpoint is currently considered healthy.
+     *
+     * @param endpoint the endpoint
+     * @return true if the endpoint is healthy, false if it recently failed
+     * @throws IllegalArgumentException if the endpoint is not part of this set
+     */
+    public boolean isHealthy(URI endpoint) {
+        return get(endpoint).isHealthy(System.nanoTime());
+    }
+
+
+    /**
+     * Gets the number of requests to the given endpoint that are currently in flight.
+     *
+     * @param endpoint the endpoint
+     * @return the number of outstanding requests
+     * @throws IllegalArgumentException if the endpoint is not part of this set
+     */
+    public int getOutstandingRequests(URI endpoint) {
+        return get(endpoint).outstanding.get();
+    }
+
+
+    /**
+     * Gets the number of requests that have been sent to the given endpoint.
+     *
+     * @param endpoint the endpoint
+     * @return the number of requests
+     * @throws IllegalArgumentException if the endpoint is not part of this set
+     */
+    public long getRequests(URI endpoint) {
+        return get(endpoint).requests.sum();
+    }
+
+
+    /**
+     * Gets the exponentially weighted average latency observed for the given endpoint.
+     *
+     * @param endpoint the endpoint
+     * @return the average latency, or empty if no request to the endpoint has completed yet
+     * @throws IllegalArgumentException if the endpoint is not part of this set
+     */
+    public Optional<Duration> getAverageLatency(URI endpoint) {
+        long latency = get(endpoint).latencyNanos;
+        return latency > 0 ? Optional.of(Duration.ofNanos(latency)) : Optional.empty();
+    }
+
+
+    /**
+     * Gets the number of times a failed request has been sent to another endpoint.
+     *
+     * @return the number of failovers
+     */
+    public long getFailovers() {
+        return failovers.sum();
+    }
+
+
+    boolean handles(URI uri) {
+        String prefix = endpoints.get(0).prefix;
+        String value = uri.toString();
+        // the prefix must end at a path segment or the query, e.g., http://host/api must not match http://host/api2
+        return value.startsWith(prefix) && (value.length() == prefix.length() || "/?".indexOf(value.charAt(prefix.length())) >= 0);
+    }
+
+
+    int size() {
+        return endpoints.size();
+    }
+
+
+    boolean canFailover(String method) {
+        return IDEMPOTENT_METHODS.contains(method);
+    }
+
+
+    boolean isFailure(int statusCode) {
+        return FAILOVER_STATUS_CODES.contains(statusCode);
+    }
+
+
+    void failedOver() {
+        failovers.increment();
+    }
+
+
+    /**
+     * Selects the endpoint for the next attempt of a request.
+     *
+     * @param tried the endpoints already tried for the request
+     * @return the selected endpoint, or null if all endpoints have been tried
+     */
+    Endpoint select(Collection<Endpoint> tried) {
+        long now = System.nanoTime();
+        List<Endpoint> candidates = new ArrayList<>(endpoints.size());
+        for (Endpoint endpoint : endpoints) {
+            if (!tried.contains(endpoint) && endpoint.isHealthy(now)) {
+                candidates.add(endpoint);
+            }
+        }
+        if (candidates.isEmpty()) {
+            endpoints.stream().filter(x -> !tried.contains(x)).forEach(candidates::add);
+        }
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        return switch (strategy) {
+            case ROUND_ROBIN -> candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+            case LEAST_OUTSTANDING -> leastOutstanding(candidates);
+            case LATENCY_WEIGHTED -> latencyWeighted(candidates);
+        };
+    }
+
+
+    private Endpoint leastOutstanding(List<Endpoint> candidates) {
+        int offset = Math.floorMod(next.getAndIncrement(), candidates.size());
+        Endpoint result = null;
+        for (int i = 0; i < candidates.size(); i++) {
+            Endpoint candidate = candidates.get((offset + i) % candidates.size());
+            if (result == null || candidate.outstanding.get() < result.outstanding.get()) {
+                result = candidate;
+            }
+        }
+        return result;
+    }
+
+
+    private static Endpoint latencyWeighted(List<Endpoint> candidates) {
+        double[] weights = new double[candidates.size()];
+        double total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            Endpoint candidate = candidates.get(i);
+            weights[i] = 1.0 / (Math.max(candidate.latencyNanos, MIN_LATENCY_NANOS) * (candidate.outstanding.get() + 1.0));
+            total += weights[i];
+        }
+        double random = ThreadLocalRandom.current().nextDouble(total);
+        for (int i = 0; i < weights.length - 1; i++) {
+            random -= weights[i];
+            if (random < 0) {
+                return candidates.get(i);
+            }
+        }
+        return candidates.get(weights.length - 1);
+    }
+
+
+    private Endpoint get(URI endpoint) {
+        String prefix = prefixOf(endpoint);
+        return endpoints.stream()
+                .filter(x -> x.prefix.equals(prefix))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(String.format("endpoint is not part of the set (endpoint: %s)", endpoint)));
+    }
+
+
+    private static String prefixOf(URI uri) {
+        String result = uri.toString();
+        return result.endsWith("/") ? result.substring(0, result.length() - 1) : result;
+    }
+
+    /**
+     * An endpoint of the set together with its health state and statistics.
+     */
+    class Endpoint {
+        private final URI uri;
+        private final String prefix;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final LongAdder requests = new LongAdder();
+        private volatile long latencyNanos;
+        private volatile long unhealthyUntil;
+        private volatile boolean unhealthy;
+
+        Endpoint(URI uri) {
+            this.uri = uri;
+            this.prefix = prefixOf(uri);
+        }
+
+
+        URI getUri() {
+            return uri;
+        }
+
+
+        boolean isHealthy(long now) {
+            return !unhealthy || now - unhealthyUntil >= 0;
+        }
+
+
+        /**
+         * Rewrites a URI of the primary endpoint to this endpoint.
+         *
+         * @param primary the URI relative to the primary endpoint
+         * @return the URI relative to this endpoint
+         */
+        URI rewrite(URI primary) {
+            String base = endpoints.get(0).prefix;
+            if (this.prefix.equals(base)) {
+                return primary;
+            }
+            try {
+                return new URI(prefix + primary.toString().substring(base.length()));
+            }
+            catch (URISyntaxException e) {
+                throw new IllegalArgumentException(String.format("error rewriting URI to replica (uri: %s, replica: %s)", primary, uri), e);
+            }
+        }
+
+
+        void started() {
+            outstanding.incrementAndGet();
+            requests.increment();
+        }
+
+
+        void completed(boolean failure, long nanos) {
+            outstanding.decrementAndGet();
+            if (failure) {
+                unhealthyUntil = System.nanoTime() + unhealthyNanos;
+                unhealthy = true;
+                return;
+            }
+            unhealthy = false;
+            long previous = latencyNanos;
+            latencyNanos = previous == 0 ? nanos : Math.round(previous + LATENCY_SMOOTHING * (nanos - previous));
+        }
+
+
+        void cancelled() {
+            outstanding.decrementAndGet();
+        }
+    }
+
+    /**
+     * Strategies for selecting the endpoint of a request among the healthy endpoints of a set.
+     */
+    public enum Strategy {
+        /**
+         * Cycles through the endpoints.
+         */
+        ROUND_ROBIN,
+        /**
+         * Selects the endpoint with the fewest requests in flight.
+         */
+        LEAST_OUTSTANDING,
+        /**
+         * Selects endpoints randomly, weighted by the inverse of their average latency and their requests in flight.
+         */
+        LATENCY_WEIGHTED
+    }
+
+    public static class Builder {
+        private final List<URI> endpoints = new ArrayList<>();
+        private Strategy strategy = Strategy.ROUND_ROBIN;
+        private Duration unhealthyDuration = Duration.ofSeconds(10);
+
+        public Builder endpoint(URI value) {
+            Ensure.requireNonNull(value, "endpoint must be non-null");
+            this.endpoints.add(value);
+            return this;
+        }
+
+
+        public Builder endpoints(List<URI> value) {
+            Ensure.requireNonNull(value, "endpoints must be non-null");
+            value.forEach(this::endpoint);
+            return this;
+        }
+
+
+        public Builder strategy(Strategy value) {
+            Ensure.requireNonNull(value, "strategy must be non-null");
+            this.strategy = value;
+            return this;
+        }
+
+
+        public Builder unhealthyDuration(Duration value) {
+            Ensure.requireNonNull(value, "unhealthyDuration must be non-null");
+            this.unhealthyDuration = value;
+            return this;
+        }
+
+
+        public EndpointSet build() {
+            Ensure.require(!endpoints.isEmpty(), "endpoints must not be empty");
+            Ensure.require(endpoints.stream().map(EndpointSet::prefixOf).distinct().count() == endpoints.size(), "endpoints must be unique");
+            return new EndpointSet(this);
+        }
+    }
+}
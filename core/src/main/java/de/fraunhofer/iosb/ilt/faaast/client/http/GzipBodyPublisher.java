@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.http;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+
+/**
+ * Body publisher compressing the body of another publisher with gzip while it is sent, i.e., without buffering the
+ * whole body and without blocking the caller. The length of the compressed body is not known in advance.
+ */
+class GzipBodyPublisher implements HttpRequest.BodyPublisher {
+
+    private final HttpRequest.BodyPublisher source;
+
+    GzipBodyPublisher(HttpRequest.BodyPublisher source) {
+        this.source = source;
+    }
+
+
+    @Override
+    public long contentLength() {
+        return -1;
+    }
+
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+        source.subscribe(new Compressor(subscriber));
+    }
+
+    /**
+     * Compresses the chunks of the source one at a time, as demanded by the downstream subscriber.
+     */
+    private static class Compressor implements Flow.Subscriber<ByteBuffer>, Flow.Subscription {
+        private final Flow.Subscriber<? super ByteBuffer> downstream;
+        private final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        private final Queue<ByteBuffer> output = new ConcurrentLinkedQueue<>();
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger drains = new AtomicInteger();
+        private GZIPOutputStream gzip;
+        private WritableByteChannel channel;
+        private volatile Flow.Subscription upstream;
+        private volatile boolean requested;
+        private volatile boolean completed;
+        private volatile Throwable error;
+        private volatile boolean done;
+
+        Compressor(Flow.Subscriber<? super ByteBuffer> downstream) {
+            this.downstream = downstream;
+        }
+
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            upstream = subscription;
+            try {
+                gzip = new GZIPOutputStream(compressed);
+                channel = Channels.newChannel(gzip);
+            }
+            catch (IOException e) {
+                error = e;
+                subscription.cancel();
+            }
+            downstream.onSubscribe(this);
+            drain();
+        }
+
+
+        @Override
+        public void onNext(ByteBuffer item) {
+            try {
+                while (item.hasRemaining()) {
+                    channel.write(item);
+                }
+                emit();
+            }
+            catch (IOException e) {
+                error = e;
+                upstream.cancel();
+            }
+            requested = false;
+            drain();
+        }
+
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            drain();
+        }
+
+
+        @Override
+        public void onComplete() {
+            try {
+                gzip.close();
+                emit();
+                completed = true;
+            }
+            catch (IOException e) {
+                error = e;
+            }
+            drain();
+        }
+
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("demand must be positive");
+                upstream.cancel();
+            }
+            else {
+                demand.getAndUpdate(x -> x + n < 0 ? Long.MAX_VALUE : x + n);
+            }
+            drain();
+        }
+
+
+        @Override
+        public void cancel() {
+            done = true;
+            upstream.cancel();
+        }
+
+
+        private void emit() {
+            if (compressed.size() > 0) {
+                output.add(ByteBuffer.wrap(compressed.toByteArray()));
+                compressed.reset();
+            }
+        }
+
+
+        private void drain() {
+            if (drains.getAndIncrement() != 0) {
+                return;
+            }
+            do {
+                while (!done && demand.get() > 0 && !output.isEmpty()) {
+                    demand.decrementAndGet();
+                    downstream.onNext(output.poll());
+                }
+                if (!done && error != null) {
+                    done = true;
+                    downstream.onError(error);
+                }
+                else if (!done && output.isEmpty() && completed) {
+                    done = true;
+                    downstream.onComplete();
+                }
+                else if (!done && output.isEmpty() && demand.get() > 0 && !requested) {
+                    // more input is needed as the compressed output of previous chunks has been passed on
+                    requested = true;
+                    upstream.request(1);
+                }
+            } while (drains.decrementAndGet() != 0);
+        }
+    }
+}
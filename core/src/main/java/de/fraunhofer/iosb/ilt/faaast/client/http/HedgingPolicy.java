@@ -0,0 +1,251 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.http;
+
+import de.fraunhofer.iosb.ilt.faaast.service.util.Ensure;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+
+/**
+ * Defines when idempotent reads (GET and HEAD) are hedged, i.e., when a duplicate request is sent if the original one
+ * is slow. The hedging delay is the configured percentile of the latencies recently observed for the origin (scheme,
+ * host and port) of the request, but at least {@code minDelay}. Until enough latencies have been observed,
+ * {@code initialDelay} is used. The first successful response is used and the other request is cancelled.
+ *
+ * <p>
+ * Hedged requests are sent to the same URI unless a replica selector maps it to another endpoint serving the same
+ * resources. The extra load is capped by a budget: each request adds {@code budgetRatio} tokens to the budget, up to
+ * {@code budgetCapacity}, and each hedged request consumes one token. An instance can be shared by multiple interfaces
+ * to share the budget, the observed latencies and the counters.
+ */
+public class HedgingPolicy {
+
+    private static final long TOKEN_SCALE = 1000;
+    private static final int SAMPLE_SIZE = 256;
+    private static final int MIN_SAMPLES = 20;
+    private static final int RECOMPUTE_INTERVAL = 20;
+    private static final Set<String> HEDGEABLE_METHODS = Set.of("GET", "HEAD");
+
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long initialDelayNanos;
+    private final long budgetCapacity;
+    private final long budgetRatio;
+    private final UnaryOperator<URI> replicaSelector;
+    private final AtomicLong budget;
+    private final Map<String, Latencies> latencies = new ConcurrentHashMap<>();
+    private final LongAdder hedgedRequests = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+
+    private HedgingPolicy(Builder builder) {
+        this.percentile = builder.percentile;
+        this.minDelayNanos = builder.minDelay.toNanos();
+        this.initialDelayNanos = builder.initialDelay.toNanos();
+        this.budgetCapacity = Math.round(builder.budgetCapacity * TOKEN_SCALE);
+        this.budgetRatio = Math.round(builder.budgetRatio * TOKEN_SCALE);
+        this.replicaSelector = builder.replicaSelector;
+        this.budget = new AtomicLong(budgetCapacity);
+    }
+
+
+    /**
+     * Creates a new builder.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+
+    /**
+     * Gets the number of hedged requests that have been sent.
+     *
+     * @return the number of hedged requests
+     */
+    public long getHedgedRequests() {
+        return hedgedRequests.sum();
+    }
+
+
+    /**
+     * Gets the number of hedged requests whose response has been used because it arrived before the response to the
+     * original request.
+     *
+     * @return the number of hedged requests that won
+     */
+    public long getHedgeWins() {
+        return hedgeWins.sum();
+    }
+
+
+    /**
+     * Returns the delay after which requests to the origin (scheme, host and port) of the given URI are currently
+     * hedged.
+     *
+     * @param uri any URI of the origin
+     * @return the hedging delay
+     */
+    public Duration getDelay(URI uri) {
+        return Duration.ofNanos(getDelayNanos(Origins.of(uri)));
+    }
+
+
+    /**
+     * Checks whether requests with the given HTTP method may be hedged.
+     *
+     * @param method the HTTP method
+     * @return true if the method is an idempotent read, false otherwise
+     */
+    public boolean isHedgeable(String method) {
+        return HEDGEABLE_METHODS.contains(method);
+    }
+
+
+    long getDelayNanos(String origin) {
+        Latencies result = latencies.get(origin);
+        return result != null ? result.getDelayNanos() : initialDelayNanos;
+    }
+
+
+    URI selectReplica(URI uri) {
+        return replicaSelector.apply(uri);
+    }
+
+
+    void requestStarted() {
+        budget.accumulateAndGet(budgetRatio, (current, x) -> Math.min(budgetCapacity, current + x));
+    }
+
+
+    void recordLatency(String origin, long nanos) {
+        latencies.computeIfAbsent(origin, x -> new Latencies()).record(nanos);
+    }
+
+
+    /**
+     * Decides whether a hedged request is sent and, if so, consumes a token from the budget.
+     *
+     * @return true if a hedged request should be sent, false otherwise
+     */
+    boolean tryHedge() {
+        long current;
+        do {
+            current = budget.get();
+            if (current < TOKEN_SCALE) {
+                return false;
+            }
+        } while (!budget.compareAndSet(current, current - TOKEN_SCALE));
+        hedgedRequests.increment();
+        return true;
+    }
+
+
+    void hedgeWon() {
+        hedgeWins.increment();
+    }
+
+    /**
+     * Ring buffer of the most recent latencies of an origin. The percentile is recomputed periodically instead of on
+     * every request.
+     */
+    private class Latencies {
+        private final AtomicLongArray samples = new AtomicLongArray(SAMPLE_SIZE);
+        private final AtomicLong count = new AtomicLong();
+        private volatile long delayNanos = initialDelayNanos;
+
+        void record(long nanos) {
+            long n = count.getAndIncrement();
+            samples.set((int) (n % SAMPLE_SIZE), nanos);
+            if (n + 1 >= MIN_SAMPLES && (n + 1) % RECOMPUTE_INTERVAL == 0) {
+                long[] sorted = new long[(int) Math.min(n + 1, SAMPLE_SIZE)];
+                for (int i = 0; i < sorted.length; i++) {
+                    sorted[i] = samples.get(i);
+                }
+                Arrays.sort(sorted);
+                delayNanos = Math.max(minDelayNanos, sorted[(int) Math.min(sorted.length - 1, Math.floor(percentile * sorted.length))]);
+            }
+        }
+
+
+        long getDelayNanos() {
+            return delayNanos;
+        }
+    }
+
+    public static class Builder {
+        private double percentile = 0.95;
+        private Duration minDelay = Duration.ofMillis(5);
+        private Duration initialDelay = Duration.ofMillis(100);
+        private double budgetCapacity = 10;
+        private double budgetRatio = 0.05;
+        private UnaryOperator<URI> replicaSelector = UnaryOperator.identity();
+
+        public Builder percentile(double value) {
+            Ensure.require(value > 0 && value < 1, "percentile must be between 0 and 1");
+            this.percentile = value;
+            return this;
+        }
+
+
+        public Builder minDelay(Duration value) {
+            Ensure.requireNonNull(value, "minDelay must be non-null");
+            this.minDelay = value;
+            return this;
+        }
+
+
+        public Builder initialDelay(Duration value) {
+            Ensure.requireNonNull(value, "initialDelay must be non-null");
+            this.initialDelay = value;
+            return this;
+        }
+
+
+        public Builder budgetCapacity(double value) {
+            Ensure.require(value >= 0, "budgetCapacity must not be negative");
+            this.budgetCapacity = value;
+            return this;
+        }
+
+
+        public Builder budgetRatio(double value) {
+            Ensure.require(value >= 0, "budgetRatio must not be negative");
+            this.budgetRatio = value;
+            return this;
+        }
+
+
+        public Builder replicaSelector(UnaryOperator<URI> value) {
+            Ensure.requireNonNull(value, "replicaSelector must be non-null");
+            this.replicaSelector = value;
+            return this;
+        }
+
+
+        public HedgingPolicy build() {
+            return new HedgingPolicy(this);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.http;
+
+import de.fraunhofer.iosb.ilt.faaast.client.util.Deadline;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+
+/**
+ * HttpClient decorator isolating origins from each other using a {@link Bulkhead}. Requests that do not get a slot in
+ * the compartment of their origin fail with a {@link BulkheadFullException}. Requests whose {@link Deadline} passes
+ * while waiting for a slot fail with a {@link RequestDeadlineExceededException}.
+ */
+public class HttpClientBulkheaded extends ForwardingHttpClient {
+
+    private final Bulkhead bulkhead;
+
+    public HttpClientBulkheaded(HttpClient httpClient, Bulkhead bulkhead) {
+        super(httpClient);
+        this.bulkhead = bulkhead;
+    }
+
+
+    @Override
+    public <T> HttpResponse<T> send(HttpRequest req, HttpResponse.BodyHandler<T> responseBodyHandler) throws IOException, InterruptedException {
+        String origin = Origins.of(req.uri());
+        Bulkhead.Compartment compartment = bulkhead.get(origin);
+        CompletableFuture<Void> slot = compartment.acquire();
+        if (slot == null) {
+            throw new BulkheadFullException(origin);
+        }
+        Deadline deadline = Deadline.current();
+        long maxWait = bulkhead.getMaxWaitDuration().toNanos();
+        long wait = Deadlines.capWait(deadline, maxWait);
+        try {
+            slot.get(wait, TimeUnit.NANOSECONDS);
+        }
+        catch (TimeoutException e) {
+            if (compartment.cancel(slot, wait == maxWait)) {
+                throw wait < maxWait ? new RequestDeadlineExceededException(origin) : new BulkheadFullException(origin);
+            }
+        }
+        catch (InterruptedException e) {
+            if (!compartment.cancel(slot, false)) {
+                compartment.release();
+            }
+            throw e;
+        }
+        catch (ExecutionException e) {
+            throw new IllegalStateException("waiting for a free slot failed", e);
+        }
+        try {
+            return impl.send(Deadlines.apply(deadline, req), responseBodyHandler);
+        }
+        finally {
+            compartment.release();
+        }
+    }
+
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest req, HttpResponse.BodyHandler<T> responseBodyHandler) {
+        return sendAsync(req, responseBodyHandler, null);
+    }
+
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest req,
+                                                            HttpResponse.BodyHandler<T> responseBodyHandler,
+                                                            HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+        String origin = Origins.of(req.uri());
+        Bulkhead.Compartment compartment = bulkhead.get(origin);
+        CompletableFuture<Void> slot = compartment.acquire();
+        if (slot == null) {
+            return CompletableFuture.failedFuture(new BulkheadFullException(origin));
+        }
+        Deadline deadline = Deadline.current();
+        long maxWait = bulkhead.getMaxWaitDuration().toNanos();
+        long wait = Deadlines.capWait(deadline, maxWait);
+        if (!slot.isDone()) {
+            CompletableFuture.delayedExecutor(wait, TimeUnit.NANOSECONDS)
+                    .execute(() -> compartment.cancel(slot, wait == maxWait));
+        }
+        CompletableFuture<HttpResponse<T>> result = new CompletableFuture<>();
+        result.whenComplete((response, error) -> {
+            if (result.isCancelled()) {
+                compartment.cancel(slot, false);
+            }
+        });
+        slot.whenComplete((x, slotError) -> {
+            if (slotError != null) {
+                result.completeExceptionally(wait < maxWait ? new RequestDeadlineExceededException(origin) : new BulkheadFullException(origin));
+                return;
+            }
+            if (result.isDone()) {
+                // cancelled while the slot was being granted
+                compartment.release();
+                return;
+            }
+            CompletableFuture<HttpResponse<T>> attempt = Deadlines.sendAsync(deadline, req, request -> impl.sendAsync(request, responseBodyHandler, pushPromiseHandler))
+                    .whenComplete((response, error) -> compartment.release());
+            attempt.whenComplete((response, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(error);
+                }
+                else {
+                    result.complete(response);
+                }
+            });
+            result.whenComplete((response, error) -> {
+                if (result.isCancelled()) {
+                    attempt.cancel(true);
+                }
+            });
+        });
+        return result;
+    }
+}
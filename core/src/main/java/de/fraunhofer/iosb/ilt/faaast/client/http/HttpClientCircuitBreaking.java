@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.http;
+
+import de.fraunhofer.iosb.ilt.faaast.client.util.HttpRequestHelper;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+
+
+/**
+ * HttpClient decorator guarding requests with a {@link CircuitBreaker}. Requests to an origin whose circuit is open
+ * fail immediately with a {@link CircuitBreakerOpenException}. Requests rejected by client-side policies of inner
+ * decorators, i.e., failing with a {@link RequestRejectedException}, are not recorded.
+ */
+public class HttpClientCircuitBreaking extends ForwardingHttpClient {
+
+    private final CircuitBreaker circuitBreaker;
+
+    public HttpClientCircuitBreaking(HttpClient httpClient, CircuitBreaker circuitBreaker) {
+        super(httpClient);
+        this.circuitBreaker = circuitBreaker;
+    }
+
+
+    @Override
+    public <T> HttpResponse<T> send(HttpRequest req, HttpResponse.BodyHandler<T> responseBodyHandler) throws IOException, InterruptedException {
+        CircuitBreaker.Circuit circuit = acquirePermission(req);
+        long start = System.nanoTime();
+        boolean recorded = false;
+        try {
+            HttpResponse<T> response = impl.send(req, responseBodyHandler);
+            circuit.onResult(CircuitBreaker.isFailure(response.statusCode()), System.nanoTime() - start);
+            recorded = true;
+            return response;
+        }
+        catch (RequestRejectedException e) {
+            // rejected by a client-side policy, says nothing about the health of the origin
+            circuit.onIgnored();
+            recorded = true;
+            throw e;
+        }
+        catch (IOException e) {
+            circuit.onResult(true, System.nanoTime() - start);
+            recorded = true;
+            throw e;
+        }
+        finally {
+            if (!recorded) {
+                circuit.onIgnored();
+            }
+        }
+    }
+
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest req, HttpResponse.BodyHandler<T> responseBodyHandler) {
+        return sendAsync(req, responseBodyHandler, null);
+    }
+
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest req,
+                                                            HttpResponse.BodyHandler<T> responseBodyHandler,
+                                                            HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+        CircuitBreaker.Circuit circuit;
+        try {
+            circuit = acquirePermission(req);
+        }
+        catch (CircuitBreakerOpenException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        long start = System.nanoTime();
+        return impl.sendAsync(req, responseBodyHandler, pushPromiseHandler)
+                .whenComplete((response, error) -> {
+                    if (response != null) {
+                        circuit.onResult(CircuitBreaker.isFailure(response.statusCode()), System.nanoTime() - start);
+                    }
+                    else if (isFailure(HttpRequestHelper.unwrap(error))) {
+                        circuit.onResult(true, System.nanoTime() - start);
+                    }
+                    else {
+                        circuit.onIgnored();
+                    }
+                });
+    }
+
+
+    private static boolean isFailure(Throwable error) {
+        return error instanceof IOException && !(error instanceof RequestRejectedException);
+    }
+
+
+    private CircuitBreaker.Circuit acquirePermission(HttpRequest req) throws CircuitBreakerOpenException {
+        String origin = Origins.of(req.uri());
+        CircuitBreaker.Circuit circuit = circuitBreaker.tryAcquirePermission(origin);
+        if (circuit == null) {
+            throw new CircuitBreakerOpenException(origin, circuitBreaker.getRemainingOpenDuration(origin));
+        }
+        return circuit;
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.http;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+
+/**
+ * HttpClient decorator compressing request bodies and decompressing responses according to a
+ * {@link CompressionPolicy}. Request bodies are compressed while they are sent. Only bodies of known length are
+ * compressed, as they can be sent again uncompressed if the server rejects the compressed body.
+ */
+public class HttpClientCompressing extends ForwardingHttpClient {
+
+    private static final String ACCEPT_ENCODING = "Accept-Encoding";
+    private static final String CONTENT_ENCODING = "Content-Encoding";
+    private static final String SUPPORTED_ENCODINGS = "gzip, deflate";
+    private static final String GZIP = "gzip";
+    private static final String DEFLATE = "deflate";
+
+    private final CompressionPolicy policy;
+
+    public HttpClientCompressing(HttpClient httpClient, CompressionPolicy policy) {
+        super(httpClient);
+        this.policy = policy;
+    }
+
+
+    @Override
+    public <T> HttpResponse<T> send(HttpRequest req, HttpResponse.BodyHandler<T> responseBodyHandler) throws IOException, InterruptedException {
+        boolean decompress = policy.isDecompressResponses() && req.headers().firstValue(ACCEPT_ENCODING).isEmpty();
+        HttpResponse.BodyHandler<T> bodyHandler = decompress ? decompressing(responseBodyHandler) : responseBodyHandler;
+        if (!shouldCompress(req)) {
+            return impl.send(withAcceptEncoding(req, decompress), bodyHandler);
+        }
+        AtomicBoolean rejected = new AtomicBoolean();
+        HttpResponse<T> response = impl.send(withAcceptEncoding(compress(req), decompress), rejectionAware(bodyHandler, rejected));
+        if (!rejected.get()) {
+            return response;
+        }
+        policy.compressionRejected(Origins.of(req.uri()));
+        return impl.send(withAcceptEncoding(req, decompress), bodyHandler);
+    }
+
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest req, HttpResponse.BodyHandler<T> responseBodyHandler) {
+        return sendAsync(req, responseBodyHandler, null);
+    }
+
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest req,
+                                                            HttpResponse.BodyHandler<T> responseBodyHandler,
+                                                            HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+        boolean decompress = policy.isDecompressResponses() && req.headers().firstValue(ACCEPT_ENCODING).isEmpty();
+        HttpResponse.BodyHandler<T> bodyHandler = decompress ? decompressing(responseBodyHandler) : responseBodyHandler;
+        if (!shouldCompress(req)) {
+            return impl.sendAsync(withAcceptEncoding(req, decompress), bodyHandler, pushPromiseHandler);
+        }
+        AtomicBoolean rejected = new AtomicBoolean();
+        return impl.sendAsync(withAcceptEncoding(compress(req), decompress), rejectionAware(bodyHandler, rejected), pushPromiseHandler)
+                .thenCompose(response -> {
+                    if (!rejected.get()) {
+                        return CompletableFuture.completedFuture(response);
+                    }
+                    policy.compressionRejected(Origins.of(req.uri()));
+                    return impl.sendAsync(withAcceptEncoding(req, decompress), bodyHandler, pushPromiseHandler);
+                });
+    }
+
+
+    private boolean shouldCompress(HttpRequest req) {
+        return req.bodyPublisher().isPresent()
+                && req.headers().firstValue(CONTENT_ENCODING).isEmpty()
+                && policy.shouldCompress(req.method(), Origins.of(req.uri()), req.bodyPublisher().get().contentLength());
+    }
+
+
+    private static HttpRequest withAcceptEncoding(HttpRequest req, boolean decompress) {
+        if (!decompress) {
+            return req;
+        }
+        return HttpRequest.newBuilder(req, (name, value) -> true)
+                .header(ACCEPT_ENCODING, SUPPORTED_ENCODINGS)
+                .build();
+    }
+
+
+    private HttpRequest compress(HttpRequest req) {
+        policy.requestCompressed();
+        return HttpRequest.newBuilder(req, (name, value) -> true)
+                .method(req.method(), new GzipBodyPublisher(req.bodyPublisher().orElseThrow()))
+                .header(CONTENT_ENCODING, GZIP)
+                .build();
+    }
+
+
+    private <T> HttpResponse.BodyHandler<T> decompressing(HttpResponse.BodyHandler<T> responseBodyHandler) {
+        return responseInfo -> {
+            Optional<String> encoding = responseInfo.headers().firstValue(CONTENT_ENCODING).map(x -> x.trim().toLowerCase(Locale.ROOT));
+            if (encoding.isPresent() && (encoding.get().equals(GZIP) || encoding.get().equals(DEFLATE))) {
+                return new DecompressingBodySubscriber<>(responseBodyHandler.apply(responseInfo), encoding.get().equals(GZIP), policy);
+            }
+            return responseBodyHandler.apply(responseInfo);
+        };
+    }
+
+
+    private static <T> HttpResponse.BodyHandler<T> rejectionAware(HttpResponse.BodyHandler<T> responseBodyHandler, AtomicBoolean rejected) {
+        return responseInfo -> {
+            if (responseInfo.statusCode() == HttpStatus.UNSUPPORTED_MEDIA_TYPE.getCode()) {
+                rejected.set(true);
+                return HttpResponse.BodySubscribers.replacing(null);
+            }
+            return responseBodyHandler.apply(responseInfo);
+        };
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.http;
+
+import de.fraunhofer.iosb.ilt.faaast.client.util.Deadline;
+import de.fraunhofer.iosb.ilt.faaast.client.util.HttpRequestHelper;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+
+/**
+ * HttpClient decorator limiting the number of concurrent requests per origin according to a
+ * {@link ConcurrencyLimiter}. Requests exceeding the limit wait for a free slot; if the wait queue is full or no slot
+ * becomes free within the maximum wait duration, they fail with a {@link ConcurrencyLimitExceededException}. Requests
+ * whose {@link Deadline} passes while waiting fail with a {@link RequestDeadlineExceededException}.
+ * Cancelling an asynchronous request that is still waiting removes it from the queue.
+ */
+public class HttpClientConcurrencyLimited extends ForwardingHttpClient {
+
+    private final ConcurrencyLimiter limiter;
+
+    public HttpClientConcurrencyLimited(HttpClient httpClient, ConcurrencyLimiter limiter) {
+        super(httpClient);
+        this.limiter = limiter;
+    }
+
+
+    @Override
+    public <T> HttpResponse<T> send(HttpRequest req, HttpResponse.BodyHandler<T> responseBodyHandler) throws IOException, InterruptedException {
+        String origin = Origins.of(req.uri());
+        ConcurrencyLimiter.Limit limit = limiter.get(origin);
+        CompletableFuture<Void> slot = limit.acquire();
+        if (slot == null) {
+            throw new ConcurrencyLimitExceededException(origin);
+        }
+        Deadline deadline = Deadline.current();
+        awaitSlot(origin, limit, slot, deadline);
+        long start = System.nanoTime();
+        boolean released = false;
+        try {
+            HttpResponse<T> response = impl.send(Deadlines.apply(deadline, req), responseBodyHandler);
+            limit.release(ConcurrencyLimiter.isDrop(response.statusCode()), System.nanoTime() - start);
+            released = true;
+            return response;
+        }
+        catch (IOException e) {
+            limit.release(true, System.nanoTime() - start);
+            released = true;
+            throw e;
+        }
+        finally {
+            if (!released) {
+                limit.release(false, -1);
+            }
+        }
+    }
+
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest req, HttpResponse.BodyHandler<T> responseBodyHandler) {
+        return sendAsync(req, responseBodyHandler, null);
+    }
+
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest req,
+                                                            HttpResponse.BodyHandler<T> responseBodyHandler,
+                                                            HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+        String origin = Origins.of(req.uri());
+        ConcurrencyLimiter.Limit limit = limiter.get(origin);
+        CompletableFuture<Void> slot = limit.acquire();
+        if (slot == null) {
+            return CompletableFuture.failedFuture(new ConcurrencyLimitExceededException(origin));
+        }
+        Deadline deadline = Deadline.current();
+        long maxWait = limiter.getMaxWaitDuration().toNanos();
+        long wait = Deadlines.capWait(deadline, maxWait);
+        if (!slot.isDone()) {
+            CompletableFuture.delayedExecutor(wait, TimeUnit.NANOSECONDS)
+                    .execute(() -> limit.cancel(slot, wait == maxWait));
+        }
+        CompletableFuture<HttpResponse<T>> result = new CompletableFuture<>();
+        result.whenComplete((response, error) -> {
+            if (result.isCancelled()) {
+                limit.cancel(slot, false);
+            }
+        });
+        slot.whenComplete((x, slotError) -> {
+            if (slotError != null) {
+                result.completeExceptionally(wait < maxWait ? new RequestDeadlineExceededException(origin) : new ConcurrencyLimitExceededException(origin));
+                return;
+            }
+            if (result.isDone()) {
+                // cancelled while the slot was being granted
+                limit.release(false, -1);
+                return;
+            }
+            long start = System.nanoTime();
+            CompletableFuture<HttpResponse<T>> attempt = Deadlines.sendAsync(deadline, req, request -> impl.sendAsync(request, responseBodyHandler, pushPromiseHandler))
+                    .whenComplete((response, error) -> {
+                        if (response != null) {
+                            limit.release(ConcurrencyLimiter.isDrop(response.statusCode()), System.nanoTime() - start);
+                        }
+                        else {
+                            limit.release(HttpRequestHelper.unwrap(error) instanceof IOException, System.nanoTime() - start);
+                        }
+                    });
+            attempt.whenComplete((response, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(error);
+                }
+                else {
+                    result.complete(response);
+                }
+            });
+            result.whenComplete((response, error) -> {
+                if (result.isCancelled()) {
+                    attempt.cancel(true);
+                }
+            });
+        });
+        return result;
+    }
+
+
+    private void awaitSlot(String origin, ConcurrencyLimiter.Limit limit, CompletableFuture<Void> slot, Deadline deadline)
+            throws InterruptedException, RequestRejectedException {
+        long maxWait = limiter.getMaxWaitDuration().toNanos();
+        long wait = Deadlines.capWait(deadline, maxWait);
+        try {
+            slot.get(wait, TimeUnit.NANOSECONDS);
+        }
+        catch (TimeoutException e) {
+            if (limit.cancel(slot, wait == maxWait)) {
+                throw wait < maxWait ? new RequestDeadlineExceededException(origin) : new ConcurrencyLimitExceededException(origin);
+            }
+        }
+        catch (InterruptedException e) {
+            if (!limit.cancel(slot, false)) {
+                limit.release(false, -1);
+            }
+            throw e;
+        }
+        catch (ExecutionException e) {
+            throw new IllegalStateException("waiting for a free slot failed", e);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.http;
+
+import de.fraunhofer.iosb.ilt.faaast.client.util.Deadline;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+
+/**
+ * HttpClient decorator hedging idempotent reads according to a {@link HedgingPolicy}. If no response has arrived when
+ * the hedging delay has passed, a duplicate request is sent. The first response that is not a server error is returned
+ * and the other request is cancelled.
+ */
+public class HttpClientHedging extends ForwardingHttpClient {
+
+    private final HedgingPolicy policy;
+
+    public HttpClientHedging(HttpClient httpClient, HedgingPolicy policy) {
+        super(httpClient);
+        this.policy = policy;
+    }
+
+
+    @Override
+    public <T> HttpResponse<T> send(HttpRequest req, HttpResponse.BodyHandler<T> responseBodyHandler) throws IOException, InterruptedException {
+        if (!policy.isHedgeable(req.method())) {
+            return impl.send(req, responseBodyHandler);
+        }
+        CompletableFuture<HttpResponse<T>> result = sendAsync(req, responseBodyHandler);
+        try {
+            return result.get();
+        }
+        catch (InterruptedException e) {
+            result.cancel(true);
+            throw e;
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest req, HttpResponse.BodyHandler<T> responseBodyHandler) {
+        return sendAsync(req, responseBodyHandler, null);
+    }
+
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest req,
+                                                            HttpResponse.BodyHandler<T> responseBodyHandler,
+                                                            HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+        if (!policy.isHedgeable(req.method())) {
+            return impl.sendAsync(req, responseBodyHandler, pushPromiseHandler);
+        }
+        policy.requestStarted();
+        String origin = Origins.of(req.uri());
+        Deadline deadline = Deadline.current();
+        Hedge<T> hedge = new Hedge<>(origin, deadline, responseBodyHandler, pushPromiseHandler);
+        hedge.start(req, false);
+        long delay = policy.getDelayNanos(origin);
+        if (!Deadlines.allows(deadline, delay)) {
+            // the deadline passes before the duplicate would be sent
+            return hedge.result;
+        }
+        Executor delayed = CompletableFuture.delayedExecutor(
+                delay,
+                TimeUnit.NANOSECONDS,
+                impl.executor().orElse(ForkJoinPool.commonPool()));
+        CompletableFuture.runAsync(() -> {
+            if (!hedge.result.isDone() && policy.tryHedge()) {
+                hedge.start(hedgedRequest(req), true);
+            }
+        }, delayed);
+        return hedge.result;
+    }
+
+
+    private HttpRequest hedgedRequest(HttpRequest req) {
+        URI replica = policy.selectReplica(req.uri());
+        if (replica == null || replica.equals(req.uri())) {
+            return req;
+        }
+        return HttpRequest.newBuilder(req, (name, value) -> true)
+                .uri(replica)
+                .build();
+    }
+
+
+    private static void discard(HttpResponse<?> response) {
+        if (response.body() instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) response.body()).close();
+            }
+            catch (Exception e) {
+                // nothing to do, the response is not used anyway
+            }
+        }
+    }
+
+    /**
+     * The original request and its hedged duplicate. The result completes with the first response that is not a server
+     * error; if there is none, it completes with the last response or error.
+     *
+     * @param <T> the type of the response body
+     */
+    private class Hedge<T> {
+        private final String origin;
+        private final Deadline deadline;
+        private final HttpResponse.BodyHandler<T> responseBodyHandler;
+        private final HttpResponse.PushPromiseHandler<T> pushPromiseHandler;
+        private final CompletableFuture<HttpResponse<T>> result = new CompletableFuture<>();
+        private final List<CompletableFuture<HttpResponse<T>>> attempts = new CopyOnWriteArrayList<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicReference<HttpResponse<T>> fallback = new AtomicReference<>();
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        Hedge(String origin, Deadline deadline, HttpResponse.BodyHandler<T> responseBodyHandler, HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+            this.origin = origin;
+            this.deadline = deadline;
+            this.responseBodyHandler = responseBodyHandler;
+            this.pushPromiseHandler = pushPromiseHandler;
+            result.whenComplete((response, error) -> attempts.forEach(x -> x.cancel(true)));
+        }
+
+
+        void start(HttpRequest req, boolean hedged) {
+            pending.incrementAndGet();
+            long start = System.nanoTime();
+            CompletableFuture<HttpResponse<T>> attempt = Deadlines.sendAsync(deadline, req, request -> impl.sendAsync(request, responseBodyHandler, pushPromiseHandler));
+            attempts.add(attempt);
+            if (result.isDone()) {
+                attempt.cancel(true);
+            }
+            attempt.whenComplete((response, error) -> {
+                boolean last = pending.decrementAndGet() == 0;
+                if (response != null) {
+                    policy.recordLatency(origin, System.nanoTime() - start);
+                    if (response.statusCode() < 500 || last) {
+                        completeWith(response, hedged);
+                    }
+                    else {
+                        fallback.set(response);
+                    }
+                }
+                else if (last) {
+                    HttpResponse<T> other = fallback.getAndSet(null);
+                    if (other != null) {
+                        completeWith(other, false);
+                    }
+                    else {
+                        result.completeExceptionally(error);
+                    }
+                }
+            });
+        }
+
+
+        private void completeWith(HttpResponse<T> response, boolean hedged) {
+            // statistics are updated before completing so that they are visible to the caller
+            if (completed.compareAndSet(false, true)) {
+                if (hedged) {
+                    policy.hedgeWon();
+                }
+                HttpResponse<T> other = fallback.getAndSet(null);
+                if (other != null) {
+                    discard(other);
+                }
+                result.complete(response);
+            }
+            else {
+                discard(response);
+            }
+        }
+    }
+}
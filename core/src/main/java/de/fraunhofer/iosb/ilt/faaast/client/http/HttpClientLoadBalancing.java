@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.http;
+
+import de.fraunhofer.iosb.ilt.faaast.client.util.Deadline;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+
+/**
+ * HttpClient decorator distributing requests to the primary endpoint of an {@link EndpointSet} over all of its
+ * endpoints. Idempotent requests that fail with an I/O error or a 502, 503 or 504 response are sent to the next
+ * endpoint that has not been tried yet; responses that are failed over are discarded without reading their body.
+ * Requests rejected by a client-side policy other than an open circuit breaker are neither failed over nor count
+ * against the health of the endpoint. Requests to other URIs are passed through unchanged.
+ */
+public class HttpClientLoadBalancing extends ForwardingHttpClient {
+
+    private static final int NO_STATUS = -1;
+
+    private final EndpointSet endpointSet;
+
+    public HttpClientLoadBalancing(HttpClient httpClient, EndpointSet endpointSet) {
+        super(httpClient);
+        this.endpointSet = endpointSet;
+    }
+
+
+    @Override
+    public <T> HttpResponse<T> send(HttpRequest req, HttpResponse.BodyHandler<T> responseBodyHandler) throws IOException, InterruptedException {
+        if (!endpointSet.handles(req.uri())) {
+            return impl.send(req, responseBodyHandler);
+        }
+        Deadline deadline = Deadline.current();
+        List<EndpointSet.Endpoint> tried = new ArrayList<>();
+        for (EndpointSet.Endpoint endpoint = endpointSet.select(tried);; endpoint = endpointSet.select(tried)) {
+            tried.add(endpoint);
+            HttpRequest attempt = Deadlines.apply(deadline, rewrite(req, endpoint));
+            boolean canFailover = canFailover(req, tried);
+            AtomicInteger status = new AtomicInteger(NO_STATUS);
+            long start = System.nanoTime();
+            endpoint.started();
+            HttpResponse<T> response;
+            try {
+                response = impl.send(attempt, failoverAware(responseBodyHandler, canFailover, status));
+            }
+            catch (IOException e) {
+                if (isRejected(e)) {
+                    endpoint.cancelled();
+                    throw e;
+                }
+                endpoint.completed(true, 0);
+                if (!canFailover) {
+                    throw e;
+                }
+                endpointSet.failedOver();
+                continue;
+            }
+            catch (InterruptedException | RuntimeException e) {
+                endpoint.cancelled();
+                throw e;
+            }
+            boolean failure = endpointSet.isFailure(status.get());
+            endpoint.completed(failure, System.nanoTime() - start);
+            if (!failure || !canFailover) {
+                return response;
+            }
+            endpointSet.failedOver();
+        }
+    }
+
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest req, HttpResponse.BodyHandler<T> responseBodyHandler) {
+        return sendAsync(req, responseBodyHandler, null);
+    }
+
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest req,
+                                                            HttpResponse.BodyHandler<T> responseBodyHandler,
+                                                            HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+        if (!endpointSet.handles(req.uri())) {
+            return impl.sendAsync(req, responseBodyHandler, pushPromiseHandler);
+        }
+        return sendAsync(req, responseBodyHandler, pushPromiseHandler, Deadline.current(), new ArrayList<>());
+    }
+
+
+    private <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest req,
+                                                             HttpResponse.BodyHandler<T> responseBodyHandler,
+                                                             HttpResponse.PushPromiseHandler<T> pushPromiseHandler,
+                                                             Deadline deadline,
+                                                             List<EndpointSet.Endpoint> tried) {
+        EndpointSet.Endpoint endpoint = endpointSet.select(tried);
+        tried.add(endpoint);
+        HttpRequest attempt;
+        try {
+            attempt = Deadlines.apply(deadline, rewrite(req, endpoint));
+        }
+        catch (RequestDeadlineExceededException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        boolean canFailover = canFailover(req, tried);
+        AtomicInteger status = new AtomicInteger(NO_STATUS);
+        long start = System.nanoTime();
+        endpoint.started();
+        return Deadlines.attached(deadline, () -> impl.sendAsync(attempt, failoverAware(responseBodyHandler, canFailover, status), pushPromiseHandler))
+                .handle((response, error) -> {
+                    Throwable cause = unwrap(error);
+                    if (cause instanceof CancellationException || isRejected(cause)) {
+                        endpoint.cancelled();
+                        return CompletableFuture.<HttpResponse<T>> failedFuture(error);
+                    }
+                    boolean failure = cause instanceof IOException || endpointSet.isFailure(status.get());
+                    endpoint.completed(failure, System.nanoTime() - start);
+                    if (!failure || !canFailover || (error != null && !(cause instanceof IOException))) {
+                        return error == null
+                                ? CompletableFuture.completedFuture(response)
+                                : CompletableFuture.<HttpResponse<T>> failedFuture(error);
+                    }
+                    endpointSet.failedOver();
+                    return sendAsync(req, responseBodyHandler, pushPromiseHandler, deadline, tried);
+                })
+                .thenCompose(Function.identity());
+    }
+
+
+    private static boolean isRejected(Throwable error) {
+        // an open circuit indicates an unhealthy endpoint, other client-side rejections say nothing about its health
+        return error instanceof RequestRejectedException && !(error instanceof CircuitBreakerOpenException);
+    }
+
+
+    private boolean canFailover(HttpRequest req, List<EndpointSet.Endpoint> tried) {
+        return endpointSet.canFailover(req.method()) && tried.size() < endpointSet.size();
+    }
+
+
+    private static HttpRequest rewrite(HttpRequest req, EndpointSet.Endpoint endpoint) {
+        return HttpRequest.newBuilder(req, (name, value) -> true)
+                .uri(endpoint.rewrite(req.uri()))
+                .build();
+    }
+
+
+    private <T> HttpResponse.BodyHandler<T> failoverAware(HttpResponse.BodyHandler<T> responseBodyHandler, boolean canFailover, AtomicInteger status) {
+        return responseInfo -> {
+            status.set(responseInfo.statusCode());
+            if (canFailover && endpointSet.isFailure(responseInfo.statusCode())) {
+                return HttpResponse.BodySubscribers.replacing(null);
+            }
+            return responseBodyHandler.apply(responseInfo);
+        };
+    }
+
+
+    private static Throwable unwrap(Throwable error) {
+        Throwable result = error;
+        while (result instanceof CompletionException && result.getCause() != null) {
+            result = result.getCause();
+        }
+        return result;
+    }
+}
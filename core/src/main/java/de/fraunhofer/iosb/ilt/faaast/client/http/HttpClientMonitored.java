@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.http;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+
+
+/**
+ * HttpClient decorator recording the negotiated HTTP version and the number of concurrent requests per origin in a
+ * {@link HttpConnectionStatistics}.
+ */
+public class HttpClientMonitored extends ForwardingHttpClient {
+
+    private final HttpConnectionStatistics statistics;
+
+    public HttpClientMonitored(HttpClient httpClient, HttpConnectionStatistics statistics) {
+        super(httpClient);
+        this.statistics = statistics;
+    }
+
+
+    @Override
+    public <T> HttpResponse<T> send(HttpRequest req, HttpResponse.BodyHandler<T> responseBodyHandler) throws IOException, InterruptedException {
+        statistics.requestStarted(req.uri());
+        HttpClient.Version version = null;
+        try {
+            HttpResponse<T> response = impl.send(req, responseBodyHandler);
+            version = response.version();
+            return response;
+        }
+        finally {
+            statistics.requestCompleted(req.uri(), version);
+        }
+    }
+
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest req, HttpResponse.BodyHandler<T> responseBodyHandler) {
+        statistics.requestStarted(req.uri());
+        return impl.sendAsync(req, responseBodyHandler)
+                .whenComplete((response, error) -> statistics.requestCompleted(req.uri(), response != null ? response.version() : null));
+    }
+
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest req,
+                                                            HttpResponse.BodyHandler<T> responseBodyHandler,
+                                                            HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+        statistics.requestStarted(req.uri());
+        return impl.sendAsync(req, responseBodyHandler, pushPromiseHandler)
+                .whenComplete((response, error) -> statistics.requestCompleted(req.uri(), response != null ? response.version() : null));
+    }
+}
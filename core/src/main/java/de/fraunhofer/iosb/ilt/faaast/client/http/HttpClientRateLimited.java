@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.http;
+
+import de.fraunhofer.iosb.ilt.faaast.client.util.Deadline;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * HttpClient decorator limiting the rate of requests according to a {@link RateLimiter}. Requests whose
+ * {@link Deadline} passes before the rate permits them fail immediately with a {@link RequestDeadlineExceededException}.
+ */
+public class HttpClientRateLimited extends ForwardingHttpClient {
+
+    private final RateLimiter rateLimiter;
+
+    public HttpClientRateLimited(HttpClient httpClient, RateLimiter rateLimiter) {
+        super(httpClient);
+        this.rateLimiter = rateLimiter;
+    }
+
+
+    @Override
+    public <T> HttpResponse<T> send(HttpRequest req, HttpResponse.BodyHandler<T> responseBodyHandler) throws IOException, InterruptedException {
+        Deadline deadline = Deadline.current();
+        long delay = acquire(deadline, req);
+        TimeUnit.NANOSECONDS.sleep(delay);
+        return impl.send(Deadlines.apply(deadline, req), responseBodyHandler);
+    }
+
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest req, HttpResponse.BodyHandler<T> responseBodyHandler) {
+        return sendAsync(req, responseBodyHandler, null);
+    }
+
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest req,
+                                                            HttpResponse.BodyHandler<T> responseBodyHandler,
+                                                            HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+        Deadline deadline = Deadline.current();
+        long delay;
+        try {
+            delay = acquire(deadline, req);
+        }
+        catch (RequestRejectedException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        // asynchronous requests never block the caller but are delayed instead
+        if (delay == 0) {
+            return impl.sendAsync(req, responseBodyHandler, pushPromiseHandler);
+        }
+        Executor delayed = CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS, impl.executor().orElse(ForkJoinPool.commonPool()));
+        return CompletableFuture.runAsync(() -> {}, delayed)
+                .thenCompose(x -> Deadlines.sendAsync(deadline, req, request -> impl.sendAsync(request, responseBodyHandler, pushPromiseHandler)));
+    }
+
+
+    private long acquire(Deadline deadline, HttpRequest req) throws RequestRejectedException {
+        String origin = Origins.of(req.uri());
+        // the delay must end before the deadline, see Deadlines.allows
+        long result = rateLimiter.acquire(origin, req.method(), Deadlines.capWait(deadline, Long.MAX_VALUE) - 1);
+        if (result == RateLimiter.REJECTED) {
+            throw new RateLimitExceededException(origin, req.method());
+        }
+        if (result == RateLimiter.WAIT_EXCEEDED) {
+            throw new RequestDeadlineExceededException(origin);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.http;
+
+import de.fraunhofer.iosb.ilt.faaast.client.util.Deadline;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+
+/**
+ * HttpClient decorator retrying failed requests according to a {@link RetryPolicy}. Responses with a retryable status
+ * code are discarded without reading their body, unless no retry is possible anymore, in which case the response is
+ * returned as is. If a {@link Deadline} is attached, every attempt gets a timeout of at most the remaining time and no
+ * retry is started once the deadline has passed or would pass during the backoff.
+ */
+public class HttpClientRetrying extends ForwardingHttpClient {
+
+    private final RetryPolicy policy;
+
+    public HttpClientRetrying(HttpClient httpClient, RetryPolicy policy) {
+        super(httpClient);
+        this.policy = policy;
+    }
+
+
+    @Override
+    public <T> HttpResponse<T> send(HttpRequest req, HttpResponse.BodyHandler<T> responseBodyHandler) throws IOException, InterruptedException {
+        if (!policy.isRetryable(req.method())) {
+            policy.attemptStarted(true);
+            return impl.send(req, responseBodyHandler);
+        }
+        Deadline deadline = Deadline.current();
+        for (int attempt = 1;; attempt++) {
+            policy.attemptStarted(attempt == 1);
+            Duration backoff = policy.getBackoff(attempt);
+            AtomicBoolean discarded = new AtomicBoolean();
+            try {
+                HttpResponse<T> response = impl.send(Deadlines.apply(deadline, req), retryAware(responseBodyHandler, attempt, backoff, deadline, discarded));
+                if (!discarded.get()) {
+                    return response;
+                }
+            }
+            catch (RequestRejectedException e) {
+                throw e;
+            }
+            catch (IOException e) {
+                if (!canRetry(attempt, backoff, deadline)) {
+                    throw e;
+                }
+            }
+            Thread.sleep(backoff.toMillis());
+        }
+    }
+
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest req, HttpResponse.BodyHandler<T> responseBodyHandler) {
+        return sendAsync(req, responseBodyHandler, null);
+    }
+
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest req,
+                                                            HttpResponse.BodyHandler<T> responseBodyHandler,
+                                                            HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+        if (!policy.isRetryable(req.method())) {
+            policy.attemptStarted(true);
+            return impl.sendAsync(req, responseBodyHandler, pushPromiseHandler);
+        }
+        return sendAsync(req, responseBodyHandler, pushPromiseHandler, Deadline.current(), 1);
+    }
+
+
+    private <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest req,
+                                                             HttpResponse.BodyHandler<T> responseBodyHandler,
+                                                             HttpResponse.PushPromiseHandler<T> pushPromiseHandler,
+                                                             Deadline deadline,
+                                                             int attempt) {
+        policy.attemptStarted(attempt == 1);
+        Duration backoff = policy.getBackoff(attempt);
+        AtomicBoolean discarded = new AtomicBoolean();
+        return Deadlines.sendAsync(deadline, req, request -> impl.sendAsync(request, retryAware(responseBodyHandler, attempt, backoff, deadline, discarded), pushPromiseHandler))
+                .handle((response, error) -> {
+                    if (error == null && !discarded.get()) {
+                        return CompletableFuture.completedFuture(response);
+                    }
+                    if (error != null && (!isRetryable(unwrap(error)) || !canRetry(attempt, backoff, deadline))) {
+                        return CompletableFuture.<HttpResponse<T>> failedFuture(error);
+                    }
+                    Executor delayed = CompletableFuture.delayedExecutor(
+                            backoff.toMillis(),
+                            TimeUnit.MILLISECONDS,
+                            impl.executor().orElse(ForkJoinPool.commonPool()));
+                    return CompletableFuture.runAsync(() -> {}, delayed)
+                            .thenCompose(x -> sendAsync(req, responseBodyHandler, pushPromiseHandler, deadline, attempt + 1));
+                })
+                .thenCompose(Function.identity());
+    }
+
+
+    private <T> HttpResponse.BodyHandler<T> retryAware(HttpResponse.BodyHandler<T> responseBodyHandler, int attempt, Duration backoff, Deadline deadline, AtomicBoolean discarded) {
+        return responseInfo -> {
+            if (policy.isRetryable(responseInfo.statusCode()) && canRetry(attempt, backoff, deadline)) {
+                discarded.set(true);
+                return HttpResponse.BodySubscribers.replacing(null);
+            }
+            return responseBodyHandler.apply(responseInfo);
+        };
+    }
+
+
+    private boolean canRetry(int attempt, Duration backoff, Deadline deadline) {
+        // no retry is started if the deadline passes during the backoff
+        return Deadlines.allows(deadline, backoff.toNanos()) && policy.tryRetry(attempt);
+    }
+
+
+    private static boolean isRetryable(Throwable error) {
+        return error instanceof IOException && !(error instanceof RequestRejectedException);
+    }
+
+
+    private static Throwable unwrap(Throwable error) {
+        Throwable result = error;
+        while (result instanceof CompletionException && result.getCause() != null) {
+            result = result.getCause();
+        }
+        return result;
+    }
+}
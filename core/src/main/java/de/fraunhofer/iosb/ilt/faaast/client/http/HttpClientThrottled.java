@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.http;
+
+import de.fraunhofer.iosb.ilt.faaast.client.util.Deadline;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * HttpClient decorator delaying requests to origins that are throttled by a {@link ServerThrottle} and reporting
+ * throttling responses to it. Requests whose {@link Deadline} passes before the delay is over fail immediately with a
+ * {@link RequestDeadlineExceededException}.
+ */
+public class HttpClientThrottled extends ForwardingHttpClient {
+
+    private final ServerThrottle throttle;
+
+    public HttpClientThrottled(HttpClient httpClient, ServerThrottle throttle) {
+        super(httpClient);
+        this.throttle = throttle;
+    }
+
+
+    @Override
+    public <T> HttpResponse<T> send(HttpRequest req, HttpResponse.BodyHandler<T> responseBodyHandler) throws IOException, InterruptedException {
+        String origin = Origins.of(req.uri());
+        Deadline deadline = Deadline.current();
+        for (long delay = throttle.acquireDelay(origin, false); delay > 0; delay = throttle.acquireDelay(origin, true)) {
+            Deadlines.checkDelay(deadline, req, delay);
+            TimeUnit.NANOSECONDS.sleep(delay);
+        }
+        HttpResponse<T> response = impl.send(Deadlines.apply(deadline, req), responseBodyHandler);
+        throttle.onResponse(origin, response);
+        return response;
+    }
+
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest req, HttpResponse.BodyHandler<T> responseBodyHandler) {
+        return sendAsync(req, responseBodyHandler, null);
+    }
+
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest req,
+                                                            HttpResponse.BodyHandler<T> responseBodyHandler,
+                                                            HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+        return sendAsync(req, responseBodyHandler, pushPromiseHandler, false);
+    }
+
+
+    private <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest req,
+                                                             HttpResponse.BodyHandler<T> responseBodyHandler,
+                                                             HttpResponse.PushPromiseHandler<T> pushPromiseHandler,
+                                                             boolean delayedBefore) {
+        String origin = Origins.of(req.uri());
+        Deadline deadline = Deadline.current();
+        long delay = throttle.acquireDelay(origin, delayedBefore);
+        if (delay > 0) {
+            if (!Deadlines.allows(deadline, delay)) {
+                return CompletableFuture.failedFuture(new RequestDeadlineExceededException(origin));
+            }
+            Executor delayed = CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS, impl.executor().orElse(ForkJoinPool.commonPool()));
+            return CompletableFuture.runAsync(() -> {}, delayed)
+                    .thenCompose(x -> Deadlines.attached(deadline, () -> sendAsync(req, responseBodyHandler, pushPromiseHandler, true)));
+        }
+        return Deadlines.sendAsync(deadline, req, request -> impl.sendAsync(request, responseBodyHandler, pushPromiseHandler))
+                .whenComplete((response, error) -> {
+                    if (response != null) {
+                        throttle.onResponse(origin, response);
+                    }
+                });
+    }
+}
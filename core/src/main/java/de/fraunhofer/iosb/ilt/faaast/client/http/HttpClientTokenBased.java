@@ -15,19 +15,12 @@
 package de.fraunhofer.iosb.ilt.faaast.client.http;
 
 import java.io.IOException;
-import java.net.Authenticator;
-import java.net.CookieHandler;
-import java.net.ProxySelector;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
-import java.time.Duration;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Executor;
 import java.util.function.Supplier;
-import javax.net.ssl.SSLContext;
-import javax.net.ssl.SSLParameters;
 
 import static java.net.http.HttpRequest.BodyPublishers.noBody;
 
@@ -35,69 +28,14 @@ import static java.net.http.HttpRequest.BodyPublishers.noBody;
 /**
  * HttpClient decorator adding to each request an authorization header given by a supplier.
  */
-public class HttpClientTokenBased extends HttpClient {
+public class HttpClientTokenBased extends ForwardingHttpClient {
     private static final String AUTHORIZATION = "Authorization";
 
-    private final HttpClient impl;
     private final Supplier<String> authSupplier;
 
     public HttpClientTokenBased(HttpClient httpClient, Supplier<String> authSupplier) {
+        super(httpClient);
         this.authSupplier = authSupplier;
-        this.impl = httpClient;
-    }
-
-
-    @Override
-    public Optional<CookieHandler> cookieHandler() {
-        return impl.cookieHandler();
-    }
-
-
-    @Override
-    public Optional<Duration> connectTimeout() {
-        return impl.connectTimeout();
-    }
-
-
-    @Override
-    public Redirect followRedirects() {
-        return impl.followRedirects();
-    }
-
-
-    @Override
-    public Optional<ProxySelector> proxy() {
-        return impl.proxy();
-    }
-
-
-    @Override
-    public SSLContext sslContext() {
-        return impl.sslContext();
-    }
-
-
-    @Override
-    public SSLParameters sslParameters() {
-        return impl.sslParameters();
-    }
-
-
-    @Override
-    public Optional<Authenticator> authenticator() {
-        return impl.authenticator();
-    }
-
-
-    @Override
-    public HttpClient.Version version() {
-        return impl.version();
-    }
-
-
-    @Override
-    public Optional<Executor> executor() {
-        return impl.executor();
     }
 
 
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.http;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Collects per-origin statistics about the HTTP versions negotiated by the HTTP client and the number of requests in
+ * flight. An instance can be shared by multiple interfaces to monitor them together.
+ *
+ * <p>
+ * Only requests and responses are observed. The JDK HTTP client does not expose connection events, so neither the number
+ * of opened connections nor the number of TLS handshakes is counted. For an origin speaking HTTP/1.1 each request in
+ * flight occupies a connection of its own, so the peak number of concurrent requests is the number of connections needed
+ * at the same time. For an origin speaking HTTP/2 the client usually multiplexes the requests over fewer connections,
+ * but how many it actually uses is not measured here.
+ */
+public class HttpConnectionStatistics {
+
+    private final Map<String, OriginStatistics> origins = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the statistics of the origin (scheme, host and port) of the given URI.
+     *
+     * @param uri any URI of the origin
+     * @return the statistics of the origin, empty statistics if no request has been sent to the origin yet
+     */
+    public OriginStatistics get(URI uri) {
+        return origins.getOrDefault(Origins.of(uri), new OriginStatistics());
+    }
+
+
+    /**
+     * Returns the statistics of all origins requests have been sent to.
+     *
+     * @return map of origin (e.g. https://example.org:443) to its statistics
+     */
+    public Map<String, OriginStatistics> getAll() {
+        return Map.copyOf(origins);
+    }
+
+
+    /**
+     * Discards all collected statistics.
+     */
+    public void reset() {
+        origins.clear();
+    }
+
+
+    void requestStarted(URI uri) {
+        origins.computeIfAbsent(Origins.of(uri), x -> new OriginStatistics()).requestStarted();
+    }
+
+
+    void requestCompleted(URI uri, HttpClient.Version version) {
+        origins.computeIfAbsent(Origins.of(uri), x -> new OriginStatistics()).requestCompleted(version);
+    }
+
+    /**
+     * Statistics of a single origin.
+     */
+    public static class OriginStatistics {
+        private final LongAdder http2Responses = new LongAdder();
+        private final LongAdder http1Responses = new LongAdder();
+        private final LongAdder failedRequests = new LongAdder();
+        private final AtomicInteger activeRequests = new AtomicInteger();
+        private final AtomicInteger peakActiveRequests = new AtomicInteger();
+        private final AtomicReference<HttpClient.Version> negotiatedVersion = new AtomicReference<>();
+
+        /**
+         * Gets the number of responses received via HTTP/2.
+         *
+         * @return the number of HTTP/2 responses
+         */
+        public long getHttp2Responses() {
+            return http2Responses.sum();
+        }
+
+
+        /**
+         * Gets the number of responses received via HTTP/1.1.
+         *
+         * @return the number of HTTP/1.1 responses
+         */
+        public long getHttp1Responses() {
+            return http1Responses.sum();
+        }
+
+
+        /**
+         * Gets the number of requests that failed without a response, e.g. because no connection could be established.
+         *
+         * @return the number of failed requests
+         */
+        public long getFailedRequests() {
+            return failedRequests.sum();
+        }
+
+
+        /**
+         * Gets the number of requests currently in flight.
+         *
+         * @return the number of active requests
+         */
+        public int getActiveRequests() {
+            return activeRequests.get();
+        }
+
+
+        /**
+         * Gets the maximum number of requests that have been in flight at the same time. This is neither a connection nor
+         * a stream count, see {@link HttpConnectionStatistics}.
+         *
+         * @return the peak number of concurrent requests
+         */
+        public int getPeakConcurrentRequests() {
+            return peakActiveRequests.get();
+        }
+
+
+        /**
+         * Gets the HTTP version of the most recent response.
+         *
+         * @return the negotiated HTTP version or null if no response has been received yet
+         */
+        public HttpClient.Version getNegotiatedVersion() {
+            return negotiatedVersion.get();
+        }
+
+
+        private void requestStarted() {
+            peakActiveRequests.accumulateAndGet(activeRequests.incrementAndGet(), Math::max);
+        }
+
+
+        private void requestCompleted(HttpClient.Version version) {
+            activeRequests.decrementAndGet();
+            if (version == null) {
+                failedRequests.increment();
+                return;
+            }
+            negotiatedVersion.set(version);
+            if (version == HttpClient.Version.HTTP_2) {
+                http2Responses.increment();
+            }
+            else {
+                http1Responses.increment();
+            }
+        }
+    }
+}
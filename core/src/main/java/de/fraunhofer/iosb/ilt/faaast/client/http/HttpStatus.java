@@ -36,6 +36,7 @@ public enum HttpStatus {
     REQUEST_TIMEOUT(408),
     CONFLICT(409),
     UNSUPPORTED_MEDIA_TYPE(415),
+    TOO_MANY_REQUESTS(429),
     INTERNAL_SERVER_ERROR(500),
     NOT_IMPLEMENTED(501),
     BAD_GATEWAY(502),
@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.http;
+
+import de.fraunhofer.iosb.ilt.faaast.service.util.Ensure;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Client-side rate limiter with separate token buckets for reads (GET, HEAD) and writes (all other methods) per origin
+ * (scheme, host and port). Each bucket refills at the configured rate and holds up to {@code burst} tokens; a rate of
+ * zero disables limiting for that class of operations.
+ *
+ * <p>
+ * The buckets are implemented lock-free as generic cell rate algorithm: each bucket only stores the theoretical arrival
+ * time of the next request, which is advanced by compare-and-set, so the limiter does not become a contention point at
+ * high thread counts.
+ *
+ * <p>
+ * What happens to a request exceeding the rate depends on the {@link Mode}. An instance can be shared by multiple
+ * interfaces to enforce a common limit.
+ */
+public class RateLimiter {
+
+    /**
+     * Returned by {@link #acquire(String, String, long)} if the request exceeds the rate in {@link Mode#FAIL_FAST}.
+     */
+    static final long REJECTED = -1;
+
+    /**
+     * Returned by {@link #acquire(String, String, long)} if the caller cannot wait long enough for a token.
+     */
+    static final long WAIT_EXCEEDED = -2;
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD");
+
+    private final long readIntervalNanos;
+    private final long writeIntervalNanos;
+    private final int burst;
+    private final Mode mode;
+    private final Map<String, Bucket> readBuckets = new ConcurrentHashMap<>();
+    private final Map<String, Bucket> writeBuckets = new ConcurrentHashMap<>();
+    private final LongAdder delayedRequests = new LongAdder();
+    private final LongAdder rejectedRequests = new LongAdder();
+
+    private RateLimiter(Builder builder) {
+        this.readIntervalNanos = toInterval(builder.readsPerSecond);
+        this.writeIntervalNanos = toInterval(builder.writesPerSecond);
+        this.burst = builder.burst;
+        this.mode = builder.mode;
+    }
+
+
+    /**
+     * Creates a new builder.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+
+    /**
+     * Gets the mode defining how requests exceeding the rate are handled.
+     *
+     * @return the mode
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
+
+    /**
+     * Gets the number of requests that have been delayed to comply with the rate.
+     *
+     * @return the number of delayed requests
+     */
+    public long getDelayedRequests() {
+        return delayedRequests.sum();
+    }
+
+
+    /**
+     * Gets the number of requests that have been rejected in {@link Mode#FAIL_FAST}.
+     *
+     * @return the number of rejected requests
+     */
+    public long getRejectedRequests() {
+        return rejectedRequests.sum();
+    }
+
+
+    /**
+     * Takes a token for a request with the given method to the given origin. In {@link Mode#FAIL_FAST} the token is only
+     * taken if it is available immediately, otherwise the token is reserved and the caller has to wait for the returned
+     * time before sending the request. No token is taken if the caller would have to wait longer than it may, so
+     * requests failing for their deadline do not use up the rate.
+     *
+     * @param origin the origin
+     * @param method the HTTP method
+     * @param maxWaitNanos the maximum time the caller may wait in nanoseconds
+     * @return the time to wait in nanoseconds, {@link #REJECTED} if the request must be rejected, or
+     *         {@link #WAIT_EXCEEDED} if no token is available within the maximum time to wait
+     */
+    long acquire(String origin, String method, long maxWaitNanos) {
+        boolean read = READ_METHODS.contains(method);
+        long interval = read ? readIntervalNanos : writeIntervalNanos;
+        if (interval == 0) {
+            return 0;
+        }
+        if (maxWaitNanos < 0) {
+            return WAIT_EXCEEDED;
+        }
+        Bucket bucket = (read ? readBuckets : writeBuckets).computeIfAbsent(origin, x -> new Bucket(interval));
+        long result = bucket.acquire(mode == Mode.FAIL_FAST ? 0 : maxWaitNanos);
+        if (result < 0 && mode == Mode.FAIL_FAST) {
+            rejectedRequests.increment();
+            return REJECTED;
+        }
+        if (result < 0) {
+            return WAIT_EXCEEDED;
+        }
+        if (result > 0) {
+            delayedRequests.increment();
+        }
+        return result;
+    }
+
+
+    private static long toInterval(double permitsPerSecond) {
+        return permitsPerSecond > 0 ? Math.round(TimeUnit.SECONDS.toNanos(1) / permitsPerSecond) : 0;
+    }
+
+    /**
+     * Defines how requests exceeding the rate are handled.
+     */
+    public enum Mode {
+        /**
+         * Requests wait until the rate permits. Synchronous requests block the calling thread, asynchronous requests
+         * return immediately and are sent once the rate permits.
+         */
+        BLOCKING,
+        /**
+         * Requests exceeding the rate fail immediately with a {@link RateLimitExceededException}.
+         */
+        FAIL_FAST
+    }
+
+    private class Bucket {
+        private final long interval;
+        private final long tolerance;
+        private final AtomicLong theoreticalArrivalTime = new AtomicLong(Long.MIN_VALUE);
+
+        Bucket(long interval) {
+            this.interval = interval;
+            this.tolerance = (burst - 1) * interval;
+        }
+
+
+        long acquire(long maxWait) {
+            while (true) {
+                long now = System.nanoTime();
+                long current = theoreticalArrivalTime.get();
+                long start = current == Long.MIN_VALUE ? now : Math.max(current, now);
+                long wait = start - now - tolerance;
+                if (wait > maxWait) {
+                    return -1;
+                }
+                if (theoreticalArrivalTime.compareAndSet(current, start + interval)) {
+                    return Math.max(0, wait);
+                }
+            }
+        }
+    }
+
+    public static class Builder {
+        private double readsPerSecond;
+        private double writesPerSecond;
+        private int burst = 1;
+        private Mode mode = Mode.BLOCKING;
+
+        public Builder readsPerSecond(double value) {
+            Ensure.require(value >= 0, "readsPerSecond must not be negative");
+            this.readsPerSecond = value;
+            return this;
+        }
+
+
+        public Builder writesPerSecond(double value) {
+            Ensure.require(value >= 0, "writesPerSecond must not be negative");
+            this.writesPerSecond = value;
+            return this;
+        }
+
+
+        public Builder burst(int value) {
+            Ensure.require(value > 0, "burst must be positive");
+            this.burst = value;
+            return this;
+        }
+
+
+        public Builder mode(Mode value) {
+            Ensure.requireNonNull(value, "mode must be non-null");
+            this.mode = value;
+            return this;
+        }
+
+
+        public RateLimiter build() {
+            return new RateLimiter(this);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.http;
+
+import java.io.IOException;
+
+
+/**
+ * Signals that a request has been rejected by a client-side policy before being sent, e.g., because a circuit breaker is
+ * open. Rejected requests are not retried.
+ */
+public abstract class RequestRejectedException extends IOException {
+
+    private final String origin;
+
+    /**
+     * Constructs a new exception.
+     *
+     * @param origin the origin the request was addressed to
+     * @param message the detail message
+     */
+    protected RequestRejectedException(String origin, String message) {
+        super(message);
+        this.origin = origin;
+    }
+
+
+    /**
+     * Gets the origin the request was addressed to.
+     *
+     * @return the origin, e.g. https://example.org:443
+     */
+    public String getOrigin() {
+        return origin;
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.http;
+
+import de.fraunhofer.iosb.ilt.faaast.service.util.Ensure;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Defines if and when failed requests are retried and counts retries. Requests are retried if sending them fails with
+ * an I/O error, e.g., a connection reset, or if the server responds with one of the retryable status codes.
+ *
+ * <p>
+ * Only idempotent requests are retried, i.e., GET, HEAD, PUT, DELETE and OPTIONS, and PATCH if enabled via
+ * {@link Builder#retryPatch(boolean)}. The delay before retry n is {@code initialBackoff * multiplier^(n-1)}, capped at
+ * {@code maxBackoff} and reduced by a random share of up to {@code jitter} to spread retries of concurrent callers.
+ *
+ * <p>
+ * To avoid overloading a struggling server with retries, retries are limited by a budget: each request adds
+ * {@code budgetRatio} tokens to the budget, up to {@code budgetCapacity}, and each retry consumes one token. If the
+ * budget is exhausted, the request fails without being retried. An instance can be shared by multiple interfaces to
+ * share the budget and the counters.
+ */
+public class RetryPolicy {
+
+    private static final long TOKEN_SCALE = 1000;
+    private static final Set<String> IDEMPOTENT_METHODS = Set.of("GET", "HEAD", "PUT", "DELETE", "OPTIONS");
+
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final double multiplier;
+    private final double jitter;
+    private final boolean retryPatch;
+    private final Set<Integer> retryableStatusCodes;
+    private final long budgetCapacity;
+    private final long budgetRatio;
+    private final AtomicLong budget;
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder giveUps = new LongAdder();
+
+    private RetryPolicy(Builder builder) {
+        this.maxAttempts = builder.maxAttempts;
+        this.initialBackoff = builder.initialBackoff;
+        this.maxBackoff = builder.maxBackoff;
+        this.multiplier = builder.multiplier;
+        this.jitter = builder.jitter;
+        this.retryPatch = builder.retryPatch;
+        this.retryableStatusCodes = Set.copyOf(builder.retryableStatusCodes);
+        this.budgetCapacity = Math.round(builder.budgetCapacity * TOKEN_SCALE);
+        this.budgetRatio = Math.round(builder.budgetRatio * TOKEN_SCALE);
+        this.budget = new AtomicLong(budgetCapacity);
+    }
+
+
+    /**
+     * Creates a new builder.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+
+    /**
+     * Gets the maximum number of attempts per request, including the first one.
+     *
+     * @return the maximum number of attempts
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+
+    /**
+     * Gets the total number of attempts, i.e., requests sent including retries.
+     *
+     * @return the number of attempts
+     */
+    public long getAttempts() {
+        return attempts.sum();
+    }
+
+
+    /**
+     * Gets the number of retries.
+     *
+     * @return the number of retries
+     */
+    public long getRetries() {
+        return retries.sum();
+    }
+
+
+    /**
+     * Gets the number of requests that failed with a retryable error but have not been retried (again) because the
+     * maximum number of attempts has been reached or the retry budget was exhausted.
+     *
+     * @return the number of give-ups
+     */
+    public long getGiveUps() {
+        return giveUps.sum();
+    }
+
+
+    /**
+     * Checks whether requests with the given HTTP method may be retried.
+     *
+     * @param method the HTTP method
+     * @return true if the method is idempotent or retrying it has been enabled, false otherwise
+     */
+    public boolean isRetryable(String method) {
+        return IDEMPOTENT_METHODS.contains(method) || (retryPatch && "PATCH".equals(method));
+    }
+
+
+    /**
+     * Checks whether responses with the given status code may be retried.
+     *
+     * @param statusCode the status code
+     * @return true if the status code is retryable, false otherwise
+     */
+    public boolean isRetryable(int statusCode) {
+        return retryableStatusCodes.contains(statusCode);
+    }
+
+
+    /**
+     * Computes the delay before the given retry.
+     *
+     * @param retry the number of the retry, starting with 1
+     * @return the delay
+     */
+    public Duration getBackoff(int retry) {
+        double backoff = Math.min(initialBackoff.toMillis() * Math.pow(multiplier, retry - 1.0), maxBackoff.toMillis());
+        return Duration.ofMillis(Math.round(backoff * (1 - jitter * ThreadLocalRandom.current().nextDouble())));
+    }
+
+
+    void attemptStarted(boolean firstAttempt) {
+        attempts.increment();
+        if (firstAttempt) {
+            budget.accumulateAndGet(budgetRatio, (current, x) -> Math.min(budgetCapacity, current + x));
+        }
+    }
+
+
+    /**
+     * Decides whether a failed attempt is retried and, if so, consumes a token from the budget.
+     *
+     * @param attempt the number of the failed attempt, starting with 1
+     * @return true if the request should be retried, false otherwise
+     */
+    boolean tryRetry(int attempt) {
+        if (attempt < maxAttempts && tryConsumeBudget()) {
+            retries.increment();
+            return true;
+        }
+        giveUps.increment();
+        return false;
+    }
+
+
+    private boolean tryConsumeBudget() {
+        long current;
+        do {
+            current = budget.get();
+            if (current < TOKEN_SCALE) {
+                return false;
+            }
+        } while (!budget.compareAndSet(current, current - TOKEN_SCALE));
+        return true;
+    }
+
+    public static class Builder {
+        private int maxAttempts = 3;
+        private Duration initialBackoff = Duration.ofMillis(100);
+        private Duration maxBackoff = Duration.ofSeconds(5);
+        private double multiplier = 2;
+        private double jitter = 0.5;
+        private boolean retryPatch;
+        private Set<Integer> retryableStatusCodes = Set.of(502, 503, 504);
+        private double budgetCapacity = 10;
+        private double budgetRatio = 0.2;
+
+        public Builder maxAttempts(int value) {
+            Ensure.require(value > 0, "maxAttempts must be positive");
+            this.maxAttempts = value;
+            return this;
+        }
+
+
+        public Builder initialBackoff(Duration value) {
+            Ensure.requireNonNull(value, "initialBackoff must be non-null");
+            this.initialBackoff = value;
+            return this;
+        }
+
+
+        public Builder maxBackoff(Duration value) {
+            Ensure.requireNonNull(value, "maxBackoff must be non-null");
+            this.maxBackoff = value;
+            return this;
+        }
+
+
+        public Builder multiplier(double value) {
+            Ensure.require(value >= 1, "multiplier must be at least 1");
+            this.multiplier = value;
+            return this;
+        }
+
+
+        public Builder jitter(double value) {
+            Ensure.require(value >= 0 && value <= 1, "jitter must be between 0 and 1");
+            this.jitter = value;
+            return this;
+        }
+
+
+        public Builder retryPatch(boolean value) {
+            this.retryPatch = value;
+            return this;
+        }
+
+
+        public Builder retryableStatusCodes(Set<Integer> value) {
+            Ensure.requireNonNull(value, "retryableStatusCodes must be non-null");
+            this.retryableStatusCodes = value;
+            return this;
+        }
+
+
+        public Builder budgetCapacity(double value) {
+            Ensure.require(value >= 0, "budgetCapacity must not be negative");
+            this.budgetCapacity = value;
+            return this;
+        }
+
+
+        public Builder budgetRatio(double value) {
+            Ensure.require(value >= 0, "budgetRatio must not be negative");
+            this.budgetRatio = value;
+            return this;
+        }
+
+
+        public RetryPolicy build() {
+            return new RetryPolicy(this);
+        }
+    }
+}
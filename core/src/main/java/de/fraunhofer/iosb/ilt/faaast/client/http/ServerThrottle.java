@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.http;
+
+import de.fraunhofer.iosb.ilt.faaast.client.util.HttpRequestHelper;
+import de.fraunhofer.iosb.ilt.faaast.service.util.Ensure;
+import java.net.URI;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Per-origin throttle honouring backpressure signalled by servers. When a server responds with 429 (Too Many Requests)
+ * or 503 (Service Unavailable), new requests to its origin (scheme, host and port) are delayed until the time given by
+ * the Retry-After header has passed, or {@code defaultDelay} if the header is missing. Delays are capped at
+ * {@code maxDelay}.
+ *
+ * <p>
+ * An instance should be shared by all interfaces talking to the same servers, so that backpressure signalled to one
+ * interface slows down all of them.
+ */
+public class ServerThrottle {
+
+    private final long defaultDelayNanos;
+    private final long maxDelayNanos;
+    private final Map<String, AtomicLong> notBefore = new ConcurrentHashMap<>();
+    private final LongAdder throttlingResponses = new LongAdder();
+    private final LongAdder delayedRequests = new LongAdder();
+
+    private ServerThrottle(Builder builder) {
+        this.defaultDelayNanos = builder.defaultDelay.toNanos();
+        this.maxDelayNanos = builder.maxDelay.toNanos();
+    }
+
+
+    /**
+     * Creates a new builder.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+
+    /**
+     * Returns the time new requests to the origin (scheme, host and port) of the given URI are currently delayed.
+     *
+     * @param uri any URI of the origin
+     * @return the remaining delay, zero if requests to the origin are not throttled
+     */
+    public Duration getDelay(URI uri) {
+        return Duration.ofNanos(getDelayNanos(Origins.of(uri)));
+    }
+
+
+    /**
+     * Gets the number of responses with status code 429 or 503 that have been received.
+     *
+     * @return the number of throttling responses
+     */
+    public long getThrottlingResponses() {
+        return throttlingResponses.sum();
+    }
+
+
+    /**
+     * Gets the number of requests that have been delayed because their origin was throttled.
+     *
+     * @return the number of delayed requests
+     */
+    public long getDelayedRequests() {
+        return delayedRequests.sum();
+    }
+
+
+    /**
+     * Lifts all throttling.
+     */
+    public void reset() {
+        notBefore.clear();
+    }
+
+
+    /**
+     * Returns the remaining delay of the given origin and counts the request as delayed if it is throttled. A request
+     * checking again after having waited is counted only once.
+     *
+     * @param origin the origin
+     * @param delayedBefore whether the request has already been delayed
+     * @return the remaining delay in nanoseconds, 0 if the origin is not throttled
+     */
+    long acquireDelay(String origin, boolean delayedBefore) {
+        long result = getDelayNanos(origin);
+        if (result > 0 && !delayedBefore) {
+            delayedRequests.increment();
+        }
+        return result;
+    }
+
+
+    /**
+     * Throttles the origin of the response if the server signalled backpressure.
+     *
+     * @param origin the origin
+     * @param response the response
+     */
+    void onResponse(String origin, HttpResponse<?> response) {
+        int statusCode = response.statusCode();
+        if (statusCode != HttpStatus.TOO_MANY_REQUESTS.getCode() && statusCode != HttpStatus.SERVICE_UNAVAILABLE.getCode()) {
+            return;
+        }
+        throttlingResponses.increment();
+        long delay = HttpRequestHelper.parseRetryAfter(response.headers())
+                .map(Duration::toNanos)
+                .orElse(defaultDelayNanos);
+        long until = System.nanoTime() + Math.min(delay, maxDelayNanos);
+        notBefore.computeIfAbsent(origin, x -> new AtomicLong(until)).accumulateAndGet(until, Math::max);
+    }
+
+
+    private long getDelayNanos(String origin) {
+        AtomicLong until = notBefore.get(origin);
+        return until != null ? Math.max(0, until.get() - System.nanoTime()) : 0;
+    }
+
+    public static class Builder {
+        private Duration defaultDelay = Duration.ofSeconds(1);
+        private Duration maxDelay = Duration.ofSeconds(60);
+
+        public Builder defaultDelay(Duration value) {
+            Ensure.requireNonNull(value, "defaultDelay must be non-null");
+            this.defaultDelay = value;
+            return this;
+        }
+
+
+        public Builder maxDelay(Duration value) {
+            Ensure.requireNonNull(value, "maxDelay must be non-null");
+            this.maxDelay = value;
+            return this;
+        }
+
+
+        public ServerThrottle build() {
+            return new ServerThrottle(this);
+        }
+    }
+}
@@ -20,23 +20,26 @@ import de.fraunhofer.iosb.ilt.faaast.client.exception.StatusCodeException;
 import de.fraunhofer.iosb.ilt.faaast.client.http.HttpMethod;
 import de.fraunhofer.iosb.ilt.faaast.client.http.HttpStatus;
 import de.fraunhofer.iosb.ilt.faaast.client.query.AASBasicDiscoverySearchCriteria;
+import de.fraunhofer.iosb.ilt.faaast.client.util.Deadline;
 import de.fraunhofer.iosb.ilt.faaast.client.util.HttpClientHelper;
 import de.fraunhofer.iosb.ilt.faaast.client.util.HttpRequestHelper;
+import de.fraunhofer.iosb.ilt.faaast.client.util.JsonCodec;
 import de.fraunhofer.iosb.ilt.faaast.client.util.QueryHelper;
 import de.fraunhofer.iosb.ilt.faaast.service.dataformat.DeserializationException;
-import de.fraunhofer.iosb.ilt.faaast.service.dataformat.json.JsonApiDeserializer;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.modifier.Content;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.modifier.QueryModifier;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.Page;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.PagingInfo;
 import org.eclipse.digitaltwin.aas4j.v3.model.SpecificAssetId;
-import org.json.JSONException;
 
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 
 /**
@@ -51,6 +54,18 @@ public class AASBasicDiscoveryInterface extends BaseInterface {
 
     private static final String LOOKUP_PATH = "/lookup/shells";
 
+    /**
+     * Creates a new Discovery Interface.
+     *
+     * @param endpoint Uri used to communicate with the FA³ST service
+     * @param httpClient custom http-client in case the user wants to set specific attributes
+     * @param codec the codec used to serialize requests and deserialize responses
+     */
+    public AASBasicDiscoveryInterface(URI endpoint, HttpClient httpClient, JsonCodec codec) {
+        super(resolve(endpoint, LOOKUP_PATH), httpClient, codec);
+    }
+
+
     /**
      * Creates a new Discovery Interface.
      *
@@ -130,11 +145,39 @@ public class AASBasicDiscoveryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously returns a list of Asset Administration Shell IDs linked to specific asset identifiers or the
+     * global
+     * asset ID.
+     *
+     * @param assetLinks A list of specific asset identifiers. Search for the global asset ID is supported by setting "name"
+     *            to "globalAssetId" (see Constraint AASd-116).
+     * @param pagingInfo Metadata that describes how many elements at which starting point should be retrieved.
+     * @return a future of the page of requested Asset Administration Shell IDs; completes exceptionally with the same
+     *         exceptions as {@link #lookupByAssetLink(List, PagingInfo)}
+     */
+    public CompletableFuture<Page<String>> lookupByAssetLinkAsync(List<SpecificAssetId> assetLinks, PagingInfo pagingInfo) {
+        Supplier<CompletableFuture<HttpResponse<String>>> fallback = Deadline.propagate(() -> sendLookupRequestAsync(pagingInfo, assetLinks, true));
+        return sendLookupRequestAsync(pagingInfo, assetLinks, false)
+                .handle((response, error) -> {
+                    if (error == null && !response.body().isEmpty()) {
+                        return CompletableFuture.completedFuture(response);
+                    }
+                    if (error != null && !(HttpRequestHelper.unwrap(error) instanceof StatusCodeException)) {
+                        return CompletableFuture.<HttpResponse<String>> failedFuture(error);
+                    }
+                    return fallback.get();
+                })
+                .thenCompose(Function.identity())
+                .thenApply(response -> deserializePageSafely(response.body()));
+    }
+
+
     private Page<String> deserializePageSafely(String body) {
         try {
             return deserializePage(body, String.class);
         }
-        catch (DeserializationException | JSONException e) {
+        catch (DeserializationException e) {
             throw new InvalidPayloadException(e);
         }
     }
@@ -146,17 +189,30 @@ public class AASBasicDiscoveryInterface extends BaseInterface {
                                                    boolean fallback)
             throws ConnectivityException, StatusCodeException {
 
+        HttpResponse<String> response = HttpRequestHelper.send(httpClient, createLookupRequest(pagingInfo, assetIdentificationList, fallback));
+        validateStatusCode(HttpMethod.GET, response, HttpStatus.OK);
+
+        return response;
+    }
+
+
+    private CompletableFuture<HttpResponse<String>> sendLookupRequestAsync(
+                                                                           PagingInfo pagingInfo,
+                                                                           List<SpecificAssetId> assetIdentificationList,
+                                                                           boolean fallback) {
+        return HttpRequestHelper.sendAsync(httpClient, createLookupRequest(pagingInfo, assetIdentificationList, fallback))
+                .thenApply(validated(HttpMethod.GET, HttpStatus.OK));
+    }
+
+
+    private HttpRequest createLookupRequest(PagingInfo pagingInfo, List<SpecificAssetId> assetIdentificationList, boolean fallback) {
         AASBasicDiscoverySearchCriteria assetIdSearchCriteria = new AASBasicDiscoverySearchCriteria.Builder()
                 .specificAssetIds(assetIdentificationList)
                 .fallback(fallback)
                 .build();
 
-        HttpRequest request = HttpRequestHelper.createGetRequest(
+        return HttpRequestHelper.createGetRequest(
                 resolve(QueryHelper.apply(null, Content.DEFAULT, QueryModifier.DEFAULT, pagingInfo, assetIdSearchCriteria)));
-        HttpResponse<String> response = HttpRequestHelper.send(httpClient, request);
-        validateStatusCode(HttpMethod.GET, response, HttpStatus.OK);
-
-        return response;
     }
 
 
@@ -183,6 +239,18 @@ public class AASBasicDiscoveryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously returns a list of specific asset identifiers based on an Asset Administration Shell ID.
+     *
+     * @param aasIdentifier The Asset Administration Shell’s unique id
+     * @return a future of the requested specific Asset identifiers; completes exceptionally with the same exceptions as
+     *         {@link #lookupByAasId(String)}
+     */
+    public CompletableFuture<List<SpecificAssetId>> lookupByAasIdAsync(String aasIdentifier) {
+        return getAllListAsync(idPath(aasIdentifier), SpecificAssetId.class);
+    }
+
+
     /**
      * Creates or replaces all asset links associated to the Asset Administration Shell.
      *
@@ -207,7 +275,7 @@ public class AASBasicDiscoveryInterface extends BaseInterface {
         HttpResponse<String> response = HttpRequestHelper.send(httpClient, request);
         validateStatusCode(HttpMethod.POST, response, HttpStatus.OK);
         try {
-            return new JsonApiDeserializer().readList(response.body(), SpecificAssetId.class);
+            return codec.getDeserializer().readList(response.body(), SpecificAssetId.class);
         }
         catch (DeserializationException e) {
             throw new InvalidPayloadException(e);
@@ -215,6 +283,30 @@ public class AASBasicDiscoveryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously creates or replaces all asset links associated to the Asset Administration Shell.
+     *
+     * @param assetLinks A set of specific asset identifiers
+     * @param aasIdentifier The Asset Administration Shell’s unique id
+     * @return a future of the list of asset links; completes exceptionally with the same exceptions as
+     *         {@link #createAssetLinks(List, String)}
+     */
+    public CompletableFuture<List<SpecificAssetId>> createAssetLinksAsync(List<SpecificAssetId> assetLinks, String aasIdentifier) {
+        HttpRequest request = HttpRequestHelper.createPostRequest(resolve(QueryHelper.apply(idPath(aasIdentifier), Content.DEFAULT, QueryModifier.DEFAULT)),
+                serializeEntity(assetLinks));
+        return HttpRequestHelper.sendAsync(httpClient, request)
+                .thenApply(validated(HttpMethod.POST, HttpStatus.OK))
+                .thenApply(response -> {
+                    try {
+                        return codec.getDeserializer().readList(response.body(), SpecificAssetId.class);
+                    }
+                    catch (DeserializationException e) {
+                        throw new InvalidPayloadException(e);
+                    }
+                });
+    }
+
+
     /**
      * Deletes all specific asset identifiers linked to a specified Asset Administration Shell:
      * discovery via these specific asset IDs shall not be supported any longer.
@@ -234,11 +326,23 @@ public class AASBasicDiscoveryInterface extends BaseInterface {
         delete(idPath(aasIdentifier));
     }
 
+
+    /**
+     * Asynchronously deletes all specific asset identifiers linked to a specified Asset Administration Shell.
+     *
+     * @param aasIdentifier The Asset Administration Shell’s unique id
+     * @return a future completing when the asset links have been deleted; completes exceptionally with the same
+     *         exceptions as {@link #deleteAssetLinks(String)}
+     */
+    public CompletableFuture<Void> deleteAssetLinksAsync(String aasIdentifier) {
+        return deleteAsync(idPath(aasIdentifier));
+    }
+
     public static class Builder extends AbstractBuilder<AASBasicDiscoveryInterface, Builder> {
 
         @Override
         protected AASBasicDiscoveryInterface buildConcrete() {
-            return new AASBasicDiscoveryInterface(endpoint, httpClient());
+            return new AASBasicDiscoveryInterface(endpoint, httpClient(), codec());
         }
     }
 }
@@ -16,16 +16,24 @@ package de.fraunhofer.iosb.ilt.faaast.client.interfaces;
 
 import de.fraunhofer.iosb.ilt.faaast.client.exception.ConnectivityException;
 import de.fraunhofer.iosb.ilt.faaast.client.exception.StatusCodeException;
-import de.fraunhofer.iosb.ilt.faaast.client.http.HttpStatus;
+import de.fraunhofer.iosb.ilt.faaast.client.query.SearchCriteria;
+import de.fraunhofer.iosb.ilt.faaast.client.util.DownloadedFile;
 import de.fraunhofer.iosb.ilt.faaast.client.util.HttpClientHelper;
+import de.fraunhofer.iosb.ilt.faaast.client.util.JsonCodec;
+import de.fraunhofer.iosb.ilt.faaast.client.util.MultipartBodyPublishers;
+import de.fraunhofer.iosb.ilt.faaast.client.util.StreamedFile;
 import de.fraunhofer.iosb.ilt.faaast.service.model.InMemoryFile;
 import de.fraunhofer.iosb.ilt.faaast.service.model.TypedInMemoryFile;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.modifier.Content;
+import de.fraunhofer.iosb.ilt.faaast.service.model.api.modifier.QueryModifier;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.Page;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.PagingInfo;
 import java.net.URI;
 import java.net.http.HttpClient;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import de.fraunhofer.iosb.ilt.faaast.service.model.exception.InvalidRequestException;
 import org.eclipse.digitaltwin.aas4j.v3.model.*;
@@ -42,6 +50,18 @@ import org.eclipse.digitaltwin.aas4j.v3.model.*;
  */
 public class AASInterface extends BaseInterface {
 
+    /**
+     * Creates a new Asset Administration Shell Interface.
+     *
+     * @param endpoint Uri used to communicate with the FA³ST service
+     * @param httpClient Allows user to specify custom http-client
+     * @param codec the codec used to serialize requests and deserialize responses
+     */
+    public AASInterface(URI endpoint, HttpClient httpClient, JsonCodec codec) {
+        super(endpoint, httpClient, codec);
+    }
+
+
     /**
      * Creates a new Asset Administration Shell Interface.
      *
@@ -107,6 +127,17 @@ public class AASInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves the Asset Administration Shell (AAS) from the server.
+     *
+     * @return a future of the requested Asset Administration Shell object; completes exceptionally with the same
+     *         exceptions as {@link #get()}
+     */
+    public CompletableFuture<AssetAdministrationShell> getAsync() {
+        return getAsync(null, AssetAdministrationShell.class);
+    }
+
+
     /**
      * Replaces the current Asset Administration Shell with a new one.
      *
@@ -128,6 +159,18 @@ public class AASInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously replaces the current Asset Administration Shell with a new one.
+     *
+     * @param aas The new Asset Administration Shell object to replace the current one
+     * @return a future completing when the AAS has been replaced; completes exceptionally with the same exceptions as
+     *         {@link #put(AssetAdministrationShell)}
+     */
+    public CompletableFuture<Void> putAsync(AssetAdministrationShell aas) {
+        return putAsync(null, aas);
+    }
+
+
     /**
      * Retrieves the Asset Administration Shell (AAS) as a reference.
      *
@@ -149,6 +192,17 @@ public class AASInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves the Asset Administration Shell (AAS) as a reference.
+     *
+     * @return a future of the requested Asset Administration Shell reference; completes exceptionally with the same
+     *         exceptions as {@link #getAsReference()}
+     */
+    public CompletableFuture<Reference> getAsReferenceAsync() {
+        return getAsync(null, QueryModifier.DEFAULT, Content.REFERENCE, Reference.class);
+    }
+
+
     /**
      * Retrieves the asset information associated with the Asset Administration Shell.
      *
@@ -170,6 +224,17 @@ public class AASInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves the asset information associated with the Asset Administration Shell.
+     *
+     * @return a future of the requested Asset Information object; completes exceptionally with the same exceptions as
+     *         {@link #getAssetInformation()}
+     */
+    public CompletableFuture<AssetInformation> getAssetInformationAsync() {
+        return getAsync(assetInfoPath(), AssetInformation.class);
+    }
+
+
     /**
      * Updates the asset information of the Asset Administration Shell.
      *
@@ -191,6 +256,18 @@ public class AASInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously updates the asset information of the Asset Administration Shell.
+     *
+     * @param assetInfo The new Asset Information object to replace the current one
+     * @return a future completing when the asset information has been updated; completes exceptionally with the same
+     *         exceptions as {@link #putAssetInformation(AssetInformation)}
+     */
+    public CompletableFuture<Void> putAssetInformationAsync(AssetInformation assetInfo) {
+        return putAsync(assetInfoPath(), assetInfo);
+    }
+
+
     /**
      * Retrieves the thumbnail image associated with the Asset Administration Shell.
      *
@@ -211,6 +288,74 @@ public class AASInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves the thumbnail image associated with the Asset Administration Shell.
+     *
+     * @return a future of the requested thumbnail; completes exceptionally with the same exceptions as
+     *         {@link #getThumbnail()}
+     */
+    public CompletableFuture<InMemoryFile> getThumbnailAsync() {
+        return getFileAsync(thumbnailPath());
+    }
+
+
+    /**
+     * Downloads the thumbnail image associated with the Asset Administration Shell directly to {@code target}. The
+     * content is written to disk while it is being transferred, so memory consumption does not depend on the size of
+     * the file. An existing file at {@code target} is only replaced once the download has completed successfully.
+     *
+     * @param target the file to write the content to
+     * @return the downloaded file, including the file name announced by the server
+     * @throws StatusCodeException if the server responds with an error. Possible Exceptions:
+     *             <div>
+     *             <ul>
+     *             <li>400: BadRequestException</li>
+     *             <li>403: ForbiddenException</li>
+     *             <li>404: NotFoundException</li>
+     *             <li>500: InternalServerErrorException</li>
+     *             </ul>
+     *             </div>
+     * @throws ConnectivityException if the connection to the server cannot be established
+     */
+    public DownloadedFile getThumbnail(Path target) throws StatusCodeException, ConnectivityException {
+        return getFile(thumbnailPath(), target);
+    }
+
+
+    /**
+     * Asynchronously downloads the thumbnail image associated with the Asset Administration Shell directly to {@code
+     * target}.
+     *
+     * @param target the file to write the content to
+     * @return a future of the downloaded file; completes exceptionally with the same exceptions as
+     *         {@link #getThumbnail(Path)}
+     */
+    public CompletableFuture<DownloadedFile> getThumbnailAsync(Path target) {
+        return getFileAsync(thumbnailPath(), target);
+    }
+
+
+    /**
+     * Returns the thumbnail image associated with the Asset Administration Shell as stream. The content is read from
+     * the network while the stream is consumed, the caller is responsible for closing the returned file.
+     *
+     * @return the streamed file, including the file name announced by the server
+     * @throws StatusCodeException if the server responds with an error. Possible Exceptions:
+     *             <div>
+     *             <ul>
+     *             <li>400: BadRequestException</li>
+     *             <li>403: ForbiddenException</li>
+     *             <li>404: NotFoundException</li>
+     *             <li>500: InternalServerErrorException</li>
+     *             </ul>
+     *             </div>
+     * @throws ConnectivityException if the connection to the server cannot be established
+     */
+    public StreamedFile getThumbnailAsStream() throws StatusCodeException, ConnectivityException {
+        return getFileStream(thumbnailPath());
+    }
+
+
     /**
      * Replaces the current thumbnail image of the Asset Administration Shell.
      *
@@ -231,6 +376,96 @@ public class AASInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously replaces the current thumbnail image of the Asset Administration Shell.
+     *
+     * @param file The new thumbnail file to replace the current one
+     * @return a future completing when the thumbnail has been replaced; completes exceptionally with the same
+     *         exceptions as {@link #putThumbnail(TypedInMemoryFile)}
+     */
+    public CompletableFuture<Void> putThumbnailAsync(TypedInMemoryFile file) {
+        return putFileAsync(thumbnailPath(), file);
+    }
+
+
+    /**
+     * Replaces the current thumbnail image of the Asset Administration Shell with the content of a file. The content is
+     * read from disk while it is being sent, so memory consumption does not depend on the size of the file. The file
+     * name sent to the server is the name of {@code file}.
+     *
+     * @param file The file to upload
+     * @param contentType The content type of the file
+     * @throws StatusCodeException if the server responds with an error. Possible Exceptions:
+     *             <div>
+     *             <ul>
+     *             <li>400: BadRequestException</li>
+     *             <li>403: ForbiddenException</li>
+     *             <li>404: NotFoundException</li>
+     *             <li>500: InternalServerErrorException</li>
+     *             </ul>
+     *             </div>
+     * @throws ConnectivityException if the connection to the server cannot be established
+     * @throws IllegalArgumentException if the file is not readable
+     */
+    public void putThumbnail(Path file, String contentType) throws StatusCodeException, ConnectivityException {
+        putFile(thumbnailPath(), file, contentType);
+    }
+
+
+    /**
+     * Asynchronously replaces the current thumbnail image of the Asset Administration Shell with the content of a file.
+     *
+     * @param file The file to upload
+     * @param contentType The content type of the file
+     * @return a future completing when the request has been processed; completes exceptionally with the same
+     *         exceptions as {@link #putThumbnail(Path, String)}
+     * @throws IllegalArgumentException if the file is not readable
+     */
+    public CompletableFuture<Void> putThumbnailAsync(Path file, String contentType) {
+        return putFileAsync(thumbnailPath(), file, contentType);
+    }
+
+
+    /**
+     * Replaces the current thumbnail image of the Asset Administration Shell with content read from a channel. The
+     * content is read while it is being sent, so memory consumption does not depend on the size of the content. The
+     * channel is closed once its content has been sent. As the content can only be read once, repeating the
+     * request, e.g., by a retry policy, fails instead of sending empty content.
+     *
+     * @param content The channel to read the content from
+     * @param fileName The file name
+     * @param contentType The content type of the file
+     * @throws StatusCodeException if the server responds with an error. Possible Exceptions:
+     *             <div>
+     *             <ul>
+     *             <li>400: BadRequestException</li>
+     *             <li>403: ForbiddenException</li>
+     *             <li>404: NotFoundException</li>
+     *             <li>500: InternalServerErrorException</li>
+     *             </ul>
+     *             </div>
+     * @throws ConnectivityException if the connection to the server cannot be established
+     */
+    public void putThumbnail(ReadableByteChannel content, String fileName, String contentType) throws StatusCodeException, ConnectivityException {
+        putFile(thumbnailPath(), fileName, contentType, MultipartBodyPublishers.ofChannel(content));
+    }
+
+
+    /**
+     * Asynchronously replaces the current thumbnail image of the Asset Administration Shell with content read from a
+     * channel.
+     *
+     * @param content The channel to read the content from
+     * @param fileName The file name
+     * @param contentType The content type of the file
+     * @return a future completing when the request has been processed; completes exceptionally with the same
+     *         exceptions as {@link #putThumbnail(ReadableByteChannel, String, String)}
+     */
+    public CompletableFuture<Void> putThumbnailAsync(ReadableByteChannel content, String fileName, String contentType) {
+        return putFileAsync(thumbnailPath(), fileName, contentType, MultipartBodyPublishers.ofChannel(content));
+    }
+
+
     /**
      * Deletes the current thumbnail image of the Asset Administration Shell.
      *
@@ -246,7 +481,18 @@ public class AASInterface extends BaseInterface {
      * @throws ConnectivityException if the connection to the server cannot be established
      */
     public void deleteThumbnail() throws StatusCodeException, ConnectivityException {
-        delete(thumbnailPath(), HttpStatus.OK);
+        deleteFile(thumbnailPath());
+    }
+
+
+    /**
+     * Asynchronously deletes the current thumbnail image of the Asset Administration Shell.
+     *
+     * @return a future completing when the thumbnail has been deleted; completes exceptionally with the same exceptions
+     *         as {@link #deleteThumbnail()}
+     */
+    public CompletableFuture<Void> deleteThumbnailAsync() {
+        return deleteFileAsync(thumbnailPath());
     }
 
 
@@ -271,6 +517,17 @@ public class AASInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves all references to submodels within the Asset Administration Shell.
+     *
+     * @return a future of a list of references to all submodels; completes exceptionally with the same exceptions as
+     *         {@link #getAllSubmodelReferences()}
+     */
+    public CompletableFuture<List<Reference>> getAllSubmodelReferencesAsync() {
+        return getAllAsync(submodelRefPath(), SearchCriteria.DEFAULT, Content.DEFAULT, QueryModifier.DEFAULT, Reference.class);
+    }
+
+
     /**
      * Retrieves a page of references to submodels.
      *
@@ -293,6 +550,18 @@ public class AASInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves a page of references to submodels.
+     *
+     * @param pagingInfo Metadata for controlling the pagination of results
+     * @return a future of a page of references to submodels; completes exceptionally with the same exceptions as
+     *         {@link #getSubmodelReference(PagingInfo)}
+     */
+    public CompletableFuture<Page<Reference>> getSubmodelReferenceAsync(PagingInfo pagingInfo) {
+        return getPageAsync(submodelRefPath(), Content.DEFAULT, QueryModifier.DEFAULT, pagingInfo, SearchCriteria.DEFAULT, Reference.class);
+    }
+
+
     /**
      * Creates a new reference to a submodel within the Asset Administration Shell.
      *
@@ -316,6 +585,18 @@ public class AASInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously creates a new reference to a submodel within the Asset Administration Shell.
+     *
+     * @param reference The reference to the submodel to be added
+     * @return a future of the created submodel reference; completes exceptionally with the same exceptions as
+     *         {@link #postSubmodelReference(Reference)}
+     */
+    public CompletableFuture<Reference> postSubmodelReferenceAsync(Reference reference) {
+        return postAsync(submodelRefPath(), reference, Reference.class);
+    }
+
+
     /**
      * Deletes a specific submodel reference from the Asset Administration Shell.
      *
@@ -337,6 +618,18 @@ public class AASInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously deletes a specific submodel reference from the Asset Administration Shell.
+     *
+     * @param submodelId The unique identifier of the submodel to delete
+     * @return a future completing when the reference has been deleted; completes exceptionally with the same exceptions
+     *         as {@link #deleteSubmodelReference(String)}
+     */
+    public CompletableFuture<Void> deleteSubmodelReferenceAsync(String submodelId) {
+        return deleteAsync(submodelRefPath() + idPath(submodelId));
+    }
+
+
     /**
      * Deletes a specific submodel from the Asset Administration Shell.
      *
@@ -358,6 +651,18 @@ public class AASInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously deletes a specific submodel from the Asset Administration Shell.
+     *
+     * @param submodelId The unique identifier of the submodel to delete
+     * @return a future completing when the submodel has been deleted; completes exceptionally with the same exceptions
+     *         as {@link #deleteSubmodel(String)}
+     */
+    public CompletableFuture<Void> deleteSubmodelAsync(String submodelId) {
+        return deleteAsync(submodelPath() + idPath(submodelId));
+    }
+
+
     /**
      * Returns the Submodel Interface for managing the submodel within the AAS.
      * Although submodels can be managed directly through this interface,
@@ -367,7 +672,7 @@ public class AASInterface extends BaseInterface {
      * @return The SubmodelInterface object for interacting with the specified submodel
      */
     public SubmodelInterface getSubmodelInterface(String submodelId) {
-        return new SubmodelInterface(resolve(idPath(submodelId)));
+        return inheritSettings(new SubmodelInterface(resolve(submodelPath() + idPath(submodelId)), httpClient, codec));
     }
 
 
@@ -387,14 +692,14 @@ public class AASInterface extends BaseInterface {
 
 
     private static String thumbnailPath() {
-        return assetInfoPath() + "/thumbnail";
+        return "/asset-information/thumbnail";
     }
 
     public static class Builder extends AbstractBuilder<AASInterface, Builder> {
 
         @Override
         protected AASInterface buildConcrete() {
-            return new AASInterface(endpoint, httpClient());
+            return new AASInterface(endpoint, httpClient(), codec());
         }
     }
 }
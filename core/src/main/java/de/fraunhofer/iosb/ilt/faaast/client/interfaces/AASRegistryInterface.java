@@ -16,8 +16,14 @@ package de.fraunhofer.iosb.ilt.faaast.client.interfaces;
 
 import de.fraunhofer.iosb.ilt.faaast.client.exception.ConnectivityException;
 import de.fraunhofer.iosb.ilt.faaast.client.exception.StatusCodeException;
+import de.fraunhofer.iosb.ilt.faaast.client.exception.UncheckedClientException;
 import de.fraunhofer.iosb.ilt.faaast.client.query.AASDescriptorSearchCriteria;
+import de.fraunhofer.iosb.ilt.faaast.client.query.SearchCriteria;
+import de.fraunhofer.iosb.ilt.faaast.client.util.BulkRequestHelper;
+import de.fraunhofer.iosb.ilt.faaast.client.util.BulkResult;
 import de.fraunhofer.iosb.ilt.faaast.client.util.HttpClientHelper;
+import de.fraunhofer.iosb.ilt.faaast.client.util.JsonCodec;
+import de.fraunhofer.iosb.ilt.faaast.client.util.PagingIterator;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.modifier.Content;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.modifier.QueryModifier;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.Page;
@@ -26,7 +32,10 @@ import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShellDescriptor
 import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultAssetAdministrationShellDescriptor;
 import java.net.URI;
 import java.net.http.HttpClient;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 
 /**
@@ -43,6 +52,18 @@ public class AASRegistryInterface extends BaseInterface {
 
     private static final String API_PATH = "/shell-descriptors";
 
+    /**
+     * Creates a new Asset Administration Shell Registry Interface.
+     *
+     * @param endpoint Uri used to communicate with the FA³ST Service
+     * @param httpClient Allows the user to specify a custom httpClient
+     * @param codec the codec used to serialize requests and deserialize responses
+     */
+    public AASRegistryInterface(URI endpoint, HttpClient httpClient, JsonCodec codec) {
+        super(resolve(endpoint, API_PATH), httpClient, codec);
+    }
+
+
     /**
      * Creates a new Asset Administration Shell Registry Interface.
      *
@@ -108,6 +129,17 @@ public class AASRegistryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously returns all Asset Administration Shell Descriptors in a List.
+     *
+     * @return a future of a list containing all Asset Administration Shell Descriptors; completes exceptionally with
+     *         the same exceptions as {@link #getAll()}
+     */
+    public CompletableFuture<List<DefaultAssetAdministrationShellDescriptor>> getAllAsync() {
+        return getAllAsync(null, SearchCriteria.DEFAULT, Content.DEFAULT, QueryModifier.DEFAULT, DefaultAssetAdministrationShellDescriptor.class);
+    }
+
+
     /**
      * Returns a page of Asset Administration Shell Descriptors.
      *
@@ -130,6 +162,18 @@ public class AASRegistryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously returns a page of Asset Administration Shell Descriptors.
+     *
+     * @param pagingInfo Metadata for controlling the pagination of results
+     * @return a future of a page of Asset Administration Shell Descriptors; completes exceptionally with the same
+     *         exceptions as {@link #get(PagingInfo)}
+     */
+    public CompletableFuture<Page<DefaultAssetAdministrationShellDescriptor>> getAsync(PagingInfo pagingInfo) {
+        return getAsync(pagingInfo, AASDescriptorSearchCriteria.DEFAULT);
+    }
+
+
     /**
      * Returns a Page of Asset Administration Shell Descriptors.
      *
@@ -154,6 +198,92 @@ public class AASRegistryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously returns a page of Asset Administration Shell Descriptors.
+     *
+     * @param pagingInfo Metadata for controlling the pagination of results
+     * @param aasDescriptorSearchCriteria Allows to filter Descriptors based on AssetType and AssetKind
+     * @return a future of a page of Asset Administration Shell Descriptors; completes exceptionally with the same
+     *         exceptions as {@link #get(PagingInfo, AASDescriptorSearchCriteria)}
+     */
+    public CompletableFuture<Page<DefaultAssetAdministrationShellDescriptor>> getAsync(PagingInfo pagingInfo, AASDescriptorSearchCriteria aasDescriptorSearchCriteria) {
+        return getPageAsync(null, Content.DEFAULT, QueryModifier.DEFAULT, pagingInfo, aasDescriptorSearchCriteria, DefaultAssetAdministrationShellDescriptor.class);
+    }
+
+
+    /**
+     * Lazily streams all Asset Administration Shell Descriptors, following the paging cursors returned by the server.
+     *
+     * <p>
+     * Pages are requested lazily while the stream is consumed; the next page is requested in the background while the
+     * current page is consumed. Closing the stream stops requesting pages. Errors are thrown as
+     * {@link UncheckedClientException}. The limit of {@code pagingInfo} is used as page size, its cursor as starting
+     * point.
+     *
+     * @param pagingInfo Metadata for controlling the pagination of results
+     * @return a stream of all Asset Administration Shell Descriptors
+     */
+    public Stream<DefaultAssetAdministrationShellDescriptor> stream(PagingInfo pagingInfo) {
+        return stream(pagingInfo, AASDescriptorSearchCriteria.DEFAULT);
+    }
+
+
+    /**
+     * Lazily streams all Asset Administration Shell Descriptors matching specific search criteria, following the paging
+     * cursors returned by the server.
+     *
+     * <p>
+     * Pages are requested lazily while the stream is consumed; the next page is requested in the background while the
+     * current page is consumed. Closing the stream stops requesting pages. Errors are thrown as
+     * {@link UncheckedClientException}. The limit of {@code pagingInfo} is used as page size, its cursor as starting
+     * point.
+     *
+     * @param pagingInfo Metadata for controlling the pagination of results
+     * @param aasDescriptorSearchCriteria Allows to filter Descriptors based on AssetType and AssetKind
+     * @return a stream of all matching Asset Administration Shell Descriptors
+     */
+    public Stream<DefaultAssetAdministrationShellDescriptor> stream(PagingInfo pagingInfo, AASDescriptorSearchCriteria aasDescriptorSearchCriteria) {
+        return stream(null, Content.DEFAULT, QueryModifier.DEFAULT, pagingInfo, aasDescriptorSearchCriteria, DefaultAssetAdministrationShellDescriptor.class);
+    }
+
+
+    /**
+     * Lazily iterates over all Asset Administration Shell Descriptors, following the paging cursors returned by the
+     * server.
+     *
+     * <p>
+     * Pages are requested lazily while iterating; the next page is requested in the background while the current page
+     * is consumed. Iterators that are not consumed completely should be closed to stop requesting pages. Errors
+     * are thrown as {@link UncheckedClientException}. The limit of {@code pagingInfo} is used as page size, its cursor
+     * as starting point.
+     *
+     * @param pagingInfo Metadata for controlling the pagination of results
+     * @return an iterator over all Asset Administration Shell Descriptors
+     */
+    public PagingIterator<DefaultAssetAdministrationShellDescriptor> iterator(PagingInfo pagingInfo) {
+        return iterator(pagingInfo, AASDescriptorSearchCriteria.DEFAULT);
+    }
+
+
+    /**
+     * Lazily iterates over all Asset Administration Shell Descriptors matching specific search criteria, following the
+     * paging cursors returned by the server.
+     *
+     * <p>
+     * Pages are requested lazily while iterating; the next page is requested in the background while the current page
+     * is consumed. Iterators that are not consumed completely should be closed to stop requesting pages. Errors
+     * are thrown as {@link UncheckedClientException}. The limit of {@code pagingInfo} is used as page size, its cursor
+     * as starting point.
+     *
+     * @param pagingInfo Metadata for controlling the pagination of results
+     * @param aasDescriptorSearchCriteria Allows to filter Descriptors based on AssetType and AssetKind
+     * @return an iterator over all matching Asset Administration Shell Descriptors
+     */
+    public PagingIterator<DefaultAssetAdministrationShellDescriptor> iterator(PagingInfo pagingInfo, AASDescriptorSearchCriteria aasDescriptorSearchCriteria) {
+        return iterate(null, Content.DEFAULT, QueryModifier.DEFAULT, pagingInfo, aasDescriptorSearchCriteria, DefaultAssetAdministrationShellDescriptor.class);
+    }
+
+
     /**
      * Creates a new Asset Administration Shell Descriptor, i.e. registers an AAS.
      *
@@ -177,6 +307,18 @@ public class AASRegistryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously creates a new Asset Administration Shell Descriptor, i.e. registers an AAS.
+     *
+     * @param shellDescriptor Object containing the Asset Administration Shell’s identification and endpoint information
+     * @return a future of the created Asset Administration Shell Descriptor; completes exceptionally with the same
+     *         exceptions as {@link #post(DefaultAssetAdministrationShellDescriptor)}
+     */
+    public CompletableFuture<DefaultAssetAdministrationShellDescriptor> postAsync(DefaultAssetAdministrationShellDescriptor shellDescriptor) {
+        return postAsync(null, shellDescriptor, DefaultAssetAdministrationShellDescriptor.class);
+    }
+
+
     /**
      * Returns a specific Asset Administration Shell Descriptor.
      *
@@ -199,6 +341,79 @@ public class AASRegistryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously returns a specific Asset Administration Shell Descriptor.
+     *
+     * @param aasIdentifier The Asset Administration Shell’s unique id
+     * @return a future of the requested Asset Administration Shell Descriptor; completes exceptionally with the same
+     *         exceptions as {@link #get(String)}
+     */
+    public CompletableFuture<DefaultAssetAdministrationShellDescriptor> getAsync(String aasIdentifier) {
+        return getAsync(idPath(aasIdentifier), DefaultAssetAdministrationShellDescriptor.class);
+    }
+
+
+    /**
+     * Retrieves multiple Asset Administration Shell Descriptors by id, with at most
+     * {@link BulkRequestHelper#DEFAULT_MAX_CONCURRENCY} requests in flight.
+     *
+     * <p>
+     * Failures, e.g., for ids that do not exist, are collected per id and do not abort the remaining requests.
+     *
+     * @param ids the Asset Administration Shells' unique ids
+     * @return the retrieved Asset Administration Shell Descriptors and failures by id
+     */
+    public BulkResult<DefaultAssetAdministrationShellDescriptor> getByIds(Collection<String> ids) {
+        return getByIds(ids, BulkRequestHelper.DEFAULT_MAX_CONCURRENCY);
+    }
+
+
+    /**
+     * Asynchronously retrieves multiple Asset Administration Shell Descriptors by id, with at most
+     * {@link BulkRequestHelper#DEFAULT_MAX_CONCURRENCY} requests in flight.
+     *
+     * @param ids the Asset Administration Shells' unique ids
+     * @return a future of the retrieved Asset Administration Shell Descriptors and failures by id; never completes
+     *         exceptionally
+     */
+    public CompletableFuture<BulkResult<DefaultAssetAdministrationShellDescriptor>> getByIdsAsync(Collection<String> ids) {
+        return getByIdsAsync(ids, BulkRequestHelper.DEFAULT_MAX_CONCURRENCY);
+    }
+
+
+    /**
+     * Retrieves multiple Asset Administration Shell Descriptors by id.
+     *
+     * <p>
+     * Requests are sent concurrently, with at most {@code maxConcurrency} requests in flight. Failures, e.g., for ids
+     * that do not exist, are collected per id and do not abort the remaining requests.
+     *
+     * @param ids the Asset Administration Shells' unique ids
+     * @param maxConcurrency the maximum number of concurrent requests
+     * @return the retrieved Asset Administration Shell Descriptors and failures by id
+     */
+    public BulkResult<DefaultAssetAdministrationShellDescriptor> getByIds(Collection<String> ids, int maxConcurrency) {
+        return getByIdsAsync(ids, maxConcurrency).join();
+    }
+
+
+    /**
+     * Asynchronously retrieves multiple Asset Administration Shell Descriptors by id.
+     *
+     * <p>
+     * Requests are sent concurrently, with at most {@code maxConcurrency} requests in flight. Failures, e.g., for ids
+     * that do not exist, are collected per id and do not abort the remaining requests.
+     *
+     * @param ids the Asset Administration Shells' unique ids
+     * @param maxConcurrency the maximum number of concurrent requests
+     * @return a future of the retrieved Asset Administration Shell Descriptors and failures by id; never completes
+     *         exceptionally
+     */
+    public CompletableFuture<BulkResult<DefaultAssetAdministrationShellDescriptor>> getByIdsAsync(Collection<String> ids, int maxConcurrency) {
+        return getByIdsAsync(ids, maxConcurrency, DefaultAssetAdministrationShellDescriptor.class);
+    }
+
+
     /**
      * Replaces an existing Asset Administration Shell Descriptor, i.e. replaces registration information.
      *
@@ -221,6 +436,20 @@ public class AASRegistryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously replaces an existing Asset Administration Shell Descriptor, i.e. replaces registration
+     * information.
+     *
+     * @param aasIdentifier The Asset Administration Shell’s unique id
+     * @param shellDescriptor Object containing the Asset Administration Shell’s identification and endpoint information
+     * @return a future completing when the request has been processed; completes exceptionally with the same exceptions
+     *         as {@link #put(String, AssetAdministrationShellDescriptor)}
+     */
+    public CompletableFuture<Void> putAsync(String aasIdentifier, AssetAdministrationShellDescriptor shellDescriptor) {
+        return putAsync(idPath(aasIdentifier), shellDescriptor);
+    }
+
+
     /**
      * Deletes an Asset Administration Shell Descriptor, i.e. de-registers an AAS.
      *
@@ -243,6 +472,19 @@ public class AASRegistryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously deletes an Asset Administration Shell Descriptor, i.e. de-registers an AAS.
+     *
+     * @param aasIdentifier The Asset Administration Shell’s unique id
+     * @return a future completing when the request has been processed; completes exceptionally with the same exceptions
+     *         as {@link #delete(String)}
+     */
+    @Override
+    public CompletableFuture<Void> deleteAsync(String aasIdentifier) {
+        return super.deleteAsync(idPath(aasIdentifier));
+    }
+
+
     /**
      * Returns the Submodel Registry Interface.
      *
@@ -250,14 +492,14 @@ public class AASRegistryInterface extends BaseInterface {
      * @return the {@link SubmodelRegistryInterface}
      */
     public SubmodelRegistryInterface getSubmodelRegistryInterface(String aasIdentifier) {
-        return new SubmodelRegistryInterface(resolve(idPath(aasIdentifier)));
+        return inheritSettings(new SubmodelRegistryInterface(resolve(idPath(aasIdentifier)), httpClient, codec));
     }
 
     public static class Builder extends AbstractBuilder<AASRegistryInterface, Builder> {
 
         @Override
         protected AASRegistryInterface buildConcrete() {
-            return new AASRegistryInterface(endpoint, httpClient());
+            return new AASRegistryInterface(endpoint, httpClient(), codec());
         }
     }
 }
@@ -16,15 +16,23 @@ package de.fraunhofer.iosb.ilt.faaast.client.interfaces;
 
 import de.fraunhofer.iosb.ilt.faaast.client.exception.ConnectivityException;
 import de.fraunhofer.iosb.ilt.faaast.client.exception.StatusCodeException;
+import de.fraunhofer.iosb.ilt.faaast.client.exception.UncheckedClientException;
 import de.fraunhofer.iosb.ilt.faaast.client.query.AASSearchCriteria;
+import de.fraunhofer.iosb.ilt.faaast.client.util.BulkRequestHelper;
+import de.fraunhofer.iosb.ilt.faaast.client.util.BulkResult;
 import de.fraunhofer.iosb.ilt.faaast.client.util.HttpClientHelper;
+import de.fraunhofer.iosb.ilt.faaast.client.util.JsonCodec;
+import de.fraunhofer.iosb.ilt.faaast.client.util.PagingIterator;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.modifier.Content;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.modifier.QueryModifier;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.Page;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.PagingInfo;
 import java.net.URI;
 import java.net.http.HttpClient;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShell;
 import org.eclipse.digitaltwin.aas4j.v3.model.Reference;
 
@@ -41,6 +49,18 @@ public class AASRepositoryInterface extends BaseInterface {
 
     private static final String API_PATH = "/shells";
 
+    /**
+     * Creates a new Asset Administration Shell Repository Interface using a custom HTTP client.
+     *
+     * @param endpoint Uri used to communicate with the FA³ST service
+     * @param httpClient Allows user to specify custom http-client
+     * @param codec the codec used to serialize requests and deserialize responses
+     */
+    public AASRepositoryInterface(URI endpoint, HttpClient httpClient, JsonCodec codec) {
+        super(resolve(endpoint, API_PATH), httpClient, codec);
+    }
+
+
     /**
      * Creates a new Asset Administration Shell Repository Interface using a custom HTTP client.
      *
@@ -106,6 +126,17 @@ public class AASRepositoryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves a list of all Asset Administration Shells.
+     *
+     * @return a future of a list of all Asset Administration Shells; completes exceptionally with the same exceptions
+     *         as {@link #getAll()}
+     */
+    public CompletableFuture<List<AssetAdministrationShell>> getAllAsync() {
+        return getAllAsync(AASSearchCriteria.DEFAULT);
+    }
+
+
     /**
      * Retrieves all Asset Administration Shells based on specific search criteria.
      *
@@ -128,6 +159,18 @@ public class AASRepositoryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves all Asset Administration Shells based on specific search criteria.
+     *
+     * @param aasSearchCriteria Search criteria to filter Asset Administration Shells based on AssetType and AssetKind
+     * @return a future of a list of Asset Administration Shells that match the search criteria; completes exceptionally
+     *         with the same exceptions as {@link #getAll(AASSearchCriteria)}
+     */
+    public CompletableFuture<List<AssetAdministrationShell>> getAllAsync(AASSearchCriteria aasSearchCriteria) {
+        return getAllAsync(null, aasSearchCriteria, Content.DEFAULT, QueryModifier.DEFAULT, AssetAdministrationShell.class);
+    }
+
+
     /**
      * Retrieves a page of Asset Administration Shells.
      *
@@ -150,6 +193,18 @@ public class AASRepositoryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves a page of Asset Administration Shells.
+     *
+     * @param pagingInfo Metadata for controlling the pagination of results
+     * @return a future of a page of Asset Administration Shells; completes exceptionally with the same exceptions as
+     *         {@link #get(PagingInfo)}
+     */
+    public CompletableFuture<Page<AssetAdministrationShell>> getAsync(PagingInfo pagingInfo) {
+        return getAsync(pagingInfo, AASSearchCriteria.DEFAULT);
+    }
+
+
     /**
      * Retrieves a page of Asset Administration Shells based on specific search criteria.
      *
@@ -173,6 +228,150 @@ public class AASRepositoryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves a page of Asset Administration Shells based on specific search criteria.
+     *
+     * @param pagingInfo Metadata for controlling the pagination of results
+     * @param aasSearchCriteria Search criteria to filter Asset Administration Shells based on AssetType and AssetKind
+     * @return a future of a page of Asset Administration Shells; completes exceptionally with the same exceptions as
+     *         {@link #get(PagingInfo, AASSearchCriteria)}
+     */
+    public CompletableFuture<Page<AssetAdministrationShell>> getAsync(PagingInfo pagingInfo, AASSearchCriteria aasSearchCriteria) {
+        return getPageAsync(null, Content.DEFAULT, QueryModifier.DEFAULT, pagingInfo, aasSearchCriteria, AssetAdministrationShell.class);
+    }
+
+
+    /**
+     * Lazily streams all Asset Administration Shells, following the paging cursors returned by the server.
+     *
+     * <p>
+     * Pages are requested lazily while the stream is consumed; the next page is requested in the background while the
+     * current page is consumed. Closing the stream stops requesting pages. Errors are thrown as
+     * {@link UncheckedClientException}. The limit of {@code pagingInfo} is used as page size, its cursor as starting
+     * point.
+     *
+     * @param pagingInfo Metadata for controlling the pagination of results
+     * @return a stream of all Asset Administration Shells
+     */
+    public Stream<AssetAdministrationShell> stream(PagingInfo pagingInfo) {
+        return stream(pagingInfo, AASSearchCriteria.DEFAULT);
+    }
+
+
+    /**
+     * Lazily streams all Asset Administration Shells matching specific search criteria, following the paging cursors
+     * returned by the server.
+     *
+     * <p>
+     * Pages are requested lazily while the stream is consumed; the next page is requested in the background while the
+     * current page is consumed. Closing the stream stops requesting pages. Errors are thrown as
+     * {@link UncheckedClientException}. The limit of {@code pagingInfo} is used as page size, its cursor as starting
+     * point.
+     *
+     * @param pagingInfo Metadata for controlling the pagination of results
+     * @param aasSearchCriteria Search criteria to filter Asset Administration Shells based on AssetType and AssetKind
+     * @return a stream of all matching Asset Administration Shells
+     */
+    public Stream<AssetAdministrationShell> stream(PagingInfo pagingInfo, AASSearchCriteria aasSearchCriteria) {
+        return stream(null, Content.DEFAULT, QueryModifier.DEFAULT, pagingInfo, aasSearchCriteria, AssetAdministrationShell.class);
+    }
+
+
+    /**
+     * Lazily iterates over all Asset Administration Shells, following the paging cursors returned by the server.
+     *
+     * <p>
+     * Pages are requested lazily while iterating; the next page is requested in the background while the current page
+     * is consumed. Iterators that are not consumed completely should be closed to stop requesting pages. Errors
+     * are thrown as {@link UncheckedClientException}. The limit of {@code pagingInfo} is used as page size, its cursor
+     * as starting point.
+     *
+     * @param pagingInfo Metadata for controlling the pagination of results
+     * @return an iterator over all Asset Administration Shells
+     */
+    public PagingIterator<AssetAdministrationShell> iterator(PagingInfo pagingInfo) {
+        return iterator(pagingInfo, AASSearchCriteria.DEFAULT);
+    }
+
+
+    /**
+     * Lazily iterates over all Asset Administration Shells matching specific search criteria, following the paging
+     * cursors returned by the server.
+     *
+     * <p>
+     * Pages are requested lazily while iterating; the next page is requested in the background while the current page
+     * is consumed. Iterators that are not consumed completely should be closed to stop requesting pages. Errors
+     * are thrown as {@link UncheckedClientException}. The limit of {@code pagingInfo} is used as page size, its cursor
+     * as starting point.
+     *
+     * @param pagingInfo Metadata for controlling the pagination of results
+     * @param aasSearchCriteria Search criteria to filter Asset Administration Shells based on AssetType and AssetKind
+     * @return an iterator over all matching Asset Administration Shells
+     */
+    public PagingIterator<AssetAdministrationShell> iterator(PagingInfo pagingInfo, AASSearchCriteria aasSearchCriteria) {
+        return iterate(null, Content.DEFAULT, QueryModifier.DEFAULT, pagingInfo, aasSearchCriteria, AssetAdministrationShell.class);
+    }
+
+
+    /**
+     * Retrieves multiple Asset Administration Shells by id, with at most
+     * {@link BulkRequestHelper#DEFAULT_MAX_CONCURRENCY} requests in flight.
+     *
+     * <p>
+     * Failures, e.g., for ids that do not exist, are collected per id and do not abort the remaining requests.
+     *
+     * @param ids the Asset Administration Shells' unique ids
+     * @return the retrieved Asset Administration Shells and failures by id
+     */
+    public BulkResult<AssetAdministrationShell> getByIds(Collection<String> ids) {
+        return getByIds(ids, BulkRequestHelper.DEFAULT_MAX_CONCURRENCY);
+    }
+
+
+    /**
+     * Asynchronously retrieves multiple Asset Administration Shells by id, with at most
+     * {@link BulkRequestHelper#DEFAULT_MAX_CONCURRENCY} requests in flight.
+     *
+     * @param ids the Asset Administration Shells' unique ids
+     * @return a future of the retrieved Asset Administration Shells and failures by id; never completes exceptionally
+     */
+    public CompletableFuture<BulkResult<AssetAdministrationShell>> getByIdsAsync(Collection<String> ids) {
+        return getByIdsAsync(ids, BulkRequestHelper.DEFAULT_MAX_CONCURRENCY);
+    }
+
+
+    /**
+     * Retrieves multiple Asset Administration Shells by id.
+     *
+     * <p>
+     * Requests are sent concurrently, with at most {@code maxConcurrency} requests in flight. Failures, e.g., for ids
+     * that do not exist, are collected per id and do not abort the remaining requests.
+     *
+     * @param ids the Asset Administration Shells' unique ids
+     * @param maxConcurrency the maximum number of concurrent requests
+     * @return the retrieved Asset Administration Shells and failures by id
+     */
+    public BulkResult<AssetAdministrationShell> getByIds(Collection<String> ids, int maxConcurrency) {
+        return getByIdsAsync(ids, maxConcurrency).join();
+    }
+
+
+    /**
+     * Asynchronously retrieves multiple Asset Administration Shells by id.
+     *
+     * <p>
+     * Requests are sent concurrently, with at most {@code maxConcurrency} requests in flight. Failures, e.g., for ids
+     * that do not exist, are collected per id and do not abort the remaining requests.
+     *
+     * @param ids the Asset Administration Shells' unique ids
+     * @param maxConcurrency the maximum number of concurrent requests
+     * @return a future of the retrieved Asset Administration Shells and failures by id; never completes exceptionally
+     */
+    public CompletableFuture<BulkResult<AssetAdministrationShell>> getByIdsAsync(Collection<String> ids, int maxConcurrency) {
+        return getByIdsAsync(ids, maxConcurrency, AssetAdministrationShell.class);
+    }
+
+
     /**
      * Creates a new Asset Administration Shell.
      * The unique identifier of the Asset Administration Shell must be provided in the payload.
@@ -197,6 +396,18 @@ public class AASRepositoryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously creates a new Asset Administration Shell.
+     *
+     * @param aas Asset Administration Shell object to be created
+     * @return a future of the created Asset Administration Shell; completes exceptionally with the same exceptions as
+     *         {@link #post(AssetAdministrationShell)}
+     */
+    public CompletableFuture<AssetAdministrationShell> postAsync(AssetAdministrationShell aas) {
+        return postAsync(null, aas, AssetAdministrationShell.class);
+    }
+
+
     /**
      * Retrieves references to all Asset Administration Shells.
      *
@@ -218,6 +429,17 @@ public class AASRepositoryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves references to all Asset Administration Shells.
+     *
+     * @return a future of a list of references to all Asset Administration Shells; completes exceptionally with the
+     *         same exceptions as {@link #getAllAsReference()}
+     */
+    public CompletableFuture<List<Reference>> getAllAsReferenceAsync() {
+        return getAllAsReferenceAsync(AASSearchCriteria.DEFAULT);
+    }
+
+
     /**
      * Retrieves references to all Asset Administration Shells based on specific search criteria.
      *
@@ -241,6 +463,18 @@ public class AASRepositoryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves references to all Asset Administration Shells based on specific search criteria.
+     *
+     * @param aasSearchCriteria Search criteria to filter Asset Administration Shells based on AssetType and AssetKind
+     * @return a future of a list of references to Asset Administration Shells; completes exceptionally with the same
+     *         exceptions as {@link #getAllAsReference(AASSearchCriteria)}
+     */
+    public CompletableFuture<List<Reference>> getAllAsReferenceAsync(AASSearchCriteria aasSearchCriteria) {
+        return getAllAsync(null, aasSearchCriteria, Content.REFERENCE, QueryModifier.DEFAULT, Reference.class);
+    }
+
+
     /**
      * Retrieves a page of references to Asset Administration Shells.
      *
@@ -263,6 +497,18 @@ public class AASRepositoryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves a page of references to Asset Administration Shells.
+     *
+     * @param pagingInfo Metadata for controlling the pagination of results
+     * @return a future of a page of references to Asset Administration Shells; completes exceptionally with the same
+     *         exceptions as {@link #getReference(PagingInfo)}
+     */
+    public CompletableFuture<Page<Reference>> getReferenceAsync(PagingInfo pagingInfo) {
+        return getReferenceAsync(pagingInfo, AASSearchCriteria.DEFAULT);
+    }
+
+
     /**
      * Retrieves a page of references to Asset Administration Shells based on specific search criteria.
      *
@@ -287,6 +533,19 @@ public class AASRepositoryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves a page of references to Asset Administration Shells based on specific search criteria.
+     *
+     * @param pagingInfo Metadata for controlling the pagination of results
+     * @param aasSearchCriteria Search criteria to filter Asset Administration Shells based on AssetType and AssetKind
+     * @return a future of a page of references to Asset Administration Shells; completes exceptionally with the same
+     *         exceptions as {@link #getReference(PagingInfo, AASSearchCriteria)}
+     */
+    public CompletableFuture<Page<Reference>> getReferenceAsync(PagingInfo pagingInfo, AASSearchCriteria aasSearchCriteria) {
+        return getPageAsync(null, Content.REFERENCE, QueryModifier.DEFAULT, pagingInfo, aasSearchCriteria, Reference.class);
+    }
+
+
     /**
      * Deletes an Asset Administration Shell.
      *
@@ -309,6 +568,19 @@ public class AASRepositoryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously deletes an Asset Administration Shell.
+     *
+     * @param aasIdentifier The unique identifier of the Asset Administration Shell to be deleted
+     * @return a future completing when the request has been processed; completes exceptionally with the same exceptions
+     *         as {@link #delete(String)}
+     */
+    @Override
+    public CompletableFuture<Void> deleteAsync(String aasIdentifier) {
+        return super.deleteAsync(idPath(aasIdentifier));
+    }
+
+
     /**
      * Returns an AAS Interface for accessing the data of AAS elements.
      *
@@ -316,14 +588,14 @@ public class AASRepositoryInterface extends BaseInterface {
      * @return Requested Asset Administration Shell Interface
      */
     public AASInterface getAASInterface(String aasIdentifier) {
-        return new AASInterface(resolve(idPath(aasIdentifier)), httpClient);
+        return inheritSettings(new AASInterface(resolve(idPath(aasIdentifier)), httpClient, codec));
     }
 
     public static class Builder extends AbstractBuilder<AASRepositoryInterface, Builder> {
 
         @Override
         protected AASRepositoryInterface buildConcrete() {
-            return new AASRepositoryInterface(endpoint, httpClient());
+            return new AASRepositoryInterface(endpoint, httpClient(), codec());
         }
     }
 }
@@ -22,20 +22,54 @@ import de.fraunhofer.iosb.ilt.faaast.client.exception.InternalServerErrorExcepti
 import de.fraunhofer.iosb.ilt.faaast.client.exception.InvalidPayloadException;
 import de.fraunhofer.iosb.ilt.faaast.client.exception.MethodNotAllowedException;
 import de.fraunhofer.iosb.ilt.faaast.client.exception.NotFoundException;
+import de.fraunhofer.iosb.ilt.faaast.client.exception.ServiceUnavailableException;
 import de.fraunhofer.iosb.ilt.faaast.client.exception.StatusCodeException;
+import de.fraunhofer.iosb.ilt.faaast.client.exception.TooManyRequestsException;
 import de.fraunhofer.iosb.ilt.faaast.client.exception.UnauthorizedException;
 import de.fraunhofer.iosb.ilt.faaast.client.exception.UnsupportedStatusCodeException;
+import de.fraunhofer.iosb.ilt.faaast.client.http.Bulkhead;
+import de.fraunhofer.iosb.ilt.faaast.client.http.CircuitBreaker;
+import de.fraunhofer.iosb.ilt.faaast.client.http.CompressionPolicy;
+import de.fraunhofer.iosb.ilt.faaast.client.http.ConcurrencyLimiter;
+import de.fraunhofer.iosb.ilt.faaast.client.http.EndpointSet;
+import de.fraunhofer.iosb.ilt.faaast.client.http.HedgingPolicy;
+import de.fraunhofer.iosb.ilt.faaast.client.http.HttpClientBulkheaded;
+import de.fraunhofer.iosb.ilt.faaast.client.http.HttpClientCircuitBreaking;
+import de.fraunhofer.iosb.ilt.faaast.client.http.HttpClientCompressing;
+import de.fraunhofer.iosb.ilt.faaast.client.http.HttpClientConcurrencyLimited;
+import de.fraunhofer.iosb.ilt.faaast.client.http.HttpClientHedging;
+import de.fraunhofer.iosb.ilt.faaast.client.http.HttpClientLoadBalancing;
 import de.fraunhofer.iosb.ilt.faaast.client.http.HttpMethod;
 import de.fraunhofer.iosb.ilt.faaast.client.http.HttpStatus;
+import de.fraunhofer.iosb.ilt.faaast.client.http.HttpClientMonitored;
+import de.fraunhofer.iosb.ilt.faaast.client.http.HttpClientRateLimited;
+import de.fraunhofer.iosb.ilt.faaast.client.http.HttpClientRetrying;
+import de.fraunhofer.iosb.ilt.faaast.client.http.HttpClientThrottled;
 import de.fraunhofer.iosb.ilt.faaast.client.http.HttpClientTokenBased;
+import de.fraunhofer.iosb.ilt.faaast.client.http.HttpConnectionStatistics;
+import de.fraunhofer.iosb.ilt.faaast.client.http.RateLimiter;
+import de.fraunhofer.iosb.ilt.faaast.client.http.RetryPolicy;
+import de.fraunhofer.iosb.ilt.faaast.client.http.ServerThrottle;
 import de.fraunhofer.iosb.ilt.faaast.client.query.SearchCriteria;
+import de.fraunhofer.iosb.ilt.faaast.client.util.BoundedCache;
+import de.fraunhofer.iosb.ilt.faaast.client.util.BulkRequestHelper;
+import de.fraunhofer.iosb.ilt.faaast.client.util.BulkResult;
+import de.fraunhofer.iosb.ilt.faaast.client.util.DownloadedFile;
+import de.fraunhofer.iosb.ilt.faaast.client.util.FileCache;
 import de.fraunhofer.iosb.ilt.faaast.client.util.HttpClientHelper;
 import de.fraunhofer.iosb.ilt.faaast.client.util.HttpRequestHelper;
+import de.fraunhofer.iosb.ilt.faaast.client.util.JsonBodyPublishers;
+import de.fraunhofer.iosb.ilt.faaast.client.util.JsonCodec;
+import de.fraunhofer.iosb.ilt.faaast.client.util.MultipartBodyPublishers;
+import de.fraunhofer.iosb.ilt.faaast.client.util.PagingIterator;
 import de.fraunhofer.iosb.ilt.faaast.client.util.QueryHelper;
+import de.fraunhofer.iosb.ilt.faaast.client.util.RangeDownloadOptions;
+import de.fraunhofer.iosb.ilt.faaast.client.util.RangeDownloader;
+import de.fraunhofer.iosb.ilt.faaast.client.util.SingleFlight;
+import de.fraunhofer.iosb.ilt.faaast.client.util.StreamedFile;
+import de.fraunhofer.iosb.ilt.faaast.client.util.StreamingJsonSerializer;
 import de.fraunhofer.iosb.ilt.faaast.service.dataformat.DeserializationException;
 import de.fraunhofer.iosb.ilt.faaast.service.dataformat.SerializationException;
-import de.fraunhofer.iosb.ilt.faaast.service.dataformat.json.JsonApiDeserializer;
-import de.fraunhofer.iosb.ilt.faaast.service.dataformat.json.JsonApiSerializer;
 import de.fraunhofer.iosb.ilt.faaast.service.model.InMemoryFile;
 import de.fraunhofer.iosb.ilt.faaast.service.model.TypedInMemoryFile;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.modifier.Content;
@@ -43,25 +77,36 @@ import de.fraunhofer.iosb.ilt.faaast.service.model.api.modifier.OutputModifier;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.modifier.QueryModifier;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.Page;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.PagingInfo;
-import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.PagingMetadata;
 import de.fraunhofer.iosb.ilt.faaast.service.model.exception.UnsupportedModifierException;
 import de.fraunhofer.iosb.ilt.faaast.service.model.value.ElementValue;
 import de.fraunhofer.iosb.ilt.faaast.service.typing.TypeInfo;
 import de.fraunhofer.iosb.ilt.faaast.service.util.EncodingHelper;
 import de.fraunhofer.iosb.ilt.faaast.service.util.Ensure;
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 
 /**
@@ -69,6 +114,12 @@ import java.util.function.Supplier;
  * POST, PUT, PATCH and DELETE operations, deserialization of
  * responses, and throws exceptions based on status codes. Subclasses extend these methods to interact with specific
  * APIs.
+ *
+ * <p>
+ * Each operation is also available in a non-blocking variant (suffixed with {@code Async}) that is based on
+ * {@link HttpClient#sendAsync(HttpRequest, HttpResponse.BodyHandler)}. The returned futures complete exceptionally with
+ * the same exceptions the blocking variants throw, i.e., {@link ConnectivityException}, {@link StatusCodeException} or
+ * {@link InvalidPayloadException}, wrapped in a {@link CompletionException}.
  */
 public abstract class BaseInterface {
     private static final String URI_PATH_SEPERATOR = "/";
@@ -77,20 +128,41 @@ public abstract class BaseInterface {
             HttpStatus.UNAUTHORIZED,
             HttpStatus.FORBIDDEN,
             HttpStatus.NOT_FOUND,
-            HttpStatus.INTERNAL_SERVER_ERROR);
+            HttpStatus.TOO_MANY_REQUESTS,
+            HttpStatus.INTERNAL_SERVER_ERROR,
+            HttpStatus.SERVICE_UNAVAILABLE);
+    private static final int ID_PATH_CACHE_SIZE = 1024;
+    private static final int HTTP_NOT_MODIFIED = 304;
+    private static final BoundedCache<String, String> ID_PATHS = new BoundedCache<>(ID_PATH_CACHE_SIZE);
 
     protected final HttpClient httpClient;
     protected final URI endpoint;
+    protected final JsonCodec codec;
+    SingleFlight singleFlight;
+    FileCache fileCache;
 
     /**
      * Creates a new instance.
      *
      * @param endpoint Uri used to communicate with the FA³ST service
      * @param httpClient Allows user to specify custom http-client
+     * @param codec the codec used to serialize requests and deserialize responses
      */
-    protected BaseInterface(URI endpoint, HttpClient httpClient) {
+    protected BaseInterface(URI endpoint, HttpClient httpClient, JsonCodec codec) {
         this.endpoint = sanitizeEndpoint(endpoint);
         this.httpClient = httpClient;
+        this.codec = Objects.requireNonNullElseGet(codec, JsonCodec::getDefault);
+    }
+
+
+    /**
+     * Creates a new instance.
+     *
+     * @param endpoint Uri used to communicate with the FA³ST service
+     * @param httpClient Allows user to specify custom http-client
+     */
+    protected BaseInterface(URI endpoint, HttpClient httpClient) {
+        this(endpoint, httpClient, JsonCodec.getDefault());
     }
 
 
@@ -255,10 +327,12 @@ public abstract class BaseInterface {
      * @throws InvalidPayloadException if deserializing the payload fails
      */
     protected <T> T get(String path, QueryModifier modifier, Content content, Class<T> responseType) throws ConnectivityException, StatusCodeException {
-        HttpRequest request = HttpRequestHelper.createGetRequest(resolve(QueryHelper.apply(path, content, modifier)));
-        HttpResponse<String> response = HttpRequestHelper.send(httpClient, request);
-        validateStatusCode(HttpMethod.GET, response, HttpStatus.OK);
-        return parseBody(response, responseType);
+        URI uri = resolve(QueryHelper.apply(path, content, modifier));
+        return coalesced(uri, responseType, () -> {
+            HttpResponse<InputStream> response = HttpRequestHelper.sendStreaming(httpClient, HttpRequestHelper.createGetRequest(uri));
+            validateStatusCode(HttpMethod.GET, response, HttpStatus.OK);
+            return parseStream(response.body(), responseType);
+        });
     }
 
 
@@ -275,15 +349,12 @@ public abstract class BaseInterface {
      * @throws InvalidPayloadException if deserializing the payload fails
      */
     protected <T extends ElementValue> T getValue(String path, QueryModifier modifier, TypeInfo<?> typeInfo) throws ConnectivityException, StatusCodeException {
-        HttpRequest request = HttpRequestHelper.createGetRequest(resolve(QueryHelper.apply(path, Content.VALUE, modifier)));
-        HttpResponse<String> response = HttpRequestHelper.send(httpClient, request);
-        validateStatusCode(HttpMethod.GET, response, HttpStatus.OK);
-        try {
-            return new JsonApiDeserializer().readValue(response.body(), typeInfo);
-        }
-        catch (DeserializationException e) {
-            throw new InvalidPayloadException(e);
-        }
+        URI uri = resolve(QueryHelper.apply(path, Content.VALUE, modifier));
+        return coalesced(uri, typeInfo, () -> {
+            HttpResponse<String> response = HttpRequestHelper.send(httpClient, HttpRequestHelper.createGetRequest(uri));
+            validateStatusCode(HttpMethod.GET, response, HttpStatus.OK);
+            return parseValue(response, typeInfo);
+        });
     }
 
 
@@ -295,6 +366,9 @@ public abstract class BaseInterface {
      * @throws StatusCodeException if HTTP request returns invalid status code
      */
     protected InMemoryFile getFile(String path) throws ConnectivityException, StatusCodeException {
+        if (Objects.nonNull(fileCache)) {
+            return HttpRequestHelper.await(getFileAsync(path));
+        }
         HttpRequest request = HttpRequestHelper.createGetRequest(resolve(QueryHelper.apply(path, Content.DEFAULT, QueryModifier.DEFAULT)));
         HttpResponse<byte[]> response = HttpRequestHelper.sendFileRequest(httpClient, request);
         validateStatusCode(HttpMethod.GET, response, HttpStatus.OK);
@@ -303,6 +377,61 @@ public abstract class BaseInterface {
     }
 
 
+    /**
+     * Executes a HTTP GET and writes the response body to {@code target} while it is being transferred.
+     *
+     * @param path the URL path relative to the current endpoint
+     * @param target the file to write the content to
+     * @return the downloaded file
+     * @throws ConnectivityException if connection to the server fails
+     * @throws StatusCodeException if HTTP request returns invalid status code
+     */
+    protected DownloadedFile getFile(String path, Path target) throws ConnectivityException, StatusCodeException {
+        if (Objects.nonNull(fileCache)) {
+            return HttpRequestHelper.await(getFileAsync(path, target));
+        }
+        HttpRequest request = HttpRequestHelper.createGetRequest(resolve(QueryHelper.apply(path, Content.DEFAULT, QueryModifier.DEFAULT)));
+        HttpResponse<Object> response = HttpRequestHelper.sendFileRequest(httpClient, request, target);
+        validateStatusCode(HttpMethod.GET, response, HttpStatus.OK);
+        return (DownloadedFile) response.body();
+    }
+
+
+    /**
+     * Executes a HTTP GET using range requests and writes the response body to {@code target}, see
+     * {@link RangeDownloader}.
+     *
+     * @param path the URL path relative to the current endpoint
+     * @param target the file to write the content to
+     * @param options the download options
+     * @return the downloaded file
+     * @throws ConnectivityException if connection to the server fails or the content does not match its checksum
+     * @throws StatusCodeException if HTTP request returns invalid status code
+     */
+    protected DownloadedFile getFile(String path, Path target, RangeDownloadOptions options) throws ConnectivityException, StatusCodeException {
+        return HttpRequestHelper.await(getFileAsync(path, target, options));
+    }
+
+
+    /**
+     * Executes a HTTP GET and returns the response body as stream as soon as the headers have been received.
+     *
+     * @param path the URL path relative to the current endpoint
+     * @return the streamed file, must be closed by the caller
+     * @throws ConnectivityException if connection to the server fails
+     * @throws StatusCodeException if HTTP request returns invalid status code
+     */
+    protected StreamedFile getFileStream(String path) throws ConnectivityException, StatusCodeException {
+        if (Objects.nonNull(fileCache)) {
+            return HttpRequestHelper.await(readCachedFileAsync(path, FileCache.Entry::open));
+        }
+        HttpRequest request = HttpRequestHelper.createGetRequest(resolve(QueryHelper.apply(path, Content.DEFAULT, QueryModifier.DEFAULT)));
+        HttpResponse<InputStream> response = HttpRequestHelper.sendStreaming(httpClient, request);
+        validateStatusCode(HttpMethod.GET, response, HttpStatus.OK);
+        return HttpRequestHelper.parseStreamedBody(response);
+    }
+
+
     /**
      * Executes a HTTP GET and parses the response body as a list of {@code responseType}.
      *
@@ -386,14 +515,9 @@ public abstract class BaseInterface {
     protected <T> List<T> getAll(String path, SearchCriteria searchCriteria, Content content, QueryModifier modifier, Class<T> responseType)
             throws ConnectivityException, StatusCodeException {
         HttpRequest request = HttpRequestHelper.createGetRequest(resolve(QueryHelper.apply(path, content, modifier, PagingInfo.ALL, searchCriteria)));
-        HttpResponse<String> response = HttpRequestHelper.send(httpClient, request);
+        HttpResponse<InputStream> response = HttpRequestHelper.sendStreaming(httpClient, request);
         validateStatusCode(HttpMethod.GET, response, HttpStatus.OK);
-        try {
-            return deserializePage(response.body(), responseType).getContent();
-        }
-        catch (DeserializationException | JSONException e) {
-            throw new InvalidPayloadException(e);
-        }
+        return parsePageStream(response.body(), responseType).getContent();
     }
 
 
@@ -411,14 +535,9 @@ public abstract class BaseInterface {
     protected <T> List<T> getAllList(String path, Class<T> responseType)
             throws ConnectivityException, StatusCodeException {
         HttpRequest request = HttpRequestHelper.createGetRequest(resolve(path));
-        HttpResponse<String> response = HttpRequestHelper.send(httpClient, request);
+        HttpResponse<InputStream> response = HttpRequestHelper.sendStreaming(httpClient, request);
         validateStatusCode(HttpMethod.GET, response, HttpStatus.OK);
-        try {
-            return new JsonApiDeserializer().readList(response.body(), responseType);
-        }
-        catch (DeserializationException e) {
-            throw new InvalidPayloadException(e);
-        }
+        return parseListStream(response.body(), responseType);
     }
 
 
@@ -531,14 +650,9 @@ public abstract class BaseInterface {
     protected <T> Page<T> getPage(String path, Content content, QueryModifier modifier, PagingInfo pagingInfo, SearchCriteria searchCriteria, Class<T> responseType)
             throws ConnectivityException, StatusCodeException {
         HttpRequest request = HttpRequestHelper.createGetRequest(resolve(QueryHelper.apply(path, content, modifier, pagingInfo, searchCriteria)));
-        HttpResponse<String> response = HttpRequestHelper.send(httpClient, request);
+        HttpResponse<InputStream> response = HttpRequestHelper.sendStreaming(httpClient, request);
         validateStatusCode(HttpMethod.GET, response, HttpStatus.OK);
-        try {
-            return deserializePage(response.body(), responseType);
-        }
-        catch (DeserializationException | JSONException e) {
-            throw new InvalidPayloadException(e);
-        }
+        return parsePageStream(response.body(), responseType);
     }
 
 
@@ -631,7 +745,7 @@ public abstract class BaseInterface {
             throws ConnectivityException, StatusCodeException {
         HttpRequest request = HttpRequestHelper.createPostRequest(
                 resolve(QueryHelper.apply(path, content, QueryModifier.DEFAULT)),
-                serialize(entity, content, modifier));
+                body(entity, content, modifier));
         HttpResponse<String> response = HttpRequestHelper.send(httpClient, request);
         validateStatusCode(HttpMethod.POST, response, expectedStatusCode);
         return parseBody(response, responseType);
@@ -703,7 +817,7 @@ public abstract class BaseInterface {
     protected void put(String path, Object entity, Content content, QueryModifier modifier) throws ConnectivityException, StatusCodeException {
         HttpRequest request = HttpRequestHelper.createPutRequest(
                 resolve(QueryHelper.apply(path, content, modifier)),
-                serialize(entity, content, modifier));
+                body(entity, content, modifier));
         HttpResponse<String> response = HttpRequestHelper.send(httpClient, request);
         validateStatusCode(HttpMethod.PUT, response, HttpStatus.NO_CONTENT);
     }
@@ -718,7 +832,58 @@ public abstract class BaseInterface {
      * @throws StatusCodeException if HTTP request returns invalid status code
      */
     protected void putFile(String path, TypedInMemoryFile file) throws ConnectivityException, StatusCodeException {
-        HttpRequest request = HttpRequestHelper.createPutFileRequest(resolve(QueryHelper.apply(path, Content.DEFAULT, QueryModifier.DEFAULT)), file);
+        URI uri = resolve(QueryHelper.apply(path, Content.DEFAULT, QueryModifier.DEFAULT));
+        if (isUploadRedundant(uri, () -> FileCache.hash(file.getContent()))) {
+            return;
+        }
+        HttpRequest request = HttpRequestHelper.createPutFileRequest(uri, file);
+        HttpResponse<byte[]> response = HttpRequestHelper.sendFileRequest(httpClient, request);
+        validateStatusCode(HttpMethod.PUT, response, HttpStatus.NO_CONTENT);
+        if (Objects.nonNull(fileCache)) {
+            fileCache.recordUpload(uri, file.getContent(), file.getPath(), file.getContentType());
+        }
+    }
+
+
+    /**
+     * Executes an HTTP PUT for files, streaming the content of {@code file} while the request is sent.
+     *
+     * @param path the URL path relative to the current endpoint
+     * @param file the file to upload
+     * @param contentType the content type of the file
+     * @throws ConnectivityException if connection to the server fails
+     * @throws StatusCodeException if HTTP request returns invalid status code
+     * @throws IllegalArgumentException if the file is not readable
+     */
+    protected void putFile(String path, Path file, String contentType) throws ConnectivityException, StatusCodeException {
+        HttpRequest.BodyPublisher content = MultipartBodyPublishers.ofPath(file);
+        URI uri = resolve(QueryHelper.apply(path, Content.DEFAULT, QueryModifier.DEFAULT));
+        if (isUploadRedundant(uri, () -> FileCache.hash(file))) {
+            return;
+        }
+        HttpRequest request = HttpRequestHelper.createPutFileRequest(uri, file.getFileName().toString(), contentType, content);
+        HttpResponse<byte[]> response = HttpRequestHelper.sendFileRequest(httpClient, request);
+        validateStatusCode(HttpMethod.PUT, response, HttpStatus.NO_CONTENT);
+        if (Objects.nonNull(fileCache)) {
+            fileCache.recordUpload(uri, file, file.getFileName().toString(), contentType);
+        }
+    }
+
+
+    /**
+     * Executes an HTTP PUT for files, streaming the content while the request is sent.
+     *
+     * @param path the URL path relative to the current endpoint
+     * @param fileName the file name
+     * @param contentType the content type of the file
+     * @param content the content of the file
+     * @throws ConnectivityException if connection to the server fails
+     * @throws StatusCodeException if HTTP request returns invalid status code
+     */
+    protected void putFile(String path, String fileName, String contentType, HttpRequest.BodyPublisher content) throws ConnectivityException, StatusCodeException {
+        URI uri = resolve(QueryHelper.apply(path, Content.DEFAULT, QueryModifier.DEFAULT));
+        invalidateCachedFile(uri);
+        HttpRequest request = HttpRequestHelper.createPutFileRequest(uri, fileName, contentType, content);
         HttpResponse<byte[]> response = HttpRequestHelper.sendFileRequest(httpClient, request);
         validateStatusCode(HttpMethod.PUT, response, HttpStatus.NO_CONTENT);
     }
@@ -791,7 +956,7 @@ public abstract class BaseInterface {
     protected void patch(String path, Object entity, Content content, QueryModifier modifier) throws ConnectivityException, StatusCodeException {
         HttpRequest request = HttpRequestHelper.createPatchRequest(
                 resolve(QueryHelper.apply(path, content, modifier)),
-                serialize(entity, content, modifier));
+                body(entity, content, modifier));
         HttpResponse<String> response = HttpRequestHelper.send(httpClient, request);
         validateStatusCode(HttpMethod.PATCH, response, HttpStatus.NO_CONTENT);
     }
@@ -843,195 +1008,894 @@ public abstract class BaseInterface {
 
 
     /**
-     * Creates a URL path for an id in the form of "/{base64URL-encoded id}".
+     * Executes a HTTP DELETE for files and removes the file from the file cache, if any.
      *
-     * @param id the id
-     * @return the URL path with the encoded id
+     * @param path the URL path relative to the current endpoint
+     * @throws ConnectivityException if connection to the server fails
+     * @throws StatusCodeException if HTTP request returns invalid status code
      */
-    protected String idPath(String id) {
-        return "/" + EncodingHelper.base64UrlEncode(id);
+    protected void deleteFile(String path) throws ConnectivityException, StatusCodeException {
+        invalidateCachedFile(resolve(QueryHelper.apply(path, Content.DEFAULT, QueryModifier.DEFAULT)));
+        delete(path, HttpStatus.OK);
     }
 
 
     /**
-     * Resolves a path to the current {@code endpoint}.
+     * Executes a HTTP GET asynchronously and parses the response body as {@code responseType}.
      *
-     * @param path the path to resolve
-     * @return the resolved path relative to the current {@code endpoint}
+     * @param <T> the result type
+     * @param path the URL path relative to the current endpoint
+     * @param responseType the result type
+     * @return a future of the parsed HTTP response
      */
-    protected URI resolve(String path) {
-        return resolve(endpoint, path);
+    protected <T> CompletableFuture<T> getAsync(String path, Class<T> responseType) {
+        return getAsync(path, QueryModifier.DEFAULT, Content.DEFAULT, responseType);
     }
 
 
     /**
-     * Resolves a path to a given {@code baseUri}.
+     * Executes a HTTP GET asynchronously and parses the response body as {@code responseType}.
      *
-     * @param baseUri the URI to resolve the path to
-     * @param path the path to resolve
-     * @return the resolved path relative to the current {@code baseUri}
+     * @param <T> the result type
+     * @param path the URL path relative to the current endpoint
+     * @param modifier the query modifier
+     * @param content the content modifier
+     * @param responseType the result type
+     * @return a future of the parsed HTTP response
      */
-    protected static URI resolve(URI baseUri, String path) {
-        if (Objects.isNull(path) || path.isBlank()) {
-            return baseUri;
-        }
-        String actualPath = path;
-        if (actualPath.startsWith(URI_PATH_SEPERATOR)) {
-            actualPath = "." + actualPath;
-        }
-        else if (!actualPath.startsWith("./")) {
-            actualPath = "./" + actualPath;
-        }
-        if (actualPath.endsWith(URI_PATH_SEPERATOR)) {
-            actualPath = actualPath.substring(0, actualPath.length() - 1);
-        }
-        try {
-            String uriString = new URI(baseUri + URI_PATH_SEPERATOR).resolve(actualPath).toString();
-            return new URI(uriString.replaceAll("/\\?", "?"));
-        }
-        catch (URISyntaxException e) {
-            throw new IllegalArgumentException(
-                    String.format(
-                            "error resolving path (endpoint: %s, path: %s)",
-                            baseUri,
-                            actualPath),
-                    e);
-        }
+    protected <T> CompletableFuture<T> getAsync(String path, QueryModifier modifier, Content content, Class<T> responseType) {
+        URI uri = resolve(QueryHelper.apply(path, content, modifier));
+        return coalescedAsync(uri, responseType, () -> HttpRequestHelper.sendAsync(httpClient, HttpRequestHelper.createGetRequest(uri), HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(validated(HttpMethod.GET, HttpStatus.OK))
+                .thenApply(response -> parseStream(new ByteArrayInputStream(response.body()), responseType)));
     }
 
 
-    private static URI sanitizeEndpoint(URI endpoint) {
-        URI result = endpoint;
-        if (endpoint.getPath().endsWith(URI_PATH_SEPERATOR)) {
-            try {
-                result = new URI(endpoint.toString().substring(0, endpoint.toString().length() - 1));
-            }
-            catch (URISyntaxException e) {
-                throw new IllegalArgumentException(String.format("error sanitizing endpoint URI (endpoint: %s", endpoint), e);
-            }
-        }
-        return result;
+    /**
+     * Executes a HTTP GET asynchronously and parses the response body using valueOnly serialization.
+     *
+     * @param <T> the result type
+     * @param path the URL path relative to the current endpoint
+     * @param modifier the query modifier
+     * @param typeInfo the type information about the AAS element to be returned
+     * @return a future of the parsed HTTP response
+     */
+    protected <T extends ElementValue> CompletableFuture<T> getValueAsync(String path, QueryModifier modifier, TypeInfo<?> typeInfo) {
+        URI uri = resolve(QueryHelper.apply(path, Content.VALUE, modifier));
+        return coalescedAsync(uri, typeInfo, () -> HttpRequestHelper.sendAsync(httpClient, HttpRequestHelper.createGetRequest(uri))
+                .thenApply(validated(HttpMethod.GET, HttpStatus.OK))
+                .thenApply(response -> this.<T> parseValue(response, typeInfo)));
     }
 
 
     /**
-     * Parses body of HTTP response.
+     * Executes a HTTP GET asynchronously and returns the response body as file.
      *
-     * @param <T> result type
-     * @param response the response
-     * @param responseType the type of the payload to parse
-     * @return parsed body of response
+     * @param path the URL path relative to the current endpoint
+     * @return a future of the file
      */
-    protected static <T> T parseBody(HttpResponse<String> response, Class<T> responseType) {
-        try {
-            return new JsonApiDeserializer().read(response.body(), responseType);
-        }
-        catch (DeserializationException e) {
-            throw new InvalidPayloadException(e);
+    protected CompletableFuture<InMemoryFile> getFileAsync(String path) {
+        if (Objects.nonNull(fileCache)) {
+            return readCachedFileAsync(path, entry -> new InMemoryFile.Builder()
+                    .content(entry.readContent())
+                    .path(entry.getFileName())
+                    .build());
         }
+        HttpRequest request = HttpRequestHelper.createGetRequest(resolve(QueryHelper.apply(path, Content.DEFAULT, QueryModifier.DEFAULT)));
+        return HttpRequestHelper.sendFileRequestAsync(httpClient, request)
+                .thenApply(validated(HttpMethod.GET, HttpStatus.OK))
+                .thenApply(HttpRequestHelper::parseBody);
     }
 
 
-    private static String serialize(Object entity, Content content, QueryModifier queryModifier) {
-        try {
-            OutputModifier outputModifier = new OutputModifier.Builder()
-                    .level(queryModifier.getLevel())
-                    .extend(queryModifier.getExtent())
-                    .content(content).build();
-            return new JsonApiSerializer().write(entity, outputModifier);
-        }
-        catch (SerializationException | UnsupportedModifierException e) {
-            throw new InvalidPayloadException("Serialization Failed", e);
+    /**
+     * Executes a HTTP GET asynchronously and writes the response body to {@code target} while it is being transferred.
+     *
+     * @param path the URL path relative to the current endpoint
+     * @param target the file to write the content to
+     * @return a future of the downloaded file
+     */
+    protected CompletableFuture<DownloadedFile> getFileAsync(String path, Path target) {
+        if (Objects.nonNull(fileCache)) {
+            Ensure.requireNonNull(target, "target must be non-null");
+            return readCachedFileAsync(path, entry -> entry.copyTo(target));
         }
+        HttpRequest request = HttpRequestHelper.createGetRequest(resolve(QueryHelper.apply(path, Content.DEFAULT, QueryModifier.DEFAULT)));
+        return HttpRequestHelper.sendFileRequestAsync(httpClient, request, target)
+                .thenApply(validated(HttpMethod.GET, HttpStatus.OK))
+                .thenApply(response -> (DownloadedFile) response.body());
     }
 
 
     /**
-     * Serialises class for body of HTTP response.
+     * Executes a HTTP GET asynchronously using range requests and writes the response body to {@code target}, see
+     * {@link RangeDownloader}.
      *
-     * @param entity the payload to parse
-     * @return parsed body of request
+     * @param path the URL path relative to the current endpoint
+     * @param target the file to write the content to
+     * @param options the download options
+     * @return a future of the downloaded file
      */
-    protected static String serializeEntity(Object entity) {
-        try {
-            return new JsonApiSerializer().write(entity, OutputModifier.DEFAULT);
-        }
-        catch (SerializationException | UnsupportedModifierException e) {
-            throw new InvalidPayloadException("Serialization Failed", e);
-        }
+    protected CompletableFuture<DownloadedFile> getFileAsync(String path, Path target, RangeDownloadOptions options) {
+        HttpRequest request = HttpRequestHelper.createGetRequest(resolve(QueryHelper.apply(path, Content.DEFAULT, QueryModifier.DEFAULT)));
+        return RangeDownloader.downloadAsync(httpClient, request, target, options)
+                .thenApply(response -> {
+                    if (response.body() instanceof DownloadedFile) {
+                        return (DownloadedFile) response.body();
+                    }
+                    return (DownloadedFile) validated(HttpMethod.GET, HttpStatus.OK).apply(response).body();
+                });
     }
 
 
     /**
-     * Parses body of HTTP response.
+     * Executes a HTTP GET asynchronously and parses the response body as a list of {@code responseType}.
      *
-     * @param <T> result type
-     * @param responseBody the response
-     * @param responseType the type of the payload to parse
-     * @return parsed body of response
+     * @param <T> the result type
+     * @param path the URL path relative to the current endpoint
+     * @param searchCriteria the search criteria
+     * @param content the content modifier
+     * @param modifier the query modifier
+     * @param responseType the result type
+     * @return a future of the parsed HTTP response
      */
-    protected static <T> Page<T> deserializePage(String responseBody, Class<T> responseType) throws DeserializationException, JSONException {
-        JSONArray result = new JSONObject(responseBody).getJSONArray("result");
-        JSONObject metadata = new JSONObject(responseBody).getJSONObject("paging_metadata");
-        return new Page.Builder<T>()
-                .result(new JsonApiDeserializer().readList(result.toString(), responseType))
-                .metadata(new JsonApiDeserializer().read(metadata.toString(), PagingMetadata.class))
-                .build();
+    protected <T> CompletableFuture<List<T>> getAllAsync(String path, SearchCriteria searchCriteria, Content content, QueryModifier modifier, Class<T> responseType) {
+        HttpRequest request = HttpRequestHelper.createGetRequest(resolve(QueryHelper.apply(path, content, modifier, PagingInfo.ALL, searchCriteria)));
+        return HttpRequestHelper.sendAsync(httpClient, request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(validated(HttpMethod.GET, HttpStatus.OK))
+                .thenApply(response -> parsePageStream(new ByteArrayInputStream(response.body()), responseType).getContent());
     }
 
 
     /**
-     * Checks if a given response matches the expected HTTP status code.
+     * Executes a HTTP GET asynchronously and parses the response body as a list of {@code responseType}.
      *
-     * @param method the HTTP method
-     * @param response the response to check
-     * @param expected the expected HTTP status code
-     * @throws StatusCodeException if the HTTP status code of the response is invlid/not supported
+     * @param <T> the result type
+     * @param path the URL path relative to the current endpoint
+     * @param responseType the result type
+     * @return a future of the parsed HTTP response
      */
-    protected static void validateStatusCode(HttpMethod method, HttpResponse<?> response, HttpStatus expected) throws StatusCodeException {
-        if (Objects.isNull(response)) {
-            throw new IllegalArgumentException("response must be non-null");
-        }
-        if (Objects.equals(expected.getCode(), response.statusCode())) {
-            return;
-        }
-        List<HttpStatus> supported = new ArrayList<>(SUPPORTED_DEFAULT_HTTP_STATUS);
-        if (Objects.equals(method, HttpMethod.POST)) {
-            supported.add(HttpStatus.METHOD_NOT_ALLOWED);
-            supported.add(HttpStatus.CONFLICT);
-        }
-
-        try {
-            HttpStatus status = HttpStatus.from(response.statusCode());
-            if (!supported.contains(status)) {
-                throw new UnsupportedStatusCodeException(response);
-            }
-            throw switch (status) {
-                case BAD_REQUEST -> new BadRequestException(response);
-                case UNAUTHORIZED -> new UnauthorizedException(response);
-                case FORBIDDEN -> new ForbiddenException(response);
-                case NOT_FOUND -> new NotFoundException(response);
-                case METHOD_NOT_ALLOWED -> new MethodNotAllowedException(response);
-                case CONFLICT -> new ConflictException(response);
-                case INTERNAL_SERVER_ERROR -> new InternalServerErrorException(response);
-                default -> throw new UnsupportedStatusCodeException(response);
-            };
-        }
-        catch (IllegalArgumentException e) {
-            throw new UnsupportedStatusCodeException(response);
-        }
+    protected <T> CompletableFuture<List<T>> getAllListAsync(String path, Class<T> responseType) {
+        HttpRequest request = HttpRequestHelper.createGetRequest(resolve(path));
+        return HttpRequestHelper.sendAsync(httpClient, request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(validated(HttpMethod.GET, HttpStatus.OK))
+                .thenApply(response -> parseListStream(new ByteArrayInputStream(response.body()), responseType));
     }
 
+
     /**
-     * Base builder for interface implementations to extend.
+     * Executes a HTTP GET asynchronously and parses the response body as a page of {@code responseType}.
      *
-     * @param <I> The type of the implementing interface
-     * @param <B> The type of the extending builder
+     * @param <T> the result type
+     * @param path the URL path relative to the current endpoint
+     * @param content the content modifier
+     * @param modifier the query modifier
+     * @param pagingInfo the paging information
+     * @param searchCriteria the search criteria
+     * @param responseType the result type
+     * @return a future of the parsed HTTP response
      */
-    public abstract static class AbstractBuilder<I extends BaseInterface, B extends AbstractBuilder<I, B>> {
-        private HttpClient.Builder httpClientBuilder = HttpClient.newBuilder();
-        protected URI endpoint;
-        protected Supplier<String> authorizationHeaderSupplier;
+    protected <T> CompletableFuture<Page<T>> getPageAsync(String path, Content content, QueryModifier modifier, PagingInfo pagingInfo, SearchCriteria searchCriteria,
+                                                          Class<T> responseType) {
+        HttpRequest request = HttpRequestHelper.createGetRequest(resolve(QueryHelper.apply(path, content, modifier, pagingInfo, searchCriteria)));
+        return HttpRequestHelper.sendAsync(httpClient, request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(validated(HttpMethod.GET, HttpStatus.OK))
+                .thenApply(response -> parsePageStream(new ByteArrayInputStream(response.body()), responseType));
+    }
+
+
+    /**
+     * Creates an iterator over all elements of a paged resource. Pages are requested lazily while iterating, the next
+     * page is requested in the background while the current page is consumed.
+     *
+     * @param <T> the result type
+     * @param path the URL path relative to the current endpoint
+     * @param content the content modifier
+     * @param modifier the query modifier
+     * @param pagingInfo the paging information of the first page; its limit is used as page size
+     * @param searchCriteria the search criteria
+     * @param responseType the result type
+     * @return the iterator
+     */
+    protected <T> PagingIterator<T> iterate(String path, Content content, QueryModifier modifier, PagingInfo pagingInfo, SearchCriteria searchCriteria,
+                                            Class<T> responseType) {
+        return new PagingIterator<>(pagingInfo, x -> getPageAsync(path, content, modifier, x, searchCriteria, responseType));
+    }
+
+
+    /**
+     * Creates a sequential stream over all elements of a paged resource. Pages are requested lazily while the stream is
+     * consumed, the next page is requested in the background while the current page is consumed. Closing the stream
+     * stops requesting pages; a page request already in flight is not aborted, its result is discarded.
+     *
+     * @param <T> the result type
+     * @param path the URL path relative to the current endpoint
+     * @param content the content modifier
+     * @param modifier the query modifier
+     * @param pagingInfo the paging information of the first page; its limit is used as page size
+     * @param searchCriteria the search criteria
+     * @param responseType the result type
+     * @return the stream
+     */
+    protected <T> Stream<T> stream(String path, Content content, QueryModifier modifier, PagingInfo pagingInfo, SearchCriteria searchCriteria, Class<T> responseType) {
+        PagingIterator<T> iterator = iterate(path, content, modifier, pagingInfo, searchCriteria, responseType);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(iterator::close);
+    }
+
+
+    /**
+     * Executes a HTTP GET for each of the given ids relative to the current endpoint, with at most
+     * {@code maxConcurrency} requests in flight. Failures are collected per id.
+     *
+     * @param <T> the result type
+     * @param ids the ids
+     * @param maxConcurrency the maximum number of concurrent requests
+     * @param responseType the result type
+     * @return a future of the results and failures by id; never completes exceptionally
+     */
+    protected <T> CompletableFuture<BulkResult<T>> getByIdsAsync(Collection<String> ids, int maxConcurrency, Class<T> responseType) {
+        return BulkRequestHelper.getAll(ids, maxConcurrency, id -> getAsync(idPath(id), responseType));
+    }
+
+
+    /**
+     * Executes a HTTP POST asynchronously and parses the response body as {@code responseType}.
+     *
+     * @param <T> the result type
+     * @param path the URL path relative to the current endpoint
+     * @param entity the payload to send in the POST body
+     * @param responseType the result type
+     * @return a future of the parsed HTTP response
+     */
+    protected <T> CompletableFuture<T> postAsync(String path, Object entity, Class<T> responseType) {
+        return postAsync(path, entity, QueryModifier.DEFAULT, Content.DEFAULT, HttpStatus.CREATED, responseType);
+    }
+
+
+    /**
+     * Executes a HTTP POST asynchronously and parses the response body as {@code responseType}.
+     *
+     * @param <T> the result type
+     * @param path the URL path relative to the current endpoint
+     * @param entity the payload to send in the POST body
+     * @param modifier the query modifier
+     * @param content the content modifier
+     * @param expectedStatusCode the expected HTTP status code
+     * @param responseType the result type
+     * @return a future of the parsed HTTP response
+     */
+    protected <T> CompletableFuture<T> postAsync(String path, Object entity, QueryModifier modifier, Content content, HttpStatus expectedStatusCode,
+                                                 Class<T> responseType) {
+        HttpRequest request = HttpRequestHelper.createPostRequest(
+                resolve(QueryHelper.apply(path, content, QueryModifier.DEFAULT)),
+                body(entity, content, modifier));
+        return HttpRequestHelper.sendAsync(httpClient, request)
+                .thenApply(validated(HttpMethod.POST, expectedStatusCode))
+                .thenApply(response -> parseBody(response, responseType));
+    }
+
+
+    /**
+     * Executes a HTTP PUT asynchronously.
+     *
+     * @param path the URL path relative to the current endpoint
+     * @param entity the payload to send in the body
+     * @return a future completing when the request has been processed successfully
+     */
+    protected CompletableFuture<Void> putAsync(String path, Object entity) {
+        return putAsync(path, entity, Content.DEFAULT, QueryModifier.DEFAULT);
+    }
+
+
+    /**
+     * Executes a HTTP PUT asynchronously.
+     *
+     * @param path the URL path relative to the current endpoint
+     * @param entity the payload to send in the body
+     * @param content the content modifier
+     * @param modifier the query modifier
+     * @return a future completing when the request has been processed successfully
+     */
+    protected CompletableFuture<Void> putAsync(String path, Object entity, Content content, QueryModifier modifier) {
+        HttpRequest request = HttpRequestHelper.createPutRequest(
+                resolve(QueryHelper.apply(path, content, modifier)),
+                body(entity, content, modifier));
+        return HttpRequestHelper.sendAsync(httpClient, request)
+                .thenApply(validated(HttpMethod.PUT, HttpStatus.NO_CONTENT))
+                .thenApply(response -> null);
+    }
+
+
+    /**
+     * Executes an HTTP PUT for files asynchronously.
+     *
+     * @param path the URL path relative to the current endpoint
+     * @param file the file
+     * @return a future completing when the request has been processed successfully
+     */
+    protected CompletableFuture<Void> putFileAsync(String path, TypedInMemoryFile file) {
+        URI uri = resolve(QueryHelper.apply(path, Content.DEFAULT, QueryModifier.DEFAULT));
+        try {
+            if (isUploadRedundant(uri, () -> FileCache.hash(file.getContent()))) {
+                return CompletableFuture.completedFuture(null);
+            }
+        }
+        catch (ConnectivityException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        HttpRequest request = HttpRequestHelper.createPutFileRequest(uri, file);
+        return HttpRequestHelper.sendFileRequestAsync(httpClient, request)
+                .thenApply(validated(HttpMethod.PUT, HttpStatus.NO_CONTENT))
+                .thenApply(response -> {
+                    if (Objects.nonNull(fileCache)) {
+                        fileCache.recordUpload(uri, file.getContent(), file.getPath(), file.getContentType());
+                    }
+                    return null;
+                });
+    }
+
+
+    /**
+     * Executes an HTTP PUT for files asynchronously, streaming the content of {@code file} while the request is sent.
+     *
+     * @param path the URL path relative to the current endpoint
+     * @param file the file to upload
+     * @param contentType the content type of the file
+     * @return a future completing when the request has been processed successfully
+     * @throws IllegalArgumentException if the file is not readable
+     */
+    protected CompletableFuture<Void> putFileAsync(String path, Path file, String contentType) {
+        HttpRequest.BodyPublisher content = MultipartBodyPublishers.ofPath(file);
+        URI uri = resolve(QueryHelper.apply(path, Content.DEFAULT, QueryModifier.DEFAULT));
+        try {
+            if (isUploadRedundant(uri, () -> FileCache.hash(file))) {
+                return CompletableFuture.completedFuture(null);
+            }
+        }
+        catch (ConnectivityException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        HttpRequest request = HttpRequestHelper.createPutFileRequest(uri, file.getFileName().toString(), contentType, content);
+        return HttpRequestHelper.sendFileRequestAsync(httpClient, request)
+                .thenApply(validated(HttpMethod.PUT, HttpStatus.NO_CONTENT))
+                .thenApply(response -> {
+                    if (Objects.nonNull(fileCache)) {
+                        fileCache.recordUpload(uri, file, file.getFileName().toString(), contentType);
+                    }
+                    return null;
+                });
+    }
+
+
+    /**
+     * Executes an HTTP PUT for files asynchronously, streaming the content while the request is sent.
+     *
+     * @param path the URL path relative to the current endpoint
+     * @param fileName the file name
+     * @param contentType the content type of the file
+     * @param content the content of the file
+     * @return a future completing when the request has been processed successfully
+     */
+    protected CompletableFuture<Void> putFileAsync(String path, String fileName, String contentType, HttpRequest.BodyPublisher content) {
+        URI uri = resolve(QueryHelper.apply(path, Content.DEFAULT, QueryModifier.DEFAULT));
+        invalidateCachedFile(uri);
+        HttpRequest request = HttpRequestHelper.createPutFileRequest(uri, fileName, contentType, content);
+        return HttpRequestHelper.sendFileRequestAsync(httpClient, request)
+                .thenApply(validated(HttpMethod.PUT, HttpStatus.NO_CONTENT))
+                .thenApply(response -> null);
+    }
+
+
+    /**
+     * Executes a HTTP PATCH asynchronously.
+     *
+     * @param path the URL path relative to the current endpoint
+     * @param entity the payload to send in the body
+     * @param content the content modifier
+     * @param modifier the query modifier
+     * @return a future completing when the request has been processed successfully
+     */
+    protected CompletableFuture<Void> patchAsync(String path, Object entity, Content content, QueryModifier modifier) {
+        HttpRequest request = HttpRequestHelper.createPatchRequest(
+                resolve(QueryHelper.apply(path, content, modifier)),
+                body(entity, content, modifier));
+        return HttpRequestHelper.sendAsync(httpClient, request)
+                .thenApply(validated(HttpMethod.PATCH, HttpStatus.NO_CONTENT))
+                .thenApply(response -> null);
+    }
+
+
+    /**
+     * Executes a HTTP PATCH with valueOnly serialization asynchronously.
+     *
+     * @param path the URL path relative to the current endpoint
+     * @param entity the payload to send in the body
+     * @param modifier the query modifier
+     * @return a future completing when the request has been processed successfully
+     */
+    protected CompletableFuture<Void> patchValueAsync(String path, Object entity, QueryModifier modifier) {
+        HttpRequest request = HttpRequestHelper.createPatchRequest(
+                resolve(QueryHelper.apply(path, Content.VALUE, modifier)),
+                serializeEntity(entity));
+        return HttpRequestHelper.sendAsync(httpClient, request)
+                .thenApply(validated(HttpMethod.PATCH, HttpStatus.NO_CONTENT))
+                .thenApply(response -> null);
+    }
+
+
+    /**
+     * Executes a HTTP DELETE asynchronously.
+     *
+     * @param path the URL path relative to the current endpoint
+     * @return a future completing when the request has been processed successfully
+     */
+    protected CompletableFuture<Void> deleteAsync(String path) {
+        return deleteAsync(path, HttpStatus.NO_CONTENT);
+    }
+
+
+    /**
+     * Executes a HTTP DELETE asynchronously.
+     *
+     * @param path the URL path relative to the current endpoint
+     * @param expectedStatus the expected HTTP status code
+     * @return a future completing when the request has been processed successfully
+     */
+    protected CompletableFuture<Void> deleteAsync(String path, HttpStatus expectedStatus) {
+        HttpRequest request = HttpRequestHelper.createDeleteRequest(resolve(path));
+        return HttpRequestHelper.sendAsync(httpClient, request)
+                .thenApply(validated(HttpMethod.DELETE, expectedStatus))
+                .thenApply(response -> null);
+    }
+
+
+    /**
+     * Executes a HTTP DELETE for files asynchronously and removes the file from the file cache, if any.
+     *
+     * @param path the URL path relative to the current endpoint
+     * @return a future completing when the request has been processed successfully
+     */
+    protected CompletableFuture<Void> deleteFileAsync(String path) {
+        invalidateCachedFile(resolve(QueryHelper.apply(path, Content.DEFAULT, QueryModifier.DEFAULT)));
+        return deleteAsync(path, HttpStatus.OK);
+    }
+
+
+    /**
+     * Applies the settings of this interface that are not passed via constructor, e.g., request coalescing, to an
+     * interface created by this interface.
+     *
+     * @param <I> the type of the interface
+     * @param child the interface created by this interface
+     * @return the child
+     */
+    protected <I extends BaseInterface> I inheritSettings(I child) {
+        ((BaseInterface) child).singleFlight = singleFlight;
+        ((BaseInterface) child).fileCache = fileCache;
+        return child;
+    }
+
+
+    private <T> CompletableFuture<T> readCachedFileAsync(String path, CachedRead<T> read) {
+        URI uri = resolve(QueryHelper.apply(path, Content.DEFAULT, QueryModifier.DEFAULT));
+        HttpRequest request = HttpRequestHelper.createGetRequest(uri);
+        return HttpRequestHelper.sendAsync(httpClient, fileCache.conditional(request), fileCache.bodyHandler(uri))
+                .thenCompose(response -> {
+                    if (Objects.isNull(response.body()) && response.statusCode() == HTTP_NOT_MODIFIED) {
+                        // content has been evicted while revalidating
+                        return fetchCachedFileAsync(uri, request, read);
+                    }
+                    try {
+                        return CompletableFuture.completedFuture(read.execute(cachedEntry(response)));
+                    }
+                    catch (NoSuchFileException e) {
+                        // content has been evicted after revalidating
+                        return fetchCachedFileAsync(uri, request, read);
+                    }
+                    catch (IOException e) {
+                        throw new CompletionException(new ConnectivityException("reading file from file cache failed", e));
+                    }
+                });
+    }
+
+
+    private <T> CompletableFuture<T> fetchCachedFileAsync(URI uri, HttpRequest request, CachedRead<T> read) {
+        return HttpRequestHelper.sendAsync(httpClient, request, fileCache.bodyHandler(uri))
+                .thenApply(response -> {
+                    try {
+                        return read.execute(cachedEntry(response));
+                    }
+                    catch (IOException e) {
+                        throw new CompletionException(new ConnectivityException("reading file from file cache failed", e));
+                    }
+                });
+    }
+
+
+    private static FileCache.Entry cachedEntry(HttpResponse<Object> response) {
+        if (response.body() instanceof FileCache.Entry) {
+            return (FileCache.Entry) response.body();
+        }
+        return (FileCache.Entry) validated(HttpMethod.GET, HttpStatus.OK).apply(response).body();
+    }
+
+
+    private boolean isUploadRedundant(URI uri, Hash hash) throws ConnectivityException {
+        if (Objects.isNull(fileCache)) {
+            return false;
+        }
+        try {
+            if (fileCache.isUploadRedundant(uri, hash.compute())) {
+                return true;
+            }
+        }
+        catch (IOException e) {
+            throw new ConnectivityException("hashing file for file cache failed", e);
+        }
+        // the content of the resource is unknown until the upload succeeded
+        fileCache.invalidate(uri);
+        return false;
+    }
+
+
+    private void invalidateCachedFile(URI uri) {
+        if (Objects.nonNull(fileCache)) {
+            fileCache.invalidate(uri);
+        }
+    }
+
+
+    private <T> T coalesced(URI uri, Object responseType, SingleFlight.Call<T> call) throws ConnectivityException, StatusCodeException {
+        if (Objects.isNull(singleFlight)) {
+            return call.execute();
+        }
+        return singleFlight.execute(List.of(httpClient, uri, responseType), call);
+    }
+
+
+    private <T> CompletableFuture<T> coalescedAsync(URI uri, Object responseType, Supplier<CompletableFuture<T>> call) {
+        if (Objects.isNull(singleFlight)) {
+            return call.get();
+        }
+        return singleFlight.executeAsync(List.of(httpClient, uri, responseType), call);
+    }
+
+
+    /**
+     * Creates a URL path for an id in the form of "/{base64URL-encoded id}".
+     *
+     * @param id the id
+     * @return the URL path with the encoded id
+     */
+    protected String idPath(String id) {
+        return ID_PATHS.get(id, x -> URI_PATH_SEPERATOR + EncodingHelper.base64UrlEncode(x));
+    }
+
+
+    /**
+     * Resolves a path to the current {@code endpoint}.
+     *
+     * @param path the path to resolve
+     * @return the resolved path relative to the current {@code endpoint}
+     */
+    protected URI resolve(String path) {
+        return resolve(endpoint, path);
+    }
+
+
+    /**
+     * Resolves a path to a given {@code baseUri}.
+     *
+     * @param baseUri the URI to resolve the path to
+     * @param path the path to resolve
+     * @return the resolved path relative to the current {@code baseUri}
+     */
+    protected static URI resolve(URI baseUri, String path) {
+        if (Objects.isNull(path) || path.isBlank()) {
+            return baseUri;
+        }
+        if (isPlainPath(baseUri, path)) {
+            return appendPath(baseUri, path);
+        }
+        String actualPath = path;
+        if (actualPath.startsWith(URI_PATH_SEPERATOR)) {
+            actualPath = "." + actualPath;
+        }
+        else if (!actualPath.startsWith("./")) {
+            actualPath = "./" + actualPath;
+        }
+        if (actualPath.endsWith(URI_PATH_SEPERATOR)) {
+            actualPath = actualPath.substring(0, actualPath.length() - 1);
+        }
+        try {
+            String uriString = new URI(baseUri + URI_PATH_SEPERATOR).resolve(actualPath).toString();
+            return new URI(uriString.replace("/?", "?"));
+        }
+        catch (URISyntaxException e) {
+            throw new IllegalArgumentException(
+                    String.format(
+                            "error resolving path (endpoint: %s, path: %s)",
+                            baseUri,
+                            actualPath),
+                    e);
+        }
+    }
+
+
+    /**
+     * Checks whether a path can be appended to a base URI without resolving it, i.e., the base URI has no query or
+     * fragment and the path contains no dot segments.
+     */
+    private static boolean isPlainPath(URI baseUri, String path) {
+        return !baseUri.isOpaque()
+                && Objects.isNull(baseUri.getRawQuery())
+                && Objects.isNull(baseUri.getRawFragment())
+                && !URI_PATH_SEPERATOR.equals(path)
+                && !path.startsWith(".")
+                && !path.contains("/.");
+    }
+
+
+    /**
+     * Appends a path to a base URI in a single pass. Equivalent to resolving the path relative to the base URI for
+     * paths without dot segments, but without creating intermediate URIs and strings.
+     */
+    private static URI appendPath(URI baseUri, String path) {
+        String base = baseUri.toString();
+        StringBuilder result = new StringBuilder(base.length() + path.length() + 1).append(base);
+        if (base.endsWith(URI_PATH_SEPERATOR)) {
+            result.setLength(result.length() - 1);
+        }
+        int end = path.endsWith(URI_PATH_SEPERATOR) ? path.length() - 1 : path.length();
+        if (end > 0 && path.charAt(0) != '/' && path.charAt(0) != '?') {
+            result.append('/');
+        }
+        for (int i = 0; i < end; i++) {
+            char c = path.charAt(i);
+            if (c != '/' || i + 1 >= end || path.charAt(i + 1) != '?') {
+                result.append(c);
+            }
+        }
+        try {
+            return new URI(result.toString());
+        }
+        catch (URISyntaxException e) {
+            throw new IllegalArgumentException(
+                    String.format(
+                            "error resolving path (endpoint: %s, path: %s)",
+                            baseUri,
+                            path),
+                    e);
+        }
+    }
+
+
+    private static URI sanitizeEndpoint(URI endpoint) {
+        URI result = endpoint;
+        if (endpoint.getPath().endsWith(URI_PATH_SEPERATOR)) {
+            try {
+                result = new URI(endpoint.toString().substring(0, endpoint.toString().length() - 1));
+            }
+            catch (URISyntaxException e) {
+                throw new IllegalArgumentException(String.format("error sanitizing endpoint URI (endpoint: %s", endpoint), e);
+            }
+        }
+        return result;
+    }
+
+
+    /**
+     * Parses body of HTTP response.
+     *
+     * @param <T> result type
+     * @param response the response
+     * @param responseType the type of the payload to parse
+     * @return parsed body of response
+     */
+    protected <T> T parseBody(HttpResponse<String> response, Class<T> responseType) {
+        try {
+            return codec.getDeserializer().read(response.body(), responseType);
+        }
+        catch (DeserializationException e) {
+            throw new InvalidPayloadException(e);
+        }
+    }
+
+
+    private <T extends ElementValue> T parseValue(HttpResponse<String> response, TypeInfo<?> typeInfo) {
+        try {
+            return codec.getDeserializer().readValue(response.body(), typeInfo);
+        }
+        catch (DeserializationException e) {
+            throw new InvalidPayloadException(e);
+        }
+    }
+
+
+    private <T> T parseStream(InputStream body, Class<T> responseType) {
+        try {
+            return codec.getDeserializer().read(body, responseType);
+        }
+        catch (DeserializationException e) {
+            throw new InvalidPayloadException(e);
+        }
+    }
+
+
+    private <T> List<T> parseListStream(InputStream body, Class<T> responseType) {
+        try {
+            return codec.getDeserializer().readList(body, responseType);
+        }
+        catch (DeserializationException e) {
+            throw new InvalidPayloadException(e);
+        }
+    }
+
+
+    private <T> Page<T> parsePageStream(InputStream body, Class<T> responseType) {
+        try {
+            return codec.getDeserializer().readPage(body, responseType);
+        }
+        catch (DeserializationException e) {
+            throw new InvalidPayloadException(e);
+        }
+    }
+
+
+    private HttpRequest.BodyPublisher body(Object entity, Content content, QueryModifier queryModifier) {
+        try {
+            OutputModifier outputModifier = new OutputModifier.Builder()
+                    .level(queryModifier.getLevel())
+                    .extend(queryModifier.getExtent())
+                    .content(content).build();
+            if (codec.getSerializer() instanceof StreamingJsonSerializer) {
+                StreamingJsonSerializer serializer = (StreamingJsonSerializer) codec.getSerializer();
+                Optional<Executor> executor = httpClient.executor();
+                return executor.isPresent()
+                        ? JsonBodyPublishers.ofJson(serializer, entity, outputModifier, executor.get())
+                        : JsonBodyPublishers.ofJson(serializer, entity, outputModifier);
+            }
+            return HttpRequest.BodyPublishers.ofString(codec.getSerializer().write(entity, outputModifier));
+        }
+        catch (SerializationException | UnsupportedModifierException e) {
+            throw new InvalidPayloadException("Serialization Failed", e);
+        }
+    }
+
+
+    /**
+     * Serialises class for body of HTTP response.
+     *
+     * @param entity the payload to parse
+     * @return parsed body of request
+     */
+    protected String serializeEntity(Object entity) {
+        try {
+            return codec.getSerializer().write(entity, OutputModifier.DEFAULT);
+        }
+        catch (SerializationException | UnsupportedModifierException e) {
+            throw new InvalidPayloadException("Serialization Failed", e);
+        }
+    }
+
+
+    /**
+     * Parses body of HTTP response.
+     *
+     * @param <T> result type
+     * @param responseBody the response
+     * @param responseType the type of the payload to parse
+     * @return parsed body of response
+     */
+    protected <T> Page<T> deserializePage(String responseBody, Class<T> responseType) throws DeserializationException {
+        return codec.getDeserializer().readPage(responseBody, responseType);
+    }
+
+
+    /**
+     * Checks if a given response matches the expected HTTP status code.
+     *
+     * @param method the HTTP method
+     * @param response the response to check
+     * @param expected the expected HTTP status code
+     * @throws StatusCodeException if the HTTP status code of the response is invlid/not supported
+     */
+    protected static void validateStatusCode(HttpMethod method, HttpResponse<?> response, HttpStatus expected) throws StatusCodeException {
+        if (Objects.isNull(response)) {
+            throw new IllegalArgumentException("response must be non-null");
+        }
+        if (Objects.equals(expected.getCode(), response.statusCode())) {
+            return;
+        }
+        HttpResponse<String> errorResponse = HttpRequestHelper.bufferBody(response);
+        List<HttpStatus> supported = new ArrayList<>(SUPPORTED_DEFAULT_HTTP_STATUS);
+        if (Objects.equals(method, HttpMethod.POST)) {
+            supported.add(HttpStatus.METHOD_NOT_ALLOWED);
+            supported.add(HttpStatus.CONFLICT);
+        }
+
+        try {
+            HttpStatus status = HttpStatus.from(errorResponse.statusCode());
+            if (!supported.contains(status)) {
+                throw new UnsupportedStatusCodeException(errorResponse);
+            }
+            throw switch (status) {
+                case BAD_REQUEST -> new BadRequestException(errorResponse);
+                case UNAUTHORIZED -> new UnauthorizedException(errorResponse);
+                case FORBIDDEN -> new ForbiddenException(errorResponse);
+                case NOT_FOUND -> new NotFoundException(errorResponse);
+                case METHOD_NOT_ALLOWED -> new MethodNotAllowedException(errorResponse);
+                case CONFLICT -> new ConflictException(errorResponse);
+                case TOO_MANY_REQUESTS -> new TooManyRequestsException(errorResponse);
+                case INTERNAL_SERVER_ERROR -> new InternalServerErrorException(errorResponse);
+                case SERVICE_UNAVAILABLE -> new ServiceUnavailableException(errorResponse);
+                default -> throw new UnsupportedStatusCodeException(errorResponse);
+            };
+        }
+        catch (IllegalArgumentException e) {
+            throw new UnsupportedStatusCodeException(errorResponse);
+        }
+    }
+
+    /**
+     * Creates a function to be used in asynchronous processing that checks if a given response matches the expected
+     * HTTP
+     * status code.
+     *
+     * @param <T> the type of the response body
+     * @param method the HTTP method
+     * @param expected the expected HTTP status code
+     * @return a function returning the response if it is valid, otherwise throwing a {@link CompletionException}
+     *         wrapping the {@link StatusCodeException}
+     */
+    protected static <T> Function<HttpResponse<T>, HttpResponse<T>> validated(HttpMethod method, HttpStatus expected) {
+        return response -> {
+            try {
+                validateStatusCode(method, response, expected);
+                return response;
+            }
+            catch (StatusCodeException e) {
+                throw new CompletionException(e);
+            }
+        };
+    }
+
+    @FunctionalInterface
+    private interface CachedRead<T> {
+        T execute(FileCache.Entry entry) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface Hash {
+        String compute() throws IOException;
+    }
+
+    /**
+     * Base builder for interface implementations to extend.
+     *
+     * @param <I> The type of the implementing interface
+     * @param <B> The type of the extending builder
+     */
+    public abstract static class AbstractBuilder<I extends BaseInterface, B extends AbstractBuilder<I, B>> {
+        private HttpClient.Builder httpClientBuilder = HttpClient.newBuilder();
+        protected URI endpoint;
+        protected Supplier<String> authorizationHeaderSupplier;
+        private boolean useVirtualThreads;
+        private HttpClient.Version httpVersion;
+        private HttpConnectionStatistics connectionStatistics;
+        private JsonCodec codec;
+        private SingleFlight singleFlight;
+        private FileCache fileCache;
+        private RetryPolicy retryPolicy;
+        private CircuitBreaker circuitBreaker;
+        private ServerThrottle serverThrottle;
+        private RateLimiter rateLimiter;
+        private ConcurrencyLimiter concurrencyLimiter;
+        private HedgingPolicy hedgingPolicy;
+        private Bulkhead bulkhead;
+        private EndpointSet endpointSet;
+        private CompressionPolicy compressionPolicy;
 
         /**
          * Supply a custom HttpClient.Builder.
@@ -1057,6 +1921,22 @@ public abstract class BaseInterface {
         }
 
 
+        /**
+         * Defines a set of replicated endpoints of the AAS server. The built interface uses the primary endpoint of the
+         * set as its endpoint and distributes requests over all endpoints of the set, failing over to another endpoint
+         * if an idempotent request fails, see {@link EndpointSet}. The same set may be passed to multiple builders to
+         * share the health state of the endpoints.
+         *
+         * @param endpointSet the replicated endpoints
+         * @return builder
+         */
+        public final B endpoints(EndpointSet endpointSet) {
+            this.endpointSet = endpointSet;
+            this.endpoint = endpointSet != null ? endpointSet.getPrimary() : null;
+            return self();
+        }
+
+
         /**
          * If called, the built interface will allow all (incl. self-signed) ssl certificates to communicate with AAS servers.
          *
@@ -1105,11 +1985,276 @@ public abstract class BaseInterface {
         }
 
 
+        /**
+         * If called, the built interface will execute its HTTP requests and any parallel requests on virtual threads. This
+         * allows a large number of concurrent blocking calls without having to tune a thread pool.
+         *
+         * <p>
+         * Virtual threads require JDK 21 or newer. On older JVMs this option has no effect and the default executor of the
+         * HTTP client is used. Any executor set via {@link #customHttpClientBuilder(HttpClient.Builder)} is replaced.
+         *
+         * @return builder
+         */
+        public final B useVirtualThreads() {
+            this.useVirtualThreads = true;
+            return self();
+        }
+
+
+        /**
+         * If called, the built interface will prefer HTTP/2 and multiplex concurrent requests to the same server over a
+         * single connection. Over TLS, HTTP/2 (h2) is negotiated via ALPN, over plain connections an upgrade to h2c is
+         * requested. Servers not supporting HTTP/2 are talked to via HTTP/1.1.
+         *
+         * <p>
+         * The maximum number of concurrent streams per connection is announced by the server. The number of streams the
+         * client accepts can be set via the system property {@code jdk.httpclient.maxstreams}.
+         *
+         * @return builder
+         */
+        public final B useHttp2() {
+            return httpVersion(HttpClient.Version.HTTP_2);
+        }
+
+
+        /**
+         * Sets the preferred HTTP version. If not set, the version of the HTTP client builder is used.
+         *
+         * @param httpVersion the preferred HTTP version
+         * @return builder
+         */
+        public final B httpVersion(HttpClient.Version httpVersion) {
+            this.httpVersion = httpVersion;
+            return self();
+        }
+
+
+        /**
+         * Records the negotiated HTTP versions and the number of concurrent requests per server in the given statistics. The
+         * same statistics may be passed to multiple builders.
+         *
+         * @param connectionStatistics the statistics to record to
+         * @return builder
+         */
+        public final B connectionStatistics(HttpConnectionStatistics connectionStatistics) {
+            this.connectionStatistics = connectionStatistics;
+            return self();
+        }
+
+
+        /**
+         * Sets the codec used to serialize requests and deserialize responses. The same codec may be passed to multiple
+         * builders. If not set, {@link JsonCodec#getDefault()} is used.
+         *
+         * @param codec the codec
+         * @return builder
+         */
+        public final B codec(JsonCodec codec) {
+            this.codec = codec;
+            return self();
+        }
+
+
+        /**
+         * Retries failed idempotent requests according to the given policy, e.g., after a connection reset. The same
+         * policy may be passed to multiple builders to share its retry budget and counters.
+         *
+         * @param retryPolicy the retry policy
+         * @return builder
+         */
+        public final B retryPolicy(RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return self();
+        }
+
+
+        /**
+         * Requests compressed responses and decompresses them while they are received, and optionally compresses large
+         * request bodies, see {@link CompressionPolicy}. The same policy may be passed to multiple builders to share its
+         * counters.
+         *
+         * @param compressionPolicy the compression policy
+         * @return builder
+         */
+        public final B compressionPolicy(CompressionPolicy compressionPolicy) {
+            this.compressionPolicy = compressionPolicy;
+            return self();
+        }
+
+
+        /**
+         * Limits the number of concurrent requests per server to a limit that adapts to the latency and errors observed,
+         * see {@link ConcurrencyLimiter}. The same limiter may be passed to multiple builders to limit their combined
+         * concurrency.
+         *
+         * @param concurrencyLimiter the concurrency limiter
+         * @return builder
+         */
+        public final B concurrencyLimiter(ConcurrencyLimiter concurrencyLimiter) {
+            this.concurrencyLimiter = concurrencyLimiter;
+            return self();
+        }
+
+
+        /**
+         * Limits the rate of requests per server according to the given rate limiter, with separate limits for reads
+         * and writes. The same rate limiter may be passed to multiple builders to enforce a common limit.
+         *
+         * @param rateLimiter the rate limiter
+         * @return builder
+         */
+        public final B rateLimiter(RateLimiter rateLimiter) {
+            this.rateLimiter = rateLimiter;
+            return self();
+        }
+
+
+        /**
+         * Delays new requests to a server that responded with 429 (Too Many Requests) or 503 (Service Unavailable)
+         * until the time requested by its Retry-After header has passed. The same throttle should be passed to all
+         * builders of interfaces talking to the same servers, so that they all back off together.
+         *
+         * @param serverThrottle the throttle
+         * @return builder
+         */
+        public final B serverThrottle(ServerThrottle serverThrottle) {
+            this.serverThrottle = serverThrottle;
+            return self();
+        }
+
+
+        /**
+         * Guards requests with the given circuit breaker, so that requests to a server that keeps failing are rejected
+         * immediately instead of waiting for timeouts. The same circuit breaker may be passed to multiple builders to
+         * share the state of the circuits.
+         *
+         * @param circuitBreaker the circuit breaker
+         * @return builder
+         */
+        public final B circuitBreaker(CircuitBreaker circuitBreaker) {
+            this.circuitBreaker = circuitBreaker;
+            return self();
+        }
+
+
+        /**
+         * Hedges idempotent reads according to the given policy: if a GET request is slow, a duplicate request is sent
+         * and the first response is used. The same policy may be passed to multiple builders to share its budget,
+         * latency statistics and counters.
+         *
+         * @param hedgingPolicy the hedging policy
+         * @return builder
+         */
+        public final B hedgingPolicy(HedgingPolicy hedgingPolicy) {
+            this.hedgingPolicy = hedgingPolicy;
+            return self();
+        }
+
+
+        /**
+         * Isolates servers from each other by limiting the number of concurrent calls per server. Calls that do not get
+         * a slot within the configured wait time are rejected immediately. The same bulkhead may be passed to multiple
+         * builders so that their calls to the same server share a compartment.
+         *
+         * @param bulkhead the bulkhead
+         * @return builder
+         */
+        public final B bulkhead(Bulkhead bulkhead) {
+            this.bulkhead = bulkhead;
+            return self();
+        }
+
+
+        /**
+         * If called, identical concurrent GET requests of the built interface are coalesced: while a request for a
+         * resource is in flight, further requests for the same resource with the same content modifier wait for its
+         * result instead of sending a request of their own. All waiting callers receive the same deserialized instance,
+         * which therefore must not be modified.
+         *
+         * @return builder
+         */
+        public final B useRequestCoalescing() {
+            return requestCoalescing(new SingleFlight());
+        }
+
+
+        /**
+         * Coalesces identical concurrent GET requests using the given {@link SingleFlight}, see
+         * {@link #useRequestCoalescing()}. Requests are only coalesced between interfaces using the same HTTP client, and
+         * therefore the same credentials, e.g., the interfaces of a {@link ClientSession} or the interfaces created by an
+         * interface. Each call of {@link #build()} creates a client of its own.
+         *
+         * @param singleFlight the single-flight group to use, or null to disable coalescing
+         * @return builder
+         */
+        public final B requestCoalescing(SingleFlight singleFlight) {
+            this.singleFlight = singleFlight;
+            return self();
+        }
+
+
+        /**
+         * Caches downloaded attachments and thumbnails in the given {@link FileCache}. Cached files are revalidated
+         * using conditional requests and served from disk if unchanged, and uploads of content the target is already
+         * known to hold are skipped. The same instance may be passed to multiple builders to share the cache across
+         * interfaces.
+         *
+         * @param fileCache the file cache to use, or null to disable caching
+         * @return builder
+         */
+        public final B fileCache(FileCache fileCache) {
+            this.fileCache = fileCache;
+            return self();
+        }
+
+
+        protected final JsonCodec codec() {
+            return Objects.requireNonNullElseGet(codec, JsonCodec::getDefault);
+        }
+
+
         protected final HttpClient httpClient() {
+            if (useVirtualThreads) {
+                HttpClientHelper.useVirtualThreads(this.httpClientBuilder);
+            }
+            if (httpVersion != null) {
+                this.httpClientBuilder.version(httpVersion);
+            }
+            HttpClient httpClient = this.httpClientBuilder.build();
+            if (connectionStatistics != null) {
+                httpClient = new HttpClientMonitored(httpClient, connectionStatistics);
+            }
+            if (compressionPolicy != null) {
+                httpClient = new HttpClientCompressing(httpClient, compressionPolicy);
+            }
+            if (concurrencyLimiter != null) {
+                httpClient = new HttpClientConcurrencyLimited(httpClient, concurrencyLimiter);
+            }
+            if (rateLimiter != null) {
+                httpClient = new HttpClientRateLimited(httpClient, rateLimiter);
+            }
+            if (serverThrottle != null) {
+                httpClient = new HttpClientThrottled(httpClient, serverThrottle);
+            }
+            if (retryPolicy != null) {
+                httpClient = new HttpClientRetrying(httpClient, retryPolicy);
+            }
+            if (circuitBreaker != null) {
+                httpClient = new HttpClientCircuitBreaking(httpClient, circuitBreaker);
+            }
+            if (hedgingPolicy != null) {
+                httpClient = new HttpClientHedging(httpClient, hedgingPolicy);
+            }
+            if (bulkhead != null) {
+                httpClient = new HttpClientBulkheaded(httpClient, bulkhead);
+            }
+            if (endpointSet != null) {
+                httpClient = new HttpClientLoadBalancing(httpClient, endpointSet);
+            }
             if (authorizationHeaderSupplier != null) {
-                return new HttpClientTokenBased(this.httpClientBuilder.build(), authorizationHeaderSupplier);
+                httpClient = new HttpClientTokenBased(httpClient, authorizationHeaderSupplier);
             }
-            return this.httpClientBuilder.build();
+            return httpClient;
         }
 
 
@@ -1120,7 +2265,22 @@ public abstract class BaseInterface {
          */
         public final I build() {
             validate();
-            return self().buildConcrete();
+            I result = self().buildConcrete();
+            ((BaseInterface) result).singleFlight = singleFlight;
+            ((BaseInterface) result).fileCache = fileCache;
+            return result;
+        }
+
+
+        /**
+         * Builds a session from the collected builder values instead of a single interface. The session owns one
+         * transport, codec and configuration and hands out interfaces of all types sharing them.
+         *
+         * @return a new session
+         */
+        public final ClientSession buildSession() {
+            validate();
+            return new ClientSession(endpoint, httpClient(), codec(), singleFlight, fileCache);
         }
 
 
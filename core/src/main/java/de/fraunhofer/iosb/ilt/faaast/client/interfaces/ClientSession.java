@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.interfaces;
+
+import de.fraunhofer.iosb.ilt.faaast.client.util.FileCache;
+import de.fraunhofer.iosb.ilt.faaast.client.util.JsonCodec;
+import de.fraunhofer.iosb.ilt.faaast.client.util.SingleFlight;
+import de.fraunhofer.iosb.ilt.faaast.service.util.Ensure;
+import java.net.URI;
+import java.net.http.HttpClient;
+
+
+/**
+ * A session with a FA³ST Service or another AAS server. The session owns one HTTP client, i.e., one connection pool
+ * with all configured authentication, TLS settings and transport policies, as well as one codec and the interface-level
+ * settings, and hands out interfaces of all types sharing them. Creating interfaces from a session is cheap, so
+ * traversing many shells and submodels reuses warm keep-alive connections instead of creating a new client per
+ * interface.
+ *
+ * <p>
+ * Sessions are created via {@link BaseInterface.AbstractBuilder#buildSession()} of any interface builder or via
+ * {@link #of(URI, HttpClient, JsonCodec)}. They are thread-safe and should be shared.
+ */
+public class ClientSession {
+
+    private final URI endpoint;
+    private final HttpClient httpClient;
+    private final JsonCodec codec;
+    private final SingleFlight singleFlight;
+    private final FileCache fileCache;
+    private final AASRepositoryInterface aasRepositoryInterface;
+    private final SubmodelRepositoryInterface submodelRepositoryInterface;
+    private final ConceptDescriptionRepositoryInterface conceptDescriptionRepositoryInterface;
+    private final AASRegistryInterface aasRegistryInterface;
+    private final SubmodelRegistryInterface submodelRegistryInterface;
+    private final AASBasicDiscoveryInterface aasBasicDiscoveryInterface;
+    private final DescriptionInterface descriptionInterface;
+
+    ClientSession(URI endpoint, HttpClient httpClient, JsonCodec codec, SingleFlight singleFlight, FileCache fileCache) {
+        Ensure.requireNonNull(endpoint, "endpoint must be non-null");
+        Ensure.requireNonNull(httpClient, "httpClient must be non-null");
+        Ensure.requireNonNull(codec, "codec must be non-null");
+        this.endpoint = endpoint;
+        this.httpClient = httpClient;
+        this.codec = codec;
+        this.singleFlight = singleFlight;
+        this.fileCache = fileCache;
+        this.aasRepositoryInterface = withSettings(new AASRepositoryInterface(endpoint, httpClient, codec));
+        this.submodelRepositoryInterface = withSettings(new SubmodelRepositoryInterface(endpoint, httpClient, codec));
+        this.conceptDescriptionRepositoryInterface = withSettings(new ConceptDescriptionRepositoryInterface(endpoint, httpClient, codec));
+        this.aasRegistryInterface = withSettings(new AASRegistryInterface(endpoint, httpClient, codec));
+        this.submodelRegistryInterface = withSettings(new SubmodelRegistryInterface(endpoint, httpClient, codec));
+        this.aasBasicDiscoveryInterface = withSettings(new AASBasicDiscoveryInterface(endpoint, httpClient, codec));
+        this.descriptionInterface = withSettings(new DescriptionInterface(endpoint, httpClient, codec));
+    }
+
+
+    /**
+     * Creates a session using the given HTTP client and codec.
+     *
+     * @param endpoint the raw endpoint of the AAS server, i.e. *not* suffixed by the specific resource (e.g., /shells)
+     * @param httpClient the HTTP client to use for all requests of the session
+     * @param codec the codec used to serialize requests and deserialize responses
+     * @return a new session
+     */
+    public static ClientSession of(URI endpoint, HttpClient httpClient, JsonCodec codec) {
+        return new ClientSession(endpoint, httpClient, codec, null, null);
+    }
+
+
+    /**
+     * Gets the raw endpoint of the AAS server.
+     *
+     * @return the endpoint
+     */
+    public URI getEndpoint() {
+        return endpoint;
+    }
+
+
+    /**
+     * Gets the HTTP client shared by all interfaces of this session.
+     *
+     * @return the HTTP client
+     */
+    public HttpClient getHttpClient() {
+        return httpClient;
+    }
+
+
+    /**
+     * Gets the codec shared by all interfaces of this session.
+     *
+     * @return the codec
+     */
+    public JsonCodec getCodec() {
+        return codec;
+    }
+
+
+    /**
+     * Returns the AAS Repository Interface.
+     *
+     * @return the AAS Repository Interface
+     */
+    public AASRepositoryInterface getAASRepositoryInterface() {
+        return aasRepositoryInterface;
+    }
+
+
+    /**
+     * Returns the AAS Interface of the given shell.
+     *
+     * @param aasIdentifier the unique id of the Asset Administration Shell
+     * @return the AAS Interface
+     */
+    public AASInterface getAASInterface(String aasIdentifier) {
+        return aasRepositoryInterface.getAASInterface(aasIdentifier);
+    }
+
+
+    /**
+     * Returns the Submodel Repository Interface.
+     *
+     * @return the Submodel Repository Interface
+     */
+    public SubmodelRepositoryInterface getSubmodelRepositoryInterface() {
+        return submodelRepositoryInterface;
+    }
+
+
+    /**
+     * Returns the Submodel Interface of the given submodel in the Submodel Repository.
+     *
+     * @param submodelId the unique id of the submodel
+     * @return the Submodel Interface
+     */
+    public SubmodelInterface getSubmodelInterface(String submodelId) {
+        return submodelRepositoryInterface.getSubmodelInterface(submodelId);
+    }
+
+
+    /**
+     * Returns the Concept Description Repository Interface.
+     *
+     * @return the Concept Description Repository Interface
+     */
+    public ConceptDescriptionRepositoryInterface getConceptDescriptionRepositoryInterface() {
+        return conceptDescriptionRepositoryInterface;
+    }
+
+
+    /**
+     * Returns the AAS Registry Interface.
+     *
+     * @return the AAS Registry Interface
+     */
+    public AASRegistryInterface getAASRegistryInterface() {
+        return aasRegistryInterface;
+    }
+
+
+    /**
+     * Returns the Submodel Registry Interface.
+     *
+     * @return the Submodel Registry Interface
+     */
+    public SubmodelRegistryInterface getSubmodelRegistryInterface() {
+        return submodelRegistryInterface;
+    }
+
+
+    /**
+     * Returns the Submodel Registry Interface for the submodel descriptors of the given shell descriptor.
+     *
+     * @param aasIdentifier the unique id of the Asset Administration Shell
+     * @return the Submodel Registry Interface
+     */
+    public SubmodelRegistryInterface getSubmodelRegistryInterface(String aasIdentifier) {
+        return aasRegistryInterface.getSubmodelRegistryInterface(aasIdentifier);
+    }
+
+
+    /**
+     * Returns the AAS Basic Discovery Interface.
+     *
+     * @return the AAS Basic Discovery Interface
+     */
+    public AASBasicDiscoveryInterface getAASBasicDiscoveryInterface() {
+        return aasBasicDiscoveryInterface;
+    }
+
+
+    /**
+     * Returns the Description Interface.
+     *
+     * @return the Description Interface
+     */
+    public DescriptionInterface getDescriptionInterface() {
+        return descriptionInterface;
+    }
+
+
+    private <I extends BaseInterface> I withSettings(I result) {
+        result.singleFlight = singleFlight;
+        result.fileCache = fileCache;
+        return result;
+    }
+}
@@ -16,8 +16,13 @@ package de.fraunhofer.iosb.ilt.faaast.client.interfaces;
 
 import de.fraunhofer.iosb.ilt.faaast.client.exception.ConnectivityException;
 import de.fraunhofer.iosb.ilt.faaast.client.exception.StatusCodeException;
+import de.fraunhofer.iosb.ilt.faaast.client.exception.UncheckedClientException;
 import de.fraunhofer.iosb.ilt.faaast.client.query.ConceptDescriptionSearchCriteria;
+import de.fraunhofer.iosb.ilt.faaast.client.util.BulkRequestHelper;
+import de.fraunhofer.iosb.ilt.faaast.client.util.BulkResult;
 import de.fraunhofer.iosb.ilt.faaast.client.util.HttpClientHelper;
+import de.fraunhofer.iosb.ilt.faaast.client.util.JsonCodec;
+import de.fraunhofer.iosb.ilt.faaast.client.util.PagingIterator;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.modifier.Content;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.modifier.QueryModifier;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.Page;
@@ -25,7 +30,10 @@ import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.PagingInfo;
 
 import java.net.URI;
 import java.net.http.HttpClient;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 import org.eclipse.digitaltwin.aas4j.v3.model.ConceptDescription;
 
@@ -42,6 +50,18 @@ public class ConceptDescriptionRepositoryInterface extends BaseInterface {
 
     private static final String API_PATH = "/concept-descriptions";
 
+    /**
+     * Creates a new Concept Description Interface.
+     *
+     * @param endpoint the endpoint
+     * @param httpClient allows user to specify custom http-client
+     * @param codec the codec used to serialize requests and deserialize responses
+     */
+    public ConceptDescriptionRepositoryInterface(URI endpoint, HttpClient httpClient, JsonCodec codec) {
+        super(resolve(endpoint, API_PATH), httpClient, codec);
+    }
+
+
     /**
      * Creates a new Concept Description Interface.
      *
@@ -107,6 +127,17 @@ public class ConceptDescriptionRepositoryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves all Concept Descriptions.
+     *
+     * @return a future of a list of all Concept Descriptions; completes exceptionally with the same exceptions as
+     *         {@link #getAll()}
+     */
+    public CompletableFuture<List<ConceptDescription>> getAllAsync() {
+        return getAllAsync(ConceptDescriptionSearchCriteria.DEFAULT);
+    }
+
+
     /**
      * Retrieves Concept Descriptions according to specific search criteria.
      *
@@ -129,6 +160,18 @@ public class ConceptDescriptionRepositoryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves Concept Descriptions according to specific search criteria.
+     *
+     * @param conceptDescriptionSearchCriteria specific search criteria: idShort, isCaseOf or dataSpecificationRef
+     * @return a future of a list of Concept Descriptions matching search criteria; completes exceptionally with the
+     *         same exceptions as {@link #getAll(ConceptDescriptionSearchCriteria)}
+     */
+    public CompletableFuture<List<ConceptDescription>> getAllAsync(ConceptDescriptionSearchCriteria conceptDescriptionSearchCriteria) {
+        return getAllAsync(null, conceptDescriptionSearchCriteria, Content.DEFAULT, QueryModifier.DEFAULT, ConceptDescription.class);
+    }
+
+
     /**
      * Retrieves a page of Concept Descriptions.
      *
@@ -151,6 +194,18 @@ public class ConceptDescriptionRepositoryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves a page of Concept Descriptions.
+     *
+     * @param pagingInfo Metadata for controlling the pagination of results
+     * @return a future of a page of Concept Descriptions; completes exceptionally with the same exceptions as {@link
+     *         #get(PagingInfo)}
+     */
+    public CompletableFuture<Page<ConceptDescription>> getAsync(PagingInfo pagingInfo) {
+        return getAsync(pagingInfo, ConceptDescriptionSearchCriteria.DEFAULT);
+    }
+
+
     /**
      * Returns page of Concept Descriptions according to specific search criteria.
      *
@@ -175,6 +230,91 @@ public class ConceptDescriptionRepositoryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves a page of Concept Descriptions according to specific search criteria.
+     *
+     * @param pagingInfo paging meta information
+     * @param conceptDescriptionSearchCriteria specific search criteria: idShort, isCaseOf or dataSpecificationRef
+     * @return a future of a page of Concept Descriptions; completes exceptionally with the same exceptions as {@link
+     *         #get(PagingInfo, ConceptDescriptionSearchCriteria)}
+     */
+    public CompletableFuture<Page<ConceptDescription>> getAsync(PagingInfo pagingInfo, ConceptDescriptionSearchCriteria conceptDescriptionSearchCriteria) {
+        return getPageAsync(null, Content.DEFAULT, QueryModifier.DEFAULT, pagingInfo, conceptDescriptionSearchCriteria, ConceptDescription.class);
+    }
+
+
+    /**
+     * Lazily streams all Concept Descriptions, following the paging cursors returned by the server.
+     *
+     * <p>
+     * Pages are requested lazily while the stream is consumed; the next page is requested in the background while the
+     * current page is consumed. Closing the stream stops requesting pages. Errors are thrown as
+     * {@link UncheckedClientException}. The limit of {@code pagingInfo} is used as page size, its cursor as starting
+     * point.
+     *
+     * @param pagingInfo Metadata for controlling the pagination of results
+     * @return a stream of all Concept Descriptions
+     */
+    public Stream<ConceptDescription> stream(PagingInfo pagingInfo) {
+        return stream(pagingInfo, ConceptDescriptionSearchCriteria.DEFAULT);
+    }
+
+
+    /**
+     * Lazily streams all Concept Descriptions matching specific search criteria, following the paging cursors returned
+     * by the server.
+     *
+     * <p>
+     * Pages are requested lazily while the stream is consumed; the next page is requested in the background while the
+     * current page is consumed. Closing the stream stops requesting pages. Errors are thrown as
+     * {@link UncheckedClientException}. The limit of {@code pagingInfo} is used as page size, its cursor as starting
+     * point.
+     *
+     * @param pagingInfo Metadata for controlling the pagination of results
+     * @param conceptDescriptionSearchCriteria specific search criteria: idShort, isCaseOf or dataSpecificationRef
+     * @return a stream of all matching Concept Descriptions
+     */
+    public Stream<ConceptDescription> stream(PagingInfo pagingInfo, ConceptDescriptionSearchCriteria conceptDescriptionSearchCriteria) {
+        return stream(null, Content.DEFAULT, QueryModifier.DEFAULT, pagingInfo, conceptDescriptionSearchCriteria, ConceptDescription.class);
+    }
+
+
+    /**
+     * Lazily iterates over all Concept Descriptions, following the paging cursors returned by the server.
+     *
+     * <p>
+     * Pages are requested lazily while iterating; the next page is requested in the background while the current page
+     * is consumed. Iterators that are not consumed completely should be closed to stop requesting pages. Errors
+     * are thrown as {@link UncheckedClientException}. The limit of {@code pagingInfo} is used as page size, its cursor
+     * as starting point.
+     *
+     * @param pagingInfo Metadata for controlling the pagination of results
+     * @return an iterator over all Concept Descriptions
+     */
+    public PagingIterator<ConceptDescription> iterator(PagingInfo pagingInfo) {
+        return iterator(pagingInfo, ConceptDescriptionSearchCriteria.DEFAULT);
+    }
+
+
+    /**
+     * Lazily iterates over all Concept Descriptions matching specific search criteria, following the paging cursors
+     * returned by the server.
+     *
+     * <p>
+     * Pages are requested lazily while iterating; the next page is requested in the background while the current page
+     * is consumed. Iterators that are not consumed completely should be closed to stop requesting pages. Errors
+     * are thrown as {@link UncheckedClientException}. The limit of {@code pagingInfo} is used as page size, its cursor
+     * as starting point.
+     *
+     * @param pagingInfo Metadata for controlling the pagination of results
+     * @param conceptDescriptionSearchCriteria specific search criteria: idShort, isCaseOf or dataSpecificationRef
+     * @return an iterator over all matching Concept Descriptions
+     */
+    public PagingIterator<ConceptDescription> iterator(PagingInfo pagingInfo, ConceptDescriptionSearchCriteria conceptDescriptionSearchCriteria) {
+        return iterate(null, Content.DEFAULT, QueryModifier.DEFAULT, pagingInfo, conceptDescriptionSearchCriteria, ConceptDescription.class);
+    }
+
+
     /**
      * Creates a new Concept Description. The id of the new Concept Description must be set in the payload.
      *
@@ -198,6 +338,19 @@ public class ConceptDescriptionRepositoryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously creates a new Concept Description. The id of the new Concept Description must be set in the
+     * payload.
+     *
+     * @param conceptDescription Concept Description object
+     * @return a future of the created Concept Description; completes exceptionally with the same exceptions as {@link
+     *         #post(ConceptDescription)}
+     */
+    public CompletableFuture<ConceptDescription> postAsync(ConceptDescription conceptDescription) {
+        return postAsync(null, conceptDescription, ConceptDescription.class);
+    }
+
+
     /**
      * Returns a specific Concept Description.
      *
@@ -220,6 +373,77 @@ public class ConceptDescriptionRepositoryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves a specific Concept Description.
+     *
+     * @param cdIdentifier The Concept Description’s unique id
+     * @return a future of the requested Concept Description; completes exceptionally with the same exceptions as {@link
+     *         #get(String)}
+     */
+    public CompletableFuture<ConceptDescription> getAsync(String cdIdentifier) {
+        return getAsync(idPath(cdIdentifier), ConceptDescription.class);
+    }
+
+
+    /**
+     * Retrieves multiple Concept Descriptions by id, with at most {@link BulkRequestHelper#DEFAULT_MAX_CONCURRENCY}
+     * requests in flight.
+     *
+     * <p>
+     * Failures, e.g., for ids that do not exist, are collected per id and do not abort the remaining requests.
+     *
+     * @param ids the Concept Descriptions' unique ids
+     * @return the retrieved Concept Descriptions and failures by id
+     */
+    public BulkResult<ConceptDescription> getByIds(Collection<String> ids) {
+        return getByIds(ids, BulkRequestHelper.DEFAULT_MAX_CONCURRENCY);
+    }
+
+
+    /**
+     * Asynchronously retrieves multiple Concept Descriptions by id, with at most
+     * {@link BulkRequestHelper#DEFAULT_MAX_CONCURRENCY} requests in flight.
+     *
+     * @param ids the Concept Descriptions' unique ids
+     * @return a future of the retrieved Concept Descriptions and failures by id; never completes exceptionally
+     */
+    public CompletableFuture<BulkResult<ConceptDescription>> getByIdsAsync(Collection<String> ids) {
+        return getByIdsAsync(ids, BulkRequestHelper.DEFAULT_MAX_CONCURRENCY);
+    }
+
+
+    /**
+     * Retrieves multiple Concept Descriptions by id.
+     *
+     * <p>
+     * Requests are sent concurrently, with at most {@code maxConcurrency} requests in flight. Failures, e.g., for ids
+     * that do not exist, are collected per id and do not abort the remaining requests.
+     *
+     * @param ids the Concept Descriptions' unique ids
+     * @param maxConcurrency the maximum number of concurrent requests
+     * @return the retrieved Concept Descriptions and failures by id
+     */
+    public BulkResult<ConceptDescription> getByIds(Collection<String> ids, int maxConcurrency) {
+        return getByIdsAsync(ids, maxConcurrency).join();
+    }
+
+
+    /**
+     * Asynchronously retrieves multiple Concept Descriptions by id.
+     *
+     * <p>
+     * Requests are sent concurrently, with at most {@code maxConcurrency} requests in flight. Failures, e.g., for ids
+     * that do not exist, are collected per id and do not abort the remaining requests.
+     *
+     * @param ids the Concept Descriptions' unique ids
+     * @param maxConcurrency the maximum number of concurrent requests
+     * @return a future of the retrieved Concept Descriptions and failures by id; never completes exceptionally
+     */
+    public CompletableFuture<BulkResult<ConceptDescription>> getByIdsAsync(Collection<String> ids, int maxConcurrency) {
+        return getByIdsAsync(ids, maxConcurrency, ConceptDescription.class);
+    }
+
+
     /**
      * Replaces an existing Concept Description.
      *
@@ -242,6 +466,19 @@ public class ConceptDescriptionRepositoryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously replaces an existing Concept Description.
+     *
+     * @param conceptDescription Concept Description object
+     * @param cdIdentifier The Concept Description’s unique id
+     * @return a future completing when the request has been processed; completes exceptionally with the same exceptions
+     *         as {@link #put(ConceptDescription, String)}
+     */
+    public CompletableFuture<Void> putAsync(ConceptDescription conceptDescription, String cdIdentifier) {
+        return putAsync(idPath(cdIdentifier), conceptDescription);
+    }
+
+
     /**
      * Deletes a Concept Description.
      *
@@ -263,11 +500,24 @@ public class ConceptDescriptionRepositoryInterface extends BaseInterface {
         super.delete(idPath(cdIdentifier));
     }
 
+
+    /**
+     * Asynchronously deletes a Concept Description.
+     *
+     * @param cdIdentifier The Concept Description’s unique id
+     * @return a future completing when the request has been processed; completes exceptionally with the same exceptions
+     *         as {@link #delete(String)}
+     */
+    @Override
+    public CompletableFuture<Void> deleteAsync(String cdIdentifier) {
+        return super.deleteAsync(idPath(cdIdentifier));
+    }
+
     public static class Builder extends AbstractBuilder<ConceptDescriptionRepositoryInterface, Builder> {
 
         @Override
         protected ConceptDescriptionRepositoryInterface buildConcrete() {
-            return new ConceptDescriptionRepositoryInterface(endpoint, httpClient());
+            return new ConceptDescriptionRepositoryInterface(endpoint, httpClient(), codec());
         }
     }
 }
@@ -20,12 +20,14 @@ import de.fraunhofer.iosb.ilt.faaast.client.http.HttpMethod;
 import de.fraunhofer.iosb.ilt.faaast.client.http.HttpStatus;
 import de.fraunhofer.iosb.ilt.faaast.client.util.HttpClientHelper;
 import de.fraunhofer.iosb.ilt.faaast.client.util.HttpRequestHelper;
+import de.fraunhofer.iosb.ilt.faaast.client.util.JsonCodec;
 import de.fraunhofer.iosb.ilt.faaast.service.model.ServiceDescription;
 
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
 
 
 /**
@@ -40,6 +42,18 @@ public class DescriptionInterface extends BaseInterface {
 
     private static final String API_PATH = "/description";
 
+    /**
+     * Creates a new Description Interface.
+     *
+     * @param endpoint Uri used to communicate with the FA³ST service
+     * @param httpClient custom http-client in case the user wants to set specific attributes
+     * @param codec the codec used to serialize requests and deserialize responses
+     */
+    public DescriptionInterface(URI endpoint, HttpClient httpClient, JsonCodec codec) {
+        super(resolve(endpoint, API_PATH), httpClient, codec);
+    }
+
+
     /**
      * Creates a new Description Interface.
      *
@@ -47,7 +61,7 @@ public class DescriptionInterface extends BaseInterface {
      * @param httpClient custom http-client in case the user wants to set specific attributes
      */
     public DescriptionInterface(URI endpoint, HttpClient httpClient) {
-        super(endpoint, httpClient);
+        super(resolve(endpoint, API_PATH), httpClient);
     }
 
 
@@ -107,11 +121,24 @@ public class DescriptionInterface extends BaseInterface {
         return parseBody(response, ServiceDescription.class);
     }
 
+
+    /**
+     * Asynchronously retrieves the self-describing information of a network resource (ServiceDescription).
+     *
+     * @return a future of the requested self-describing information; completes exceptionally with the same exceptions
+     *         as {@link #get()}
+     */
+    public CompletableFuture<ServiceDescription> getAsync() {
+        return HttpRequestHelper.sendAsync(httpClient, HttpRequestHelper.createGetRequest(endpoint))
+                .thenApply(validated(HttpMethod.GET, HttpStatus.OK))
+                .thenApply(response -> parseBody(response, ServiceDescription.class));
+    }
+
     public static class Builder extends AbstractBuilder<DescriptionInterface, Builder> {
 
         @Override
         protected DescriptionInterface buildConcrete() {
-            return new DescriptionInterface(endpoint, httpClient());
+            return new DescriptionInterface(endpoint, httpClient(), codec());
         }
     }
 }
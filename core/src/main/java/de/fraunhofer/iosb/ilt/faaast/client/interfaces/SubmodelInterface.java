@@ -18,7 +18,14 @@ import com.fasterxml.jackson.databind.JsonNode;
 import de.fraunhofer.iosb.ilt.faaast.client.exception.ConnectivityException;
 import de.fraunhofer.iosb.ilt.faaast.client.exception.StatusCodeException;
 import de.fraunhofer.iosb.ilt.faaast.client.http.HttpStatus;
+import de.fraunhofer.iosb.ilt.faaast.client.query.SearchCriteria;
+import de.fraunhofer.iosb.ilt.faaast.client.util.BoundedCache;
+import de.fraunhofer.iosb.ilt.faaast.client.util.DownloadedFile;
 import de.fraunhofer.iosb.ilt.faaast.client.util.HttpClientHelper;
+import de.fraunhofer.iosb.ilt.faaast.client.util.JsonCodec;
+import de.fraunhofer.iosb.ilt.faaast.client.util.MultipartBodyPublishers;
+import de.fraunhofer.iosb.ilt.faaast.client.util.RangeDownloadOptions;
+import de.fraunhofer.iosb.ilt.faaast.client.util.StreamedFile;
 import de.fraunhofer.iosb.ilt.faaast.service.model.IdShortPath;
 import de.fraunhofer.iosb.ilt.faaast.service.model.InMemoryFile;
 import de.fraunhofer.iosb.ilt.faaast.service.model.TypedInMemoryFile;
@@ -32,7 +39,10 @@ import de.fraunhofer.iosb.ilt.faaast.service.model.value.ElementValue;
 import de.fraunhofer.iosb.ilt.faaast.service.typing.ElementValueTypeInfo;
 import java.net.URI;
 import java.net.http.HttpClient;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultOperationRequest;
 import javax.xml.datatype.Duration;
@@ -54,6 +64,21 @@ import org.eclipse.digitaltwin.aas4j.v3.model.SubmodelElement;
  * </p>
  */
 public class SubmodelInterface extends BaseInterface {
+    private static final String SUBMODEL_ELEMENTS_PATH = "/submodel-elements";
+    private static final int ELEMENT_PATH_CACHE_SIZE = 1024;
+    private static final BoundedCache<IdShortPath, String> ELEMENT_PATHS = new BoundedCache<>(ELEMENT_PATH_CACHE_SIZE);
+
+    /**
+     * Creates a new Submodel API.
+     *
+     * @param endpoint Uri used to communicate with the FA³ST service
+     * @param httpClient the httpClient to use
+     * @param codec the codec used to serialize requests and deserialize responses
+     */
+    public SubmodelInterface(URI endpoint, HttpClient httpClient, JsonCodec codec) {
+        super(endpoint, httpClient, codec);
+    }
+
 
     /**
      * Creates a new Submodel API.
@@ -120,6 +145,17 @@ public class SubmodelInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves the Submodel from the server.
+     *
+     * @return a future of the requested Submodel object; completes exceptionally with the same exceptions as
+     *         {@link #get()}
+     */
+    public CompletableFuture<Submodel> getAsync() {
+        return getAsync(QueryModifier.DEFAULT);
+    }
+
+
     /**
      * Retrieves the Submodel formatted according to query modifier.
      *
@@ -142,6 +178,18 @@ public class SubmodelInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves the Submodel formatted according to query modifier.
+     *
+     * @param modifier The query modifier specifies the structural depth and resource serialization of the submodel
+     * @return a future of the requested Submodel object; completes exceptionally with the same exceptions as
+     *         {@link #get(QueryModifier)}
+     */
+    public CompletableFuture<Submodel> getAsync(QueryModifier modifier) {
+        return getAsync(null, modifier, Content.DEFAULT, Submodel.class);
+    }
+
+
     /**
      * Replaces the current Submodel with a new one.
      *
@@ -163,6 +211,18 @@ public class SubmodelInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously replaces the current Submodel with a new one.
+     *
+     * @param submodel The new Submodel object to replace the current one
+     * @return a future completing when the request has been processed; completes exceptionally with the same
+     *         exceptions as {@link #put(Submodel)}
+     */
+    public CompletableFuture<Void> putAsync(Submodel submodel) {
+        return putAsync(null, submodel, Content.DEFAULT, new QueryModifier.Builder().level(Level.DEEP).build());
+    }
+
+
     /**
      * Updates the Submodel.
      *
@@ -185,6 +245,18 @@ public class SubmodelInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously updates the Submodel.
+     *
+     * @param submodel The new Submodel object to patch the current one
+     * @return a future completing when the request has been processed; completes exceptionally with the same
+     *         exceptions as {@link #patch(Submodel)}
+     */
+    public CompletableFuture<Void> patchAsync(Submodel submodel) {
+        return patchAsync(null, submodel, Content.DEFAULT, new QueryModifier.Builder().level(Level.CORE).build());
+    }
+
+
     /**
      * Retrieves the metadata attributes of a specific Submodel.
      *
@@ -207,6 +279,18 @@ public class SubmodelInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves the metadata attributes of a specific Submodel.
+     *
+     * @param modifier The query modifier specifies the structural depth and resource serialization of the submodel
+     * @return a future of the requested Submodel object containing only metadata; completes exceptionally with the same
+     *         exceptions as {@link #getMetadata(QueryModifier)}
+     */
+    public CompletableFuture<Submodel> getMetadataAsync(QueryModifier modifier) {
+        return getAsync(null, modifier, Content.METADATA, Submodel.class);
+    }
+
+
     /**
      * Updates the metadata attributes of a specific Submodel.
      *
@@ -229,6 +313,19 @@ public class SubmodelInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously updates the metadata attributes of a specific Submodel.
+     *
+     * @param modifier The query modifier specifies the structural depth and resource serialization of the submodel
+     * @param submodel The new Submodel metadata to patch the current one
+     * @return a future completing when the request has been processed; completes exceptionally with the same
+     *         exceptions as {@link #patchMetadata(QueryModifier, Submodel)}
+     */
+    public CompletableFuture<Void> patchMetadataAsync(QueryModifier modifier, Submodel submodel) {
+        return patchAsync(null, submodel, Content.METADATA, modifier);
+    }
+
+
     /**
      * Retrieves a specific Submodel in the value-only serialization.
      *
@@ -251,6 +348,18 @@ public class SubmodelInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves a specific Submodel in the value-only serialization.
+     *
+     * @param modifier The query modifier specifies the structural depth and resource serialization of the submodel
+     * @return a future of a JsonNode containing only the values of a Submodel object; completes exceptionally with the
+     *         same exceptions as {@link #getValue(QueryModifier)}
+     */
+    public CompletableFuture<JsonNode> getValueAsync(QueryModifier modifier) {
+        return getAsync(null, modifier, Content.VALUE, JsonNode.class);
+    }
+
+
     /**
      * Updates the values of a specific Submodel.
      *
@@ -273,6 +382,19 @@ public class SubmodelInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously updates the values of a specific Submodel.
+     *
+     * @param modifier The query modifier specifies the structural depth and resource serialization of the submodel
+     * @param jsonNode JsonNode containing the new values of the Submodel to update the current ones
+     * @return a future completing when the request has been processed; completes exceptionally with the same
+     *         exceptions as {@link #patchValue(QueryModifier, JsonNode)}
+     */
+    public CompletableFuture<Void> patchValueAsync(QueryModifier modifier, JsonNode jsonNode) {
+        return patchAsync(null, jsonNode, Content.VALUE, modifier);
+    }
+
+
     /**
      * Retrieves the reference of a specific Submodel.
      *
@@ -294,6 +416,17 @@ public class SubmodelInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves the reference of a specific Submodel.
+     *
+     * @return a future of the reference of the requested Submodel object; completes exceptionally with the same
+     *         exceptions as {@link #getReference()}
+     */
+    public CompletableFuture<Reference> getReferenceAsync() {
+        return getAsync(null, QueryModifier.MINIMAL, Content.REFERENCE, Reference.class);
+    }
+
+
     /**
      * Retrieves the path of a specific Submodel.
      *
@@ -316,6 +449,18 @@ public class SubmodelInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves the path of a specific Submodel.
+     *
+     * @param modifier The query modifier specifies the structural depth and resource serialization of the submodel
+     * @return a future of the path of the requested Submodel object; completes exceptionally with the same exceptions
+     *         as {@link #getPath(QueryModifier)}
+     */
+    public CompletableFuture<String> getPathAsync(QueryModifier modifier) {
+        return getAsync(null, modifier, Content.PATH, String.class);
+    }
+
+
     /**
      * Retrieves a list of all Submodel Elements including their hierarchy.
      *
@@ -337,6 +482,17 @@ public class SubmodelInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves a list of all Submodel Elements including their hierarchy.
+     *
+     * @return a future of a list of all submodel elements; completes exceptionally with the same exceptions as
+     *         {@link #getAllElements()}
+     */
+    public CompletableFuture<List<SubmodelElement>> getAllElementsAsync() {
+        return getAllElementsAsync(QueryModifier.DEFAULT);
+    }
+
+
     /**
      * Retrieves a list of all Submodel Elements including their hierarchy formatted according to query modifier.
      *
@@ -359,6 +515,19 @@ public class SubmodelInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves a list of all Submodel Elements including their hierarchy formatted according to query
+     * modifier.
+     *
+     * @param modifier The query modifier specifies the structural depth and resource serialization of the submodel
+     * @return a future of a list of all submodel elements; completes exceptionally with the same exceptions as
+     *         {@link #getAllElements(QueryModifier)}
+     */
+    public CompletableFuture<List<SubmodelElement>> getAllElementsAsync(QueryModifier modifier) {
+        return getAllAsync(submodelElementsPath(), SearchCriteria.DEFAULT, Content.DEFAULT, modifier, SubmodelElement.class);
+    }
+
+
     /**
      * Retrieves a Page of Submodel Elements including their hierarchy.
      *
@@ -381,6 +550,18 @@ public class SubmodelInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves a Page of Submodel Elements including their hierarchy.
+     *
+     * @param pagingInfo Metadata for controlling the pagination of results
+     * @return a future of a page of Submodel Elements; completes exceptionally with the same exceptions as
+     *         {@link #getElements(PagingInfo)}
+     */
+    public CompletableFuture<Page<SubmodelElement>> getElementsAsync(PagingInfo pagingInfo) {
+        return getElementsAsync(pagingInfo, QueryModifier.DEFAULT);
+    }
+
+
     /**
      * Retrieves a Page of Submodel Elements including their hierarchy.
      *
@@ -404,6 +585,19 @@ public class SubmodelInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves a Page of Submodel Elements including their hierarchy.
+     *
+     * @param pagingInfo Metadata for controlling the pagination of results
+     * @param modifier The query modifier specifies the structural depth and resource serialization of the submodel
+     * @return a future of a page of Submodel Elements; completes exceptionally with the same exceptions as
+     *         {@link #getElements(PagingInfo, QueryModifier)}
+     */
+    public CompletableFuture<Page<SubmodelElement>> getElementsAsync(PagingInfo pagingInfo, QueryModifier modifier) {
+        return getPageAsync(submodelElementsPath(), Content.DEFAULT, modifier, pagingInfo, SearchCriteria.DEFAULT, SubmodelElement.class);
+    }
+
+
     /**
      * Creates a new Submodel Element as a child of the submodel. The idShort of the new Submodel Element must be set in the
      * payload.
@@ -428,6 +622,18 @@ public class SubmodelInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously creates a new Submodel Element as a child of the submodel.
+     *
+     * @param submodelElement The new Submodel Element object
+     * @return a future of the created Submodel Element object; completes exceptionally with the same exceptions as
+     *         {@link #postElement(SubmodelElement)}
+     */
+    public CompletableFuture<SubmodelElement> postElementAsync(SubmodelElement submodelElement) {
+        return postAsync(submodelElementsPath(), submodelElement, SubmodelElement.class);
+    }
+
+
     /**
      * Retrieves the metadata attributes of multiple Submodel Elements.
      *
@@ -451,6 +657,19 @@ public class SubmodelInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves the metadata attributes of multiple Submodel Elements.
+     *
+     * @param pagingInfo Metadata for controlling the pagination of results
+     * @param modifier The query modifier specifies the structural depth and resource serialization of the submodel
+     * @return a future of a page of Submodel Element metadata; completes exceptionally with the same exceptions as
+     *         {@link #getElementMetadata(PagingInfo, QueryModifier)}
+     */
+    public CompletableFuture<Page<SubmodelElement>> getElementMetadataAsync(PagingInfo pagingInfo, QueryModifier modifier) {
+        return getPageAsync(submodelElementsPath(), Content.METADATA, modifier, pagingInfo, SearchCriteria.DEFAULT, SubmodelElement.class);
+    }
+
+
     /**
      * Retrieves the references of multiple Submodel Elements.
      *
@@ -474,6 +693,19 @@ public class SubmodelInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves the references of multiple Submodel Elements.
+     *
+     * @param pagingInfo Metadata for controlling the pagination of results
+     * @param modifier The query modifier specifies the structural depth and resource serialization of the submodel
+     * @return a future of a page of Submodel Element references; completes exceptionally with the same exceptions as
+     *         {@link #getElementReference(PagingInfo, QueryModifier)}
+     */
+    public CompletableFuture<Page<Reference>> getElementReferenceAsync(PagingInfo pagingInfo, QueryModifier modifier) {
+        return getPageAsync(submodelElementsPath(), Content.REFERENCE, modifier, pagingInfo, SearchCriteria.DEFAULT, Reference.class);
+    }
+
+
     /**
      * Retrieves the path of multiple Submodel Elements.
      *
@@ -497,6 +729,19 @@ public class SubmodelInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves the path of multiple Submodel Elements.
+     *
+     * @param pagingInfo Metadata for controlling the pagination of results
+     * @param modifier The query modifier specifies the structural depth and resource serialization of the submodel
+     * @return a future of a page of Submodel Element paths; completes exceptionally with the same exceptions as
+     *         {@link #getElementPath(PagingInfo, QueryModifier)}
+     */
+    public CompletableFuture<Page<String>> getElementPathAsync(PagingInfo pagingInfo, QueryModifier modifier) {
+        return getPageAsync(submodelElementsPath(), Content.PATH, modifier, pagingInfo, SearchCriteria.DEFAULT, String.class);
+    }
+
+
     /**
      * Retrieves a specific submodel element from the Submodel at a specified path.
      *
@@ -519,6 +764,18 @@ public class SubmodelInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves a specific Submodel Element from the Submodel at a specified path.
+     *
+     * @param idShortPath The path to the Submodel Element
+     * @return a future of the requested Submodel Element object; completes exceptionally with the same exceptions as
+     *         {@link #getElement(IdShortPath)}
+     */
+    public CompletableFuture<SubmodelElement> getElementAsync(IdShortPath idShortPath) {
+        return getElementAsync(idShortPath, QueryModifier.DEFAULT);
+    }
+
+
     /**
      * Retrieves a specific Submodel Element from the Submodel at a specified path.
      *
@@ -542,6 +799,19 @@ public class SubmodelInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves a specific Submodel Element from the Submodel at a specified path.
+     *
+     * @param idShortPath The path to the Submodel Element
+     * @param modifier The query modifier specifies the structural depth and resource serialization of the submodel
+     * @return a future of the requested Submodel Element object; completes exceptionally with the same exceptions as
+     *         {@link #getElement(IdShortPath, QueryModifier)}
+     */
+    public CompletableFuture<SubmodelElement> getElementAsync(IdShortPath idShortPath, QueryModifier modifier) {
+        return getAsync(submodelElementIdPath(idShortPath), modifier, Content.DEFAULT, SubmodelElement.class);
+    }
+
+
     /**
      * Creates a new submodel element at a specified path within the submodel element hierarchy.
      * If the PostSubmodelElementByPath is executed towards a SubmodelElementList, the new SubmodelElement is added to the
@@ -568,6 +838,19 @@ public class SubmodelInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously creates a new submodel element at a specified path within the submodel element hierarchy.
+     *
+     * @param idShortPath The path under which the new SubmodelElement shall be added
+     * @param submodelElement The new Submodel Element object
+     * @return a future of the new Submodel Element object as hosted on the server; completes exceptionally with the
+     *         same exceptions as {@link #postElement(IdShortPath, SubmodelElement)}
+     */
+    public CompletableFuture<SubmodelElement> postElementAsync(IdShortPath idShortPath, SubmodelElement submodelElement) {
+        return postAsync(submodelElementIdPath(idShortPath), submodelElement, SubmodelElement.class);
+    }
+
+
     /**
      * Replaces an existing Submodel Element at a specified path within the submodel element hierarchy.
      *
@@ -591,6 +874,19 @@ public class SubmodelInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously replaces an existing Submodel Element at a specified path within the submodel element hierarchy.
+     *
+     * @param idShortPath The path to the Submodel Element which shall be replaced
+     * @param submodelElement The new Submodel Element object to replace the current one
+     * @return a future completing when the request has been processed; completes exceptionally with the same
+     *         exceptions as {@link #putElement(IdShortPath, SubmodelElement)}
+     */
+    public CompletableFuture<Void> putElementAsync(IdShortPath idShortPath, SubmodelElement submodelElement) {
+        return putAsync(submodelElementIdPath(idShortPath), submodelElement);
+    }
+
+
     /**
      * Updates an existing Submodel Element at a specified path within the submodel element hierarchy.
      *
@@ -613,6 +909,19 @@ public class SubmodelInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously updates an existing Submodel Element at a specified path within the submodel element hierarchy.
+     *
+     * @param idShortPath The path to the Submodel Element which shall be updated
+     * @param submodelElement The new Submodel Element object to update the current one
+     * @return a future completing when the request has been processed; completes exceptionally with the same
+     *         exceptions as {@link #patchElement(IdShortPath, SubmodelElement)}
+     */
+    public CompletableFuture<Void> patchElementAsync(IdShortPath idShortPath, SubmodelElement submodelElement) {
+        return patchAsync(submodelElementIdPath(idShortPath), submodelElement, Content.DEFAULT, QueryModifier.DEFAULT);
+    }
+
+
     /**
      * Deletes a Submodel Element at a specified path within the submodel elements hierarchy.
      *
@@ -634,6 +943,18 @@ public class SubmodelInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously deletes a Submodel Element at a specified path within the submodel elements hierarchy.
+     *
+     * @param idShortPath The path to the Submodel Element
+     * @return a future completing when the request has been processed; completes exceptionally with the same
+     *         exceptions as {@link #deleteElement(IdShortPath)}
+     */
+    public CompletableFuture<Void> deleteElementAsync(IdShortPath idShortPath) {
+        return deleteAsync(submodelElementIdPath(idShortPath));
+    }
+
+
     /**
      * Retrieves the metadata attributes of a specific Submodel Element.
      *
@@ -656,6 +977,18 @@ public class SubmodelInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves the metadata attributes of a specific Submodel Element.
+     *
+     * @param idShortPath The path to the Submodel Element
+     * @return a future of the Submodel Element metadata; completes exceptionally with the same exceptions as
+     *         {@link #getElementMetadata(IdShortPath)}
+     */
+    public CompletableFuture<SubmodelElement> getElementMetadataAsync(IdShortPath idShortPath) {
+        return getAsync(submodelElementIdPath(idShortPath), QueryModifier.DEFAULT, Content.METADATA, SubmodelElement.class);
+    }
+
+
     /**
      * Updates the metadata attributes of a specific Submodel Element.
      *
@@ -678,6 +1011,19 @@ public class SubmodelInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously updates the metadata attributes of a specific Submodel Element.
+     *
+     * @param idShortPath The path to the Submodel Element
+     * @param submodelElement The new Submodel Element metadata to patch the current one
+     * @return a future completing when the request has been processed; completes exceptionally with the same
+     *         exceptions as {@link #patchElementMetadata(IdShortPath, SubmodelElement)}
+     */
+    public CompletableFuture<Void> patchElementMetadataAsync(IdShortPath idShortPath, SubmodelElement submodelElement) {
+        return patchAsync(submodelElementIdPath(idShortPath), submodelElement, Content.DEFAULT, new QueryModifier.Builder().level(Level.CORE).build());
+    }
+
+
     /**
      * Returns a specific Submodel Element value from the Submodel at a specified path.
      *
@@ -703,6 +1049,20 @@ public class SubmodelInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously returns a specific Submodel Element value from the Submodel at a specified path.
+     *
+     * @param <T> the return type
+     * @param idShortPath The path to the Submodel Element
+     * @param typeInfo Information specifying how the value should be deserialized. Requires type and datatype to be set
+     * @return a future of the requested submodel element value; completes exceptionally with the same exceptions as
+     *         {@link #getElementValue(IdShortPath, ElementValueTypeInfo)}
+     */
+    public <T extends ElementValue> CompletableFuture<T> getElementValueAsync(IdShortPath idShortPath, ElementValueTypeInfo typeInfo) {
+        return getElementValueAsync(idShortPath, typeInfo, QueryModifier.DEFAULT);
+    }
+
+
     /**
      * Returns a specific Submodel Element value from the Submodel at a specified path according to query modifier.
      *
@@ -729,6 +1089,22 @@ public class SubmodelInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously returns a specific Submodel Element value from the Submodel at a specified path according to query
+     * modifier.
+     *
+     * @param <T> the return type
+     * @param idShortPath The path to the Submodel Element
+     * @param typeInfo Information specifying how the value should be deserialized. Requires type and datatype to be set
+     * @param modifier The query modifier specifies the structural depth and resource serialization of the submodel
+     * @return a future of the requested submodel element value; completes exceptionally with the same exceptions as
+     *         {@link #getElementValue(IdShortPath, ElementValueTypeInfo, QueryModifier)}
+     */
+    public <T extends ElementValue> CompletableFuture<T> getElementValueAsync(IdShortPath idShortPath, ElementValueTypeInfo typeInfo, QueryModifier modifier) {
+        return getValueAsync(submodelElementIdPath(idShortPath), modifier, typeInfo);
+    }
+
+
     /**
      * Updates an existing Submodel Element value at a specified path within the submodel element hierarchy.
      *
@@ -751,6 +1127,20 @@ public class SubmodelInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously updates an existing Submodel Element value at a specified path within the submodel element
+     * hierarchy.
+     *
+     * @param idShortPath The path to the Submodel Element which shall be updated
+     * @param value The new Submodel Element value object to replace the current one
+     * @return a future completing when the request has been processed; completes exceptionally with the same
+     *         exceptions as {@link #patchElementValue(IdShortPath, Object)}
+     */
+    public CompletableFuture<Void> patchElementValueAsync(IdShortPath idShortPath, Object value) {
+        return patchValueAsync(submodelElementIdPath(idShortPath), value, new QueryModifier.Builder().level(Level.DEFAULT).build());
+    }
+
+
     /**
      * Retrieves a specific Submodel Element reference from the server.
      *
@@ -773,6 +1163,18 @@ public class SubmodelInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves a specific Submodel Element reference from the server.
+     *
+     * @param idShortPath The path to the Submodel Element
+     * @return a future of the reference of the requested Submodel Element; completes exceptionally with the same
+     *         exceptions as {@link #getElementReference(IdShortPath)}
+     */
+    public CompletableFuture<Reference> getElementReferenceAsync(IdShortPath idShortPath) {
+        return getAsync(submodelElementIdPath(idShortPath), new QueryModifier.Builder().level(Level.CORE).build(), Content.REFERENCE, Reference.class);
+    }
+
+
     /**
      * Retrieves a specific Submodel Element path from the server.
      *
@@ -795,6 +1197,18 @@ public class SubmodelInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves a specific Submodel Element path from the server.
+     *
+     * @param idShortPath The path to the Submodel Element
+     * @return a future of the path of the requested Submodel Element; completes exceptionally with the same exceptions
+     *         as {@link #getElementPath(IdShortPath)}
+     */
+    public CompletableFuture<String> getElementPathAsync(IdShortPath idShortPath) {
+        return getAsync(submodelElementIdPath(idShortPath), new QueryModifier.Builder().level(Level.DEEP).build(), Content.PATH, String.class);
+    }
+
+
     /**
      * Returns a specific file from the Submodel at a specified path.
      *
@@ -817,6 +1231,122 @@ public class SubmodelInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously returns a specific file from the Submodel at a specified path.
+     *
+     * @param idShortPath The path to the Submodel Element
+     * @return a future of the requested file; completes exceptionally with the same exceptions as
+     *         {@link #getAttachment(IdShortPath)}
+     */
+    public CompletableFuture<InMemoryFile> getAttachmentAsync(IdShortPath idShortPath) {
+        return getFileAsync(attachmentPath(idShortPath));
+    }
+
+
+    /**
+     * Downloads a specific file from the Submodel at a specified path directly to {@code target}. The content is
+     * written to disk while it is being transferred, so memory consumption does not depend on the size of the file. An
+     * existing file at {@code target} is only replaced once the download has completed successfully.
+     *
+     * @param idShortPath The path to the Submodel Element
+     * @param target the file to write the content to
+     * @return the downloaded file, including the file name announced by the server
+     * @throws StatusCodeException if the server responds with an error. Possible Exceptions:
+     *             <div>
+     *             <ul>
+     *             <li>400: BadRequestException</li>
+     *             <li>403: ForbiddenException</li>
+     *             <li>404: NotFoundException</li>
+     *             <li>405: MethodNotAllowedException</li>
+     *             <li>500: InternalServerErrorException</li>
+     *             </ul>
+     *             </div>
+     * @throws ConnectivityException if the connection to the server cannot be established
+     */
+    public DownloadedFile getAttachment(IdShortPath idShortPath, Path target) throws StatusCodeException, ConnectivityException {
+        return getFile(attachmentPath(idShortPath), target);
+    }
+
+
+    /**
+     * Asynchronously downloads a specific file from the Submodel at a specified path directly to {@code target}.
+     *
+     * @param idShortPath The path to the Submodel Element
+     * @param target the file to write the content to
+     * @return a future of the downloaded file; completes exceptionally with the same exceptions as
+     *         {@link #getAttachment(IdShortPath, Path)}
+     */
+    public CompletableFuture<DownloadedFile> getAttachmentAsync(IdShortPath idShortPath, Path target) {
+        return getFileAsync(attachmentPath(idShortPath), target);
+    }
+
+
+    /**
+     * Downloads a specific file from the Submodel at a specified path to {@code target} using HTTP range requests. If
+     * a previous download to {@code target} has been interrupted, only the missing content is transferred. Large files
+     * can be downloaded as concurrent ranges. If the server does not support range requests, the file is downloaded as
+     * a whole. See {@link RangeDownloadOptions} for details.
+     *
+     * @param idShortPath The path to the Submodel Element
+     * @param target the file to write the content to
+     * @param options the download options
+     * @return the downloaded file, including the file name announced by the server
+     * @throws StatusCodeException if the server responds with an error. Possible Exceptions:
+     *             <div>
+     *             <ul>
+     *             <li>400: BadRequestException</li>
+     *             <li>403: ForbiddenException</li>
+     *             <li>404: NotFoundException</li>
+     *             <li>405: MethodNotAllowedException</li>
+     *             <li>500: InternalServerErrorException</li>
+     *             </ul>
+     *             </div>
+     * @throws ConnectivityException if the connection to the server cannot be established or the download is
+     *             interrupted, ChecksumMismatchException if the content does not match its checksum
+     */
+    public DownloadedFile getAttachment(IdShortPath idShortPath, Path target, RangeDownloadOptions options) throws StatusCodeException, ConnectivityException {
+        return getFile(attachmentPath(idShortPath), target, options);
+    }
+
+
+    /**
+     * Asynchronously downloads a specific file from the Submodel at a specified path to {@code target} using HTTP range
+     * requests.
+     *
+     * @param idShortPath The path to the Submodel Element
+     * @param target the file to write the content to
+     * @param options the download options
+     * @return a future of the downloaded file; completes exceptionally with the same exceptions as
+     *         {@link #getAttachment(IdShortPath, Path, RangeDownloadOptions)}
+     */
+    public CompletableFuture<DownloadedFile> getAttachmentAsync(IdShortPath idShortPath, Path target, RangeDownloadOptions options) {
+        return getFileAsync(attachmentPath(idShortPath), target, options);
+    }
+
+
+    /**
+     * Returns a specific file from the Submodel at a specified path as stream. The content is read from the network
+     * while the stream is consumed, the caller is responsible for closing the returned file.
+     *
+     * @param idShortPath The path to the Submodel Element
+     * @return the streamed file, including the file name announced by the server
+     * @throws StatusCodeException if the server responds with an error. Possible Exceptions:
+     *             <div>
+     *             <ul>
+     *             <li>400: BadRequestException</li>
+     *             <li>403: ForbiddenException</li>
+     *             <li>404: NotFoundException</li>
+     *             <li>405: MethodNotAllowedException</li>
+     *             <li>500: InternalServerErrorException</li>
+     *             </ul>
+     *             </div>
+     * @throws ConnectivityException if the connection to the server cannot be established
+     */
+    public StreamedFile getAttachmentAsStream(IdShortPath idShortPath) throws StatusCodeException, ConnectivityException {
+        return getFileStream(attachmentPath(idShortPath));
+    }
+
+
     /**
      * Replaces the file at a specified path within the submodel element hierarchy.
      *
@@ -839,6 +1369,104 @@ public class SubmodelInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously replaces the file at a specified path within the submodel element hierarchy.
+     *
+     * @param idShortPath The path to the Submodel Element
+     * @param attachment The new file to replace the current one
+     * @return a future completing when the request has been processed; completes exceptionally with the same
+     *         exceptions as {@link #putAttachment(IdShortPath, TypedInMemoryFile)}
+     */
+    public CompletableFuture<Void> putAttachmentAsync(IdShortPath idShortPath, TypedInMemoryFile attachment) {
+        return putFileAsync(attachmentPath(idShortPath), attachment);
+    }
+
+
+    /**
+     * Replaces the file at a specified path within the submodel element hierarchy with the content of a file. The
+     * content is read from disk while it is being sent, so memory consumption does not depend on the size of the file.
+     * The file name sent to the server is the name of {@code file}.
+     *
+     * @param idShortPath The path to the Submodel Element
+     * @param file The file to upload
+     * @param contentType The content type of the file
+     * @throws StatusCodeException if the server responds with an error. Possible Exceptions:
+     *             <div>
+     *             <ul>
+     *             <li>400: BadRequestException</li>
+     *             <li>403: ForbiddenException</li>
+     *             <li>404: NotFoundException</li>
+     *             <li>405: MethodNotAllowedException</li>
+     *             <li>500: InternalServerErrorException</li>
+     *             </ul>
+     *             </div>
+     * @throws ConnectivityException if the connection to the server cannot be established
+     * @throws IllegalArgumentException if the file is not readable
+     */
+    public void putAttachment(IdShortPath idShortPath, Path file, String contentType) throws StatusCodeException, ConnectivityException {
+        putFile(attachmentPath(idShortPath), file, contentType);
+    }
+
+
+    /**
+     * Asynchronously replaces the file at a specified path within the submodel element hierarchy with the content of a
+     * file.
+     *
+     * @param idShortPath The path to the Submodel Element
+     * @param file The file to upload
+     * @param contentType The content type of the file
+     * @return a future completing when the request has been processed; completes exceptionally with the same
+     *         exceptions as {@link #putAttachment(IdShortPath, Path, String)}
+     * @throws IllegalArgumentException if the file is not readable
+     */
+    public CompletableFuture<Void> putAttachmentAsync(IdShortPath idShortPath, Path file, String contentType) {
+        return putFileAsync(attachmentPath(idShortPath), file, contentType);
+    }
+
+
+    /**
+     * Replaces the file at a specified path within the submodel element hierarchy with content read from a channel. The
+     * content is read while it is being sent, so memory consumption does not depend on the size of the content. The
+     * channel is closed once its content has been sent. As the content can only be read once, repeating the
+     * request, e.g., by a retry policy, fails instead of sending empty content.
+     *
+     * @param idShortPath The path to the Submodel Element
+     * @param content The channel to read the content from
+     * @param fileName The file name
+     * @param contentType The content type of the file
+     * @throws StatusCodeException if the server responds with an error. Possible Exceptions:
+     *             <div>
+     *             <ul>
+     *             <li>400: BadRequestException</li>
+     *             <li>403: ForbiddenException</li>
+     *             <li>404: NotFoundException</li>
+     *             <li>405: MethodNotAllowedException</li>
+     *             <li>500: InternalServerErrorException</li>
+     *             </ul>
+     *             </div>
+     * @throws ConnectivityException if the connection to the server cannot be established
+     */
+    public void putAttachment(IdShortPath idShortPath, ReadableByteChannel content, String fileName, String contentType) throws StatusCodeException, ConnectivityException {
+        putFile(attachmentPath(idShortPath), fileName, contentType, MultipartBodyPublishers.ofChannel(content));
+    }
+
+
+    /**
+     * Asynchronously replaces the file at a specified path within the submodel element hierarchy with content read from
+     * a channel.
+     *
+     * @param idShortPath The path to the Submodel Element
+     * @param content The channel to read the content from
+     * @param fileName The file name
+     * @param contentType The content type of the file
+     * @return a future completing when the request has been processed; completes exceptionally with the same
+     *         exceptions as {@link #putAttachment(IdShortPath, ReadableByteChannel, String, String)}
+     */
+    public CompletableFuture<Void> putAttachmentAsync(IdShortPath idShortPath, ReadableByteChannel content, String fileName, String contentType) {
+        return putFileAsync(attachmentPath(idShortPath), fileName, contentType, MultipartBodyPublishers.ofChannel(content));
+    }
+
+
     /**
      * Deletes the file of an existing submodel element at a specified path within the submodel element hierarchy.
      *
@@ -847,7 +1475,20 @@ public class SubmodelInterface extends BaseInterface {
      * @throws ConnectivityException if the connection to the server cannot be established
      */
     public void deleteAttachment(IdShortPath idShortPath) throws StatusCodeException, ConnectivityException {
-        delete(attachmentPath(idShortPath), HttpStatus.OK);
+        deleteFile(attachmentPath(idShortPath));
+    }
+
+
+    /**
+     * Asynchronously deletes the file of an existing submodel element at a specified path within the submodel element
+     * hierarchy.
+     *
+     * @param idShortPath The path to the Submodel Element
+     * @return a future completing when the request has been processed; completes exceptionally with the same
+     *         exceptions as {@link #deleteAttachment(IdShortPath)}
+     */
+    public CompletableFuture<Void> deleteAttachmentAsync(IdShortPath idShortPath) {
+        return deleteFileAsync(attachmentPath(idShortPath));
     }
 
 
@@ -877,6 +1518,20 @@ public class SubmodelInterface extends BaseInterface {
     }
 
 
+    /**
+     * Invokes a synchronous Operation at a specified path without blocking the calling thread.
+     *
+     * @param idShortPath The path to the Operation
+     * @param input List of input variables
+     * @param timeout Timeout for client in java xml duration format
+     * @return a future of the returned result of an operation’s invocation; completes exceptionally with the same
+     *         exceptions as {@link #invokeOperationSync(IdShortPath, List, Duration)}
+     */
+    public CompletableFuture<OperationResult> invokeOperationSyncAsync(IdShortPath idShortPath, List<OperationVariable> input, Duration timeout) {
+        return invokeOperationSyncAsync(idShortPath, input, List.of(), timeout);
+    }
+
+
     /**
      * Invokes a synchronous Operation at a specified path.
      *
@@ -913,13 +1568,38 @@ public class SubmodelInterface extends BaseInterface {
     }
 
 
+    /**
+     * Invokes a synchronous Operation at a specified path without blocking the calling thread.
+     *
+     * @param idShortPath The path to the Operation
+     * @param input List of input variables
+     * @param inoutput List of inoutput variables
+     * @param timeout Timeout for client in java xml duration format
+     * @return a future of the returned result of an operation’s invocation; completes exceptionally with the same
+     *         exceptions as {@link #invokeOperationSync(IdShortPath, List, List, Duration)}
+     */
+    public CompletableFuture<OperationResult> invokeOperationSyncAsync(IdShortPath idShortPath, List<OperationVariable> input, List<OperationVariable> inoutput, Duration timeout) {
+        return postAsync(
+                invokePath(idShortPath),
+                new DefaultOperationRequest.Builder()
+                        .inputArguments(input)
+                        .inoutputArguments(inoutput)
+                        .clientTimeoutDuration(timeout)
+                        .build(),
+                QueryModifier.DEFAULT,
+                Content.DEFAULT,
+                HttpStatus.OK,
+                OperationResult.class);
+    }
+
+
     private static String submodelElementsPath() {
-        return "/submodel-elements";
+        return SUBMODEL_ELEMENTS_PATH;
     }
 
 
     private static String submodelElementIdPath(IdShortPath idShortPath) {
-        return String.format("%s/%s", submodelElementsPath(), idShortPath.toString());
+        return ELEMENT_PATHS.get(idShortPath, x -> SUBMODEL_ELEMENTS_PATH + "/" + x);
     }
 
 
@@ -936,7 +1616,7 @@ public class SubmodelInterface extends BaseInterface {
 
         @Override
         protected SubmodelInterface buildConcrete() {
-            return new SubmodelInterface(endpoint, httpClient());
+            return new SubmodelInterface(endpoint, httpClient(), codec());
         }
     }
 }
@@ -16,14 +16,25 @@ package de.fraunhofer.iosb.ilt.faaast.client.interfaces;
 
 import de.fraunhofer.iosb.ilt.faaast.client.exception.ConnectivityException;
 import de.fraunhofer.iosb.ilt.faaast.client.exception.StatusCodeException;
+import de.fraunhofer.iosb.ilt.faaast.client.exception.UncheckedClientException;
+import de.fraunhofer.iosb.ilt.faaast.client.query.SearchCriteria;
+import de.fraunhofer.iosb.ilt.faaast.client.util.BulkRequestHelper;
+import de.fraunhofer.iosb.ilt.faaast.client.util.BulkResult;
 import de.fraunhofer.iosb.ilt.faaast.client.util.HttpClientHelper;
+import de.fraunhofer.iosb.ilt.faaast.client.util.JsonCodec;
+import de.fraunhofer.iosb.ilt.faaast.client.util.PagingIterator;
+import de.fraunhofer.iosb.ilt.faaast.service.model.api.modifier.Content;
+import de.fraunhofer.iosb.ilt.faaast.service.model.api.modifier.QueryModifier;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.Page;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.PagingInfo;
 import org.eclipse.digitaltwin.aas4j.v3.model.SubmodelDescriptor;
 import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultSubmodelDescriptor;
 import java.net.URI;
 import java.net.http.HttpClient;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 
 /**
@@ -40,6 +51,18 @@ public class SubmodelRegistryInterface extends BaseInterface {
 
     private static final String API_PATH = "/submodel-descriptors";
 
+    /**
+     * Creates a new Submodel Registry Interface.
+     *
+     * @param endpoint Uri used to communicate with the FA³ST Service
+     * @param httpClient Allows the user to specify a custom httpClient
+     * @param codec the codec used to serialize requests and deserialize responses
+     */
+    public SubmodelRegistryInterface(URI endpoint, HttpClient httpClient, JsonCodec codec) {
+        super(resolve(endpoint, API_PATH), httpClient, codec);
+    }
+
+
     /**
      * Creates a new Submodel Registry Interface.
      *
@@ -105,6 +128,17 @@ public class SubmodelRegistryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves a list of all Submodel Descriptors.
+     *
+     * @return a future of a list containing all Submodel Descriptors; completes exceptionally with the same exceptions
+     *         as {@link #getAll()}
+     */
+    public CompletableFuture<List<DefaultSubmodelDescriptor>> getAllAsync() {
+        return getAllAsync(null, SearchCriteria.DEFAULT, Content.DEFAULT, QueryModifier.DEFAULT, DefaultSubmodelDescriptor.class);
+    }
+
+
     /**
      * Returns a page of Submodel Descriptors.
      *
@@ -127,6 +161,52 @@ public class SubmodelRegistryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously returns a page of Submodel Descriptors.
+     *
+     * @param pagingInfo Metadata for controlling the pagination of results
+     * @return a future of a page of Submodel Descriptors; completes exceptionally with the same exceptions as {@link
+     *         #get(PagingInfo)}
+     */
+    public CompletableFuture<Page<DefaultSubmodelDescriptor>> getAsync(PagingInfo pagingInfo) {
+        return getPageAsync(null, Content.DEFAULT, QueryModifier.DEFAULT, pagingInfo, SearchCriteria.DEFAULT, DefaultSubmodelDescriptor.class);
+    }
+
+
+    /**
+     * Lazily streams all Submodel Descriptors, following the paging cursors returned by the server.
+     *
+     * <p>
+     * Pages are requested lazily while the stream is consumed; the next page is requested in the background while the
+     * current page is consumed. Closing the stream stops requesting pages. Errors are thrown as
+     * {@link UncheckedClientException}. The limit of {@code pagingInfo} is used as page size, its cursor as starting
+     * point.
+     *
+     * @param pagingInfo Metadata for controlling the pagination of results
+     * @return a stream of all Submodel Descriptors
+     */
+    public Stream<DefaultSubmodelDescriptor> stream(PagingInfo pagingInfo) {
+        return stream(null, Content.DEFAULT, QueryModifier.DEFAULT, pagingInfo, SearchCriteria.DEFAULT, DefaultSubmodelDescriptor.class);
+    }
+
+
+    /**
+     * Lazily iterates over all Submodel Descriptors, following the paging cursors returned by the server.
+     *
+     * <p>
+     * Pages are requested lazily while iterating; the next page is requested in the background while the current page
+     * is consumed. Iterators that are not consumed completely should be closed to stop requesting pages. Errors
+     * are thrown as {@link UncheckedClientException}. The limit of {@code pagingInfo} is used as page size, its cursor
+     * as starting point.
+     *
+     * @param pagingInfo Metadata for controlling the pagination of results
+     * @return an iterator over all Submodel Descriptors
+     */
+    public PagingIterator<DefaultSubmodelDescriptor> iterator(PagingInfo pagingInfo) {
+        return iterate(null, Content.DEFAULT, QueryModifier.DEFAULT, pagingInfo, SearchCriteria.DEFAULT, DefaultSubmodelDescriptor.class);
+    }
+
+
     /**
      * Creates a new Submodel Descriptor, i.e. registers a Submodel.
      *
@@ -150,6 +230,18 @@ public class SubmodelRegistryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously creates a new Submodel Descriptor, i.e. registers a Submodel.
+     *
+     * @param submodelDescriptor Object containing the Submodel’s identification and endpoint information
+     * @return a future of the created Submodel Descriptor; completes exceptionally with the same exceptions as {@link
+     *         #post(SubmodelDescriptor)}
+     */
+    public CompletableFuture<DefaultSubmodelDescriptor> postAsync(SubmodelDescriptor submodelDescriptor) {
+        return postAsync(null, submodelDescriptor, DefaultSubmodelDescriptor.class);
+    }
+
+
     /**
      * Returns a specific Submodel Descriptor.
      *
@@ -172,6 +264,77 @@ public class SubmodelRegistryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously returns a specific Submodel Descriptor.
+     *
+     * @param submodelIdentifier The Submodel’s unique id
+     * @return a future of the requested Submodel Descriptor; completes exceptionally with the same exceptions as {@link
+     *         #get(String)}
+     */
+    public CompletableFuture<DefaultSubmodelDescriptor> getAsync(String submodelIdentifier) {
+        return getAsync(idPath(submodelIdentifier), DefaultSubmodelDescriptor.class);
+    }
+
+
+    /**
+     * Retrieves multiple Submodel Descriptors by id, with at most {@link BulkRequestHelper#DEFAULT_MAX_CONCURRENCY}
+     * requests in flight.
+     *
+     * <p>
+     * Failures, e.g., for ids that do not exist, are collected per id and do not abort the remaining requests.
+     *
+     * @param ids the Submodels' unique ids
+     * @return the retrieved Submodel Descriptors and failures by id
+     */
+    public BulkResult<DefaultSubmodelDescriptor> getByIds(Collection<String> ids) {
+        return getByIds(ids, BulkRequestHelper.DEFAULT_MAX_CONCURRENCY);
+    }
+
+
+    /**
+     * Asynchronously retrieves multiple Submodel Descriptors by id, with at most
+     * {@link BulkRequestHelper#DEFAULT_MAX_CONCURRENCY} requests in flight.
+     *
+     * @param ids the Submodels' unique ids
+     * @return a future of the retrieved Submodel Descriptors and failures by id; never completes exceptionally
+     */
+    public CompletableFuture<BulkResult<DefaultSubmodelDescriptor>> getByIdsAsync(Collection<String> ids) {
+        return getByIdsAsync(ids, BulkRequestHelper.DEFAULT_MAX_CONCURRENCY);
+    }
+
+
+    /**
+     * Retrieves multiple Submodel Descriptors by id.
+     *
+     * <p>
+     * Requests are sent concurrently, with at most {@code maxConcurrency} requests in flight. Failures, e.g., for ids
+     * that do not exist, are collected per id and do not abort the remaining requests.
+     *
+     * @param ids the Submodels' unique ids
+     * @param maxConcurrency the maximum number of concurrent requests
+     * @return the retrieved Submodel Descriptors and failures by id
+     */
+    public BulkResult<DefaultSubmodelDescriptor> getByIds(Collection<String> ids, int maxConcurrency) {
+        return getByIdsAsync(ids, maxConcurrency).join();
+    }
+
+
+    /**
+     * Asynchronously retrieves multiple Submodel Descriptors by id.
+     *
+     * <p>
+     * Requests are sent concurrently, with at most {@code maxConcurrency} requests in flight. Failures, e.g., for ids
+     * that do not exist, are collected per id and do not abort the remaining requests.
+     *
+     * @param ids the Submodels' unique ids
+     * @param maxConcurrency the maximum number of concurrent requests
+     * @return a future of the retrieved Submodel Descriptors and failures by id; never completes exceptionally
+     */
+    public CompletableFuture<BulkResult<DefaultSubmodelDescriptor>> getByIdsAsync(Collection<String> ids, int maxConcurrency) {
+        return getByIdsAsync(ids, maxConcurrency, DefaultSubmodelDescriptor.class);
+    }
+
+
     /**
      * Replaces an existing Submodel Descriptor, i.e. replaces registration information.
      *
@@ -194,6 +357,19 @@ public class SubmodelRegistryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously replaces an existing Submodel Descriptor, i.e. replaces registration information.
+     *
+     * @param submodelIdentifier The Submodel’s unique id
+     * @param submodelDescriptor Object containing the Submodel’s identification and endpoint information
+     * @return a future completing when the request has been processed; completes exceptionally with the same exceptions
+     *         as {@link #put(String, DefaultSubmodelDescriptor)}
+     */
+    public CompletableFuture<Void> putAsync(String submodelIdentifier, DefaultSubmodelDescriptor submodelDescriptor) {
+        return putAsync(idPath(submodelIdentifier), submodelDescriptor);
+    }
+
+
     /**
      * Deletes a Submodel Descriptor, i.e. de-registers a Submodel.
      *
@@ -215,11 +391,24 @@ public class SubmodelRegistryInterface extends BaseInterface {
         super.delete(idPath(submodelIdentifier));
     }
 
+
+    /**
+     * Asynchronously deletes a Submodel Descriptor, i.e. de-registers a Submodel.
+     *
+     * @param submodelIdentifier The Submodel’s unique id
+     * @return a future completing when the request has been processed; completes exceptionally with the same exceptions
+     *         as {@link #delete(String)}
+     */
+    @Override
+    public CompletableFuture<Void> deleteAsync(String submodelIdentifier) {
+        return super.deleteAsync(idPath(submodelIdentifier));
+    }
+
     public static class Builder extends AbstractBuilder<SubmodelRegistryInterface, Builder> {
 
         @Override
         protected SubmodelRegistryInterface buildConcrete() {
-            return new SubmodelRegistryInterface(endpoint, httpClient());
+            return new SubmodelRegistryInterface(endpoint, httpClient(), codec());
         }
     }
 }
@@ -16,15 +16,23 @@ package de.fraunhofer.iosb.ilt.faaast.client.interfaces;
 
 import de.fraunhofer.iosb.ilt.faaast.client.exception.ConnectivityException;
 import de.fraunhofer.iosb.ilt.faaast.client.exception.StatusCodeException;
+import de.fraunhofer.iosb.ilt.faaast.client.exception.UncheckedClientException;
 import de.fraunhofer.iosb.ilt.faaast.client.query.SubmodelSearchCriteria;
+import de.fraunhofer.iosb.ilt.faaast.client.util.BulkRequestHelper;
+import de.fraunhofer.iosb.ilt.faaast.client.util.BulkResult;
 import de.fraunhofer.iosb.ilt.faaast.client.util.HttpClientHelper;
+import de.fraunhofer.iosb.ilt.faaast.client.util.JsonCodec;
+import de.fraunhofer.iosb.ilt.faaast.client.util.PagingIterator;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.modifier.Content;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.modifier.QueryModifier;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.Page;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.PagingInfo;
 import java.net.URI;
 import java.net.http.HttpClient;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 import org.eclipse.digitaltwin.aas4j.v3.model.Reference;
 import org.eclipse.digitaltwin.aas4j.v3.model.Submodel;
@@ -42,6 +50,18 @@ public class SubmodelRepositoryInterface extends BaseInterface {
 
     private static final String API_PATH = "/submodels";
 
+    /**
+     * Creates a new Submodel Repository API.
+     *
+     * @param endpoint uri used to communicate with the FA³ST service
+     * @param httpClient Allows user to specify custom http-client
+     * @param codec the codec used to serialize requests and deserialize responses
+     */
+    public SubmodelRepositoryInterface(URI endpoint, HttpClient httpClient, JsonCodec codec) {
+        super(resolve(endpoint, API_PATH), httpClient, codec);
+    }
+
+
     /**
      * Creates a new Submodel Repository API.
      *
@@ -107,6 +127,17 @@ public class SubmodelRepositoryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves all Submodels.
+     *
+     * @return a future of a list of all Submodels; completes exceptionally with the same exceptions as {@link
+     *         #getAll()}
+     */
+    public CompletableFuture<List<Submodel>> getAllAsync() {
+        return getAllAsync(QueryModifier.DEFAULT, SubmodelSearchCriteria.DEFAULT);
+    }
+
+
     /**
      * Retrieves all Submodels according to output modifier.
      *
@@ -129,6 +160,18 @@ public class SubmodelRepositoryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves all Submodels according to output modifier.
+     *
+     * @param modifier The query modifier specifies the structural depth and resource serialization of the submodel
+     * @return a future of a list of all Submodels; completes exceptionally with the same exceptions as {@link
+     *         #getAll(QueryModifier)}
+     */
+    public CompletableFuture<List<Submodel>> getAllAsync(QueryModifier modifier) {
+        return getAllAsync(modifier, SubmodelSearchCriteria.DEFAULT);
+    }
+
+
     /**
      * Retrieves all Submodels that match specific search criteria.
      *
@@ -151,6 +194,18 @@ public class SubmodelRepositoryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves all Submodels that match specific search criteria.
+     *
+     * @param submodelSearchCriteria Search criteria to filter Submodels based on IdShort and semanticId
+     * @return a future of a list of all submodels matching the search criteria; completes exceptionally with the same
+     *         exceptions as {@link #getAll(SubmodelSearchCriteria)}
+     */
+    public CompletableFuture<List<Submodel>> getAllAsync(SubmodelSearchCriteria submodelSearchCriteria) {
+        return getAllAsync(QueryModifier.DEFAULT, submodelSearchCriteria);
+    }
+
+
     /**
      * Retrieves all Submodels that match specific search criteria according to query modifiers.
      *
@@ -174,6 +229,19 @@ public class SubmodelRepositoryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves all Submodels that match specific search criteria according to query modifiers.
+     *
+     * @param modifier The query modifier specifies the structural depth and resource serialization of the submodel
+     * @param submodelSearchCriteria Search criteria to filter Submodels based on IdShort and semanticId
+     * @return a future of a list of Submodels; completes exceptionally with the same exceptions as {@link
+     *         #getAll(QueryModifier, SubmodelSearchCriteria)}
+     */
+    public CompletableFuture<List<Submodel>> getAllAsync(QueryModifier modifier, SubmodelSearchCriteria submodelSearchCriteria) {
+        return getAllAsync(null, submodelSearchCriteria, Content.DEFAULT, modifier, Submodel.class);
+    }
+
+
     /**
      * Retrieves a page of Submodels.
      *
@@ -196,6 +264,18 @@ public class SubmodelRepositoryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves a page of Submodels.
+     *
+     * @param pagingInfo Metadata for controlling the pagination of results
+     * @return a future of a page of Submodels; completes exceptionally with the same exceptions as {@link
+     *         #get(PagingInfo)}
+     */
+    public CompletableFuture<Page<Submodel>> getAsync(PagingInfo pagingInfo) {
+        return getAsync(pagingInfo, QueryModifier.DEFAULT, SubmodelSearchCriteria.DEFAULT);
+    }
+
+
     /**
      * Retrieves a page of Submodels that match specific search criteria.
      *
@@ -219,6 +299,19 @@ public class SubmodelRepositoryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves a page of Submodels that match specific search criteria.
+     *
+     * @param pagingInfo Metadata for controlling the pagination of results
+     * @param submodelSearchCriteria Search criteria to filter Submodels based on IdShort and semanticId
+     * @return a future of a page of Submodels; completes exceptionally with the same exceptions as {@link
+     *         #get(PagingInfo, SubmodelSearchCriteria)}
+     */
+    public CompletableFuture<Page<Submodel>> getAsync(PagingInfo pagingInfo, SubmodelSearchCriteria submodelSearchCriteria) {
+        return getAsync(pagingInfo, QueryModifier.DEFAULT, submodelSearchCriteria);
+    }
+
+
     /**
      * Retrieves a page of Submodels according to query modifier.
      *
@@ -242,6 +335,19 @@ public class SubmodelRepositoryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves a page of Submodels according to query modifier.
+     *
+     * @param pagingInfo Metadata for controlling the pagination of results
+     * @param modifier The query modifier specifies the structural depth and resource serialization of the submodel
+     * @return a future of a page of Submodels; completes exceptionally with the same exceptions as {@link
+     *         #get(PagingInfo, QueryModifier)}
+     */
+    public CompletableFuture<Page<Submodel>> getAsync(PagingInfo pagingInfo, QueryModifier modifier) {
+        return getAsync(pagingInfo, modifier, SubmodelSearchCriteria.DEFAULT);
+    }
+
+
     /**
      * Retrieves a page of Submodels matching specific search criteria according to query modifier.
      *
@@ -266,6 +372,151 @@ public class SubmodelRepositoryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves a page of Submodels matching specific search criteria according to query modifier.
+     *
+     * @param pagingInfo Metadata for controlling the pagination of results
+     * @param modifier The query modifier specifies the structural depth and resource serialization of the submodel
+     * @param submodelSearchCriteria Search criteria to filter Submodels based on IdShort and semanticId
+     * @return a future of a page of Submodels; completes exceptionally with the same exceptions as {@link
+     *         #get(PagingInfo, QueryModifier, SubmodelSearchCriteria)}
+     */
+    public CompletableFuture<Page<Submodel>> getAsync(PagingInfo pagingInfo, QueryModifier modifier, SubmodelSearchCriteria submodelSearchCriteria) {
+        return getPageAsync(null, Content.DEFAULT, modifier, pagingInfo, submodelSearchCriteria, Submodel.class);
+    }
+
+
+    /**
+     * Lazily streams all Submodels, following the paging cursors returned by the server.
+     *
+     * <p>
+     * Pages are requested lazily while the stream is consumed; the next page is requested in the background while the
+     * current page is consumed. Closing the stream stops requesting pages. Errors are thrown as
+     * {@link UncheckedClientException}. The limit of {@code pagingInfo} is used as page size, its cursor as starting
+     * point.
+     *
+     * @param pagingInfo Metadata for controlling the pagination of results
+     * @return a stream of all Submodels
+     */
+    public Stream<Submodel> stream(PagingInfo pagingInfo) {
+        return stream(pagingInfo, SubmodelSearchCriteria.DEFAULT);
+    }
+
+
+    /**
+     * Lazily streams all Submodels matching specific search criteria, following the paging cursors returned by the
+     * server.
+     *
+     * <p>
+     * Pages are requested lazily while the stream is consumed; the next page is requested in the background while the
+     * current page is consumed. Closing the stream stops requesting pages. Errors are thrown as
+     * {@link UncheckedClientException}. The limit of {@code pagingInfo} is used as page size, its cursor as starting
+     * point.
+     *
+     * @param pagingInfo Metadata for controlling the pagination of results
+     * @param submodelSearchCriteria Search criteria to filter Submodels based on IdShort and semanticId
+     * @return a stream of all matching Submodels
+     */
+    public Stream<Submodel> stream(PagingInfo pagingInfo, SubmodelSearchCriteria submodelSearchCriteria) {
+        return stream(null, Content.DEFAULT, QueryModifier.DEFAULT, pagingInfo, submodelSearchCriteria, Submodel.class);
+    }
+
+
+    /**
+     * Lazily iterates over all Submodels, following the paging cursors returned by the server.
+     *
+     * <p>
+     * Pages are requested lazily while iterating; the next page is requested in the background while the current page
+     * is consumed. Iterators that are not consumed completely should be closed to stop requesting pages. Errors
+     * are thrown as {@link UncheckedClientException}. The limit of {@code pagingInfo} is used as page size, its cursor
+     * as starting point.
+     *
+     * @param pagingInfo Metadata for controlling the pagination of results
+     * @return an iterator over all Submodels
+     */
+    public PagingIterator<Submodel> iterator(PagingInfo pagingInfo) {
+        return iterator(pagingInfo, SubmodelSearchCriteria.DEFAULT);
+    }
+
+
+    /**
+     * Lazily iterates over all Submodels matching specific search criteria, following the paging cursors returned by
+     * the server.
+     *
+     * <p>
+     * Pages are requested lazily while iterating; the next page is requested in the background while the current page
+     * is consumed. Iterators that are not consumed completely should be closed to stop requesting pages. Errors
+     * are thrown as {@link UncheckedClientException}. The limit of {@code pagingInfo} is used as page size, its cursor
+     * as starting point.
+     *
+     * @param pagingInfo Metadata for controlling the pagination of results
+     * @param submodelSearchCriteria Search criteria to filter Submodels based on IdShort and semanticId
+     * @return an iterator over all matching Submodels
+     */
+    public PagingIterator<Submodel> iterator(PagingInfo pagingInfo, SubmodelSearchCriteria submodelSearchCriteria) {
+        return iterate(null, Content.DEFAULT, QueryModifier.DEFAULT, pagingInfo, submodelSearchCriteria, Submodel.class);
+    }
+
+
+    /**
+     * Retrieves multiple Submodels by id, with at most {@link BulkRequestHelper#DEFAULT_MAX_CONCURRENCY} requests in
+     * flight.
+     *
+     * <p>
+     * Failures, e.g., for ids that do not exist, are collected per id and do not abort the remaining requests.
+     *
+     * @param ids the Submodels' unique ids
+     * @return the retrieved Submodels and failures by id
+     */
+    public BulkResult<Submodel> getByIds(Collection<String> ids) {
+        return getByIds(ids, BulkRequestHelper.DEFAULT_MAX_CONCURRENCY);
+    }
+
+
+    /**
+     * Asynchronously retrieves multiple Submodels by id, with at most {@link BulkRequestHelper#DEFAULT_MAX_CONCURRENCY}
+     * requests in flight.
+     *
+     * @param ids the Submodels' unique ids
+     * @return a future of the retrieved Submodels and failures by id; never completes exceptionally
+     */
+    public CompletableFuture<BulkResult<Submodel>> getByIdsAsync(Collection<String> ids) {
+        return getByIdsAsync(ids, BulkRequestHelper.DEFAULT_MAX_CONCURRENCY);
+    }
+
+
+    /**
+     * Retrieves multiple Submodels by id.
+     *
+     * <p>
+     * Requests are sent concurrently, with at most {@code maxConcurrency} requests in flight. Failures, e.g., for ids
+     * that do not exist, are collected per id and do not abort the remaining requests.
+     *
+     * @param ids the Submodels' unique ids
+     * @param maxConcurrency the maximum number of concurrent requests
+     * @return the retrieved Submodels and failures by id
+     */
+    public BulkResult<Submodel> getByIds(Collection<String> ids, int maxConcurrency) {
+        return getByIdsAsync(ids, maxConcurrency).join();
+    }
+
+
+    /**
+     * Asynchronously retrieves multiple Submodels by id.
+     *
+     * <p>
+     * Requests are sent concurrently, with at most {@code maxConcurrency} requests in flight. Failures, e.g., for ids
+     * that do not exist, are collected per id and do not abort the remaining requests.
+     *
+     * @param ids the Submodels' unique ids
+     * @param maxConcurrency the maximum number of concurrent requests
+     * @return a future of the retrieved Submodels and failures by id; never completes exceptionally
+     */
+    public CompletableFuture<BulkResult<Submodel>> getByIdsAsync(Collection<String> ids, int maxConcurrency) {
+        return getByIdsAsync(ids, maxConcurrency, Submodel.class);
+    }
+
+
     /**
      * Retrieves all Submodel metadata matching specific search criteria.
      *
@@ -289,6 +540,19 @@ public class SubmodelRepositoryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves all Submodel metadata matching specific search criteria.
+     *
+     * @param modifier The query modifier specifies the structural depth and resource serialization of the submodel
+     * @param submodelSearchCriteria Search criteria to filter Submodels based on IdShort and semanticId
+     * @return a future of a list containing all submodels serialised as metadata; completes exceptionally with the same
+     *         exceptions as {@link #getAllMetadata(QueryModifier, SubmodelSearchCriteria)}
+     */
+    public CompletableFuture<List<Submodel>> getAllMetadataAsync(QueryModifier modifier, SubmodelSearchCriteria submodelSearchCriteria) {
+        return getAllAsync(null, submodelSearchCriteria, Content.METADATA, modifier, Submodel.class);
+    }
+
+
     /**
      * Retrieves a page of Submodel metadata matching specific search criteria.
      *
@@ -314,6 +578,20 @@ public class SubmodelRepositoryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves a page of Submodel metadata matching specific search criteria.
+     *
+     * @param pagingInfo Metadata for controlling the pagination of results
+     * @param modifier The query modifier specifies the structural depth and resource serialization of the submodel
+     * @param submodelSearchCriteria Search criteria to filter Submodels based on IdShort and semanticId
+     * @return a future of a page of Submodel metadata; completes exceptionally with the same exceptions as {@link
+     *         #getMetadata(PagingInfo, QueryModifier, SubmodelSearchCriteria)}
+     */
+    public CompletableFuture<Page<Submodel>> getMetadataAsync(PagingInfo pagingInfo, QueryModifier modifier, SubmodelSearchCriteria submodelSearchCriteria) {
+        return getPageAsync(null, Content.METADATA, modifier, pagingInfo, submodelSearchCriteria, Submodel.class);
+    }
+
+
     /**
      * Retrieves a List containing all Submodels matching specific search criteria in value only serialisation.
      *
@@ -337,6 +615,20 @@ public class SubmodelRepositoryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves a list containing all Submodels matching specific search criteria in value only
+     * serialisation.
+     *
+     * @param modifier The query modifier specifies the structural depth and resource serialization of the submodel
+     * @param submodelSearchCriteria Search criteria to filter Submodels based on IdShort and semanticId
+     * @return a future of a list of Submodels; completes exceptionally with the same exceptions as {@link
+     *         #getAllValues(QueryModifier, SubmodelSearchCriteria)}
+     */
+    public CompletableFuture<List<Submodel>> getAllValuesAsync(QueryModifier modifier, SubmodelSearchCriteria submodelSearchCriteria) {
+        return getAllAsync(null, submodelSearchCriteria, Content.VALUE, modifier, Submodel.class);
+    }
+
+
     /**
      * Retrieves a page containing Submodels matching specific search criteria in value only serialisation.
      *
@@ -361,6 +653,21 @@ public class SubmodelRepositoryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves a page containing Submodels matching specific search criteria in value only
+     * serialisation.
+     *
+     * @param pagingInfo Metadata for controlling the pagination of results
+     * @param modifier The query modifier specifies the structural depth and resource serialization of the submodel
+     * @param submodelSearchCriteria Search criteria to filter Submodels based on IdShort and semanticId
+     * @return a future of a page of Submodels in value only serialisation; completes exceptionally with the same
+     *         exceptions as {@link #getValue(PagingInfo, QueryModifier, SubmodelSearchCriteria)}
+     */
+    public CompletableFuture<Page<Submodel>> getValueAsync(PagingInfo pagingInfo, QueryModifier modifier, SubmodelSearchCriteria submodelSearchCriteria) {
+        return getPageAsync(null, Content.VALUE, modifier, pagingInfo, submodelSearchCriteria, Submodel.class);
+    }
+
+
     /**
      * Retrieves a list of references to Submodels matching specific search criteria.
      *
@@ -383,6 +690,18 @@ public class SubmodelRepositoryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves a list of references to Submodels matching specific search criteria.
+     *
+     * @param submodelSearchCriteria Search criteria to filter Submodels based on IdShort and semanticId
+     * @return a future of a list of References; completes exceptionally with the same exceptions as {@link
+     *         #getAllReferences(SubmodelSearchCriteria)}
+     */
+    public CompletableFuture<List<Reference>> getAllReferencesAsync(SubmodelSearchCriteria submodelSearchCriteria) {
+        return getAllAsync(null, submodelSearchCriteria, Content.REFERENCE, QueryModifier.MINIMAL, Reference.class);
+    }
+
+
     /**
      * Retrieves a page of references to Submodels matching specific search criteria.
      *
@@ -406,6 +725,19 @@ public class SubmodelRepositoryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves a page of references to Submodels matching specific search criteria.
+     *
+     * @param pagingInfo Metadata for controlling the pagination of results
+     * @param submodelSearchCriteria Search criteria to filter Submodels based on IdShort and semanticId
+     * @return a future of a page of References; completes exceptionally with the same exceptions as {@link
+     *         #getReference(PagingInfo, SubmodelSearchCriteria)}
+     */
+    public CompletableFuture<Page<Reference>> getReferenceAsync(PagingInfo pagingInfo, SubmodelSearchCriteria submodelSearchCriteria) {
+        return getPageAsync(null, Content.REFERENCE, QueryModifier.MINIMAL, pagingInfo, submodelSearchCriteria, Reference.class);
+    }
+
+
     /**
      * Retrieves a list of paths to Submodels matching specific search criteria.
      *
@@ -429,6 +761,19 @@ public class SubmodelRepositoryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves a list of paths to Submodels matching specific search criteria.
+     *
+     * @param modifier The query modifier specifies the structural depth and resource serialization of the submodel
+     * @param submodelSearchCriteria Search criteria to filter Submodels based on IdShort and semanticId
+     * @return a future of a list of paths; completes exceptionally with the same exceptions as {@link
+     *         #getAllPaths(QueryModifier, SubmodelSearchCriteria)}
+     */
+    public CompletableFuture<List<Reference>> getAllPathsAsync(QueryModifier modifier, SubmodelSearchCriteria submodelSearchCriteria) {
+        return getAllAsync(null, submodelSearchCriteria, Content.PATH, modifier, Reference.class);
+    }
+
+
     /**
      * Retrieves a page of paths to Submodels matching specific search criteria.
      *
@@ -454,6 +799,20 @@ public class SubmodelRepositoryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously retrieves a page of paths to Submodels matching specific search criteria.
+     *
+     * @param pagingInfo Metadata for controlling the pagination of results
+     * @param modifier The query modifier specifies the structural depth and resource serialization of the submodel
+     * @param submodelSearchCriteria Search criteria to filter Submodels based on IdShort and semanticId
+     * @return a future of a page of paths; completes exceptionally with the same exceptions as {@link
+     *         #getSubmodelsPath(PagingInfo, QueryModifier, SubmodelSearchCriteria)}
+     */
+    public CompletableFuture<Page<Reference>> getSubmodelsPathAsync(PagingInfo pagingInfo, QueryModifier modifier, SubmodelSearchCriteria submodelSearchCriteria) {
+        return getPageAsync(null, Content.PATH, modifier, pagingInfo, submodelSearchCriteria, Reference.class);
+    }
+
+
     /**
      * Creates a new Submodel. The unique if of the new submodel must be set in the payload.
      *
@@ -476,6 +835,18 @@ public class SubmodelRepositoryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously creates a new Submodel. The unique id of the new submodel must be set in the payload.
+     *
+     * @param submodel Submodel object
+     * @return a future of the created Submodel; completes exceptionally with the same exceptions as {@link
+     *         #post(Submodel)}
+     */
+    public CompletableFuture<Submodel> postAsync(Submodel submodel) {
+        return postAsync(null, submodel, Submodel.class);
+    }
+
+
     /**
      * Deletes a Submodel.
      *
@@ -498,6 +869,19 @@ public class SubmodelRepositoryInterface extends BaseInterface {
     }
 
 
+    /**
+     * Asynchronously deletes a Submodel.
+     *
+     * @param submodelIdentifier The unique identifier of the Submodel to be deleted
+     * @return a future completing when the request has been processed; completes exceptionally with the same exceptions
+     *         as {@link #delete(String)}
+     */
+    @Override
+    public CompletableFuture<Void> deleteAsync(String submodelIdentifier) {
+        return super.deleteAsync(idPath(submodelIdentifier));
+    }
+
+
     /**
      * Returns a Submodel Interface for use of Interface Methods.
      *
@@ -505,14 +889,14 @@ public class SubmodelRepositoryInterface extends BaseInterface {
      * @return The requested Submodel Interface
      */
     public SubmodelInterface getSubmodelInterface(String submodelId) {
-        return new SubmodelInterface(resolve(idPath(submodelId)), httpClient);
+        return inheritSettings(new SubmodelInterface(resolve(idPath(submodelId)), httpClient, codec));
     }
 
     public static class Builder extends AbstractBuilder<SubmodelRepositoryInterface, Builder> {
 
         @Override
         protected SubmodelRepositoryInterface buildConcrete() {
-            return new SubmodelRepositoryInterface(endpoint, httpClient());
+            return new SubmodelRepositoryInterface(endpoint, httpClient(), codec());
         }
     }
 }
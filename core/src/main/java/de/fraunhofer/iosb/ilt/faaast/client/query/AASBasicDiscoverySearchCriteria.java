@@ -34,6 +34,7 @@ public class AASBasicDiscoverySearchCriteria extends AssetAdministrationShellSea
     private List<SpecificAssetId> specificAssetIds;
 
     public static final AASBasicDiscoverySearchCriteria DEFAULT = new AASBasicDiscoverySearchCriteria();
+    private static final JsonSerializer SERIALIZER = new JsonSerializer();
 
     @Override
     public String toQueryString() {
@@ -66,7 +67,7 @@ public class AASBasicDiscoverySearchCriteria extends AssetAdministrationShellSea
 
     private String serializeAssetIdentifications(List<SpecificAssetId> assetIds) {
         try {
-            return EncodingHelper.base64UrlEncode(new JsonSerializer().write(assetIds));
+            return EncodingHelper.base64UrlEncode(SERIALIZER.write(assetIds));
         }
         catch (SerializationException e) {
             throw new IllegalArgumentException(e);
@@ -83,7 +84,7 @@ public class AASBasicDiscoverySearchCriteria extends AssetAdministrationShellSea
 
     private String serializeAssetId(SpecificAssetId specificAssetId) {
         try {
-            return EncodingHelper.base64UrlEncode(new JsonSerializer().write(specificAssetId));
+            return EncodingHelper.base64UrlEncode(SERIALIZER.write(specificAssetId));
         }
         catch (SerializationException e) {
             throw new IllegalArgumentException(e);
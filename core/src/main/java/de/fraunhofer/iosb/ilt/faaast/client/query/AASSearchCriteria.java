@@ -34,6 +34,7 @@ import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultSpecificAssetId;
 public class AASSearchCriteria extends AssetAdministrationShellSearchCriteria implements SearchCriteria {
 
     public static final AASSearchCriteria DEFAULT = new AASSearchCriteria();
+    private static final JsonSerializer SERIALIZER = new JsonSerializer();
 
     @Override
     public String toQueryString() {
@@ -55,14 +56,14 @@ public class AASSearchCriteria extends AssetAdministrationShellSearchCriteria im
     private String serializeAssetIdentification(AssetIdentification assetId) {
         try {
             if (assetId instanceof SpecificAssetIdentification specificAssetIdentification) {
-                return EncodingHelper.base64Encode(new JsonSerializer().write(
+                return EncodingHelper.base64Encode(SERIALIZER.write(
                         new DefaultSpecificAssetId.Builder()
                                 .value(assetId.getValue())
                                 .name(specificAssetIdentification.getKey())
                                 .build()));
             }
             else if (assetId instanceof GlobalAssetIdentification) {
-                return EncodingHelper.base64Encode(new JsonSerializer().write(
+                return EncodingHelper.base64Encode(SERIALIZER.write(
                         new DefaultSpecificAssetId.Builder()
                                 .value(assetId.getValue())
                                 .name("globalAssetId")
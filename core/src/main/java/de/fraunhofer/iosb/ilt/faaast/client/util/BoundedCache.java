@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.util;
+
+import de.fraunhofer.iosb.ilt.faaast.service.util.Ensure;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+
+/**
+ * Thread-safe cache holding at most a fixed number of entries. Used for values that are cheap to recompute but
+ * requested at a high rate, e.g., encoded identifiers used in request URLs.
+ *
+ * <p>
+ * Lookups do not lock. When the cache is full, it is cleared before a new entry is added. This keeps the memory bound
+ * without the bookkeeping of an LRU cache, at the cost of recomputing frequently used entries once after clearing.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class BoundedCache<K, V> {
+
+    private final int maxSize;
+    private final Map<K, V> entries;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param maxSize the maximum number of entries
+     */
+    public BoundedCache(int maxSize) {
+        Ensure.require(maxSize > 0, "maxSize must be positive");
+        this.maxSize = maxSize;
+        this.entries = new ConcurrentHashMap<>();
+    }
+
+
+    /**
+     * Gets the value for a key, computing and caching it if not present.
+     *
+     * @param key the key
+     * @param mappingFunction the function computing the value for the key
+     * @return the cached or computed value
+     */
+    public V get(K key, Function<? super K, ? extends V> mappingFunction) {
+        V result = entries.get(key);
+        if (result != null) {
+            return result;
+        }
+        result = mappingFunction.apply(key);
+        if (entries.size() >= maxSize) {
+            entries.clear();
+        }
+        entries.put(key, result);
+        return result;
+    }
+
+
+    /**
+     * Gets the number of cached entries.
+     *
+     * @return the number of cached entries
+     */
+    public int size() {
+        return entries.size();
+    }
+}
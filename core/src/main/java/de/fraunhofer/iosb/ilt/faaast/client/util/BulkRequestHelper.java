@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.util;
+
+import de.fraunhofer.iosb.ilt.faaast.service.util.Ensure;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+
+/**
+ * Helper class for executing many requests with a bounded number of requests in flight.
+ */
+public class BulkRequestHelper {
+
+    /**
+     * Default maximum number of concurrent requests of a bulk request.
+     */
+    public static final int DEFAULT_MAX_CONCURRENCY = 16;
+
+    private BulkRequestHelper() {}
+
+
+    /**
+     * Retrieves an element for each of the given ids. At most {@code maxConcurrency} requests are in flight at the same
+     * time; whenever a request completes, the request for the next id is started. Failures are collected per id and do
+     * not abort the remaining requests. Duplicate ids are requested once.
+     *
+     * @param <T> the element type
+     * @param ids the ids
+     * @param maxConcurrency the maximum number of concurrent requests
+     * @param loader starts the request for a single id
+     * @return a future of the result; never completes exceptionally
+     */
+    public static <T> CompletableFuture<BulkResult<T>> getAll(Collection<String> ids, int maxConcurrency, Function<String, CompletableFuture<T>> loader) {
+        Ensure.requireNonNull(ids, "ids must be non-null");
+        Ensure.requireNonNull(loader, "loader must be non-null");
+        Ensure.require(maxConcurrency > 0, "maxConcurrency must be positive");
+        Deadline deadline = Deadline.current();
+        Function<String, CompletableFuture<T>> actualLoader = Objects.isNull(deadline) ? loader : id -> deadline.callAsync(() -> loader.apply(id));
+        return new BulkRequest<>(new ArrayList<>(new LinkedHashSet<>(ids)), actualLoader).start(maxConcurrency);
+    }
+
+    private static class BulkRequest<T> {
+        private final List<String> ids;
+        private final Function<String, CompletableFuture<T>> loader;
+        private final AtomicInteger nextIndex = new AtomicInteger();
+        private final AtomicInteger remaining;
+        private final Map<String, T> results = new ConcurrentHashMap<>();
+        private final Map<String, Throwable> failures = new ConcurrentHashMap<>();
+        private final CompletableFuture<BulkResult<T>> result = new CompletableFuture<>();
+
+        private BulkRequest(List<String> ids, Function<String, CompletableFuture<T>> loader) {
+            this.ids = ids;
+            this.loader = loader;
+            this.remaining = new AtomicInteger(ids.size());
+        }
+
+
+        private CompletableFuture<BulkResult<T>> start(int maxConcurrency) {
+            if (ids.isEmpty()) {
+                complete();
+            }
+            for (int i = 0; i < Math.min(maxConcurrency, ids.size()); i++) {
+                startNext();
+            }
+            return result;
+        }
+
+
+        /**
+         * Starts the request for the next id. Requests completing immediately are handled in a loop instead of
+         * recursively to keep the stack flat.
+         */
+        private void startNext() {
+            while (true) {
+                int index = nextIndex.getAndIncrement();
+                if (index >= ids.size()) {
+                    return;
+                }
+                String id = ids.get(index);
+                CompletableFuture<T> request = load(id);
+                if (!request.isDone()) {
+                    request.whenComplete((value, error) -> {
+                        record(id, value, error);
+                        startNext();
+                    });
+                    return;
+                }
+                request.whenComplete((value, error) -> record(id, value, error));
+            }
+        }
+
+
+        private CompletableFuture<T> load(String id) {
+            try {
+                return loader.apply(id);
+            }
+            catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+
+
+        private void record(String id, T value, Throwable error) {
+            if (error != null) {
+                failures.put(id, HttpRequestHelper.unwrap(error));
+            }
+            else if (value != null) {
+                results.put(id, value);
+            }
+            if (remaining.decrementAndGet() == 0) {
+                complete();
+            }
+        }
+
+
+        private void complete() {
+            Map<String, T> orderedResults = new LinkedHashMap<>();
+            Map<String, Throwable> orderedFailures = new LinkedHashMap<>();
+            for (String id : ids) {
+                if (results.containsKey(id)) {
+                    orderedResults.put(id, results.get(id));
+                }
+                else if (failures.containsKey(id)) {
+                    orderedFailures.put(id, failures.get(id));
+                }
+            }
+            result.complete(new BulkResult<>(orderedResults, orderedFailures));
+        }
+    }
+}
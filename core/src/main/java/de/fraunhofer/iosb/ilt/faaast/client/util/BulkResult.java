@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.util;
+
+import java.util.Collections;
+import java.util.Map;
+
+
+/**
+ * Result of a request for multiple elements by id. Elements that could be retrieved are returned by
+ * {@link #getResults()}, the cause of each failed retrieval by {@link #getFailures()}.
+ *
+ * @param <T> the element type
+ */
+public class BulkResult<T> {
+
+    private final Map<String, T> results;
+    private final Map<String, Throwable> failures;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param results the retrieved elements by id
+     * @param failures the cause of failure by id
+     */
+    public BulkResult(Map<String, T> results, Map<String, Throwable> failures) {
+        this.results = Collections.unmodifiableMap(results);
+        this.failures = Collections.unmodifiableMap(failures);
+    }
+
+
+    /**
+     * Gets the retrieved elements by id, in the order the ids have been requested.
+     *
+     * @return the retrieved elements by id
+     */
+    public Map<String, T> getResults() {
+        return results;
+    }
+
+
+    /**
+     * Gets the cause of failure for each id that could not be retrieved, in the order the ids have been requested.
+     * Causes are typically a {@link de.fraunhofer.iosb.ilt.faaast.client.exception.StatusCodeException}, e.g., if an
+     * id does not exist, or a {@link de.fraunhofer.iosb.ilt.faaast.client.exception.ConnectivityException}.
+     *
+     * @return the cause of failure by id
+     */
+    public Map<String, Throwable> getFailures() {
+        return failures;
+    }
+
+
+    /**
+     * Checks whether all ids have been retrieved successfully.
+     *
+     * @return true if there are no failures, false otherwise
+     */
+    public boolean isSuccessful() {
+        return failures.isEmpty();
+    }
+}
@@ -0,0 +1,307 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.util;
+
+import de.fraunhofer.iosb.ilt.faaast.client.exception.DeadlineExceededException;
+import de.fraunhofer.iosb.ilt.faaast.service.util.Ensure;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+
+/**
+ * Deadline and cancellation context for client calls. While a deadline is attached to the current thread, every request
+ * sent by any interface gets a timeout of at most the remaining time, and no request is sent anymore once the deadline
+ * has passed or the deadline has been cancelled. Such requests fail with a {@link DeadlineExceededException}, which
+ * aborts operations sending multiple requests, e.g., lookups with fallback or paginated scans.
+ *
+ * <p>
+ * A deadline is attached either for a single call via {@link #call(Call)} or {@link #callAsync(Supplier)}, or for a
+ * block of code via {@link #attach()}:
+ *
+ * <pre>{@code
+ * Deadline deadline = Deadline.after(Duration.ofSeconds(5));
+ * Page<AssetAdministrationShell> page = deadline.call(() -> aasRepository.get(PagingInfo.ALL));
+ *
+ * try (Deadline.Scope scope = deadline.attach()) {
+ *     aasRepository.getAASInterface(id).get();
+ *     aasRepository.getAASInterface(otherId).get();
+ * }
+ * }</pre>
+ */
+public final class Deadline {
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+    private static final ScheduledThreadPoolExecutor TIMER = newTimer();
+
+    private final long deadlineNanos;
+    private final List<CompletableFuture<?>> pending = new CopyOnWriteArrayList<>();
+    private volatile boolean cancelled;
+
+    private Deadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+
+    /**
+     * Creates a deadline that passes after the given time.
+     *
+     * @param timeout the time until the deadline passes
+     * @return the deadline
+     */
+    public static Deadline after(Duration timeout) {
+        Ensure.requireNonNull(timeout, "timeout must be non-null");
+        return new Deadline(System.nanoTime() + timeout.toNanos());
+    }
+
+
+    /**
+     * Returns the deadline attached to the current thread.
+     *
+     * @return the deadline, or null if no deadline is attached
+     */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+
+    /**
+     * Wraps the given supplier so that it is executed with the deadline attached to the current thread, if any. Used to
+     * propagate the deadline to requests that are started later from another thread, e.g., in a callback.
+     *
+     * @param <T> the type of the result
+     * @param supplier the supplier starting the requests
+     * @return the wrapped supplier
+     */
+    public static <T> Supplier<CompletableFuture<T>> propagate(Supplier<CompletableFuture<T>> supplier) {
+        Deadline deadline = current();
+        return Objects.isNull(deadline) ? supplier : () -> deadline.callAsync(supplier);
+    }
+
+
+    /**
+     * Gets the remaining time until the deadline passes.
+     *
+     * @return the remaining time, zero if the deadline has passed or has been cancelled
+     */
+    public Duration getRemaining() {
+        return cancelled ? Duration.ZERO : Duration.ofNanos(Math.max(0, deadlineNanos - System.nanoTime()));
+    }
+
+
+    /**
+     * Checks whether the deadline has passed or has been cancelled.
+     *
+     * @return true if no more requests may be sent, false otherwise
+     */
+    public boolean isExpired() {
+        return cancelled || System.nanoTime() - deadlineNanos >= 0;
+    }
+
+
+    /**
+     * Checks whether the deadline has been cancelled.
+     *
+     * @return true if the deadline has been cancelled, false otherwise
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+
+    /**
+     * Cancels all operations using this deadline. Pending asynchronous operations started via
+     * {@link #callAsync(Supplier)} fail immediately, all others fail before sending their next request.
+     */
+    public void cancel() {
+        cancelled = true;
+        for (CompletableFuture<?> future : pending) {
+            future.completeExceptionally(newException(null));
+        }
+    }
+
+
+    /**
+     * Throws if the deadline has passed or has been cancelled.
+     *
+     * @throws DeadlineExceededException if the deadline has passed or has been cancelled
+     */
+    public void check() throws DeadlineExceededException {
+        if (isExpired()) {
+            throw newException(null);
+        }
+    }
+
+
+    /**
+     * Attaches this deadline to the current thread until the returned scope is closed.
+     *
+     * @return the scope restoring the previously attached deadline when closed
+     */
+    public Scope attach() {
+        Deadline previous = CURRENT.get();
+        CURRENT.set(this);
+        return () -> {
+            if (Objects.isNull(previous)) {
+                CURRENT.remove();
+            }
+            else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+
+    /**
+     * Executes the given call with this deadline attached to the current thread.
+     *
+     * @param <T> the type of the result
+     * @param <E> the type of exception thrown by the call
+     * @param call the call
+     * @return the result of the call
+     * @throws E if the call fails
+     */
+    public <T, E extends Exception> T call(Call<T, E> call) throws E {
+        try (Scope scope = attach()) {
+            return call.call();
+        }
+    }
+
+
+    /**
+     * Starts the given asynchronous call with this deadline attached to the current thread. The returned future fails
+     * with a {@link DeadlineExceededException} as soon as the deadline passes or is cancelled, even if requests are
+     * still pending.
+     *
+     * @param <T> the type of the result
+     * @param call starts the asynchronous call
+     * @return a future of the result of the call
+     */
+    public <T> CompletableFuture<T> callAsync(Supplier<CompletableFuture<T>> call) {
+        CompletableFuture<T> source;
+        try (Scope scope = attach()) {
+            source = call.get();
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        pending.add(result);
+        result.whenComplete((value, error) -> {
+            pending.remove(result);
+            source.cancel(true);
+        });
+        source.whenComplete((value, error) -> {
+            if (Objects.isNull(error)) {
+                result.complete(value);
+            }
+            else {
+                result.completeExceptionally(error);
+            }
+        });
+        if (!result.isDone()) {
+            // the timer only hands over, so that callbacks of the result never block it
+            ScheduledFuture<?> timeout = TIMER.schedule(
+                    () -> ForkJoinPool.commonPool().execute(() -> result.completeExceptionally(newException(null))),
+                    getRemaining().toNanos(),
+                    TimeUnit.NANOSECONDS);
+            result.whenComplete((value, error) -> timeout.cancel(false));
+        }
+        if (cancelled) {
+            result.completeExceptionally(newException(null));
+        }
+        return result;
+    }
+
+
+    /**
+     * Applies this deadline to the given request by limiting its timeout to the remaining time. Used by the HTTP client
+     * decorators to shrink the timeout of every single attempt.
+     *
+     * @param request the request
+     * @return the request with adjusted timeout
+     * @throws DeadlineExceededException if the deadline has passed or has been cancelled
+     */
+    public HttpRequest apply(HttpRequest request) throws DeadlineExceededException {
+        Duration remaining = getRemaining();
+        if (remaining.isZero()) {
+            throw newException(null);
+        }
+        if (request.timeout().isPresent() && request.timeout().get().compareTo(remaining) <= 0) {
+            return request;
+        }
+        return HttpRequest.newBuilder(request, (name, value) -> true)
+                .timeout(remaining)
+                .build();
+    }
+
+
+    private static ScheduledThreadPoolExecutor newTimer() {
+        ScheduledThreadPoolExecutor result = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "faaast-client-deadline");
+            thread.setDaemon(true);
+            return thread;
+        });
+        result.setRemoveOnCancelPolicy(true);
+        return result;
+    }
+
+
+    /**
+     * Creates the exception reporting that this deadline has passed or has been cancelled.
+     *
+     * @param cause the cause, may be null
+     * @return the exception
+     */
+    DeadlineExceededException newException(Throwable cause) {
+        return new DeadlineExceededException(cancelled ? "operation cancelled" : "deadline exceeded", cause);
+    }
+
+    /**
+     * Scope of an attached deadline.
+     */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+
+        /**
+         * Detaches the deadline from the current thread and restores the previously attached deadline.
+         */
+        @Override
+        public void close();
+    }
+
+    /**
+     * A call to execute with a deadline.
+     *
+     * @param <T> the type of the result
+     * @param <E> the type of exception thrown by the call
+     */
+    @FunctionalInterface
+    public interface Call<T, E extends Exception> {
+
+        /**
+         * Executes the call.
+         *
+         * @return the result
+         * @throws E if the call fails
+         */
+        public T call() throws E;
+    }
+}
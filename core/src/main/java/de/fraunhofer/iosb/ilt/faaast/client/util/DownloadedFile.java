@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.util;
+
+import java.nio.file.Path;
+
+
+/**
+ * Result of downloading a file, e.g., an attachment or a thumbnail, directly to disk.
+ */
+public class DownloadedFile {
+
+    private final Path path;
+    private final String fileName;
+    private final String contentType;
+    private final long size;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param path the path the content has been written to
+     * @param fileName the file name as announced by the server
+     * @param contentType the content type as announced by the server, may be null
+     * @param size the number of bytes written
+     */
+    public DownloadedFile(Path path, String fileName, String contentType, long size) {
+        this.path = path;
+        this.fileName = fileName;
+        this.contentType = contentType;
+        this.size = size;
+    }
+
+
+    /**
+     * Gets the path the content has been written to.
+     *
+     * @return the path
+     */
+    public Path getPath() {
+        return path;
+    }
+
+
+    /**
+     * Gets the file name as announced by the server via the Content-Disposition header.
+     *
+     * @return the file name
+     */
+    public String getFileName() {
+        return fileName;
+    }
+
+
+    /**
+     * Gets the content type as announced by the server.
+     *
+     * @return the content type, null if not present
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+
+    /**
+     * Gets the number of bytes written.
+     *
+     * @return the size in bytes
+     */
+    public long getSize() {
+        return size;
+    }
+}
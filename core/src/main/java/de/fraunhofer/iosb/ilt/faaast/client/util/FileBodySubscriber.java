@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Writes a response body to a temporary file next to the target using the file channel based subscriber of the JDK and
+ * moves it to the target once complete. Each response gets its own temporary file, so retried or hedged requests never
+ * write to the same file concurrently and the target is never left with partial content. The temporary file is removed
+ * if the transfer fails.
+ */
+class FileBodySubscriber implements HttpResponse.BodySubscriber<DownloadedFile> {
+
+    private final HttpResponse.BodySubscriber<Path> delegate;
+    private final Path temp;
+    private final Path target;
+    private final String fileName;
+    private final String contentType;
+    private final AtomicLong size = new AtomicLong();
+
+    private FileBodySubscriber(Path temp, Path target, String fileName, String contentType) {
+        this.delegate = HttpResponse.BodySubscribers.ofFile(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.temp = temp;
+        this.target = target;
+        this.fileName = fileName;
+        this.contentType = contentType;
+    }
+
+
+    static FileBodySubscriber create(Path target, String fileName, String contentType) {
+        Path absoluteTarget = target.toAbsolutePath();
+        try {
+            Path temp = Files.createTempFile(absoluteTarget.getParent(), absoluteTarget.getFileName().toString() + ".", ".part");
+            return new FileBodySubscriber(temp, absoluteTarget, fileName, contentType);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(String.format("creating temporary file for %s failed", target), e);
+        }
+    }
+
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        delegate.onSubscribe(subscription);
+    }
+
+
+    @Override
+    public void onNext(List<ByteBuffer> item) {
+        size.addAndGet(item.stream().mapToLong(ByteBuffer::remaining).sum());
+        delegate.onNext(item);
+    }
+
+
+    @Override
+    public void onError(Throwable throwable) {
+        delegate.onError(throwable);
+        deleteQuietly(temp);
+    }
+
+
+    @Override
+    public void onComplete() {
+        delegate.onComplete();
+    }
+
+
+    @Override
+    public CompletionStage<DownloadedFile> getBody() {
+        return delegate.getBody().handle((path, error) -> {
+            if (error != null) {
+                deleteQuietly(temp);
+                throw error instanceof RuntimeException ? (RuntimeException) error : new UncheckedIOException(new IOException(error));
+            }
+            try {
+                move(temp, target);
+            }
+            catch (IOException e) {
+                deleteQuietly(temp);
+                throw new UncheckedIOException(String.format("moving downloaded file to %s failed", target), e);
+            }
+            return new DownloadedFile(target, fileName, contentType, size.get());
+        });
+    }
+
+
+    static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+
+    static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        }
+        catch (IOException e) {
+            // best effort, the temporary file is left behind
+        }
+    }
+}
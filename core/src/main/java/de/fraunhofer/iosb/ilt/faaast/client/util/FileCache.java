@@ -0,0 +1,817 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.util;
+
+import de.fraunhofer.iosb.ilt.faaast.service.util.Ensure;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Properties;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+
+/**
+ * Content-addressed on-disk cache for files, e.g., attachments and thumbnails. Each content is stored once under its
+ * SHA-256 hash no matter how many resources it has been downloaded from or uploaded to. Each resource URI is mapped to
+ * the hash of the content it is known to hold together with the validators announced by the server.
+ *
+ * <p>
+ * Downloads of a resource already in the cache are revalidated using a conditional request (If-None-Match or
+ * If-Modified-Since) and served from disk if the server responds with 304 Not Modified. Uploads of content the target
+ * resource is already known to hold are skipped. Resources without validators are downloaded again, but their content
+ * is still stored only once.
+ *
+ * <p>
+ * The total size of the stored contents is bounded by {@code maxSize}. The least recently used contents are evicted
+ * first, together with all mappings referring to them. The most recently stored content is never evicted, so a single
+ * file larger than {@code maxSize} stays in the cache until the next one is stored. The directory may be reused across
+ * restarts but must not be used by multiple instances at the same time.
+ */
+public class FileCache {
+
+    private static final long DEFAULT_MAX_SIZE = 1024L * 1024 * 1024;
+    private static final String HASH_ALGORITHM = "SHA-256";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String HEADER_ETAG = "ETag";
+    private static final String HEADER_LAST_MODIFIED = "Last-Modified";
+    private static final String HEADER_IF_NONE_MATCH = "If-None-Match";
+    private static final String HEADER_IF_MODIFIED_SINCE = "If-Modified-Since";
+    private static final String HEADER_CONTENT_TYPE = "Content-Type";
+    private static final int STATUS_NOT_MODIFIED = 304;
+    private static final String DIRECTORY_CONTENTS = "contents";
+    private static final String DIRECTORY_REFERENCES = "references";
+    private static final String DIRECTORY_TEMP = "temp";
+    private static final String KEY_URI = "uri";
+    private static final String KEY_HASH = "hash";
+    private static final String KEY_ETAG = "etag";
+    private static final String KEY_LAST_MODIFIED = "lastModified";
+    private static final String KEY_FILE_NAME = "fileName";
+    private static final String KEY_CONTENT_TYPE = "contentType";
+
+    private final Path directory;
+    private final Path contentDirectory;
+    private final Path referenceDirectory;
+    private final Path tempDirectory;
+    private final long maxSize;
+    private final LinkedHashMap<String, Long> contents = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<URI, Entry> entries = new HashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder skippedUploads = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private long size;
+
+    private FileCache(Builder builder) {
+        this.directory = builder.directory.toAbsolutePath();
+        this.contentDirectory = directory.resolve(DIRECTORY_CONTENTS);
+        this.referenceDirectory = directory.resolve(DIRECTORY_REFERENCES);
+        this.tempDirectory = directory.resolve(DIRECTORY_TEMP);
+        this.maxSize = builder.maxSize;
+        try {
+            load();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(String.format("initializing file cache failed (directory: %s)", directory), e);
+        }
+    }
+
+
+    /**
+     * Creates a new builder.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+
+    /**
+     * Computes the hash used to address the given content.
+     *
+     * @param content the content
+     * @return the hex-encoded SHA-256 hash
+     */
+    public static String hash(byte[] content) {
+        Ensure.requireNonNull(content, "content must be non-null");
+        return HexFormat.of().formatHex(newDigest().digest(content));
+    }
+
+
+    /**
+     * Computes the hash used to address the content of the given file, reading the file in chunks.
+     *
+     * @param file the file
+     * @return the hex-encoded SHA-256 hash
+     * @throws IOException if reading the file fails
+     */
+    public static String hash(Path file) throws IOException {
+        Ensure.requireNonNull(file, "file must be non-null");
+        MessageDigest digest = newDigest();
+        try (InputStream input = new DigestInputStream(Files.newInputStream(file), digest)) {
+            input.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+
+    /**
+     * Gets the entry for the given resource without revalidating it.
+     *
+     * @param uri the URI of the resource
+     * @return the entry, empty if the resource is not cached
+     */
+    public synchronized Optional<Entry> get(URI uri) {
+        return Optional.ofNullable(entries.get(uri));
+    }
+
+
+    /**
+     * Adds the validators of the cached content of the requested resource to the request, turning it into a conditional
+     * request. Requests for resources that are not cached or have no validators are returned unchanged.
+     *
+     * @param request the GET request
+     * @return the conditional request
+     */
+    public HttpRequest conditional(HttpRequest request) {
+        Ensure.requireNonNull(request, "request must be non-null");
+        Entry entry = get(request.uri()).orElse(null);
+        if (Objects.isNull(entry) || !entry.isRevalidatable()) {
+            return request;
+        }
+        HttpRequest.Builder builder = HttpRequest.newBuilder(request, (name, value) -> true);
+        if (Objects.nonNull(entry.etag)) {
+            builder.setHeader(HEADER_IF_NONE_MATCH, entry.etag);
+        }
+        if (Objects.nonNull(entry.lastModified)) {
+            builder.setHeader(HEADER_IF_MODIFIED_SINCE, entry.lastModified);
+        }
+        return builder.build();
+    }
+
+
+    /**
+     * Creates a body handler for (conditional) GET requests of the given resource. The body of a successful response is
+     * stored in the cache while it is being transferred; for 304 Not Modified, the cached content is used. In both cases
+     * the body of the response is the {@link Entry}. Other responses have a String body. A 304 response has a null body
+     * if the content has been evicted in the meantime.
+     *
+     * @param uri the URI of the resource
+     * @return the body handler
+     */
+    public HttpResponse.BodyHandler<Object> bodyHandler(URI uri) {
+        Ensure.requireNonNull(uri, "uri must be non-null");
+        return responseInfo -> {
+            if (responseInfo.statusCode() == STATUS_NOT_MODIFIED) {
+                return HttpResponse.BodySubscribers.replacing(revalidated(uri));
+            }
+            if (responseInfo.statusCode() >= 200 && responseInfo.statusCode() < 300) {
+                return HttpResponse.BodySubscribers.mapping(new CachingBodySubscriber(uri, responseInfo.headers()), Object.class::cast);
+            }
+            return HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8), Object.class::cast);
+        };
+    }
+
+
+    /**
+     * Checks if the given resource is known to hold the content with the given hash, in which case uploading it again
+     * can be skipped.
+     *
+     * @param uri the URI of the resource
+     * @param hash the hash of the content to upload, see {@link #hash(byte[])}
+     * @return true if the upload is redundant, otherwise false
+     */
+    public synchronized boolean isUploadRedundant(URI uri, String hash) {
+        Entry entry = entries.get(uri);
+        if (Objects.isNull(entry) || !entry.hash.equals(hash) || Objects.isNull(contents.get(hash))) {
+            return false;
+        }
+        skippedUploads.increment();
+        return true;
+    }
+
+
+    /**
+     * Records that the given content has been uploaded to the resource. As the validators of the new content are not
+     * known, the next download of the resource is not conditional. Failing to store the content only removes the
+     * mapping of the resource.
+     *
+     * @param uri the URI of the resource
+     * @param content the uploaded content
+     * @param fileName the file name
+     * @param contentType the content type
+     */
+    public void recordUpload(URI uri, byte[] content, String fileName, String contentType) {
+        Ensure.requireNonNull(content, "content must be non-null");
+        recordUpload(uri, () -> new ByteArrayInputStream(content), fileName, contentType);
+    }
+
+
+    /**
+     * Records that the content of the given file has been uploaded to the resource, see
+     * {@link #recordUpload(URI, byte[], String, String)}.
+     *
+     * @param uri the URI of the resource
+     * @param file the uploaded file
+     * @param fileName the file name
+     * @param contentType the content type
+     */
+    public void recordUpload(URI uri, Path file, String fileName, String contentType) {
+        Ensure.requireNonNull(file, "file must be non-null");
+        recordUpload(uri, () -> Files.newInputStream(file), fileName, contentType);
+    }
+
+
+    private void recordUpload(URI uri, ContentSource source, String fileName, String contentType) {
+        Ensure.requireNonNull(uri, "uri must be non-null");
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(tempDirectory, "upload-", ".tmp");
+            MessageDigest digest = newDigest();
+            long written;
+            try (InputStream input = new DigestInputStream(source.open(), digest);
+                    OutputStream output = Files.newOutputStream(temp, StandardOpenOption.TRUNCATE_EXISTING)) {
+                written = input.transferTo(output);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            store(new Entry(uri, hash, written, null, null, fileName, contentType, contentDirectory.resolve(hash)), temp);
+        }
+        catch (IOException | UncheckedIOException e) {
+            if (Objects.nonNull(temp)) {
+                FileBodySubscriber.deleteQuietly(temp);
+            }
+            invalidate(uri);
+        }
+    }
+
+
+    /**
+     * Removes the mapping of the given resource, e.g., because it has been deleted or is about to be modified. The
+     * content stays in the cache as long as it is not evicted, as other resources may refer to it.
+     *
+     * @param uri the URI of the resource
+     */
+    public synchronized void invalidate(URI uri) {
+        if (Objects.nonNull(entries.remove(uri))) {
+            FileBodySubscriber.deleteQuietly(referenceFile(uri));
+        }
+    }
+
+
+    /**
+     * Gets the directory of the cache.
+     *
+     * @return the directory
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+
+    /**
+     * Gets the maximum total size of the stored contents.
+     *
+     * @return the maximum size in bytes
+     */
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+
+    /**
+     * Gets the total size of the stored contents.
+     *
+     * @return the size in bytes
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+
+    /**
+     * Gets the number of resources currently mapped to a content.
+     *
+     * @return the number of entries
+     */
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+
+    /**
+     * Gets the number of downloads served from the cache after the server confirmed that the content has not been
+     * modified.
+     *
+     * @return the number of hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+
+    /**
+     * Gets the number of downloads that transferred the content, either because it was not cached or because it has
+     * been modified.
+     *
+     * @return the number of misses
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+
+    /**
+     * Gets the number of uploads skipped because the resource was known to hold the content already.
+     *
+     * @return the number of skipped uploads
+     */
+    public long getSkippedUploads() {
+        return skippedUploads.sum();
+    }
+
+
+    /**
+     * Gets the number of contents evicted to stay within the maximum size.
+     *
+     * @return the number of evictions
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+
+    private synchronized Entry revalidated(URI uri) {
+        Entry entry = entries.get(uri);
+        if (Objects.isNull(entry) || Objects.isNull(contents.get(entry.hash))) {
+            return null;
+        }
+        touch(entry.hash);
+        hits.increment();
+        return entry;
+    }
+
+
+    private synchronized Entry store(Entry entry, Path temp) throws IOException {
+        Path target = entry.getPath();
+        if (contents.containsKey(entry.hash) && Files.exists(target)) {
+            FileBodySubscriber.deleteQuietly(temp);
+            // marks the content as recently used
+            contents.get(entry.hash);
+            touch(entry.hash);
+        }
+        else {
+            FileBodySubscriber.move(temp, target);
+            contents.put(entry.hash, entry.size);
+            size += entry.size;
+        }
+        entries.put(entry.uri, entry);
+        saveReference(entry);
+        evict(entry.hash);
+        return entry;
+    }
+
+
+    private void touch(String hash) {
+        try {
+            Files.setLastModifiedTime(contentDirectory.resolve(hash), FileTime.fromMillis(System.currentTimeMillis()));
+        }
+        catch (IOException e) {
+            // only affects the eviction order after a restart
+        }
+    }
+
+
+    private void evict(String keep) {
+        Iterator<Map.Entry<String, Long>> iterator = contents.entrySet().iterator();
+        while (size > maxSize && iterator.hasNext()) {
+            Map.Entry<String, Long> content = iterator.next();
+            if (content.getKey().equals(keep)) {
+                continue;
+            }
+            iterator.remove();
+            size -= content.getValue();
+            evictions.increment();
+            FileBodySubscriber.deleteQuietly(contentDirectory.resolve(content.getKey()));
+            List<URI> stale = new ArrayList<>();
+            entries.forEach((uri, entry) -> {
+                if (entry.hash.equals(content.getKey())) {
+                    stale.add(uri);
+                }
+            });
+            stale.forEach(this::invalidate);
+        }
+    }
+
+
+    private void load() throws IOException {
+        Files.createDirectories(contentDirectory);
+        Files.createDirectories(referenceDirectory);
+        Files.createDirectories(tempDirectory);
+        try (Stream<Path> files = Files.list(tempDirectory)) {
+            files.forEach(FileBodySubscriber::deleteQuietly);
+        }
+        try (Stream<Path> files = Files.list(contentDirectory)) {
+            files.filter(Files::isRegularFile)
+                    .sorted(Comparator.comparing(FileCache::lastModifiedTime))
+                    .forEach(file -> {
+                        long fileSize = file.toFile().length();
+                        contents.put(file.getFileName().toString(), fileSize);
+                        size += fileSize;
+                    });
+        }
+        try (Stream<Path> files = Files.list(referenceDirectory)) {
+            files.forEach(file -> {
+                Entry entry = loadReference(file);
+                if (Objects.nonNull(entry) && contents.containsKey(entry.hash)) {
+                    entries.put(entry.uri, entry);
+                }
+                else {
+                    FileBodySubscriber.deleteQuietly(file);
+                }
+            });
+        }
+        evict(null);
+    }
+
+
+    private static FileTime lastModifiedTime(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        }
+        catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+
+    private Entry loadReference(Path file) {
+        Properties properties = new Properties();
+        try (InputStream input = Files.newInputStream(file)) {
+            properties.load(input);
+            String hash = properties.getProperty(KEY_HASH);
+            return new Entry(
+                    URI.create(properties.getProperty(KEY_URI)),
+                    hash,
+                    contents.getOrDefault(hash, 0L),
+                    properties.getProperty(KEY_ETAG),
+                    properties.getProperty(KEY_LAST_MODIFIED),
+                    properties.getProperty(KEY_FILE_NAME),
+                    properties.getProperty(KEY_CONTENT_TYPE),
+                    contentDirectory.resolve(hash));
+        }
+        catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+
+    private void saveReference(Entry entry) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(KEY_URI, entry.uri.toString());
+        properties.setProperty(KEY_HASH, entry.hash);
+        setIfPresent(properties, KEY_ETAG, entry.etag);
+        setIfPresent(properties, KEY_LAST_MODIFIED, entry.lastModified);
+        setIfPresent(properties, KEY_FILE_NAME, entry.fileName);
+        setIfPresent(properties, KEY_CONTENT_TYPE, entry.contentType);
+        try (OutputStream output = Files.newOutputStream(referenceFile(entry.uri))) {
+            properties.store(output, null);
+        }
+    }
+
+
+    private static void setIfPresent(Properties properties, String key, String value) {
+        if (Objects.nonNull(value)) {
+            properties.setProperty(key, value);
+        }
+    }
+
+
+    private Path referenceFile(URI uri) {
+        return referenceDirectory.resolve(hash(uri.toString().getBytes(StandardCharsets.UTF_8)) + ".properties");
+    }
+
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(HASH_ALGORITHM);
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(String.format("%s not supported by JVM", HASH_ALGORITHM), e);
+        }
+    }
+
+    /**
+     * A resource mapped to the content it is known to hold.
+     */
+    public static class Entry {
+        private final URI uri;
+        private final String hash;
+        private final long size;
+        private final String etag;
+        private final String lastModified;
+        private final String fileName;
+        private final String contentType;
+        private final Path path;
+
+        private Entry(URI uri, String hash, long size, String etag, String lastModified, String fileName, String contentType, Path path) {
+            this.uri = uri;
+            this.hash = hash;
+            this.size = size;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.fileName = fileName;
+            this.contentType = contentType;
+            this.path = path;
+        }
+
+
+        /**
+         * Gets the URI of the resource.
+         *
+         * @return the URI
+         */
+        public URI getUri() {
+            return uri;
+        }
+
+
+        /**
+         * Gets the hash of the content.
+         *
+         * @return the hex-encoded SHA-256 hash
+         */
+        public String getHash() {
+            return hash;
+        }
+
+
+        /**
+         * Gets the path of the stored content. It must not be modified and may be removed once the content is evicted.
+         *
+         * @return the path
+         */
+        public Path getPath() {
+            return path;
+        }
+
+
+        /**
+         * Gets the size of the content.
+         *
+         * @return the size in bytes
+         */
+        public long getSize() {
+            return size;
+        }
+
+
+        /**
+         * Gets the file name as announced by the server or as uploaded.
+         *
+         * @return the file name
+         */
+        public String getFileName() {
+            return fileName;
+        }
+
+
+        /**
+         * Gets the content type as announced by the server or as uploaded.
+         *
+         * @return the content type, null if not known
+         */
+        public String getContentType() {
+            return contentType;
+        }
+
+
+        /**
+         * Gets the ETag announced by the server.
+         *
+         * @return the ETag, null if not known
+         */
+        public String getEtag() {
+            return etag;
+        }
+
+
+        /**
+         * Gets the Last-Modified date announced by the server.
+         *
+         * @return the Last-Modified date, null if not known
+         */
+        public String getLastModified() {
+            return lastModified;
+        }
+
+
+        /**
+         * Checks if the entry can be revalidated using a conditional request.
+         *
+         * @return true if the server announced an ETag or a Last-Modified date, otherwise false
+         */
+        public boolean isRevalidatable() {
+            return Objects.nonNull(etag) || Objects.nonNull(lastModified);
+        }
+
+
+        /**
+         * Reads the content into memory.
+         *
+         * @return the content
+         * @throws IOException if reading the content fails
+         */
+        public byte[] readContent() throws IOException {
+            return Files.readAllBytes(path);
+        }
+
+
+        /**
+         * Opens the content as stream.
+         *
+         * @return the streamed file, must be closed by the caller
+         * @throws IOException if opening the content fails
+         */
+        public StreamedFile open() throws IOException {
+            return new StreamedFile(Files.newInputStream(path), fileName, contentType, OptionalLong.of(size));
+        }
+
+
+        /**
+         * Copies the content to {@code target}. The content is copied to a temporary file next to the target first, so
+         * the target is never left with partial content.
+         *
+         * @param target the file to copy the content to
+         * @return the copied file
+         * @throws IOException if copying the content fails
+         */
+        public DownloadedFile copyTo(Path target) throws IOException {
+            Ensure.requireNonNull(target, "target must be non-null");
+            Path absoluteTarget = target.toAbsolutePath();
+            Path temp = Files.createTempFile(absoluteTarget.getParent(), absoluteTarget.getFileName().toString() + ".", ".part");
+            try {
+                Files.copy(path, temp, StandardCopyOption.REPLACE_EXISTING);
+                FileBodySubscriber.move(temp, absoluteTarget);
+            }
+            catch (IOException e) {
+                FileBodySubscriber.deleteQuietly(temp);
+                throw e;
+            }
+            return new DownloadedFile(absoluteTarget, fileName, contentType, size);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ContentSource {
+        InputStream open() throws IOException;
+    }
+
+    /**
+     * Writes a response body to a temporary file in the cache directory while computing its hash, and stores it in the
+     * cache once complete.
+     */
+    private class CachingBodySubscriber implements HttpResponse.BodySubscriber<Entry> {
+        private final URI uri;
+        private final HttpHeaders headers;
+        private final Path temp;
+        private final HttpResponse.BodySubscriber<Path> delegate;
+        private final MessageDigest digest = newDigest();
+        private long written;
+
+        CachingBodySubscriber(URI uri, HttpHeaders headers) {
+            this.uri = uri;
+            this.headers = headers;
+            try {
+                this.temp = Files.createTempFile(tempDirectory, "download-", ".part");
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(String.format("creating temporary file in %s failed", tempDirectory), e);
+            }
+            this.delegate = HttpResponse.BodySubscribers.ofFile(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            delegate.onSubscribe(subscription);
+        }
+
+
+        @Override
+        public void onNext(List<ByteBuffer> item) {
+            for (ByteBuffer buffer : item) {
+                written += buffer.remaining();
+                digest.update(buffer.duplicate());
+            }
+            delegate.onNext(item);
+        }
+
+
+        @Override
+        public void onError(Throwable throwable) {
+            delegate.onError(throwable);
+            FileBodySubscriber.deleteQuietly(temp);
+        }
+
+
+        @Override
+        public void onComplete() {
+            delegate.onComplete();
+        }
+
+
+        @Override
+        public CompletionStage<Entry> getBody() {
+            return delegate.getBody().handle((path, error) -> {
+                if (error != null) {
+                    FileBodySubscriber.deleteQuietly(temp);
+                    throw error instanceof RuntimeException ? (RuntimeException) error : new UncheckedIOException(new IOException(error));
+                }
+                String hash = HexFormat.of().formatHex(digest.digest());
+                Entry entry = new Entry(
+                        uri,
+                        hash,
+                        written,
+                        headers.firstValue(HEADER_ETAG).orElse(null),
+                        headers.firstValue(HEADER_LAST_MODIFIED).orElse(null),
+                        HttpRequestHelper.parseFileName(headers),
+                        headers.firstValue(HEADER_CONTENT_TYPE).orElse(null),
+                        contentDirectory.resolve(hash));
+                try {
+                    Entry result = store(entry, temp);
+                    misses.increment();
+                    return result;
+                }
+                catch (IOException e) {
+                    FileBodySubscriber.deleteQuietly(temp);
+                    throw new UncheckedIOException(String.format("storing downloaded file in cache failed (uri: %s)", uri), e);
+                }
+            });
+        }
+    }
+
+    public static class Builder {
+        private Path directory;
+        private long maxSize = DEFAULT_MAX_SIZE;
+
+        public Builder directory(Path value) {
+            this.directory = value;
+            return this;
+        }
+
+
+        public Builder maxSize(long value) {
+            Ensure.require(value > 0, "maxSize must be positive");
+            this.maxSize = value;
+            return this;
+        }
+
+
+        public FileCache build() {
+            Ensure.requireNonNull(directory, "directory must be non-null");
+            return new FileCache(this);
+        }
+    }
+}
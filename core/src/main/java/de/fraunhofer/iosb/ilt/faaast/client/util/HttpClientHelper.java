@@ -14,12 +14,16 @@
  */
 package de.fraunhofer.iosb.ilt.faaast.client.util;
 
+import java.lang.reflect.Method;
 import java.net.Authenticator;
 import java.net.PasswordAuthentication;
 import java.net.http.HttpClient;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
 import java.security.cert.X509Certificate;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.X509TrustManager;
@@ -30,6 +34,8 @@ import javax.net.ssl.X509TrustManager;
  */
 public final class HttpClientHelper {
 
+    private static final Method NEW_VIRTUAL_THREAD_EXECUTOR = findVirtualThreadExecutorFactory();
+
     private HttpClientHelper() {}
 
 
@@ -43,6 +49,19 @@ public final class HttpClientHelper {
     }
 
 
+    /**
+     * Creates a new HTTP client preferring HTTP/2. Over TLS, HTTP/2 (h2) is negotiated via ALPN, over plain connections
+     * an upgrade to h2c is requested. If the server does not support HTTP/2 the client falls back to HTTP/1.1.
+     *
+     * @return the new HTTP client
+     */
+    public static HttpClient newHttp2Client() {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .build();
+    }
+
+
     /**
      * Creates a new HTTP client with basic username/password authentication.
      *
@@ -101,6 +120,59 @@ public final class HttpClientHelper {
     }
 
 
+    /**
+     * Checks whether the running JVM supports virtual threads (JDK 21 or newer).
+     *
+     * @return true if virtual threads are available, false otherwise
+     */
+    public static boolean isVirtualThreadSupported() {
+        return NEW_VIRTUAL_THREAD_EXECUTOR != null;
+    }
+
+
+    /**
+     * Creates a new executor that starts a new virtual thread for each task. As the project is compiled against JDK 17,
+     * the executor is looked up reflectively.
+     *
+     * @return the new executor or empty if the running JVM does not support virtual threads
+     */
+    public static Optional<ExecutorService> newVirtualThreadExecutor() {
+        if (NEW_VIRTUAL_THREAD_EXECUTOR == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of((ExecutorService) NEW_VIRTUAL_THREAD_EXECUTOR.invoke(null));
+        }
+        catch (ReflectiveOperationException e) {
+            return Optional.empty();
+        }
+    }
+
+
+    /**
+     * Configures a HttpClient builder to execute its asynchronous tasks on virtual threads. Does nothing if the running JVM
+     * does not support virtual threads, in which case the default executor of the HTTP client is used.
+     *
+     * @param httpClientBuilder Builder to configure
+     * @return true if virtual threads have been configured, false if the default executor is kept
+     */
+    public static boolean useVirtualThreads(HttpClient.Builder httpClientBuilder) {
+        Optional<ExecutorService> executor = newVirtualThreadExecutor();
+        executor.ifPresent(httpClientBuilder::executor);
+        return executor.isPresent();
+    }
+
+
+    private static Method findVirtualThreadExecutorFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        }
+        catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+
     private static SSLContext trustAllSslContext() {
         SSLContext sslContext;
         try {
@@ -17,23 +17,37 @@ package de.fraunhofer.iosb.ilt.faaast.client.util;
 import static org.apache.commons.fileupload.FileUploadBase.CONTENT_DISPOSITION;
 
 import de.fraunhofer.iosb.ilt.faaast.client.http.HttpMethod;
+import de.fraunhofer.iosb.ilt.faaast.client.http.RequestDeadlineExceededException;
 import de.fraunhofer.iosb.ilt.faaast.client.exception.ConnectivityException;
+import de.fraunhofer.iosb.ilt.faaast.client.exception.DeadlineExceededException;
+import de.fraunhofer.iosb.ilt.faaast.client.exception.StatusCodeException;
 import de.fraunhofer.iosb.ilt.faaast.service.endpoint.http.util.HttpConstants;
 import de.fraunhofer.iosb.ilt.faaast.service.model.InMemoryFile;
 import de.fraunhofer.iosb.ilt.faaast.service.model.TypedInMemoryFile;
 import de.fraunhofer.iosb.ilt.faaast.service.util.Ensure;
-import de.fraunhofer.iosb.ilt.faaast.service.util.LambdaExceptionHelper;
 import org.apache.commons.fileupload.ParameterParser;
-import org.apache.hc.client5.http.entity.mime.MultipartEntityBuilder;
 import org.apache.hc.core5.http.ContentType;
-import org.apache.hc.core5.http.HttpEntity;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import javax.net.ssl.SSLSession;
 
 
 /**
@@ -42,13 +56,17 @@ import java.util.Map;
  * and handles the response as a string.
  * This class manages request building and sending,
  * throwing a ConnectivityException in case of failures during the request.
+ * If a {@link Deadline} is attached to the current thread, requests are sent with a timeout of at most the remaining
+ * time and fail with a DeadlineExceededException once the deadline has passed.
  */
 public final class HttpRequestHelper {
 
-    private static final String BOUNDARY = "----ClientBoundary7MA4YWxkTrZu0gW";
-    private static final String FILE_PARAMETER = "file";
     private static final String FILENAME_PARAMETER = "fileName";
     private static final String DEFAULT_FILENAME = "unknown";
+    private static final String HEADER_RETRY_AFTER = "Retry-After";
+    private static final String HEADER_CONTENT_LENGTH = "Content-Length";
+    private static final String HEADER_CONTENT_ENCODING = "Content-Encoding";
+    private static final String IDENTITY_ENCODING = "identity";
 
     private HttpRequestHelper() {}
 
@@ -72,9 +90,21 @@ public final class HttpRequestHelper {
      * @return the HttpResponse containing the response body as a string
      */
     public static HttpRequest createPostRequest(URI uri, String body) {
+        return createPostRequest(uri, HttpRequest.BodyPublishers.ofString(body));
+    }
+
+
+    /**
+     * Creates a POST request to the specified URI with a request body provided by a publisher, e.g., a streamed body.
+     *
+     * @param uri the target URI to send the POST request to
+     * @param body the publisher of the request body
+     * @return the HttpResponse containing the response body as a string
+     */
+    public static HttpRequest createPostRequest(URI uri, HttpRequest.BodyPublisher body) {
         return HttpRequest.newBuilder()
                 .uri(uri)
-                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .POST(body)
                 .header(HttpConstants.HEADER_CONTENT_TYPE, ContentType.APPLICATION_JSON.getMimeType())
                 .build();
     }
@@ -88,33 +118,55 @@ public final class HttpRequestHelper {
      * @return the HttpResponse containing the response body as a string
      */
     public static HttpRequest createPutRequest(URI uri, String body) {
+        return createPutRequest(uri, HttpRequest.BodyPublishers.ofString(body));
+    }
+
+
+    /**
+     * Creates a PUT request to the specified URI with a request body provided by a publisher, e.g., a streamed body.
+     *
+     * @param uri the target URI to send the PUT request to
+     * @param body the publisher of the request body
+     * @return the HttpResponse containing the response body as a string
+     */
+    public static HttpRequest createPutRequest(URI uri, HttpRequest.BodyPublisher body) {
         return HttpRequest.newBuilder()
                 .uri(uri)
-                .PUT(HttpRequest.BodyPublishers.ofString(body))
+                .PUT(body)
                 .header(HttpConstants.HEADER_CONTENT_TYPE, ContentType.APPLICATION_JSON.getMimeType())
                 .build();
     }
 
 
     /**
-     * Creates a PUT request for files to the specified URI.
+     * Creates a multipart PUT request for files to the specified URI.
      *
-     * @param uri the target URI to send the GET request to
-     * @return the HttpResponse containing the response body as a string
+     * @param uri the target URI to send the PUT request to
+     * @param file the file to upload
+     * @return the HttpRequest
      */
     public static HttpRequest createPutFileRequest(URI uri, TypedInMemoryFile file) {
-        HttpEntity httpEntity = MultipartEntityBuilder.create()
-                .addTextBody(FILENAME_PARAMETER, file.getPath())
-                .addBinaryBody(FILE_PARAMETER,
-                        file.getContent(),
-                        ContentType.create(file.getContentType(), StandardCharsets.UTF_8),
-                        file.getPath())
-                .setBoundary(BOUNDARY)
-                .build();
+        Ensure.requireNonNull(file, "file must be non-null");
+        return createPutFileRequest(uri, file.getPath(), file.getContentType(), HttpRequest.BodyPublishers.ofByteArray(file.getContent()));
+    }
+
+
+    /**
+     * Creates a multipart PUT request for files to the specified URI. The content is streamed while the request is
+     * sent, see {@link MultipartBodyPublishers}.
+     *
+     * @param uri the target URI to send the PUT request to
+     * @param fileName the file name
+     * @param contentType the content type of the file
+     * @param content the content of the file
+     * @return the HttpRequest
+     */
+    public static HttpRequest createPutFileRequest(URI uri, String fileName, String contentType, HttpRequest.BodyPublisher content) {
+        String boundary = MultipartBodyPublishers.newBoundary();
         return HttpRequest.newBuilder()
                 .uri(uri)
-                .header(HttpConstants.HEADER_CONTENT_TYPE, ContentType.MULTIPART_FORM_DATA.getMimeType() + "; boundary=" + BOUNDARY)
-                .PUT(HttpRequest.BodyPublishers.ofInputStream(LambdaExceptionHelper.wrap(httpEntity::getContent)))
+                .header(HttpConstants.HEADER_CONTENT_TYPE, MultipartBodyPublishers.contentType(boundary))
+                .PUT(MultipartBodyPublishers.ofFile(boundary, fileName, contentType, content))
                 .build();
     }
 
@@ -127,9 +179,21 @@ public final class HttpRequestHelper {
      * @return the HttpResponse containing the response body as a string
      */
     public static HttpRequest createPatchRequest(URI uri, String body) {
+        return createPatchRequest(uri, HttpRequest.BodyPublishers.ofString(body));
+    }
+
+
+    /**
+     * Creates a PATCH request to the specified URI with a request body provided by a publisher, e.g., a streamed body.
+     *
+     * @param uri the target URI to send the PATCH request to
+     * @param body the publisher of the request body
+     * @return the HttpResponse containing the response body as a string
+     */
+    public static HttpRequest createPatchRequest(URI uri, HttpRequest.BodyPublisher body) {
         return HttpRequest.newBuilder()
                 .uri(uri)
-                .method(HttpMethod.PATCH.name(), HttpRequest.BodyPublishers.ofString(body))
+                .method(HttpMethod.PATCH.name(), body)
                 .header(HttpConstants.HEADER_CONTENT_TYPE, ContentType.APPLICATION_JSON.getMimeType())
                 .build();
     }
@@ -156,16 +220,7 @@ public final class HttpRequestHelper {
      * @throws ConnectivityException if a connectivity error occurs during the request
      */
     public static HttpResponse<String> send(HttpClient httpClient, HttpRequest request) throws ConnectivityException {
-        try {
-            return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-        }
-        catch (IOException e) {
-            throw new ConnectivityException(e);
-        }
-        catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new ConnectivityException("Request interrupted", e);
-        }
+        return send(httpClient, request, HttpResponse.BodyHandlers.ofString());
     }
 
 
@@ -180,11 +235,48 @@ public final class HttpRequestHelper {
      * @throws ConnectivityException if a connectivity error occurs during the request
      */
     public static HttpResponse<byte[]> sendFileRequest(HttpClient httpClient, HttpRequest request) throws ConnectivityException {
+        return send(httpClient, request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+
+    /**
+     * Sends the provided HttpRequest and writes a successful response body to {@code target} while it is being
+     * transferred, so that the size of the file does not affect memory consumption. The content is written to a
+     * temporary file next to the target and moved to the target once complete. The body of a successful response is a
+     * {@link DownloadedFile}, the body of any other response is buffered as string.
+     *
+     * @param httpClient the client to use
+     * @param request the HttpRequest to be sent
+     * @param target the file to write the content to
+     * @return the HttpResponse
+     * @throws ConnectivityException if a connectivity error occurs during the request
+     */
+    public static HttpResponse<Object> sendFileRequest(HttpClient httpClient, HttpRequest request, Path target) throws ConnectivityException {
+        return send(httpClient, request, toFile(target));
+    }
+
+
+    /**
+     * Sends the provided HttpRequest and returns the HttpResponse as soon as the headers have been received. The body can
+     * then be consumed as a stream while it is still being transferred. The caller is responsible for closing the stream.
+     *
+     * @param httpClient the client to use
+     * @param request the HttpRequest to be sent
+     * @return the HttpResponse containing the response body as a stream
+     * @throws ConnectivityException if a connectivity error occurs during the request
+     */
+    public static HttpResponse<InputStream> sendStreaming(HttpClient httpClient, HttpRequest request) throws ConnectivityException {
+        return send(httpClient, request, HttpResponse.BodyHandlers.ofInputStream());
+    }
+
+
+    private static <T> HttpResponse<T> send(HttpClient httpClient, HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler) throws ConnectivityException {
+        Deadline deadline = Deadline.current();
         try {
-            return httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            return httpClient.send(Objects.isNull(deadline) ? request : deadline.apply(request), bodyHandler);
         }
         catch (IOException e) {
-            throw new ConnectivityException(e);
+            throw toConnectivityException(deadline, e);
         }
         catch (InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -193,6 +285,208 @@ public final class HttpRequestHelper {
     }
 
 
+    /**
+     * Sends the provided HttpRequest asynchronously and returns a future of the HttpResponse containing a string body.
+     * If the request fails with an IOException, the future completes exceptionally with a ConnectivityException.
+     *
+     * @param httpClient the client to use
+     * @param request the HttpRequest to be sent
+     * @return a future of the HttpResponse containing the response body as a string
+     */
+    public static CompletableFuture<HttpResponse<String>> sendAsync(HttpClient httpClient, HttpRequest request) {
+        return sendAsync(httpClient, request, HttpResponse.BodyHandlers.ofString());
+    }
+
+
+    /**
+     * Sends the provided HttpRequest asynchronously and returns a future of the HttpResponse containing a byte array
+     * body. If the request fails with an IOException, the future completes exceptionally with a ConnectivityException.
+     *
+     * @param httpClient the client to use
+     * @param request the HttpRequest to be sent
+     * @return a future of the HttpResponse containing the response body as a byte array
+     */
+    public static CompletableFuture<HttpResponse<byte[]>> sendFileRequestAsync(HttpClient httpClient, HttpRequest request) {
+        return sendAsync(httpClient, request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+
+    /**
+     * Sends the provided HttpRequest asynchronously and writes a successful response body to {@code target} while it is
+     * being transferred. See {@link #sendFileRequest(HttpClient, HttpRequest, Path)} for details.
+     *
+     * @param httpClient the client to use
+     * @param request the HttpRequest to be sent
+     * @param target the file to write the content to
+     * @return a future of the HttpResponse
+     */
+    public static CompletableFuture<HttpResponse<Object>> sendFileRequestAsync(HttpClient httpClient, HttpRequest request, Path target) {
+        return sendAsync(httpClient, request, toFile(target));
+    }
+
+
+    private static HttpResponse.BodyHandler<Object> toFile(Path target) {
+        Ensure.requireNonNull(target, "target must be non-null");
+        return responseInfo -> responseInfo.statusCode() >= 200 && responseInfo.statusCode() < 300
+                ? HttpResponse.BodySubscribers.mapping(
+                        FileBodySubscriber.create(target, parseFileName(responseInfo.headers()), parseContentType(responseInfo.headers())),
+                        Object.class::cast)
+                : HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8), Object.class::cast);
+    }
+
+
+    /**
+     * Sends the provided HttpRequest asynchronously using the given body handler. If the request fails with an IOException,
+     * the future completes exceptionally with a ConnectivityException.
+     *
+     * @param <T> the type of the response body
+     * @param httpClient the client to use
+     * @param request the HttpRequest to be sent
+     * @param bodyHandler the handler for the response body
+     * @return a future of the HttpResponse
+     */
+    public static <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpClient httpClient, HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler) {
+        Deadline deadline = Deadline.current();
+        HttpRequest actualRequest = request;
+        if (Objects.nonNull(deadline)) {
+            try {
+                actualRequest = deadline.apply(request);
+            }
+            catch (DeadlineExceededException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        return httpClient.sendAsync(actualRequest, bodyHandler)
+                .handle((response, error) -> {
+                    if (error == null) {
+                        return response;
+                    }
+                    Throwable cause = unwrap(error);
+                    if (cause instanceof IOException) {
+                        throw new CompletionException(toConnectivityException(deadline, (IOException) cause));
+                    }
+                    throw new CompletionException(cause);
+                });
+    }
+
+
+    private static ConnectivityException toConnectivityException(Deadline deadline, IOException error) {
+        if (Objects.nonNull(deadline) && (deadline.isExpired() || error instanceof RequestDeadlineExceededException)) {
+            return deadline.newException(error);
+        }
+        return new ConnectivityException(error);
+    }
+
+
+    /**
+     * Unwraps the actual cause of a failure reported by a {@link CompletableFuture}.
+     *
+     * @param error the error as reported by the future
+     * @return the underlying cause
+     */
+    public static Throwable unwrap(Throwable error) {
+        Throwable result = error;
+        while (result instanceof CompletionException && result.getCause() != null) {
+            result = result.getCause();
+        }
+        return result;
+    }
+
+
+    /**
+     * Waits for the given future and rethrows the actual cause of a failure.
+     *
+     * @param <T> the type of the result
+     * @param future the future
+     * @return the result of the future
+     * @throws ConnectivityException if the future failed due to connectivity problems
+     * @throws StatusCodeException if the future failed due to an invalid status code
+     */
+    public static <T> T await(CompletableFuture<T> future) throws ConnectivityException, StatusCodeException {
+        try {
+            return future.join();
+        }
+        catch (CompletionException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof ConnectivityException connectivityException) {
+                throw connectivityException;
+            }
+            if (cause instanceof StatusCodeException statusCodeException) {
+                throw statusCodeException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+
+    /**
+     * Returns a copy of the response with the body as String. Streamed bodies are read completely and closed. Used to
+     * report the body of error responses regardless of how the body has been received.
+     *
+     * @param response the response
+     * @return the response with a String body
+     */
+    public static HttpResponse<String> bufferBody(HttpResponse<?> response) {
+        Ensure.requireNonNull(response, "response must be non-null");
+        return withBody(response, bodyAsString(response.body()));
+    }
+
+
+    static <T> HttpResponse<T> withBody(HttpResponse<?> response, T body) {
+        return new BufferedHttpResponse<>(response, body);
+    }
+
+
+    private static String bodyAsString(Object body) {
+        if (body == null || body instanceof String) {
+            return (String) body;
+        }
+        if (body instanceof byte[]) {
+            return new String((byte[]) body, StandardCharsets.UTF_8);
+        }
+        if (body instanceof InputStream) {
+            try (InputStream stream = (InputStream) body) {
+                return new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            catch (IOException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+
+    /**
+     * Parses the Retry-After header, given either as number of seconds or as HTTP date.
+     *
+     * @param headers the response headers
+     * @return the time to wait, empty if the header is missing or invalid
+     */
+    public static Optional<Duration> parseRetryAfter(HttpHeaders headers) {
+        Ensure.requireNonNull(headers, "headers must be non-null");
+        Optional<String> value = headers.firstValue(HEADER_RETRY_AFTER).map(String::trim);
+        if (value.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Duration.ofSeconds(Math.max(0, Long.parseLong(value.get()))));
+        }
+        catch (NumberFormatException e) {
+            // not in delta-seconds format, try HTTP date
+        }
+        try {
+            Duration result = Duration.between(Instant.now(), ZonedDateTime.parse(value.get(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant());
+            return Optional.of(result.isNegative() ? Duration.ZERO : result);
+        }
+        catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+
+
     /**
      * Parses HTTP response to TypedInMemoryFile.
      *
@@ -208,10 +502,109 @@ public final class HttpRequestHelper {
     }
 
 
+    /**
+     * Wraps a streamed response of a file request, exposing the file name announced by the server via the
+     * Content-Disposition header. The content length is only exposed if the body is not content-encoded, as the
+     * Content-Length header of an encoded body does not match the decoded stream.
+     *
+     * @param httpResponse the response
+     * @return the streamed file
+     */
+    public static StreamedFile parseStreamedBody(HttpResponse<InputStream> httpResponse) {
+        Ensure.requireNonNull(httpResponse, "httpResponse must be non-null");
+        boolean encoded = httpResponse.headers().firstValue(HEADER_CONTENT_ENCODING)
+                .filter(x -> !x.isBlank() && !x.trim().equalsIgnoreCase(IDENTITY_ENCODING))
+                .isPresent();
+        return new StreamedFile(
+                httpResponse.body(),
+                parseFileName(httpResponse.headers()),
+                parseContentType(httpResponse.headers()),
+                encoded ? OptionalLong.empty() : httpResponse.headers().firstValueAsLong(HEADER_CONTENT_LENGTH));
+    }
+
+
+    /**
+     * Extracts the file name from the Content-Disposition header.
+     *
+     * @param headers the response headers
+     * @return the file name, {@code unknown} if not present
+     */
+    public static String parseFileName(HttpHeaders headers) {
+        Ensure.requireNonNull(headers, "headers must be non-null");
+        return headers.firstValue(CONTENT_DISPOSITION)
+                .map(HttpRequestHelper::extractName)
+                .orElse(DEFAULT_FILENAME);
+    }
+
+
+    private static String parseContentType(HttpHeaders headers) {
+        return headers.firstValue(HttpConstants.HEADER_CONTENT_TYPE).orElse(null);
+    }
+
+
     private static String extractName(String contentDispositionHeader) {
         ParameterParser parser = new ParameterParser();
         Map<String, String> params = parser.parse(contentDispositionHeader, ';');
 
         return params.getOrDefault(FILENAME_PARAMETER, DEFAULT_FILENAME);
     }
+
+
+    private static class BufferedHttpResponse<T> implements HttpResponse<T> {
+        private final HttpResponse<?> response;
+        private final T body;
+
+        BufferedHttpResponse(HttpResponse<?> response, T body) {
+            this.response = response;
+            this.body = body;
+        }
+
+
+        @Override
+        public int statusCode() {
+            return response.statusCode();
+        }
+
+
+        @Override
+        public HttpRequest request() {
+            return response.request();
+        }
+
+
+        @Override
+        public Optional<HttpResponse<T>> previousResponse() {
+            return Optional.empty();
+        }
+
+
+        @Override
+        public HttpHeaders headers() {
+            return response.headers();
+        }
+
+
+        @Override
+        public T body() {
+            return body;
+        }
+
+
+        @Override
+        public Optional<SSLSession> sslSession() {
+            return response.sslSession();
+        }
+
+
+        @Override
+        public URI uri() {
+            return response.uri();
+        }
+
+
+        @Override
+        public HttpClient.Version version() {
+            return response.version();
+        }
+    }
 }
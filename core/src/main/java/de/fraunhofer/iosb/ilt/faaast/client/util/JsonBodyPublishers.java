@@ -0,0 +1,300 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.util;
+
+import de.fraunhofer.iosb.ilt.faaast.service.dataformat.SerializationException;
+import de.fraunhofer.iosb.ilt.faaast.service.model.api.modifier.OutputModifier;
+import de.fraunhofer.iosb.ilt.faaast.service.model.exception.UnsupportedModifierException;
+import de.fraunhofer.iosb.ilt.faaast.service.util.Ensure;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.http.HttpRequest;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Creates request bodies from entities serialized to JSON while the request is sent. Payloads of up to
+ * {@code BUFFER_LIMIT} bytes are serialized into a byte array and sent with a Content-Length. Larger payloads are
+ * serialized by a background writer into a bounded queue of chunks that is drained as the body is sent, so writing a
+ * payload of any size needs a small, fixed amount of memory instead of several copies of the payload.
+ *
+ * <p>
+ * Streamed bodies are sent with chunked transfer encoding. As serialization of a streamed body only completes while it
+ * is sent, serialization errors occurring after the first {@code BUFFER_LIMIT} bytes abort the request with an
+ * {@link IOException}.
+ */
+public final class JsonBodyPublishers {
+
+    private static final int BUFFER_LIMIT = 64 * 1024;
+    private static final int CHUNK_SIZE = 16 * 1024;
+    private static final int QUEUED_CHUNKS = 4;
+    private static final long POLL_INTERVAL_MILLIS = 100;
+    private static final long STALL_TIMEOUT_MILLIS = 60_000;
+    private static final byte[] END = new byte[0];
+    private static final ExecutorService WRITERS = Executors.newCachedThreadPool(runnable -> {
+        Thread result = new Thread(runnable, "faaast-client-json-writer");
+        result.setDaemon(true);
+        return result;
+    });
+
+    private JsonBodyPublishers() {}
+
+
+    /**
+     * Creates a body publisher serializing the given entity. Large payloads are written on a thread of an internal
+     * cached thread pool.
+     *
+     * @param serializer the serializer to use
+     * @param entity the entity to serialize
+     * @param modifier the output modifier
+     * @return the body publisher
+     * @throws SerializationException if serialization fails
+     * @throws UnsupportedModifierException if the modifier is not supported for the entity
+     */
+    public static HttpRequest.BodyPublisher ofJson(StreamingJsonSerializer serializer, Object entity, OutputModifier modifier)
+            throws SerializationException, UnsupportedModifierException {
+        return ofJson(serializer, entity, modifier, WRITERS);
+    }
+
+
+    /**
+     * Creates a body publisher serializing the given entity. Large payloads are written by a task of the given executor,
+     * e.g., the executor of the HTTP client sending the request. The task blocks while the body is not read, so the
+     * executor should not be limited to a few threads.
+     *
+     * @param serializer the serializer to use
+     * @param entity the entity to serialize
+     * @param modifier the output modifier
+     * @param executor the executor running the writer of large payloads
+     * @return the body publisher
+     * @throws SerializationException if serialization fails
+     * @throws UnsupportedModifierException if the modifier is not supported for the entity
+     */
+    public static HttpRequest.BodyPublisher ofJson(StreamingJsonSerializer serializer, Object entity, OutputModifier modifier, Executor executor)
+            throws SerializationException, UnsupportedModifierException {
+        Ensure.requireNonNull(executor, "executor must be non-null");
+        LimitedBuffer buffer = new LimitedBuffer();
+        try {
+            serializer.write(buffer, entity, modifier);
+            return HttpRequest.BodyPublishers.ofByteArray(buffer.bytes(), 0, buffer.size());
+        }
+        catch (SerializationException | BufferLimitExceededException e) {
+            if (!buffer.exceeded) {
+                throw e;
+            }
+        }
+        return HttpRequest.BodyPublishers.ofInputStream(() -> {
+            Pipe pipe = new Pipe();
+            executor.execute(() -> pipe.write(serializer, entity, modifier));
+            return pipe;
+        });
+    }
+
+    /**
+     * Byte array output stream failing once more than {@code BUFFER_LIMIT} bytes are written.
+     */
+    private static class LimitedBuffer extends ByteArrayOutputStream {
+        private boolean exceeded;
+
+        @Override
+        public void write(int b) {
+            ensureCapacity(1);
+            super.write(b);
+        }
+
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            ensureCapacity(len);
+            super.write(b, off, len);
+        }
+
+
+        private void ensureCapacity(int len) {
+            if (count + len > BUFFER_LIMIT) {
+                exceeded = true;
+                throw new BufferLimitExceededException();
+            }
+        }
+
+
+        private byte[] bytes() {
+            return buf;
+        }
+    }
+
+    /**
+     * Signals that a payload does not fit into the buffer.
+     */
+    private static class BufferLimitExceededException extends RuntimeException {
+        BufferLimitExceededException() {
+            super("payload exceeds buffer limit", null, false, false);
+        }
+    }
+
+    /**
+     * Bounded pipe between the writer serializing the payload and the HTTP client reading the body.
+     */
+    private static class Pipe extends InputStream {
+        private final BlockingQueue<byte[]> chunks = new ArrayBlockingQueue<>(QUEUED_CHUNKS);
+        private volatile Exception error;
+        private volatile boolean closed;
+        private byte[] current;
+        private int position;
+
+        void write(StreamingJsonSerializer serializer, Object entity, OutputModifier modifier) {
+            try (OutputStream out = new ChunkingOutputStream()) {
+                serializer.write(out, entity, modifier);
+            }
+            catch (SerializationException | UnsupportedModifierException | IOException | RuntimeException e) {
+                error = e;
+            }
+            finally {
+                try {
+                    put(END);
+                }
+                catch (IOException e) {
+                    // reader is gone, nothing left to signal
+                }
+            }
+        }
+
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xff;
+        }
+
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (current == null || position == current.length) {
+                if (current == END) {
+                    return -1;
+                }
+                current = take();
+                position = 0;
+                if (current == END) {
+                    return -1;
+                }
+            }
+            int result = Math.min(len, current.length - position);
+            System.arraycopy(current, position, b, off, result);
+            position += result;
+            return result;
+        }
+
+
+        @Override
+        public void close() {
+            closed = true;
+            chunks.clear();
+        }
+
+
+        private byte[] take() throws IOException {
+            try {
+                byte[] result = chunks.poll(STALL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (result == null) {
+                    throw new IOException("serializing request body timed out");
+                }
+                if (result == END && error != null) {
+                    throw new IOException("serializing request body failed", error);
+                }
+                return result;
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("interrupted while serializing request body", e);
+            }
+        }
+
+
+        private void put(byte[] chunk) throws IOException {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(STALL_TIMEOUT_MILLIS);
+            try {
+                while (!chunks.offer(chunk, POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    if (closed || System.nanoTime() - deadline > 0) {
+                        throw new IOException("request body is no longer read");
+                    }
+                }
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("interrupted while writing request body", e);
+            }
+        }
+
+        /**
+         * Output stream handing the serialized bytes to the pipe in chunks of {@code CHUNK_SIZE} bytes.
+         */
+        private class ChunkingOutputStream extends OutputStream {
+            private byte[] buffer = new byte[CHUNK_SIZE];
+            private int count;
+
+            @Override
+            public void write(int b) throws IOException {
+                if (count == buffer.length) {
+                    flushChunk();
+                }
+                buffer[count++] = (byte) b;
+            }
+
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                int offset = off;
+                int remaining = len;
+                while (remaining > 0) {
+                    if (count == buffer.length) {
+                        flushChunk();
+                    }
+                    int n = Math.min(remaining, buffer.length - count);
+                    System.arraycopy(b, offset, buffer, count, n);
+                    count += n;
+                    offset += n;
+                    remaining -= n;
+                }
+            }
+
+
+            @Override
+            public void close() throws IOException {
+                if (count > 0) {
+                    flushChunk();
+                }
+            }
+
+
+            private void flushChunk() throws IOException {
+                put(count == buffer.length ? buffer : Arrays.copyOf(buffer, count));
+                buffer = new byte[CHUNK_SIZE];
+                count = 0;
+            }
+        }
+    }
+}
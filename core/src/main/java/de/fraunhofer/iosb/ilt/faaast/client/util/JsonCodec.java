@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.util;
+
+import de.fraunhofer.iosb.ilt.faaast.service.dataformat.json.JsonApiSerializer;
+import de.fraunhofer.iosb.ilt.faaast.service.util.Ensure;
+
+
+/**
+ * Holds the serializer and deserializer used by an interface to convert payloads from and to JSON.
+ *
+ * <p>
+ * Creating a serializer or deserializer sets up a Jackson mapper including all mixins and type registrations, which is
+ * expensive. Both are thread-safe once created, so a codec is created once and shared between all requests of an
+ * interface and, optionally, between multiple interfaces. If no codec is configured, {@link #getDefault()} is used.
+ *
+ * <p>
+ * Request bodies are streamed to the server if the serializer is a {@link StreamingJsonSerializer}, which is the case
+ * for codecs created with the default constructor.
+ */
+public class JsonCodec {
+
+    private final JsonApiSerializer serializer;
+    private final StreamingJsonDeserializer deserializer;
+
+    /**
+     * Creates a new instance with a default serializer and deserializer.
+     */
+    public JsonCodec() {
+        this(new StreamingJsonSerializer(), new StreamingJsonDeserializer());
+    }
+
+
+    /**
+     * Creates a new instance using the given serializer and deserializer, e.g., to register custom implementations via
+     * {@link StreamingJsonDeserializer#useImplementation(Class, Class)}. Both must not be modified once the codec is in
+     * use.
+     *
+     * @param serializer the serializer
+     * @param deserializer the deserializer
+     */
+    public JsonCodec(JsonApiSerializer serializer, StreamingJsonDeserializer deserializer) {
+        Ensure.requireNonNull(serializer, "serializer must be non-null");
+        Ensure.requireNonNull(deserializer, "deserializer must be non-null");
+        this.serializer = serializer;
+        this.deserializer = deserializer;
+    }
+
+
+    /**
+     * Gets the codec shared by all interfaces that do not configure their own.
+     *
+     * @return the default codec
+     */
+    public static JsonCodec getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+
+    /**
+     * Gets the serializer used for request payloads.
+     *
+     * @return the serializer
+     */
+    public JsonApiSerializer getSerializer() {
+        return serializer;
+    }
+
+
+    /**
+     * Gets the deserializer used for response payloads.
+     *
+     * @return the deserializer
+     */
+    public StreamingJsonDeserializer getDeserializer() {
+        return deserializer;
+    }
+
+    private static class DefaultHolder {
+        private static final JsonCodec INSTANCE = new JsonCodec();
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.util;
+
+import de.fraunhofer.iosb.ilt.faaast.service.util.Ensure;
+import java.io.FileNotFoundException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpRequest;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+
+/**
+ * Creates multipart/form-data request bodies for uploading files. The envelope is written around the content while
+ * the request is sent, so the content is read in small chunks from memory, a file or a channel and never copied as a
+ * whole. Each body uses its own random boundary so that file content cannot accidentally terminate a part.
+ *
+ * <p>
+ * Bodies with content of known length, i.e., byte arrays and files, are sent with a Content-Length, bodies with
+ * content read from a channel use chunked transfer encoding.
+ */
+public final class MultipartBodyPublishers {
+
+    private static final String FILE_PARAMETER = "file";
+    private static final String FILENAME_PARAMETER = "fileName";
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+    private static final String CRLF = "\r\n";
+    private static final int BOUNDARY_BYTES = 16;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private MultipartBodyPublishers() {}
+
+
+    /**
+     * Creates a new random boundary.
+     *
+     * @return the boundary
+     */
+    public static String newBoundary() {
+        byte[] bytes = new byte[BOUNDARY_BYTES];
+        RANDOM.nextBytes(bytes);
+        return "----FaaastClientBoundary" + HexFormat.of().formatHex(bytes);
+    }
+
+
+    /**
+     * Creates the Content-Type header value of a multipart body using the given boundary.
+     *
+     * @param boundary the boundary
+     * @return the Content-Type header value
+     */
+    public static String contentType(String boundary) {
+        return "multipart/form-data; boundary=" + boundary;
+    }
+
+
+    /**
+     * Creates a multipart body containing the file name as text part and the content as file part.
+     *
+     * @param boundary the boundary, see {@link #newBoundary()}
+     * @param fileName the file name
+     * @param contentType the content type of the file, {@code application/octet-stream} if null
+     * @param content the content
+     * @return the body publisher
+     */
+    public static HttpRequest.BodyPublisher ofFile(String boundary, String fileName, String contentType, HttpRequest.BodyPublisher content) {
+        Ensure.requireNonNull(boundary, "boundary must be non-null");
+        Ensure.requireNonNull(fileName, "fileName must be non-null");
+        Ensure.requireNonNull(content, "content must be non-null");
+        String head = "--" + boundary + CRLF
+                + "Content-Disposition: form-data; name=\"" + FILENAME_PARAMETER + "\"" + CRLF
+                + "Content-Type: text/plain; charset=UTF-8" + CRLF
+                + CRLF
+                + fileName + CRLF
+                + "--" + boundary + CRLF
+                + "Content-Disposition: form-data; name=\"" + FILE_PARAMETER + "\"; filename=\"" + quote(fileName) + "\"" + CRLF
+                + "Content-Type: " + Objects.requireNonNullElse(contentType, DEFAULT_CONTENT_TYPE) + "; charset=UTF-8" + CRLF
+                + CRLF;
+        String tail = CRLF + "--" + boundary + "--" + CRLF;
+        return HttpRequest.BodyPublishers.concat(
+                HttpRequest.BodyPublishers.ofByteArray(head.getBytes(StandardCharsets.UTF_8)),
+                content,
+                HttpRequest.BodyPublishers.ofByteArray(tail.getBytes(StandardCharsets.UTF_8)));
+    }
+
+
+    /**
+     * Creates a publisher reading the content of a file while it is sent.
+     *
+     * @param file the file
+     * @return the body publisher
+     * @throws IllegalArgumentException if the file is not readable
+     */
+    public static HttpRequest.BodyPublisher ofPath(Path file) {
+        Ensure.requireNonNull(file, "file must be non-null");
+        Ensure.require(Files.isReadable(file), String.format("file must be readable (file: %s)", file));
+        try {
+            return HttpRequest.BodyPublishers.ofFile(file);
+        }
+        catch (FileNotFoundException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    /**
+     * Creates a publisher reading the content of a channel while it is sent. The channel is closed once its content has
+     * been sent. As the content can only be read once, sending the body again, e.g., when retrying a request, fails
+     * instead of sending empty content.
+     *
+     * @param channel the channel
+     * @return the body publisher
+     */
+    public static HttpRequest.BodyPublisher ofChannel(ReadableByteChannel channel) {
+        Ensure.requireNonNull(channel, "channel must be non-null");
+        AtomicBoolean consumed = new AtomicBoolean();
+        return HttpRequest.BodyPublishers.ofInputStream(() -> {
+            if (!consumed.compareAndSet(false, true)) {
+                throw new IllegalStateException("content of a channel can only be sent once");
+            }
+            return Channels.newInputStream(channel);
+        });
+    }
+
+
+    private static String quote(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("\"", "\\\"")
+                .replace("\r", "")
+                .replace("\n", "");
+    }
+}
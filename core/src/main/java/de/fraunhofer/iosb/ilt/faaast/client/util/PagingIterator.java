@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.util;
+
+import de.fraunhofer.iosb.ilt.faaast.client.exception.ClientException;
+import de.fraunhofer.iosb.ilt.faaast.client.exception.UncheckedClientException;
+import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.Page;
+import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.PagingInfo;
+import de.fraunhofer.iosb.ilt.faaast.service.util.Ensure;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+
+/**
+ * Iterates lazily over all elements of a paged resource by following the cursors returned by the server. While the
+ * elements of a page are consumed, the next page is already requested, so at most two pages are held in memory at any
+ * time.
+ *
+ * <p>
+ * Errors are reported when the page that failed to load is reached. {@link ClientException}s are wrapped in an
+ * {@link UncheckedClientException}. Iterating can be resumed after an error: the next call to {@link #hasNext()}
+ * requests the failed page again, starting from the last cursor received successfully. Alternatively,
+ * {@link #getNextPagingInfo()} can be used to continue with a new iterator later. Iterators that are not consumed
+ * completely should be closed to stop requesting pages. If a {@link Deadline} is attached to the thread creating the
+ * iterator, it applies to all pages.
+ *
+ * @param <T> the element type
+ */
+public class PagingIterator<T> implements Iterator<T>, AutoCloseable {
+
+    private final Function<PagingInfo, CompletableFuture<Page<T>>> pageLoader;
+    private final long limit;
+    private final Deadline deadline = Deadline.current();
+    private Iterator<T> current = Collections.emptyIterator();
+    private CompletableFuture<Page<T>> next;
+    private PagingInfo nextPagingInfo;
+
+    /**
+     * Creates a new instance. The first page is requested immediately.
+     *
+     * @param pagingInfo the paging information of the first page; its limit is used for all pages
+     * @param pageLoader loads a page for the given paging information
+     */
+    public PagingIterator(PagingInfo pagingInfo, Function<PagingInfo, CompletableFuture<Page<T>>> pageLoader) {
+        Ensure.requireNonNull(pagingInfo, "pagingInfo must be non-null");
+        Ensure.requireNonNull(pageLoader, "pageLoader must be non-null");
+        this.pageLoader = pageLoader;
+        this.limit = pagingInfo.getLimit();
+        request(pagingInfo);
+    }
+
+
+    @Override
+    public boolean hasNext() {
+        while (!current.hasNext() && Objects.nonNull(nextPagingInfo)) {
+            if (Objects.isNull(next)) {
+                request(nextPagingInfo);
+            }
+            Page<T> page = await(next);
+            String cursor = Objects.nonNull(page.getMetadata()) ? page.getMetadata().getCursor() : null;
+            if (Objects.nonNull(cursor)) {
+                request(PagingInfo.of(cursor, limit));
+            }
+            else {
+                next = null;
+                nextPagingInfo = null;
+            }
+            current = Objects.nonNull(page.getContent()) ? page.getContent().iterator() : Collections.emptyIterator();
+        }
+        return current.hasNext();
+    }
+
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+
+
+    /**
+     * Gets the paging information of the next page that has not been consumed yet, e.g., to resume iterating with a new
+     * iterator after an error.
+     *
+     * @return the paging information of the next page, or null if all pages have been received
+     */
+    public PagingInfo getNextPagingInfo() {
+        return nextPagingInfo;
+    }
+
+
+    /**
+     * Stops requesting pages. A request for the next page that is already in flight is not aborted, its result is
+     * discarded. The iterator has no more elements afterwards except for the remaining elements of the current page.
+     */
+    @Override
+    public void close() {
+        if (Objects.nonNull(next)) {
+            next.cancel(true);
+            next = null;
+        }
+        nextPagingInfo = null;
+    }
+
+
+    private void request(PagingInfo pagingInfo) {
+        nextPagingInfo = pagingInfo;
+        next = Objects.isNull(deadline) ? pageLoader.apply(pagingInfo) : deadline.callAsync(() -> pageLoader.apply(pagingInfo));
+    }
+
+
+    private Page<T> await(CompletableFuture<Page<T>> future) {
+        try {
+            return future.join();
+        }
+        catch (CompletionException e) {
+            next = null;
+            Throwable cause = HttpRequestHelper.unwrap(e);
+            if (cause instanceof ClientException clientException) {
+                throw new UncheckedClientException(clientException);
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+}
@@ -22,8 +22,6 @@ import de.fraunhofer.iosb.ilt.faaast.service.model.api.modifier.QueryModifier;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.PagingInfo;
 import de.fraunhofer.iosb.ilt.faaast.service.util.EncodingHelper;
 import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 
 /**
@@ -59,36 +57,46 @@ public class QueryHelper {
      * @return the uri to use in an http request
      */
     public static String apply(String path, Content content, QueryModifier modifier, PagingInfo pagingInfo, SearchCriteria searchCriteria) {
-        String result = Objects.nonNull(path) ? path : "";
-        result += serializeContentModifier(content) + serializeParameters(modifier, pagingInfo, searchCriteria);
-        return result;
+        StringBuilder result = new StringBuilder(Objects.nonNull(path) ? path.length() + 32 : 32);
+        if (Objects.nonNull(path)) {
+            result.append(path);
+        }
+        appendContentModifier(result, content);
+        appendParameters(result, modifier, pagingInfo, searchCriteria);
+        return result.toString();
     }
 
 
-    private static String serializeContentModifier(Content contentModifier) {
+    private static void appendContentModifier(StringBuilder result, Content contentModifier) {
         if (contentModifier.equals(Content.DEFAULT)) {
-            return "";
+            return;
+        }
+        result.append("/$").append(contentModifier.name().toLowerCase());
+    }
+
+
+    private static void appendParameters(StringBuilder result, QueryModifier queryModifier, PagingInfo pagingInfo, SearchCriteria searchCriteria) {
+        int start = result.length();
+        if (queryModifier.getLevel() != Level.DEFAULT) {
+            appendParameter(result, start, "level=").append(queryModifier.getLevel().name().toLowerCase());
+        }
+        if (queryModifier.getExtent() != Extent.DEFAULT) {
+            appendParameter(result, start, "extent=").append(queryModifier.getExtent().name().toLowerCase());
+        }
+        if (pagingInfo.getLimit() != PagingInfo.DEFAULT_LIMIT) {
+            appendParameter(result, start, "limit=").append(pagingInfo.getLimit());
+        }
+        if (pagingInfo.getCursor() != null) {
+            appendParameter(result, start, "cursor=").append(EncodingHelper.base64UrlEncode(pagingInfo.getCursor()));
+        }
+        String searchCriteriaString = searchCriteria.toQueryString();
+        if (!searchCriteriaString.isEmpty()) {
+            appendParameter(result, start, "").append(searchCriteriaString);
         }
-        return String.format("/$%s", contentModifier.name().toLowerCase());
     }
 
 
-    private static String serializeParameters(QueryModifier queryModifier, PagingInfo pagingInfo, SearchCriteria searchCriteria) {
-        String levelString = queryModifier.getLevel() == Level.DEFAULT
-                ? ""
-                : String.format("level=%s", queryModifier.getLevel().name().toLowerCase());
-        String extentString = queryModifier.getExtent() == Extent.DEFAULT
-                ? ""
-                : String.format("extent=%s", queryModifier.getExtent().name().toLowerCase());
-        String limitString = pagingInfo.getLimit() == PagingInfo.DEFAULT_LIMIT
-                ? ""
-                : String.format("limit=%d", pagingInfo.getLimit());
-        String cursorString = pagingInfo.getCursor() == null
-                ? ""
-                : String.format("cursor=%s", EncodingHelper.base64UrlEncode(pagingInfo.getCursor()));
-        String serializedParameters = Stream.of(levelString, extentString, limitString, cursorString, searchCriteria.toQueryString())
-                .filter(s -> !s.isEmpty())
-                .collect(Collectors.joining("&"));
-        return serializedParameters.isEmpty() ? "" : "?" + serializedParameters;
+    private static StringBuilder appendParameter(StringBuilder result, int start, String name) {
+        return result.append(result.length() == start ? '?' : '&').append(name);
     }
 }
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.util;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+
+/**
+ * Writes a response body to a shared file channel starting at a given position. Positional writes do not affect each
+ * other, so the ranges of a file can be received concurrently. The number of bytes written is available even if the
+ * transfer fails, so that a later download can continue where this one stopped.
+ */
+class RangeBodySubscriber implements HttpResponse.BodySubscriber<Long> {
+
+    private final FileChannel channel;
+    private final long start;
+    private final CompletableFuture<Long> result = new CompletableFuture<>();
+    private volatile long written;
+    private Flow.Subscription subscription;
+
+    RangeBodySubscriber(FileChannel channel, long start) {
+        this.channel = channel;
+        this.start = start;
+    }
+
+
+    long getStart() {
+        return start;
+    }
+
+
+    long getWritten() {
+        return written;
+    }
+
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(1);
+    }
+
+
+    @Override
+    public void onNext(List<ByteBuffer> item) {
+        try {
+            long position = start + written;
+            for (ByteBuffer buffer : item) {
+                while (buffer.hasRemaining()) {
+                    position += channel.write(buffer, position);
+                }
+            }
+            written = position - start;
+        }
+        catch (IOException e) {
+            subscription.cancel();
+            result.completeExceptionally(e);
+            return;
+        }
+        subscription.request(1);
+    }
+
+
+    @Override
+    public void onError(Throwable throwable) {
+        result.completeExceptionally(throwable);
+    }
+
+
+    @Override
+    public void onComplete() {
+        result.complete(written);
+    }
+
+
+    @Override
+    public CompletionStage<Long> getBody() {
+        return result;
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.util;
+
+import de.fraunhofer.iosb.ilt.faaast.service.util.Ensure;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Objects;
+
+
+/**
+ * Options for downloading files using HTTP range requests, see {@link RangeDownloader}.
+ *
+ * <p>
+ * If {@code resume} is enabled, an interrupted download leaves a partial file next to the target that is completed by
+ * the next download to the same target instead of transferring the whole file again. With a {@code parallelism} of
+ * more than one, files larger than {@code rangeSize} are split into ranges of that size which are downloaded
+ * concurrently. The content is verified against {@code checksum} if given, otherwise against a digest announced by
+ * the server via the Repr-Digest or Digest header if {@code verifyServerDigest} is enabled.
+ */
+public class RangeDownloadOptions {
+
+    private final boolean resume;
+    private final int parallelism;
+    private final long rangeSize;
+    private final String checksumAlgorithm;
+    private final byte[] checksum;
+    private final boolean verifyServerDigest;
+
+    private RangeDownloadOptions(Builder builder) {
+        this.resume = builder.resume;
+        this.parallelism = builder.parallelism;
+        this.rangeSize = builder.rangeSize;
+        this.checksumAlgorithm = builder.checksumAlgorithm;
+        this.checksum = builder.checksum;
+        this.verifyServerDigest = builder.verifyServerDigest;
+    }
+
+
+    /**
+     * Creates a new builder.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+
+    /**
+     * Checks whether interrupted downloads are resumed.
+     *
+     * @return true if interrupted downloads are resumed, false otherwise
+     */
+    public boolean isResume() {
+        return resume;
+    }
+
+
+    /**
+     * Gets the maximum number of ranges downloaded concurrently.
+     *
+     * @return the maximum number of concurrent ranges
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+
+    /**
+     * Gets the size of ranges a file is split into if downloaded concurrently.
+     *
+     * @return the range size in bytes
+     */
+    public long getRangeSize() {
+        return rangeSize;
+    }
+
+
+    /**
+     * Gets the algorithm of the expected checksum.
+     *
+     * @return the algorithm as understood by {@link MessageDigest}, null if no checksum is given
+     */
+    public String getChecksumAlgorithm() {
+        return checksumAlgorithm;
+    }
+
+
+    /**
+     * Gets the expected checksum.
+     *
+     * @return the expected checksum, null if not given
+     */
+    public byte[] getChecksum() {
+        return Objects.isNull(checksum) ? null : checksum.clone();
+    }
+
+
+    /**
+     * Checks whether the content is verified against a digest announced by the server if no checksum is given.
+     *
+     * @return true if the server digest is verified, false otherwise
+     */
+    public boolean isVerifyServerDigest() {
+        return verifyServerDigest;
+    }
+
+    public static class Builder {
+        private boolean resume = true;
+        private int parallelism = 1;
+        private long rangeSize = 8 * 1024 * 1024;
+        private String checksumAlgorithm;
+        private byte[] checksum;
+        private boolean verifyServerDigest = true;
+
+        public Builder resume(boolean value) {
+            this.resume = value;
+            return this;
+        }
+
+
+        public Builder parallelism(int value) {
+            Ensure.require(value > 0, "parallelism must be positive");
+            this.parallelism = value;
+            return this;
+        }
+
+
+        public Builder rangeSize(long value) {
+            Ensure.require(value > 0, "rangeSize must be positive");
+            this.rangeSize = value;
+            return this;
+        }
+
+
+        public Builder checksum(String algorithm, String hexValue) {
+            Ensure.requireNonNull(algorithm, "algorithm must be non-null");
+            Ensure.requireNonNull(hexValue, "hexValue must be non-null");
+            try {
+                MessageDigest.getInstance(algorithm);
+            }
+            catch (NoSuchAlgorithmException e) {
+                throw new IllegalArgumentException(String.format("unsupported checksum algorithm (algorithm: %s)", algorithm), e);
+            }
+            this.checksumAlgorithm = algorithm;
+            this.checksum = HexFormat.of().parseHex(hexValue);
+            return this;
+        }
+
+
+        public Builder verifyServerDigest(boolean value) {
+            this.verifyServerDigest = value;
+            return this;
+        }
+
+
+        public RangeDownloadOptions build() {
+            return new RangeDownloadOptions(this);
+        }
+    }
+}
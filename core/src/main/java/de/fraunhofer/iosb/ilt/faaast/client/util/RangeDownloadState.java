@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.http.HttpHeaders;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.TreeMap;
+
+
+/**
+ * Progress of a range based download, i.e., the length and validators of the remote file and the ranges already
+ * written to the partial file. Persisted next to the partial file so that an interrupted download can be resumed.
+ */
+class RangeDownloadState {
+
+    private static final String KEY_LENGTH = "length";
+    private static final String KEY_ETAG = "etag";
+    private static final String KEY_LAST_MODIFIED = "lastModified";
+    private static final String KEY_DIGEST = "digest";
+    private static final String KEY_FILE_NAME = "fileName";
+    private static final String KEY_CONTENT_TYPE = "contentType";
+    private static final String KEY_COMPLETED = "completed";
+
+    private final TreeMap<Long, Long> completed = new TreeMap<>();
+    private long length = -1;
+    private String etag;
+    private String lastModified;
+    private String digest;
+    private String fileName;
+    private String contentType;
+
+    static RangeDownloadState load(Path file, long partialSize) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (InputStream input = Files.newInputStream(file)) {
+            properties.load(input);
+            RangeDownloadState result = new RangeDownloadState();
+            result.length = Long.parseLong(properties.getProperty(KEY_LENGTH, "-1"));
+            result.etag = properties.getProperty(KEY_ETAG);
+            result.lastModified = properties.getProperty(KEY_LAST_MODIFIED);
+            result.digest = properties.getProperty(KEY_DIGEST);
+            result.fileName = properties.getProperty(KEY_FILE_NAME);
+            result.contentType = properties.getProperty(KEY_CONTENT_TYPE);
+            for (String range : properties.getProperty(KEY_COMPLETED, "").split(",")) {
+                if (!range.isBlank()) {
+                    String[] bounds = range.split("-");
+                    long start = Long.parseLong(bounds[0]);
+                    long end = Math.min(Long.parseLong(bounds[1]), partialSize);
+                    result.add(start, end - start);
+                }
+            }
+            return result.length < 0 ? null : result;
+        }
+        catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+
+    synchronized void save(Path file) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(KEY_LENGTH, Long.toString(length));
+        setIfPresent(properties, KEY_ETAG, etag);
+        setIfPresent(properties, KEY_LAST_MODIFIED, lastModified);
+        setIfPresent(properties, KEY_DIGEST, digest);
+        setIfPresent(properties, KEY_FILE_NAME, fileName);
+        setIfPresent(properties, KEY_CONTENT_TYPE, contentType);
+        List<String> ranges = new ArrayList<>();
+        completed.forEach((start, end) -> ranges.add(start + "-" + end));
+        properties.setProperty(KEY_COMPLETED, String.join(",", ranges));
+        try (OutputStream output = Files.newOutputStream(file)) {
+            properties.store(output, null);
+        }
+    }
+
+
+    private static void setIfPresent(Properties properties, String key, String value) {
+        if (Objects.nonNull(value)) {
+            properties.setProperty(key, value);
+        }
+    }
+
+
+    /**
+     * Takes over the validators and metadata of the remote file from the first response.
+     */
+    synchronized void update(HttpHeaders headers, long length) {
+        this.length = length;
+        this.etag = headers.firstValue("ETag").orElse(null);
+        this.lastModified = headers.firstValue("Last-Modified").orElse(null);
+        this.digest = headers.firstValue("Repr-Digest").or(() -> headers.firstValue("Digest")).orElse(null);
+        this.fileName = HttpRequestHelper.parseFileName(headers);
+        this.contentType = headers.firstValue("Content-Type").orElse(null);
+    }
+
+
+    /**
+     * Gets the validator to send with If-Range. Weak entity tags must not be used for range requests, in that case the
+     * modification date is used.
+     */
+    synchronized String getValidator() {
+        if (Objects.nonNull(etag) && !etag.startsWith("W/")) {
+            return etag;
+        }
+        return lastModified;
+    }
+
+
+    synchronized void add(long start, long count) {
+        if (count <= 0) {
+            return;
+        }
+        long newStart = start;
+        long newEnd = start + count;
+        Map.Entry<Long, Long> previous = completed.floorEntry(newStart);
+        if (Objects.nonNull(previous) && previous.getValue() >= newStart) {
+            newStart = previous.getKey();
+            newEnd = Math.max(newEnd, previous.getValue());
+        }
+        Map.Entry<Long, Long> next = completed.ceilingEntry(newStart);
+        while (Objects.nonNull(next) && next.getKey() <= newEnd) {
+            newEnd = Math.max(newEnd, next.getValue());
+            completed.remove(next.getKey());
+            next = completed.ceilingEntry(newStart);
+        }
+        completed.put(newStart, newEnd);
+    }
+
+
+    /**
+     * Gets the ranges not yet written as pairs of start (inclusive) and end (exclusive).
+     */
+    synchronized List<long[]> getMissing() {
+        List<long[]> result = new ArrayList<>();
+        long position = 0;
+        for (Map.Entry<Long, Long> range : completed.entrySet()) {
+            if (range.getKey() > position) {
+                result.add(new long[] {
+                        position,
+                        Math.min(range.getKey(), length)
+                });
+            }
+            position = Math.max(position, range.getValue());
+        }
+        if (position < length) {
+            result.add(new long[] {
+                    position,
+                    length
+            });
+        }
+        return result;
+    }
+
+
+    synchronized long getCompletedEnd() {
+        return completed.isEmpty() ? 0 : completed.lastEntry().getValue();
+    }
+
+
+    synchronized boolean isComplete() {
+        return length >= 0 && getMissing().isEmpty();
+    }
+
+
+    synchronized long getLength() {
+        return length;
+    }
+
+
+    synchronized void setLength(long length) {
+        this.length = length;
+    }
+
+
+    synchronized String getDigest() {
+        return digest;
+    }
+
+
+    synchronized String getFileName() {
+        return fileName;
+    }
+
+
+    synchronized String getContentType() {
+        return contentType;
+    }
+}
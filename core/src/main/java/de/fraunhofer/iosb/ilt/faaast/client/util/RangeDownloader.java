@@ -0,0 +1,473 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.util;
+
+import de.fraunhofer.iosb.ilt.faaast.client.exception.ChecksumMismatchException;
+import de.fraunhofer.iosb.ilt.faaast.client.exception.ConnectivityException;
+import de.fraunhofer.iosb.ilt.faaast.service.util.Ensure;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+
+/**
+ * Downloads files using HTTP range requests so that interrupted downloads can be resumed and large files can be split
+ * into ranges downloaded concurrently, see {@link RangeDownloadOptions}.
+ *
+ * <p>
+ * The content is written to {@code <target>.part}, the progress to {@code <target>.part.properties}. Once complete,
+ * the content is verified and moved to the target. A download is only resumed if the partial file can be identified,
+ * i.e., the server provided an entity tag or modification date sent as If-Range, or a checksum is known to verify the
+ * result. If the server ignores the Range header, the file is downloaded as a whole. If the file has been modified on
+ * the server while resuming, the download is restarted once.
+ */
+public final class RangeDownloader {
+
+    private static final String HEADER_RANGE = "Range";
+    private static final String HEADER_IF_RANGE = "If-Range";
+    private static final String HEADER_CONTENT_RANGE = "Content-Range";
+    private static final String HEADER_CONTENT_LENGTH = "Content-Length";
+    private static final String HEADER_ACCEPT_ENCODING = "Accept-Encoding";
+    private static final String IDENTITY_ENCODING = "identity";
+    private static final String PARTIAL_SUFFIX = ".part";
+    private static final String STATE_SUFFIX = ".part.properties";
+    private static final int VERIFY_BUFFER_SIZE = 64 * 1024;
+    private static final Pattern CONTENT_RANGE = Pattern.compile("bytes\\s+(\\d+)-(\\d+)/(\\d+|\\*)");
+    private static final Map<String, String> DIGEST_ALGORITHMS = Map.of(
+            "sha-512", "SHA-512",
+            "sha-256", "SHA-256",
+            "md5", "MD5");
+
+    private RangeDownloader() {}
+
+
+    /**
+     * Downloads the file requested by {@code request} to {@code target}. The body of a successful response is a
+     * {@link DownloadedFile}, the body of a response with an error status code is buffered as string.
+     *
+     * @param httpClient the client to use
+     * @param request the GET request of the file
+     * @param target the file to write the content to
+     * @param options the download options
+     * @return a future of the last response
+     */
+    public static CompletableFuture<HttpResponse<Object>> downloadAsync(HttpClient httpClient, HttpRequest request, Path target, RangeDownloadOptions options) {
+        Ensure.requireNonNull(httpClient, "httpClient must be non-null");
+        Ensure.requireNonNull(request, "request must be non-null");
+        Ensure.requireNonNull(target, "target must be non-null");
+        Ensure.requireNonNull(options, "options must be non-null");
+        return new Download(httpClient, request, target.toAbsolutePath(), options, Deadline.current()).start(true);
+    }
+
+
+    private static Path sibling(Path target, String suffix) {
+        return target.resolveSibling(target.getFileName().toString() + suffix);
+    }
+
+
+    private static void deleteQuietly(Path... paths) {
+        for (Path path : paths) {
+            try {
+                Files.deleteIfExists(path);
+            }
+            catch (IOException e) {
+                // best effort, the file is replaced by the next download
+            }
+        }
+    }
+
+    private static class Download {
+        private final HttpClient httpClient;
+        private final HttpRequest request;
+        private final Path target;
+        private final Path partial;
+        private final Path stateFile;
+        private final RangeDownloadOptions options;
+        private final Deadline deadline;
+        private final AtomicReference<HttpResponse<Object>> errorResponse = new AtomicReference<>();
+        private final AtomicReference<HttpResponse<Object>> lastResponse = new AtomicReference<>();
+        private final AtomicBoolean restart = new AtomicBoolean();
+        private final AtomicBoolean rangesSupported = new AtomicBoolean();
+        private RangeDownloadState state;
+        private FileChannel channel;
+
+        Download(HttpClient httpClient, HttpRequest request, Path target, RangeDownloadOptions options, Deadline deadline) {
+            this.httpClient = httpClient;
+            this.request = request;
+            this.target = target;
+            this.partial = sibling(target, PARTIAL_SUFFIX);
+            this.stateFile = sibling(target, STATE_SUFFIX);
+            this.options = options;
+            this.deadline = deadline;
+        }
+
+
+        CompletableFuture<HttpResponse<Object>> start(boolean restartAllowed) {
+            try {
+                prepare();
+            }
+            catch (IOException e) {
+                return CompletableFuture.failedFuture(new ConnectivityException(String.format("preparing download to %s failed", target), e));
+            }
+            CompletableFuture<Void> transfer = state.getLength() >= 0
+                    ? fetchMissing()
+                    : probe(true).thenCompose(x -> fetchMissing());
+            return transfer
+                    .handle((x, error) -> {
+                        closeQuietly();
+                        return error;
+                    })
+                    .thenCompose(error -> finish(error, restartAllowed));
+        }
+
+
+        private void prepare() throws IOException {
+            if (options.isResume() && Files.isRegularFile(partial)) {
+                state = RangeDownloadState.load(stateFile, Files.size(partial));
+                if (Objects.nonNull(state) && Objects.isNull(state.getValidator()) && Objects.isNull(expectedChecksum())) {
+                    state = null;
+                }
+            }
+            if (Objects.isNull(state)) {
+                deleteQuietly(partial, stateFile);
+                state = new RangeDownloadState();
+            }
+            else {
+                rangesSupported.set(true);
+            }
+            channel = FileChannel.open(partial, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        }
+
+
+        /**
+         * Sends the first request of a new download. It asks for the first range only if the file may be split,
+         * otherwise for the whole file starting at the first byte. A server not supporting ranges responds with the
+         * whole file.
+         */
+        private CompletableFuture<Void> probe(boolean withRange) {
+            long end = options.getParallelism() > 1 ? options.getRangeSize() - 1 : -1;
+            return fetch(withRange ? 0 : -1, end, true).thenCompose(status -> {
+                if (status == 416 && withRange) {
+                    return probe(false);
+                }
+                return CompletableFuture.completedFuture(null);
+            });
+        }
+
+
+        private CompletableFuture<Void> fetchMissing() {
+            if (isStopped()) {
+                return CompletableFuture.completedFuture(null);
+            }
+            if (state.getLength() < 0) {
+                return fetch(state.getCompletedEnd(), -1, false).thenApply(x -> null);
+            }
+            Queue<long[]> ranges = new ConcurrentLinkedQueue<>();
+            for (long[] missing : state.getMissing()) {
+                long size = options.getParallelism() > 1 ? options.getRangeSize() : missing[1] - missing[0];
+                for (long start = missing[0]; start < missing[1]; start += size) {
+                    ranges.add(new long[] {
+                            start,
+                            Math.min(start + size, missing[1]) - 1
+                    });
+                }
+            }
+            List<CompletableFuture<Void>> workers = new ArrayList<>();
+            for (int i = 0; i < Math.min(options.getParallelism(), ranges.size()); i++) {
+                workers.add(next(ranges));
+            }
+            return CompletableFuture.allOf(workers.toArray(CompletableFuture[]::new));
+        }
+
+
+        private CompletableFuture<Void> next(Queue<long[]> ranges) {
+            long[] range = ranges.poll();
+            if (Objects.isNull(range) || isStopped()) {
+                return CompletableFuture.completedFuture(null);
+            }
+            return fetch(range[0], range[1], false).thenCompose(x -> next(ranges));
+        }
+
+
+        private boolean isStopped() {
+            return restart.get() || Objects.nonNull(errorResponse.get());
+        }
+
+
+        /**
+         * Requests the given range and writes it to the partial file.
+         *
+         * @return a future of the status code
+         */
+        private CompletableFuture<Integer> fetch(long start, long end, boolean probe) {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(request, (name, value) -> true)
+                    .setHeader(HEADER_ACCEPT_ENCODING, IDENTITY_ENCODING);
+            if (start >= 0) {
+                builder.setHeader(HEADER_RANGE, "bytes=" + start + "-" + (end >= 0 ? Long.toString(end) : ""));
+            }
+            if (!probe && Objects.nonNull(state.getValidator())) {
+                builder.setHeader(HEADER_IF_RANGE, state.getValidator());
+            }
+            // hedged or retried attempts each get a subscriber, the body of a response is the subscriber that received it
+            Queue<RangeBodySubscriber> subscribers = new ConcurrentLinkedQueue<>();
+            HttpResponse.BodyHandler<Object> handler = responseInfo -> {
+                RangeBodySubscriber result = subscriberFor(responseInfo, Math.max(start, 0), probe);
+                if (Objects.nonNull(result)) {
+                    subscribers.add(result);
+                    return HttpResponse.BodySubscribers.mapping(result, x -> result);
+                }
+                if (responseInfo.statusCode() < 300 || responseInfo.statusCode() == 416) {
+                    return HttpResponse.BodySubscribers.replacing(null);
+                }
+                return HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8), Object.class::cast);
+            };
+            return send(builder.build(), handler)
+                    .whenComplete((response, error) -> {
+                        // bytes written by any failed attempt are on disk, so the longest one is kept after failures
+                        RangeBodySubscriber result = Objects.nonNull(response)
+                                ? subscriberOf(response)
+                                : subscribers.stream().max(Comparator.comparingLong(RangeBodySubscriber::getWritten)).orElse(null);
+                        if (Objects.nonNull(result)) {
+                            state.add(result.getStart(), result.getWritten());
+                            if (Objects.isNull(error) && state.getLength() < 0 && (end < 0 || response.statusCode() == 200)) {
+                                state.setLength(result.getStart() + result.getWritten());
+                            }
+                        }
+                    })
+                    .thenApply(response -> {
+                        if (Objects.nonNull(subscriberOf(response))) {
+                            lastResponse.set(response);
+                            saveQuietly();
+                        }
+                        else if (response.statusCode() >= 300 && response.statusCode() != 416) {
+                            errorResponse.compareAndSet(null, response);
+                        }
+                        return response.statusCode();
+                    });
+        }
+
+
+        private RangeBodySubscriber subscriberOf(HttpResponse<Object> response) {
+            return response.body() instanceof RangeBodySubscriber result ? result : null;
+        }
+
+
+        private RangeBodySubscriber subscriberFor(HttpResponse.ResponseInfo responseInfo, long start, boolean probe) {
+            if (responseInfo.statusCode() == 206) {
+                Matcher contentRange = CONTENT_RANGE.matcher(responseInfo.headers().firstValue(HEADER_CONTENT_RANGE).orElse(""));
+                if (!contentRange.matches() || (!probe && Long.parseLong(contentRange.group(1)) != start)) {
+                    restart.set(true);
+                    return null;
+                }
+                if (probe) {
+                    state.update(responseInfo.headers(), "*".equals(contentRange.group(3)) ? -1 : Long.parseLong(contentRange.group(3)));
+                    rangesSupported.set(true);
+                }
+                return new RangeBodySubscriber(channel, Long.parseLong(contentRange.group(1)));
+            }
+            if (responseInfo.statusCode() == 200) {
+                if (!probe) {
+                    // the file has been modified since the partial file has been written
+                    restart.set(true);
+                    return null;
+                }
+                state.update(responseInfo.headers(), responseInfo.headers().firstValueAsLong(HEADER_CONTENT_LENGTH).orElse(-1));
+                rangesSupported.set(false);
+                return new RangeBodySubscriber(channel, 0);
+            }
+            if (responseInfo.statusCode() == 416 && !probe) {
+                restart.set(true);
+            }
+            return null;
+        }
+
+
+        private <T> CompletableFuture<HttpResponse<T>> send(HttpRequest actualRequest, HttpResponse.BodyHandler<T> handler) {
+            if (Objects.isNull(deadline)) {
+                return HttpRequestHelper.sendAsync(httpClient, actualRequest, handler);
+            }
+            return deadline.callAsync(() -> HttpRequestHelper.sendAsync(httpClient, actualRequest, handler));
+        }
+
+
+        private CompletableFuture<HttpResponse<Object>> finish(Throwable error, boolean restartAllowed) {
+            if (Objects.nonNull(error) || Objects.nonNull(errorResponse.get())) {
+                if (rangesSupported.get() && options.isResume()) {
+                    saveQuietly();
+                }
+                else {
+                    deleteQuietly(partial, stateFile);
+                }
+                return Objects.nonNull(error)
+                        ? CompletableFuture.failedFuture(error)
+                        : CompletableFuture.completedFuture(errorResponse.get());
+            }
+            if (restart.get()) {
+                deleteQuietly(partial, stateFile);
+                if (restartAllowed) {
+                    return new Download(httpClient, request, target, options, deadline).start(false);
+                }
+                return CompletableFuture.failedFuture(new ConnectivityException(String.format("file has been modified on the server during download (uri: %s)", request.uri())));
+            }
+            if (!state.isComplete()) {
+                saveQuietly();
+                return CompletableFuture.failedFuture(new ConnectivityException(String.format("download incomplete (uri: %s)", request.uri())));
+            }
+            try {
+                verify();
+                move();
+                deleteQuietly(stateFile);
+            }
+            catch (ChecksumMismatchException e) {
+                deleteQuietly(partial, stateFile);
+                return CompletableFuture.failedFuture(e);
+            }
+            catch (IOException e) {
+                return CompletableFuture.failedFuture(new ConnectivityException(String.format("completing download to %s failed", target), e));
+            }
+            return CompletableFuture.completedFuture(HttpRequestHelper.withBody(
+                    lastResponse.get(),
+                    new DownloadedFile(target, state.getFileName(), state.getContentType(), state.getLength())));
+        }
+
+
+        private void verify() throws IOException, ChecksumMismatchException {
+            Checksum expected = expectedChecksum();
+            if (Objects.isNull(expected)) {
+                return;
+            }
+            MessageDigest digest = expected.newDigest();
+            ByteBuffer buffer = ByteBuffer.allocate(VERIFY_BUFFER_SIZE);
+            try (FileChannel input = FileChannel.open(partial, StandardOpenOption.READ)) {
+                while (input.read(buffer) >= 0) {
+                    buffer.flip();
+                    digest.update(buffer);
+                    buffer.clear();
+                }
+            }
+            byte[] actual = digest.digest();
+            if (!MessageDigest.isEqual(expected.value, actual)) {
+                throw new ChecksumMismatchException(String.format(
+                        "checksum mismatch (uri: %s, algorithm: %s, expected: %s, actual: %s)",
+                        request.uri(),
+                        expected.algorithm,
+                        HexFormat.of().formatHex(expected.value),
+                        HexFormat.of().formatHex(actual)));
+            }
+        }
+
+
+        private Checksum expectedChecksum() {
+            if (Objects.nonNull(options.getChecksumAlgorithm())) {
+                return new Checksum(options.getChecksumAlgorithm(), options.getChecksum());
+            }
+            if (!options.isVerifyServerDigest() || Objects.isNull(state) || Objects.isNull(state.getDigest())) {
+                return null;
+            }
+            for (String entry : state.getDigest().split(",")) {
+                int separator = entry.indexOf('=');
+                if (separator < 0) {
+                    continue;
+                }
+                String algorithm = DIGEST_ALGORITHMS.get(entry.substring(0, separator).trim().toLowerCase(Locale.ROOT));
+                if (Objects.nonNull(algorithm)) {
+                    try {
+                        return new Checksum(algorithm, Base64.getDecoder().decode(entry.substring(separator + 1).trim().replace(":", "")));
+                    }
+                    catch (IllegalArgumentException e) {
+                        // invalid encoding, try next digest
+                    }
+                }
+            }
+            return null;
+        }
+
+
+        private void move() throws IOException {
+            try {
+                Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch (AtomicMoveNotSupportedException e) {
+                Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+
+
+        private void saveQuietly() {
+            try {
+                state.save(stateFile);
+            }
+            catch (IOException e) {
+                // the download can not be resumed, but is not affected otherwise
+            }
+        }
+
+
+        private void closeQuietly() {
+            try {
+                channel.close();
+            }
+            catch (IOException e) {
+                // nothing to do, all writes have completed
+            }
+        }
+    }
+
+    private static class Checksum {
+        private final String algorithm;
+        private final byte[] value;
+
+        Checksum(String algorithm, byte[] value) {
+            this.algorithm = algorithm;
+            this.value = value;
+        }
+
+
+        MessageDigest newDigest() {
+            try {
+                return MessageDigest.getInstance(algorithm);
+            }
+            catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.util;
+
+import de.fraunhofer.iosb.ilt.faaast.client.exception.ConnectivityException;
+import de.fraunhofer.iosb.ilt.faaast.client.exception.DeadlineExceededException;
+import de.fraunhofer.iosb.ilt.faaast.client.exception.StatusCodeException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+
+/**
+ * Coalesces identical concurrent requests: while a request for a key is in flight, further requests for the same key
+ * do not start a request of their own but wait for the result of the one in flight. Once it completes, the next
+ * request for the key is sent again, i.e., results are not cached.
+ *
+ * <p>
+ * All callers waiting for the same request receive the same result instance. Results must therefore be treated as
+ * read-only by callers of coalesced requests.
+ *
+ * <p>
+ * Waiting callers are bounded by their own {@link Deadline}, not by the one of the caller sending the request. If the
+ * request fails because the deadline of its sender passed or was cancelled, or because it was cancelled, waiting
+ * callers do not receive that failure but send the request again.
+ */
+public class SingleFlight {
+
+    private final Map<Object, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Executes a blocking call unless a call with the same key is already in flight, in which case its result is
+     * awaited instead.
+     *
+     * @param <T> the result type
+     * @param key the key identifying the request
+     * @param call the call to execute
+     * @return the result of the call
+     * @throws ConnectivityException if the call fails with a connectivity error
+     * @throws StatusCodeException if the call fails with an unexpected status code
+     */
+    public <T> T execute(Object key, Call<T> call) throws ConnectivityException, StatusCodeException {
+        Deadline deadline = Deadline.current();
+        while (true) {
+            CompletableFuture<T> own = new CompletableFuture<>();
+            CompletableFuture<T> existing = putIfAbsent(key, own);
+            if (existing == null) {
+                return lead(key, own, call);
+            }
+            try {
+                return HttpRequestHelper.await(Objects.isNull(deadline) ? existing : deadline.callAsync(existing::copy));
+            }
+            catch (DeadlineExceededException | CancellationException e) {
+                if (Objects.nonNull(deadline)) {
+                    deadline.check();
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Executes an asynchronous call unless a call with the same key is already in flight, in which case its result is
+     * used instead. Cancelling the returned future does not affect other callers.
+     *
+     * @param <T> the result type
+     * @param key the key identifying the request
+     * @param call starts the call
+     * @return a future of the result of the call
+     */
+    public <T> CompletableFuture<T> executeAsync(Object key, Supplier<CompletableFuture<T>> call) {
+        CompletableFuture<T> own = new CompletableFuture<>();
+        CompletableFuture<T> existing = putIfAbsent(key, own);
+        if (existing != null) {
+            Deadline deadline = Deadline.current();
+            CompletableFuture<T> waiting = Objects.isNull(deadline) ? existing.copy() : deadline.callAsync(existing::copy);
+            return waiting.exceptionallyCompose(e -> {
+                if (!isCallerSpecific(e) || (Objects.nonNull(deadline) && deadline.isExpired())) {
+                    return CompletableFuture.failedFuture(e);
+                }
+                return Objects.isNull(deadline) ? executeAsync(key, call) : deadline.callAsync(() -> executeAsync(key, call));
+            });
+        }
+        try {
+            call.get().whenComplete((result, error) -> {
+                inFlight.remove(key, own);
+                if (error != null) {
+                    own.completeExceptionally(error);
+                }
+                else {
+                    own.complete(result);
+                }
+            });
+        }
+        catch (RuntimeException e) {
+            inFlight.remove(key, own);
+            own.completeExceptionally(e);
+        }
+        return own.copy();
+    }
+
+
+    /**
+     * Gets the number of requests currently in flight.
+     *
+     * @return the number of requests currently in flight
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+
+    private <T> T lead(Object key, CompletableFuture<T> own, Call<T> call) throws ConnectivityException, StatusCodeException {
+        T result;
+        try {
+            result = call.execute();
+        }
+        catch (ConnectivityException | StatusCodeException | RuntimeException | Error e) {
+            inFlight.remove(key, own);
+            own.completeExceptionally(e);
+            throw e;
+        }
+        inFlight.remove(key, own);
+        own.complete(result);
+        return result;
+    }
+
+
+    private static boolean isCallerSpecific(Throwable error) {
+        Throwable cause = HttpRequestHelper.unwrap(error);
+        return cause instanceof DeadlineExceededException || cause instanceof CancellationException;
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> putIfAbsent(Object key, CompletableFuture<T> future) {
+        return (CompletableFuture<T>) inFlight.putIfAbsent(key, future);
+    }
+
+    /**
+     * A blocking call that may be coalesced.
+     *
+     * @param <T> the result type
+     */
+    @FunctionalInterface
+    public interface Call<T> {
+
+        /**
+         * Executes the call.
+         *
+         * @return the result
+         * @throws ConnectivityException if the connection to the server fails
+         * @throws StatusCodeException if the server responds with an unexpected status code
+         */
+        T execute() throws ConnectivityException, StatusCodeException;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.OptionalLong;
+
+
+/**
+ * A file, e.g., an attachment or a thumbnail, whose content is read from the network while it is being consumed. The
+ * caller is responsible for closing it, which releases the underlying connection.
+ */
+public class StreamedFile implements Closeable {
+
+    private final InputStream content;
+    private final String fileName;
+    private final String contentType;
+    private final OptionalLong contentLength;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param content the content
+     * @param fileName the file name as announced by the server
+     * @param contentType the content type as announced by the server, may be null
+     * @param contentLength the content length as announced by the server
+     */
+    public StreamedFile(InputStream content, String fileName, String contentType, OptionalLong contentLength) {
+        this.content = content;
+        this.fileName = fileName;
+        this.contentType = contentType;
+        this.contentLength = contentLength;
+    }
+
+
+    /**
+     * Gets the content. It can be read only once.
+     *
+     * @return the content
+     */
+    public InputStream getContent() {
+        return content;
+    }
+
+
+    /**
+     * Gets the file name as announced by the server via the Content-Disposition header.
+     *
+     * @return the file name
+     */
+    public String getFileName() {
+        return fileName;
+    }
+
+
+    /**
+     * Gets the content type as announced by the server.
+     *
+     * @return the content type, null if not present
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+
+    /**
+     * Gets the content length as announced by the server.
+     *
+     * @return the content length, empty if unknown or if the content has been transferred encoded, e.g., compressed
+     */
+    public OptionalLong getContentLength() {
+        return contentLength;
+    }
+
+
+    @Override
+    public void close() throws IOException {
+        content.close();
+    }
+}
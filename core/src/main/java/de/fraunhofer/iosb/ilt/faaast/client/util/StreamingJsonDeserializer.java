@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import de.fraunhofer.iosb.ilt.faaast.service.dataformat.DeserializationException;
+import de.fraunhofer.iosb.ilt.faaast.service.dataformat.json.JsonApiDeserializer;
+import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.Page;
+import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.PagingMetadata;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+
+/**
+ * JSON deserializer reading directly from an {@link InputStream} instead of buffering the whole payload as a String
+ * first. Pages are parsed in a single pass: {@code result} and {@code paging_metadata} are deserialized as they appear
+ * in the token stream.
+ */
+public class StreamingJsonDeserializer extends JsonApiDeserializer {
+
+    private static final String ERROR_MSG_DESERIALIZATION_FAILED = "deserialization failed";
+    private static final String RESULT = "result";
+    private static final String PAGING_METADATA = "paging_metadata";
+
+    private JsonMapper mapper;
+
+    @Override
+    protected void modifyMapper(JsonMapper mapper) {
+        super.modifyMapper(mapper);
+        this.mapper = mapper;
+    }
+
+
+    @Override
+    public <T> T read(InputStream src, Class<T> type) throws DeserializationException {
+        try (src) {
+            return mapper.readValue(src, type);
+        }
+        catch (IOException e) {
+            throw new DeserializationException(ERROR_MSG_DESERIALIZATION_FAILED, e);
+        }
+    }
+
+
+    @Override
+    public <T> List<T> readList(InputStream src, Class<T> type) throws DeserializationException {
+        try (src) {
+            return mapper.readValue(src, listType(type));
+        }
+        catch (IOException e) {
+            throw new DeserializationException(ERROR_MSG_DESERIALIZATION_FAILED, e);
+        }
+    }
+
+
+    /**
+     * Reads a page of elements from a stream. The stream is closed afterwards.
+     *
+     * @param <T> the element type
+     * @param src the stream to read from
+     * @param type the element type
+     * @return the page
+     * @throws DeserializationException if the stream does not contain a valid page
+     */
+    public <T> Page<T> readPage(InputStream src, Class<T> type) throws DeserializationException {
+        try (src; JsonParser parser = mapper.getFactory().createParser(src)) {
+            return readPage(parser, type);
+        }
+        catch (IOException e) {
+            throw new DeserializationException(ERROR_MSG_DESERIALIZATION_FAILED, e);
+        }
+    }
+
+
+    /**
+     * Reads a page of elements from a String.
+     *
+     * @param <T> the element type
+     * @param src the String to read from
+     * @param type the element type
+     * @return the page
+     * @throws DeserializationException if the String does not contain a valid page
+     */
+    public <T> Page<T> readPage(String src, Class<T> type) throws DeserializationException {
+        try (JsonParser parser = mapper.getFactory().createParser(src)) {
+            return readPage(parser, type);
+        }
+        catch (IOException e) {
+            throw new DeserializationException(ERROR_MSG_DESERIALIZATION_FAILED, e);
+        }
+    }
+
+
+    private <T> Page<T> readPage(JsonParser parser, Class<T> type) throws IOException, DeserializationException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new DeserializationException("page must be a JSON object");
+        }
+        List<T> result = null;
+        PagingMetadata metadata = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            if (RESULT.equals(field)) {
+                result = mapper.readValue(parser, listType(type));
+            }
+            else if (PAGING_METADATA.equals(field)) {
+                metadata = mapper.readValue(parser, PagingMetadata.class);
+            }
+            else {
+                parser.skipChildren();
+            }
+        }
+        if (result == null || metadata == null) {
+            throw new DeserializationException(String.format("page must contain '%s' and '%s'", RESULT, PAGING_METADATA));
+        }
+        return new Page.Builder<T>()
+                .result(result)
+                .metadata(metadata)
+                .build();
+    }
+
+
+    private JavaType listType(Class<?> type) {
+        return mapper.getTypeFactory().constructCollectionType(List.class, type);
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import de.fraunhofer.iosb.ilt.faaast.service.dataformat.SerializationException;
+import de.fraunhofer.iosb.ilt.faaast.service.dataformat.json.JsonApiSerializer;
+import de.fraunhofer.iosb.ilt.faaast.service.model.api.modifier.Content;
+import de.fraunhofer.iosb.ilt.faaast.service.model.api.modifier.OutputModifier;
+import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.Page;
+import de.fraunhofer.iosb.ilt.faaast.service.model.exception.UnsupportedModifierException;
+import de.fraunhofer.iosb.ilt.faaast.service.model.value.ElementValue;
+import de.fraunhofer.iosb.ilt.faaast.service.util.CollectionHelper;
+import de.fraunhofer.iosb.ilt.faaast.service.util.Ensure;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+
+/**
+ * JSON serializer writing directly to an {@link OutputStream} instead of building the whole payload as a String first.
+ * Level and extent of the {@link OutputModifier} are respected the same way as by {@link #write(Object, OutputModifier)}.
+ * Value-only, path and metadata serialization are not available as streams and are written as a String.
+ */
+public class StreamingJsonSerializer extends JsonApiSerializer {
+
+    private static final String ERROR_MSG_SERIALIZATION_FAILED = "serialization failed";
+    private static final String ATTRIBUTE_LEVEL = "level";
+    private static final Set<Content> NON_STREAMABLE_CONTENT = Set.of(Content.VALUE, Content.PATH, Content.METADATA);
+
+    private JsonMapper mapper;
+
+    @Override
+    protected void modifyMapper(JsonMapper mapper) {
+        super.modifyMapper(mapper);
+        this.mapper = mapper;
+    }
+
+
+    /**
+     * Writes an object as JSON to a stream. The stream is not closed.
+     *
+     * @param out the stream to write to
+     * @param obj the object to write
+     * @param modifier the output modifier
+     * @throws SerializationException if serialization fails
+     * @throws UnsupportedModifierException if the modifier is not supported for the object
+     */
+    public void write(OutputStream out, Object obj, OutputModifier modifier) throws SerializationException, UnsupportedModifierException {
+        Ensure.requireNonNull(out, "out must be non-null");
+        Ensure.requireNonNull(modifier, "modifier must be non-null");
+        try {
+            if (NON_STREAMABLE_CONTENT.contains(modifier.getContent()) || obj instanceof ElementValue) {
+                out.write(write(obj, modifier).getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            writerFor(obj)
+                    .withAttribute(ATTRIBUTE_LEVEL, modifier)
+                    .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .writeValue(out, obj);
+        }
+        catch (IOException e) {
+            throw new SerializationException(ERROR_MSG_SERIALIZATION_FAILED, e);
+        }
+    }
+
+
+    private ObjectWriter writerFor(Object obj) {
+        if (obj instanceof List && !((List<?>) obj).isEmpty()) {
+            return mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, ((List<?>) obj).get(0).getClass()));
+        }
+        if (obj instanceof Page) {
+            Class<?> elementType = CollectionHelper.findMostSpecificCommonType(((Page<?>) obj).getContent());
+            return mapper.writerFor(mapper.getTypeFactory().constructParametricType(Page.class, elementType));
+        }
+        return mapper.writer();
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.http;
+
+import de.fraunhofer.iosb.ilt.faaast.client.util.HttpClientHelper;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+
+public class HttpClientBulkheadedTest {
+    private MockWebServer server;
+    private URI uri;
+
+    @Before
+    public void setup() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        uri = server.url("/").uri();
+    }
+
+
+    @After
+    public void teardown() throws IOException {
+        server.shutdown();
+    }
+
+
+    @Test
+    public void rejectsCallsIfCompartmentIsFull() throws InterruptedException, ExecutionException {
+        Bulkhead bulkhead = Bulkhead.builder()
+                .maxConcurrentCalls(1)
+                .build();
+        HttpClient testSubject = new HttpClientBulkheaded(HttpClientHelper.newDefaultClient(), bulkhead);
+        server.enqueue(new MockResponse().setHeadersDelay(200, TimeUnit.MILLISECONDS));
+
+        CompletableFuture<HttpResponse<Void>> first = testSubject.sendAsync(get(), HttpResponse.BodyHandlers.discarding());
+
+        assertEquals(Set.of(origin()), bulkhead.getSaturatedOrigins());
+        assertThrows(BulkheadFullException.class, () -> testSubject.send(get(), HttpResponse.BodyHandlers.discarding()));
+        first.get();
+        assertEquals(Set.of(), bulkhead.getSaturatedOrigins());
+        assertEquals(1, bulkhead.getRejectedCalls(uri));
+        assertEquals(Map.of(origin(), 1L), bulkhead.getRejectedCalls());
+    }
+
+
+    @Test
+    public void queuedCallsWaitForFreeSlot() throws IOException, InterruptedException, ExecutionException {
+        Bulkhead bulkhead = Bulkhead.builder()
+                .maxConcurrentCalls(1)
+                .maxWaitQueueSize(1)
+                .maxWaitDuration(Duration.ofSeconds(5))
+                .build();
+        HttpClient testSubject = new HttpClientBulkheaded(HttpClientHelper.newDefaultClient(), bulkhead);
+        server.enqueue(new MockResponse().setHeadersDelay(100, TimeUnit.MILLISECONDS));
+        server.enqueue(new MockResponse());
+
+        CompletableFuture<HttpResponse<Void>> first = testSubject.sendAsync(get(), HttpResponse.BodyHandlers.discarding());
+        CompletableFuture<HttpResponse<Void>> second = testSubject.sendAsync(get(), HttpResponse.BodyHandlers.discarding());
+        assertEquals(1, bulkhead.getQueuedCalls(uri));
+        first.get();
+        second.get();
+
+        assertEquals(0, bulkhead.getActiveCalls(uri));
+        assertEquals(0, bulkhead.getRejectedCalls(uri));
+    }
+
+
+    @Test
+    public void queuedCallsAreRejectedAfterMaxWaitDuration() {
+        Bulkhead bulkhead = Bulkhead.builder()
+                .maxConcurrentCalls(1)
+                .maxWaitQueueSize(1)
+                .maxWaitDuration(Duration.ofMillis(50))
+                .build();
+        HttpClient testSubject = new HttpClientBulkheaded(HttpClientHelper.newDefaultClient(), bulkhead);
+        server.enqueue(new MockResponse().setHeadersDelay(300, TimeUnit.MILLISECONDS));
+
+        CompletableFuture<HttpResponse<Void>> first = testSubject.sendAsync(get(), HttpResponse.BodyHandlers.discarding());
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> testSubject.sendAsync(get(), HttpResponse.BodyHandlers.discarding()).get());
+
+        assertTrue(exception.getCause() instanceof BulkheadFullException);
+        assertEquals(0, bulkhead.getQueuedCalls(uri));
+        first.join();
+        assertEquals(1, server.getRequestCount());
+    }
+
+
+    @Test
+    public void cancellingQueuedCallReleasesItsSlot() throws InterruptedException, ExecutionException {
+        Bulkhead bulkhead = Bulkhead.builder()
+                .maxConcurrentCalls(1)
+                .maxWaitQueueSize(1)
+                .maxWaitDuration(Duration.ofSeconds(5))
+                .build();
+        HttpClient testSubject = new HttpClientBulkheaded(HttpClientHelper.newDefaultClient(), bulkhead);
+        server.enqueue(new MockResponse().setHeadersDelay(200, TimeUnit.MILLISECONDS));
+
+        CompletableFuture<HttpResponse<Void>> first = testSubject.sendAsync(get(), HttpResponse.BodyHandlers.discarding());
+        CompletableFuture<HttpResponse<Void>> second = testSubject.sendAsync(get(), HttpResponse.BodyHandlers.discarding());
+        second.cancel(true);
+
+        assertEquals(0, bulkhead.getQueuedCalls(uri));
+        first.get();
+        Thread.sleep(100);
+        assertEquals(1, server.getRequestCount());
+        assertEquals(0, bulkhead.getActiveCalls(uri));
+        assertEquals(0, bulkhead.getRejectedCalls(uri));
+    }
+
+
+    private String origin() {
+        return "http://" + server.getHostName() + ":" + server.getPort();
+    }
+
+
+    private HttpRequest get() {
+        return HttpRequest.newBuilder(uri).GET().build();
+    }
+}
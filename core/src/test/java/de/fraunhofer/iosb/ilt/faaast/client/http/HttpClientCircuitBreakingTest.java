@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.http;
+
+import de.fraunhofer.iosb.ilt.faaast.client.util.HttpClientHelper;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+
+public class HttpClientCircuitBreakingTest {
+    private MockWebServer server;
+    private CircuitBreaker circuitBreaker;
+    private HttpClient testSubject;
+    private List<String> transitions;
+
+    @Before
+    public void setup() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        circuitBreaker = CircuitBreaker.builder()
+                .slidingWindowSize(2)
+                .minimumNumberOfCalls(2)
+                .failureRateThreshold(0.5)
+                .slowCallDuration(Duration.ofMillis(200))
+                .waitDurationInOpenState(Duration.ofMillis(100))
+                .permittedCallsInHalfOpenState(1)
+                .build();
+        transitions = new CopyOnWriteArrayList<>();
+        circuitBreaker.addListener((origin, from, to) -> transitions.add(from + "->" + to));
+        testSubject = new HttpClientCircuitBreaking(HttpClientHelper.newDefaultClient(), circuitBreaker);
+    }
+
+
+    @After
+    public void teardown() throws IOException {
+        server.shutdown();
+    }
+
+
+    @Test
+    public void opensAfterFailuresAndClosesAfterSuccessfulTrialCall() throws IOException, InterruptedException {
+        server.enqueue(new MockResponse().setResponseCode(500));
+        server.enqueue(new MockResponse().setResponseCode(500));
+        testSubject.send(get(), HttpResponse.BodyHandlers.ofString());
+        testSubject.send(get(), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState(server.url("/").uri()));
+        CircuitBreakerOpenException exception = assertThrows(CircuitBreakerOpenException.class,
+                () -> testSubject.send(get(), HttpResponse.BodyHandlers.ofString()));
+        assertEquals(origin(), exception.getOrigin());
+        assertEquals(2, server.getRequestCount());
+        assertEquals(1, circuitBreaker.getRejectedCalls());
+
+        Thread.sleep(150);
+        server.enqueue(new MockResponse().setBody("body"));
+        HttpResponse<String> response = testSubject.send(get(), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals("body", response.body());
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState(server.url("/").uri()));
+        assertEquals(List.of("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED"), transitions);
+    }
+
+
+    @Test
+    public void opensOnSlowCallsAndRejectsAsync() throws InterruptedException {
+        server.enqueue(new MockResponse().setHeadersDelay(300, TimeUnit.MILLISECONDS));
+        server.enqueue(new MockResponse().setHeadersDelay(300, TimeUnit.MILLISECONDS));
+        testSubject.sendAsync(get(), HttpResponse.BodyHandlers.ofString()).join();
+        testSubject.sendAsync(get(), HttpResponse.BodyHandlers.ofString()).join();
+
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> testSubject.sendAsync(get(), HttpResponse.BodyHandlers.ofString()).get());
+        assertTrue(exception.getCause() instanceof CircuitBreakerOpenException);
+        assertEquals(List.of("CLOSED->OPEN"), transitions);
+    }
+
+
+    @Test
+    public void doesNotRecordRequestsRejectedByClientSidePolicies() {
+        RateLimiter rateLimiter = RateLimiter.builder()
+                .readsPerSecond(0.001)
+                .mode(RateLimiter.Mode.FAIL_FAST)
+                .build();
+        HttpClient rateLimited = new HttpClientCircuitBreaking(new HttpClientRateLimited(HttpClientHelper.newDefaultClient(), rateLimiter), circuitBreaker);
+        server.enqueue(new MockResponse());
+        rateLimited.sendAsync(get(), HttpResponse.BodyHandlers.ofString()).join();
+
+        assertThrows(RateLimitExceededException.class, () -> rateLimited.send(get(), HttpResponse.BodyHandlers.ofString()));
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> rateLimited.sendAsync(get(), HttpResponse.BodyHandlers.ofString()).get());
+
+        assertTrue(exception.getCause() instanceof RateLimitExceededException);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState(server.url("/").uri()));
+        assertEquals(List.of(), transitions);
+    }
+
+
+    @Test
+    public void circuitsOfOriginsAreIndependent() throws IOException, InterruptedException {
+        server.enqueue(new MockResponse().setResponseCode(500));
+        server.enqueue(new MockResponse().setResponseCode(500));
+        testSubject.send(get(), HttpResponse.BodyHandlers.ofString());
+        testSubject.send(get(), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState(server.url("/").uri()));
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState(URI.create("http://other.example.org/")));
+    }
+
+
+    private String origin() {
+        return "http://" + server.getHostName() + ":" + server.getPort();
+    }
+
+
+    private HttpRequest get() {
+        return HttpRequest.newBuilder(server.url("/").uri()).GET().build();
+    }
+}
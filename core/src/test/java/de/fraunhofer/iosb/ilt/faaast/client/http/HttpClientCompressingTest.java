@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.http;
+
+import de.fraunhofer.iosb.ilt.faaast.client.util.HttpClientHelper;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+
+public class HttpClientCompressingTest {
+    private static final String BODY = "{\"idShort\":\"property\",\"value\":\"42\"},".repeat(10000);
+
+    private MockWebServer server;
+    private URI uri;
+
+    @Before
+    public void setup() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        uri = server.url("/").uri();
+    }
+
+
+    @After
+    public void teardown() throws IOException {
+        server.shutdown();
+    }
+
+
+    @Test
+    public void decompressesGzipResponses() throws IOException, InterruptedException {
+        CompressionPolicy policy = CompressionPolicy.builder().build();
+        HttpClient testSubject = new HttpClientCompressing(HttpClientHelper.newDefaultClient(), policy);
+        byte[] compressed = gzip(BODY);
+        server.enqueue(new MockResponse()
+                .setHeader("Content-Encoding", "gzip")
+                .setBody(new Buffer().write(compressed))
+                .throttleBody(4096, 0, TimeUnit.MILLISECONDS));
+
+        HttpResponse<String> response = testSubject.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(BODY, response.body());
+        assertEquals("gzip, deflate", server.takeRequest().getHeader("Accept-Encoding"));
+        assertEquals(1, policy.getDecompressedResponses());
+        assertEquals(compressed.length, policy.getCompressedBytesReceived());
+        assertEquals(BODY.length(), policy.getDecompressedBytes());
+    }
+
+
+    @Test
+    public void decompressesDeflateResponsesAsync() throws IOException, InterruptedException, ExecutionException {
+        CompressionPolicy policy = CompressionPolicy.builder().build();
+        HttpClient testSubject = new HttpClientCompressing(HttpClientHelper.newDefaultClient(), policy);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (DeflaterOutputStream deflate = new DeflaterOutputStream(compressed)) {
+            deflate.write(BODY.getBytes(StandardCharsets.UTF_8));
+        }
+        server.enqueue(new MockResponse()
+                .setHeader("Content-Encoding", "deflate")
+                .setBody(new Buffer().write(compressed.toByteArray())));
+
+        HttpResponse<String> response = testSubject.sendAsync(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofString()).get();
+
+        assertEquals(BODY, response.body());
+    }
+
+
+    @Test
+    public void keepsResponsesIfCallerSetsAcceptEncoding() throws IOException, InterruptedException {
+        CompressionPolicy policy = CompressionPolicy.builder().build();
+        HttpClient testSubject = new HttpClientCompressing(HttpClientHelper.newDefaultClient(), policy);
+        byte[] compressed = gzip(BODY);
+        server.enqueue(new MockResponse()
+                .setHeader("Content-Encoding", "gzip")
+                .setBody(new Buffer().write(compressed)));
+
+        HttpResponse<byte[]> response = testSubject.send(HttpRequest.newBuilder(uri).header("Accept-Encoding", "gzip").GET().build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+
+        assertEquals(compressed.length, response.body().length);
+        assertEquals(0, policy.getDecompressedResponses());
+    }
+
+
+    @Test
+    public void compressesLargeRequestBodies() throws IOException, InterruptedException {
+        CompressionPolicy policy = CompressionPolicy.builder()
+                .decompressResponses(false)
+                .compressRequests(true)
+                .build();
+        HttpClient testSubject = new HttpClientCompressing(HttpClientHelper.newDefaultClient(), policy);
+        server.enqueue(new MockResponse());
+        server.enqueue(new MockResponse());
+
+        testSubject.send(put(BODY), HttpResponse.BodyHandlers.discarding());
+        testSubject.send(put("{}"), HttpResponse.BodyHandlers.discarding());
+
+        RecordedRequest compressed = server.takeRequest();
+        assertEquals("gzip", compressed.getHeader("Content-Encoding"));
+        assertTrue(compressed.getBodySize() < BODY.length() / 10);
+        assertEquals(BODY, gunzip(compressed.getBody().inputStream()));
+        RecordedRequest small = server.takeRequest();
+        assertNull(small.getHeader("Content-Encoding"));
+        assertNull(small.getHeader("Accept-Encoding"));
+        assertEquals(1, policy.getCompressedRequests());
+    }
+
+
+    @Test
+    public void compressesChunkedRequestBodiesAsync() throws IOException, InterruptedException, ExecutionException {
+        CompressionPolicy policy = CompressionPolicy.builder()
+                .decompressResponses(false)
+                .compressRequests(true)
+                .build();
+        HttpClient testSubject = new HttpClientCompressing(HttpClientHelper.newDefaultClient(), policy);
+        server.enqueue(new MockResponse());
+        List<byte[]> chunks = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            chunks.add(BODY.getBytes(StandardCharsets.UTF_8));
+        }
+        HttpRequest.BodyPublisher body = HttpRequest.BodyPublishers.fromPublisher(HttpRequest.BodyPublishers.ofByteArrays(chunks), BODY.length() * 10L);
+
+        testSubject.sendAsync(HttpRequest.newBuilder(uri).PUT(body).build(), HttpResponse.BodyHandlers.discarding()).get();
+
+        RecordedRequest compressed = server.takeRequest();
+        assertEquals("gzip", compressed.getHeader("Content-Encoding"));
+        assertEquals(BODY.repeat(10), gunzip(compressed.getBody().inputStream()));
+        assertEquals(1, policy.getCompressedRequests());
+    }
+
+
+    @Test
+    public void doesNotCompressRequestBodiesOfUnknownLength() throws IOException, InterruptedException {
+        CompressionPolicy policy = CompressionPolicy.builder()
+                .compressRequests(true)
+                .build();
+        HttpClient testSubject = new HttpClientCompressing(HttpClientHelper.newDefaultClient(), policy);
+        server.enqueue(new MockResponse());
+
+        testSubject.send(HttpRequest.newBuilder(uri)
+                .PUT(HttpRequest.BodyPublishers.ofInputStream(() -> new ByteArrayInputStream(BODY.getBytes(StandardCharsets.UTF_8))))
+                .build(),
+                HttpResponse.BodyHandlers.discarding());
+
+        RecordedRequest request = server.takeRequest();
+        assertNull(request.getHeader("Content-Encoding"));
+        assertEquals(BODY, request.getBody().readUtf8());
+        assertEquals(0, policy.getCompressedRequests());
+    }
+
+
+    @Test
+    public void fallsBackToUncompressedIfRejected() throws IOException, InterruptedException {
+        CompressionPolicy policy = CompressionPolicy.builder()
+                .compressRequests(true)
+                .build();
+        HttpClient testSubject = new HttpClientCompressing(HttpClientHelper.newDefaultClient(), policy);
+        server.enqueue(new MockResponse().setResponseCode(415));
+        server.enqueue(new MockResponse().setResponseCode(204));
+        server.enqueue(new MockResponse().setResponseCode(204));
+
+        HttpResponse<Void> response = testSubject.send(put(BODY), HttpResponse.BodyHandlers.discarding());
+        testSubject.send(put(BODY), HttpResponse.BodyHandlers.discarding());
+
+        assertEquals(204, response.statusCode());
+        assertEquals("gzip", server.takeRequest().getHeader("Content-Encoding"));
+        RecordedRequest retried = server.takeRequest();
+        assertNull(retried.getHeader("Content-Encoding"));
+        assertEquals(BODY, retried.getBody().readUtf8());
+        assertNull(server.takeRequest().getHeader("Content-Encoding"));
+        assertFalse(policy.isCompressingRequests(uri));
+        assertEquals(Set.of(Origins.of(uri)), policy.getUncompressedOrigins());
+        assertEquals(1, policy.getRejectedCompressedRequests());
+    }
+
+
+    private HttpRequest put(String body) {
+        return HttpRequest.newBuilder(uri).PUT(HttpRequest.BodyPublishers.ofString(body)).build();
+    }
+
+
+    private static byte[] gzip(String value) throws IOException {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(result)) {
+            gzip.write(value.getBytes(StandardCharsets.UTF_8));
+        }
+        return result.toByteArray();
+    }
+
+
+    private static String gunzip(InputStream input) throws IOException {
+        try (GZIPInputStream gzip = new GZIPInputStream(input)) {
+            return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
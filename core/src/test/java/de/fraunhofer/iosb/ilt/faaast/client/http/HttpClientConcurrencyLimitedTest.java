@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.http;
+
+import de.fraunhofer.iosb.ilt.faaast.client.util.HttpClientHelper;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+
+public class HttpClientConcurrencyLimitedTest {
+    private MockWebServer server;
+    private URI uri;
+
+    @Before
+    public void setup() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        uri = server.url("/").uri();
+    }
+
+
+    @After
+    public void teardown() throws IOException {
+        server.shutdown();
+    }
+
+
+    @Test
+    public void queuesAndRejectsRequestsExceedingLimit() throws InterruptedException, ExecutionException {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.builder()
+                .initialLimit(1)
+                .maxQueueSize(1)
+                .build();
+        HttpClient testSubject = new HttpClientConcurrencyLimited(HttpClientHelper.newDefaultClient(), limiter);
+        server.enqueue(new MockResponse().setHeadersDelay(200, TimeUnit.MILLISECONDS));
+        server.enqueue(new MockResponse());
+
+        CompletableFuture<HttpResponse<Void>> first = testSubject.sendAsync(get(), HttpResponse.BodyHandlers.discarding());
+        CompletableFuture<HttpResponse<Void>> second = testSubject.sendAsync(get(), HttpResponse.BodyHandlers.discarding());
+        assertEquals(1, limiter.getInFlight(uri));
+        assertEquals(1, limiter.getQueueDepth(uri));
+        assertThrows(ConcurrencyLimitExceededException.class, () -> testSubject.send(get(), HttpResponse.BodyHandlers.discarding()));
+
+        first.get();
+        second.get();
+        assertEquals(0, limiter.getInFlight(uri));
+        assertEquals(0, limiter.getQueueDepth(uri));
+        assertEquals(1, limiter.getRejectedRequests());
+    }
+
+
+    @Test
+    public void adaptsLimitToOverload() throws IOException, InterruptedException {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.builder()
+                .initialLimit(10)
+                .backoffRatio(0.5)
+                .build();
+        HttpClient testSubject = new HttpClientConcurrencyLimited(HttpClientHelper.newDefaultClient(), limiter);
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setResponseCode(429));
+
+        testSubject.send(get(), HttpResponse.BodyHandlers.discarding());
+        testSubject.send(get(), HttpResponse.BodyHandlers.discarding());
+
+        assertEquals(2, limiter.getLimit(uri));
+    }
+
+
+    @Test
+    public void increasesLimitWhenUtilized() throws IOException, InterruptedException {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.builder()
+                .initialLimit(1)
+                .build();
+        HttpClient testSubject = new HttpClientConcurrencyLimited(HttpClientHelper.newDefaultClient(), limiter);
+        server.enqueue(new MockResponse());
+        server.enqueue(new MockResponse());
+
+        testSubject.send(get(), HttpResponse.BodyHandlers.discarding());
+        testSubject.send(get(), HttpResponse.BodyHandlers.discarding());
+
+        assertTrue(limiter.getLimit(uri) > 1);
+    }
+
+
+    @Test
+    public void rejectsRequestsWaitingLongerThanMaxWaitDuration() throws InterruptedException, ExecutionException {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.builder()
+                .initialLimit(1)
+                .maxWaitDuration(Duration.ofMillis(100))
+                .build();
+        HttpClient testSubject = new HttpClientConcurrencyLimited(HttpClientHelper.newDefaultClient(), limiter);
+        server.enqueue(new MockResponse().setHeadersDelay(500, TimeUnit.MILLISECONDS));
+
+        CompletableFuture<HttpResponse<Void>> first = testSubject.sendAsync(get(), HttpResponse.BodyHandlers.discarding());
+        CompletableFuture<HttpResponse<Void>> second = testSubject.sendAsync(get(), HttpResponse.BodyHandlers.discarding());
+        assertThrows(ConcurrencyLimitExceededException.class, () -> testSubject.send(get(), HttpResponse.BodyHandlers.discarding()));
+        ExecutionException exception = assertThrows(ExecutionException.class, second::get);
+
+        assertTrue(exception.getCause() instanceof ConcurrencyLimitExceededException);
+        assertEquals(0, limiter.getQueueDepth(uri));
+        assertEquals(2, limiter.getRejectedRequests());
+        first.get();
+        assertEquals(1, server.getRequestCount());
+    }
+
+
+    @Test
+    public void cancellingWaitingRequestRemovesItFromQueue() throws InterruptedException, ExecutionException {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.builder()
+                .initialLimit(1)
+                .build();
+        HttpClient testSubject = new HttpClientConcurrencyLimited(HttpClientHelper.newDefaultClient(), limiter);
+        server.enqueue(new MockResponse().setHeadersDelay(200, TimeUnit.MILLISECONDS));
+
+        CompletableFuture<HttpResponse<Void>> first = testSubject.sendAsync(get(), HttpResponse.BodyHandlers.discarding());
+        CompletableFuture<HttpResponse<Void>> second = testSubject.sendAsync(get(), HttpResponse.BodyHandlers.discarding());
+        second.cancel(true);
+
+        assertEquals(0, limiter.getQueueDepth(uri));
+        first.get();
+        Thread.sleep(100);
+        assertEquals(1, server.getRequestCount());
+        assertEquals(0, limiter.getInFlight(uri));
+    }
+
+
+    private HttpRequest get() {
+        return HttpRequest.newBuilder(uri).GET().build();
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.http;
+
+import de.fraunhofer.iosb.ilt.faaast.client.util.HttpClientHelper;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class HttpClientHedgingTest {
+    private MockWebServer server;
+
+    @Before
+    public void setup() throws IOException {
+        server = new MockWebServer();
+        server.start();
+    }
+
+
+    @After
+    public void teardown() throws IOException {
+        server.shutdown();
+    }
+
+
+    @Test
+    public void hedgedRequestWinsIfOriginalIsSlow() throws IOException, InterruptedException {
+        HedgingPolicy policy = HedgingPolicy.builder()
+                .initialDelay(Duration.ofMillis(50))
+                .build();
+        server.enqueue(new MockResponse().setBody("slow").setHeadersDelay(1, TimeUnit.SECONDS));
+        server.enqueue(new MockResponse().setBody("fast"));
+
+        long start = System.nanoTime();
+        HttpResponse<String> response = new HttpClientHedging(HttpClientHelper.newDefaultClient(), policy)
+                .send(get(), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals("fast", response.body());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 800);
+        assertEquals(1, policy.getHedgedRequests());
+        assertEquals(1, policy.getHedgeWins());
+    }
+
+
+    @Test
+    public void fastRequestsAreNotHedged() throws IOException, InterruptedException {
+        HedgingPolicy policy = HedgingPolicy.builder()
+                .initialDelay(Duration.ofMillis(500))
+                .build();
+        server.enqueue(new MockResponse().setBody("body"));
+
+        HttpResponse<String> response = new HttpClientHedging(HttpClientHelper.newDefaultClient(), policy)
+                .send(get(), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals("body", response.body());
+        assertEquals(0, policy.getHedgedRequests());
+        assertEquals(1, server.getRequestCount());
+    }
+
+
+    @Test
+    public void exhaustedBudgetPreventsHedging() throws IOException, InterruptedException {
+        HedgingPolicy policy = HedgingPolicy.builder()
+                .initialDelay(Duration.ofMillis(10))
+                .budgetCapacity(0)
+                .build();
+        server.enqueue(new MockResponse().setBody("slow").setHeadersDelay(200, TimeUnit.MILLISECONDS));
+
+        HttpResponse<String> response = new HttpClientHedging(HttpClientHelper.newDefaultClient(), policy)
+                .send(get(), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals("slow", response.body());
+        assertEquals(0, policy.getHedgedRequests());
+        assertEquals(1, server.getRequestCount());
+    }
+
+
+    private HttpRequest get() {
+        return HttpRequest.newBuilder(server.url("/").uri()).GET().build();
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.http;
+
+import de.fraunhofer.iosb.ilt.faaast.client.util.HttpClientHelper;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+
+public class HttpClientLoadBalancingTest {
+    private MockWebServer primary;
+    private MockWebServer replica;
+    private URI primaryUri;
+    private URI replicaUri;
+
+    @Before
+    public void setup() throws IOException {
+        primary = new MockWebServer();
+        primary.start();
+        replica = new MockWebServer();
+        replica.start();
+        primaryUri = primary.url("/api/v3.0").uri();
+        replicaUri = replica.url("/replica/api/v3.0").uri();
+    }
+
+
+    @After
+    public void teardown() throws IOException {
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+
+    @Test
+    public void distributesRequestsRoundRobin() throws IOException, InterruptedException {
+        EndpointSet endpointSet = EndpointSet.of(primaryUri, replicaUri);
+        HttpClient testSubject = new HttpClientLoadBalancing(HttpClientHelper.newDefaultClient(), endpointSet);
+        for (int i = 0; i < 2; i++) {
+            primary.enqueue(new MockResponse().setBody("primary"));
+            replica.enqueue(new MockResponse().setBody("replica"));
+        }
+
+        for (int i = 0; i < 4; i++) {
+            testSubject.send(request("GET"), HttpResponse.BodyHandlers.ofString());
+        }
+
+        assertEquals(2, primary.getRequestCount());
+        assertEquals(2, replica.getRequestCount());
+        assertEquals("/replica/api/v3.0/shells", replica.takeRequest().getPath());
+        assertEquals(2, endpointSet.getRequests(replicaUri));
+        assertTrue(endpointSet.getAverageLatency(replicaUri).isPresent());
+    }
+
+
+    @Test
+    public void failsOverIdempotentRequests() throws IOException, InterruptedException {
+        EndpointSet endpointSet = EndpointSet.of(primaryUri, replicaUri);
+        HttpClient testSubject = new HttpClientLoadBalancing(HttpClientHelper.newDefaultClient(), endpointSet);
+        primary.enqueue(new MockResponse().setResponseCode(503));
+        replica.enqueue(new MockResponse().setBody("replica"));
+
+        HttpResponse<String> response = testSubject.send(request("GET"), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, response.statusCode());
+        assertEquals("replica", response.body());
+        assertEquals(1, endpointSet.getFailovers());
+        assertFalse(endpointSet.isHealthy(primaryUri));
+        assertTrue(endpointSet.isHealthy(replicaUri));
+    }
+
+
+    @Test
+    public void failsOverAsyncIfEndpointUnreachable() throws IOException, InterruptedException, ExecutionException {
+        EndpointSet endpointSet = EndpointSet.of(primaryUri, replicaUri);
+        HttpClient testSubject = new HttpClientLoadBalancing(HttpClientHelper.newDefaultClient(), endpointSet);
+        primary.shutdown();
+        replica.enqueue(new MockResponse().setBody("replica"));
+
+        HttpResponse<String> response = testSubject.sendAsync(request("GET"), HttpResponse.BodyHandlers.ofString()).get();
+
+        assertEquals("replica", response.body());
+        assertFalse(endpointSet.isHealthy(primaryUri));
+    }
+
+
+    @Test
+    public void skipsUnhealthyEndpoints() throws IOException, InterruptedException {
+        EndpointSet endpointSet = EndpointSet.builder()
+                .endpoint(primaryUri)
+                .endpoint(replicaUri)
+                .strategy(EndpointSet.Strategy.LEAST_OUTSTANDING)
+                .build();
+        HttpClient testSubject = new HttpClientLoadBalancing(HttpClientHelper.newDefaultClient(), endpointSet);
+        primary.enqueue(new MockResponse().setResponseCode(502));
+        for (int i = 0; i < 3; i++) {
+            replica.enqueue(new MockResponse());
+        }
+
+        for (int i = 0; i < 3; i++) {
+            testSubject.send(request("GET"), HttpResponse.BodyHandlers.discarding());
+        }
+
+        assertEquals(1, primary.getRequestCount());
+        assertEquals(3, replica.getRequestCount());
+    }
+
+
+    @Test
+    public void doesNotFailOverPost() throws IOException, InterruptedException {
+        EndpointSet endpointSet = EndpointSet.of(primaryUri, replicaUri);
+        HttpClient testSubject = new HttpClientLoadBalancing(HttpClientHelper.newDefaultClient(), endpointSet);
+        primary.enqueue(new MockResponse().setResponseCode(503));
+
+        HttpResponse<String> response = testSubject.send(request("POST"), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(503, response.statusCode());
+        assertEquals(0, replica.getRequestCount());
+        assertEquals(0, endpointSet.getFailovers());
+    }
+
+
+    @Test
+    public void doesNotTrackRequestsRejectedByClientSidePolicies() throws IOException, InterruptedException {
+        EndpointSet endpointSet = EndpointSet.of(primaryUri, replicaUri);
+        RateLimiter rateLimiter = RateLimiter.builder()
+                .readsPerSecond(0.001)
+                .mode(RateLimiter.Mode.FAIL_FAST)
+                .build();
+        HttpClient testSubject = new HttpClientLoadBalancing(new HttpClientRateLimited(HttpClientHelper.newDefaultClient(), rateLimiter), endpointSet);
+        primary.enqueue(new MockResponse());
+        replica.enqueue(new MockResponse());
+        testSubject.send(request("GET"), HttpResponse.BodyHandlers.discarding());
+        testSubject.send(request("GET"), HttpResponse.BodyHandlers.discarding());
+
+        assertThrows(RateLimitExceededException.class, () -> testSubject.send(request("GET"), HttpResponse.BodyHandlers.discarding()));
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> testSubject.sendAsync(request("GET"), HttpResponse.BodyHandlers.discarding()).get());
+
+        assertTrue(exception.getCause() instanceof RateLimitExceededException);
+        assertEquals(0, endpointSet.getFailovers());
+        assertTrue(endpointSet.isHealthy(primaryUri));
+        assertTrue(endpointSet.isHealthy(replicaUri));
+    }
+
+
+    @Test
+    public void passesThroughUrisOnlySharingPrefix() throws IOException, InterruptedException {
+        EndpointSet endpointSet = EndpointSet.of(primaryUri, replicaUri);
+        HttpClient testSubject = new HttpClientLoadBalancing(HttpClientHelper.newDefaultClient(), endpointSet);
+        for (int i = 0; i < 2; i++) {
+            primary.enqueue(new MockResponse());
+        }
+
+        for (int i = 0; i < 2; i++) {
+            testSubject.send(HttpRequest.newBuilder(URI.create(primaryUri + "1/shells")).GET().build(), HttpResponse.BodyHandlers.discarding());
+        }
+
+        assertEquals(2, primary.getRequestCount());
+        assertEquals(0, replica.getRequestCount());
+        assertEquals(0, endpointSet.getRequests(primaryUri));
+    }
+
+
+    private HttpRequest request(String method) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(primaryUri + "/shells"))
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .build();
+    }
+}
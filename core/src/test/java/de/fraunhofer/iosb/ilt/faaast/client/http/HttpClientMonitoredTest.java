@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.http;
+
+import de.fraunhofer.iosb.ilt.faaast.client.util.HttpClientHelper;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+
+
+public class HttpClientMonitoredTest {
+    private MockWebServer server;
+    private HttpConnectionStatistics statistics;
+
+    @Before
+    public void setup() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        statistics = new HttpConnectionStatistics();
+    }
+
+
+    @After
+    public void teardown() throws IOException {
+        server.shutdown();
+    }
+
+
+    @Test
+    public void http2FallsBackToHttp1() throws IOException, InterruptedException {
+        HttpClient testSubject = new HttpClientMonitored(HttpClientHelper.newHttp2Client(), statistics);
+        server.enqueue(new MockResponse().setBody("body"));
+
+        HttpResponse<String> response = testSubject.send(request(), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals("body", response.body());
+        HttpConnectionStatistics.OriginStatistics originStatistics = statistics.get(server.url("/").uri());
+        assertEquals(1, originStatistics.getHttp1Responses());
+        assertEquals(0, originStatistics.getHttp2Responses());
+        assertEquals(0, originStatistics.getActiveRequests());
+        assertEquals(HttpClient.Version.HTTP_1_1, originStatistics.getNegotiatedVersion());
+    }
+
+
+    @Test
+    public void concurrentRequestsAreCounted() {
+        HttpClient testSubject = new HttpClientMonitored(HttpClientHelper.newDefaultClient(), statistics);
+        int count = 3;
+        for (int i = 0; i < count; i++) {
+            server.enqueue(new MockResponse().setHeadersDelay(300, TimeUnit.MILLISECONDS));
+        }
+
+        List<CompletableFuture<HttpResponse<String>>> futures = IntStream.range(0, count)
+                .mapToObj(i -> testSubject.sendAsync(request(), HttpResponse.BodyHandlers.ofString()))
+                .collect(Collectors.toList());
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        HttpConnectionStatistics.OriginStatistics originStatistics = statistics.get(server.url("/").uri());
+        assertEquals(count, originStatistics.getPeakConcurrentRequests());
+        assertEquals(count, originStatistics.getHttp1Responses());
+        assertEquals(0, originStatistics.getActiveRequests());
+    }
+
+
+    @Test
+    public void peakConcurrentRequestsMatchConnectionsOpenedByHttp1() {
+        HttpClient testSubject = new HttpClientMonitored(HttpClientHelper.newDefaultClient(), statistics);
+        int count = 8;
+        CountDownLatch arrived = new CountDownLatch(count);
+        AtomicInteger connections = new AtomicInteger();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                if (request.getSequenceNumber() == 0) {
+                    connections.incrementAndGet();
+                }
+                arrived.countDown();
+                arrived.await(5, TimeUnit.SECONDS);
+                return new MockResponse().setBody("body");
+            }
+        });
+
+        List<CompletableFuture<HttpResponse<String>>> futures = IntStream.range(0, count)
+                .mapToObj(i -> testSubject.sendAsync(request(), HttpResponse.BodyHandlers.ofString()))
+                .collect(Collectors.toList());
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        testSubject.sendAsync(request(), HttpResponse.BodyHandlers.ofString()).join();
+
+        HttpConnectionStatistics.OriginStatistics originStatistics = statistics.get(server.url("/").uri());
+        assertEquals(count, originStatistics.getPeakConcurrentRequests());
+        assertEquals(count, connections.get());
+        assertEquals(count + 1, originStatistics.getHttp1Responses());
+    }
+
+
+    private HttpRequest request() {
+        return HttpRequest.newBuilder().uri(URI.create(server.url("/test").toString())).GET().build();
+    }
+}
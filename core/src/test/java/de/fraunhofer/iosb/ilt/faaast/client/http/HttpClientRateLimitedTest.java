@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.http;
+
+import de.fraunhofer.iosb.ilt.faaast.client.util.Deadline;
+import de.fraunhofer.iosb.ilt.faaast.client.util.HttpClientHelper;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+
+public class HttpClientRateLimitedTest {
+    private MockWebServer server;
+
+    @Before
+    public void setup() throws IOException {
+        server = new MockWebServer();
+        server.start();
+    }
+
+
+    @After
+    public void teardown() throws IOException {
+        server.shutdown();
+    }
+
+
+    @Test
+    public void blocksReadsExceedingRate() throws IOException, InterruptedException {
+        RateLimiter rateLimiter = RateLimiter.builder()
+                .readsPerSecond(10)
+                .build();
+        HttpClient testSubject = new HttpClientRateLimited(HttpClientHelper.newDefaultClient(), rateLimiter);
+        for (int i = 0; i < 3; i++) {
+            server.enqueue(new MockResponse());
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            testSubject.send(get(), HttpResponse.BodyHandlers.discarding());
+        }
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() >= 180);
+        assertEquals(2, rateLimiter.getDelayedRequests());
+    }
+
+
+    @Test
+    public void rejectsReadsExceedingRateButNotWrites() throws IOException, InterruptedException {
+        RateLimiter rateLimiter = RateLimiter.builder()
+                .readsPerSecond(1)
+                .mode(RateLimiter.Mode.FAIL_FAST)
+                .build();
+        HttpClient testSubject = new HttpClientRateLimited(HttpClientHelper.newDefaultClient(), rateLimiter);
+        server.enqueue(new MockResponse());
+        server.enqueue(new MockResponse());
+
+        testSubject.send(get(), HttpResponse.BodyHandlers.discarding());
+        assertThrows(RateLimitExceededException.class, () -> testSubject.send(get(), HttpResponse.BodyHandlers.discarding()));
+        testSubject.send(delete(), HttpResponse.BodyHandlers.discarding());
+
+        assertEquals(2, server.getRequestCount());
+        assertEquals(1, rateLimiter.getRejectedRequests());
+    }
+
+
+    @Test
+    public void delaysAsyncRequestsWithoutBlocking() throws InterruptedException, ExecutionException {
+        RateLimiter rateLimiter = RateLimiter.builder()
+                .writesPerSecond(5)
+                .mode(RateLimiter.Mode.BLOCKING)
+                .build();
+        HttpClient testSubject = new HttpClientRateLimited(HttpClientHelper.newDefaultClient(), rateLimiter);
+        server.enqueue(new MockResponse());
+        server.enqueue(new MockResponse());
+
+        testSubject.sendAsync(delete(), HttpResponse.BodyHandlers.discarding()).get();
+        long start = System.nanoTime();
+        CompletableFuture<HttpResponse<Void>> response = testSubject.sendAsync(delete(), HttpResponse.BodyHandlers.discarding());
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 100);
+        assertFalse(response.isDone());
+        response.get();
+        assertEquals(1, rateLimiter.getDelayedRequests());
+    }
+
+
+    @Test
+    public void requestsFailingForDeadlineDoNotUseUpRate() throws IOException, InterruptedException {
+        RateLimiter rateLimiter = RateLimiter.builder()
+                .readsPerSecond(10)
+                .build();
+        HttpClient testSubject = new HttpClientRateLimited(HttpClientHelper.newDefaultClient(), rateLimiter);
+        server.enqueue(new MockResponse());
+        server.enqueue(new MockResponse());
+
+        long start = System.nanoTime();
+        testSubject.send(get(), HttpResponse.BodyHandlers.discarding());
+        Deadline deadline = Deadline.after(Duration.ofMillis(50));
+        assertThrows(RequestDeadlineExceededException.class, () -> deadline.call(() -> testSubject.send(get(), HttpResponse.BodyHandlers.discarding())));
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> deadline.call(() -> testSubject.sendAsync(get(), HttpResponse.BodyHandlers.discarding())).get());
+        assertTrue(e.getCause() instanceof RequestDeadlineExceededException);
+        testSubject.send(get(), HttpResponse.BodyHandlers.discarding());
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 170);
+        assertEquals(2, server.getRequestCount());
+        assertEquals(1, rateLimiter.getDelayedRequests());
+    }
+
+
+    private HttpRequest get() {
+        return HttpRequest.newBuilder(server.url("/").uri()).GET().build();
+    }
+
+
+    private HttpRequest delete() {
+        return HttpRequest.newBuilder(server.url("/").uri()).DELETE().build();
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.http;
+
+import de.fraunhofer.iosb.ilt.faaast.client.util.Deadline;
+import de.fraunhofer.iosb.ilt.faaast.client.util.HttpClientHelper;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.SocketPolicy;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+
+public class HttpClientRetryingTest {
+    private MockWebServer server;
+    private RetryPolicy policy;
+    private HttpClient testSubject;
+
+    @Before
+    public void setup() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        policy = RetryPolicy.builder()
+                .maxAttempts(3)
+                .initialBackoff(Duration.ofMillis(10))
+                .build();
+        testSubject = new HttpClientRetrying(HttpClientHelper.newDefaultClient(), policy);
+    }
+
+
+    @After
+    public void teardown() throws IOException {
+        server.shutdown();
+    }
+
+
+    @Test
+    public void retriesRetryableStatusCode() throws IOException, InterruptedException {
+        server.enqueue(new MockResponse().setResponseCode(503).setBody("unavailable"));
+        server.enqueue(new MockResponse().setBody("body"));
+
+        HttpResponse<String> response = testSubject.send(get(), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, response.statusCode());
+        assertEquals("body", response.body());
+        assertEquals(2, server.getRequestCount());
+        assertEquals(2, policy.getAttempts());
+        assertEquals(1, policy.getRetries());
+        assertEquals(0, policy.getGiveUps());
+    }
+
+
+    @Test
+    public void retriesRetryableStatusCodeAsync() throws InterruptedException, ExecutionException {
+        server.enqueue(new MockResponse().setResponseCode(502));
+        server.enqueue(new MockResponse().setBody("body"));
+
+        HttpResponse<String> response = testSubject.sendAsync(get(), HttpResponse.BodyHandlers.ofString()).get();
+
+        assertEquals("body", response.body());
+        assertEquals(2, server.getRequestCount());
+        assertEquals(1, policy.getRetries());
+    }
+
+
+    @Test
+    public void givesUpAfterMaxAttempts() throws IOException, InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            server.enqueue(new MockResponse().setResponseCode(503).setBody("unavailable"));
+        }
+
+        HttpResponse<String> response = testSubject.send(get(), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(503, response.statusCode());
+        assertEquals("unavailable", response.body());
+        assertEquals(3, server.getRequestCount());
+        assertEquals(2, policy.getRetries());
+        assertEquals(1, policy.getGiveUps());
+    }
+
+
+    @Test
+    public void doesNotRetryOnceDeadlinePassed() {
+        server.enqueue(new MockResponse().setBody("slow").setHeadersDelay(1, TimeUnit.SECONDS));
+        server.enqueue(new MockResponse().setBody("body"));
+
+        Deadline deadline = Deadline.after(Duration.ofMillis(200));
+        long start = System.nanoTime();
+        assertThrows(HttpTimeoutException.class, () -> deadline.call(() -> testSubject.send(get(), HttpResponse.BodyHandlers.ofString())));
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 800);
+        assertEquals(1, server.getRequestCount());
+        assertEquals(0, policy.getRetries());
+    }
+
+
+    @Test
+    public void doesNotRetryPost() {
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AT_START));
+
+        assertThrows(IOException.class, () -> testSubject.send(
+                HttpRequest.newBuilder(server.url("/").uri()).POST(HttpRequest.BodyPublishers.ofString("{}")).build(),
+                HttpResponse.BodyHandlers.ofString()));
+        assertEquals(0, policy.getRetries());
+    }
+
+
+    private HttpRequest get() {
+        return HttpRequest.newBuilder(server.url("/").uri()).GET().build();
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.http;
+
+import de.fraunhofer.iosb.ilt.faaast.client.util.Deadline;
+import de.fraunhofer.iosb.ilt.faaast.client.util.HttpClientHelper;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+
+public class HttpClientThrottledTest {
+    private MockWebServer server;
+    private ServerThrottle throttle;
+    private HttpClient testSubject;
+
+    @Before
+    public void setup() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        throttle = ServerThrottle.builder()
+                .defaultDelay(Duration.ofMillis(200))
+                .maxDelay(Duration.ofSeconds(1))
+                .build();
+        testSubject = new HttpClientThrottled(HttpClientHelper.newDefaultClient(), throttle);
+    }
+
+
+    @After
+    public void teardown() throws IOException {
+        server.shutdown();
+    }
+
+
+    @Test
+    public void delaysRequestsAfterServiceUnavailable() throws IOException, InterruptedException {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setBody("body"));
+
+        assertEquals(503, testSubject.send(get(), HttpResponse.BodyHandlers.ofString()).statusCode());
+        long start = System.nanoTime();
+        HttpResponse<String> response = testSubject.send(get(), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals("body", response.body());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() >= 150);
+        assertEquals(1, throttle.getThrottlingResponses());
+        assertEquals(1, throttle.getDelayedRequests());
+    }
+
+
+    @Test
+    public void delaysAsyncRequestsAfterTooManyRequests() throws InterruptedException, ExecutionException {
+        server.enqueue(new MockResponse().setResponseCode(429).setHeader("Retry-After", "0"));
+        server.enqueue(new MockResponse().setResponseCode(429));
+        server.enqueue(new MockResponse().setBody("body"));
+
+        testSubject.sendAsync(get(), HttpResponse.BodyHandlers.ofString()).get();
+        assertEquals(0, throttle.getDelayedRequests());
+        testSubject.sendAsync(get(), HttpResponse.BodyHandlers.ofString()).get();
+        HttpResponse<String> response = testSubject.sendAsync(get(), HttpResponse.BodyHandlers.ofString()).get();
+
+        assertEquals("body", response.body());
+        assertEquals(2, throttle.getThrottlingResponses());
+        assertEquals(1, throttle.getDelayedRequests());
+    }
+
+
+    @Test
+    public void countsRequestDelayedRepeatedlyOnce() throws IOException, InterruptedException, ExecutionException {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setBody("body"));
+        server.enqueue(new MockResponse().setBody("body"));
+        testSubject.send(get(), HttpResponse.BodyHandlers.ofString());
+
+        // extends the throttling while the requests below are waiting, so they have to wait again
+        HttpClient unthrottled = HttpClientHelper.newDefaultClient();
+        CompletableFuture<Void> extension = CompletableFuture.runAsync(() -> {}, CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS))
+                .thenCompose(x -> unthrottled.sendAsync(get(), HttpResponse.BodyHandlers.discarding()))
+                .thenAccept(response -> throttle.onResponse(Origins.of(response.uri()), response));
+        CompletableFuture<HttpResponse<String>> async = testSubject.sendAsync(get(), HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> response = testSubject.send(get(), HttpResponse.BodyHandlers.ofString());
+        extension.get();
+
+        assertEquals("body", response.body());
+        assertEquals("body", async.get().body());
+        assertEquals(2, throttle.getThrottlingResponses());
+        assertEquals(2, throttle.getDelayedRequests());
+    }
+
+
+    @Test
+    public void failsFastIfDeadlinePassesBeforeDelay() throws IOException, InterruptedException {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        testSubject.send(get(), HttpResponse.BodyHandlers.ofString());
+
+        Deadline deadline = Deadline.after(Duration.ofMillis(50));
+        long start = System.nanoTime();
+        assertThrows(RequestDeadlineExceededException.class, () -> deadline.call(() -> testSubject.send(get(), HttpResponse.BodyHandlers.ofString())));
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> deadline.call(() -> testSubject.sendAsync(get(), HttpResponse.BodyHandlers.ofString())).get());
+
+        assertTrue(e.getCause() instanceof RequestDeadlineExceededException);
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 150);
+        assertEquals(1, server.getRequestCount());
+    }
+
+
+    @Test
+    public void capsRetryAfterAtMaxDelay() throws IOException, InterruptedException {
+        server.enqueue(new MockResponse().setResponseCode(429).setHeader("Retry-After", "3600"));
+
+        testSubject.send(get(), HttpResponse.BodyHandlers.ofString());
+
+        Duration delay = throttle.getDelay(server.url("/").uri());
+        assertTrue(delay.compareTo(Duration.ZERO) > 0);
+        assertTrue(delay.compareTo(Duration.ofSeconds(1)) <= 0);
+        assertEquals(Duration.ZERO, throttle.getDelay(URI.create("http://other.example.org/")));
+    }
+
+
+    private HttpRequest get() {
+        return HttpRequest.newBuilder(server.url("/").uri()).GET().build();
+    }
+}
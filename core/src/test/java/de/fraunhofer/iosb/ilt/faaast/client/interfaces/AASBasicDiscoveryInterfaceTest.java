@@ -19,7 +19,9 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import de.fraunhofer.iosb.ilt.faaast.client.exception.ClientException;
 import de.fraunhofer.iosb.ilt.faaast.client.exception.ConnectivityException;
+import de.fraunhofer.iosb.ilt.faaast.client.exception.DeadlineExceededException;
 import de.fraunhofer.iosb.ilt.faaast.client.exception.StatusCodeException;
+import de.fraunhofer.iosb.ilt.faaast.client.util.Deadline;
 import de.fraunhofer.iosb.ilt.faaast.service.dataformat.ApiSerializer;
 import de.fraunhofer.iosb.ilt.faaast.service.dataformat.SerializationException;
 import de.fraunhofer.iosb.ilt.faaast.service.dataformat.json.JsonApiSerializer;
@@ -36,12 +38,18 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 
 
 public class AASBasicDiscoveryInterfaceTest {
@@ -138,6 +146,34 @@ public class AASBasicDiscoveryInterfaceTest {
     }
 
 
+    @Test
+    public void testLookupByAssetLinkAbortsWhenDeadlinePasses() {
+        server.enqueue(new MockResponse().setBody("").setHeadersDelay(500, TimeUnit.MILLISECONDS));
+        server.enqueue(new MockResponse().setBody(""));
+        List<SpecificAssetId> assetLinks = List.of(new DefaultSpecificAssetId.Builder().name("globalAssetId").value("id").build());
+
+        Deadline deadline = Deadline.after(Duration.ofMillis(100));
+        assertThrows(DeadlineExceededException.class, () -> deadline.call(() -> discoveryInterface.lookupByAssetLink(assetLinks, PagingInfo.ALL)));
+
+        assertEquals(1, server.getRequestCount());
+        assertNull(Deadline.current());
+    }
+
+
+    @Test
+    public void testLookupByAssetLinkAsyncFailsIfCancelled() {
+        List<SpecificAssetId> assetLinks = List.of(new DefaultSpecificAssetId.Builder().name("globalAssetId").value("id").build());
+        Deadline deadline = Deadline.after(Duration.ofSeconds(10));
+        deadline.cancel();
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> deadline.callAsync(() -> discoveryInterface.lookupByAssetLinkAsync(assetLinks, PagingInfo.ALL)).get());
+
+        assertTrue(e.getCause() instanceof DeadlineExceededException);
+        assertEquals(0, server.getRequestCount());
+    }
+
+
     @Test
     public void testLookupByAASId() throws SerializationException, InterruptedException, ClientException, UnsupportedModifierException {
         List<SpecificAssetId> expected = new ArrayList<>();
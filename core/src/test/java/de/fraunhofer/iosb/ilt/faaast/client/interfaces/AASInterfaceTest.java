@@ -15,6 +15,9 @@
 package de.fraunhofer.iosb.ilt.faaast.client.interfaces;
 
 import de.fraunhofer.iosb.ilt.faaast.client.exception.ClientException;
+import de.fraunhofer.iosb.ilt.faaast.client.util.DownloadedFile;
+import de.fraunhofer.iosb.ilt.faaast.client.util.FileCache;
+import de.fraunhofer.iosb.ilt.faaast.client.util.StreamedFile;
 import de.fraunhofer.iosb.ilt.faaast.service.dataformat.ApiSerializer;
 import de.fraunhofer.iosb.ilt.faaast.service.dataformat.SerializationException;
 import de.fraunhofer.iosb.ilt.faaast.service.dataformat.json.JsonApiSerializer;
@@ -50,7 +53,10 @@ import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultKey;
 import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultReference;
 import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultResource;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertNotNull;
@@ -63,6 +69,8 @@ public class AASInterfaceTest {
     private AASInterface aasInterface;
     private ApiSerializer serializer;
     private MockWebServer server;
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
 
     @Before
     public void setup() throws IOException {
@@ -187,6 +195,106 @@ public class AASInterfaceTest {
     }
 
 
+    @Test
+    public void testGetThumbnailToFile() throws InterruptedException, ClientException, IOException {
+        byte[] content = "thumbnail-content".getBytes();
+        Buffer buffer = new Buffer();
+        buffer.write(content);
+        server.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .addHeader(CONTENT_TYPE, "image/png")
+                .addHeader(CONTENT_DISPOSITION, "attachment; fileName=\"thumbnail.png\"")
+                .setBody(buffer));
+        Path target = temporaryFolder.getRoot().toPath().resolve("thumbnail.png");
+
+        DownloadedFile actual = aasInterface.getThumbnailAsync(target).join();
+        RecordedRequest request = server.takeRequest();
+
+        assertEquals("/api/v3.0/aas/asset-information/thumbnail", request.getPath());
+        assertEquals("thumbnail.png", actual.getFileName());
+        assertEquals(content.length, actual.getSize());
+        assertArrayEquals(content, Files.readAllBytes(target));
+    }
+
+
+    @Test
+    public void testGetThumbnailAsStream() throws ClientException, IOException {
+        byte[] content = "thumbnail-content".getBytes();
+        Buffer buffer = new Buffer();
+        buffer.write(content);
+        server.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .addHeader(CONTENT_TYPE, "image/png")
+                .addHeader(CONTENT_DISPOSITION, "attachment; fileName=\"thumbnail.png\"")
+                .setBody(buffer));
+
+        try (StreamedFile actual = aasInterface.getThumbnailAsStream()) {
+            assertEquals("thumbnail.png", actual.getFileName());
+            assertArrayEquals(content, actual.getContent().readAllBytes());
+        }
+    }
+
+    @Test
+    public void testGetThumbnailServedFromFileCacheIfNotModified() throws InterruptedException, ClientException, IOException {
+        FileCache fileCache = FileCache.builder()
+                .directory(temporaryFolder.newFolder("cache").toPath())
+                .build();
+        AASInterface cachingInterface = new AASInterface.Builder()
+                .endpoint(server.url("api/v3.0/aas").uri())
+                .fileCache(fileCache)
+                .build();
+        byte[] content = "thumbnail-content".getBytes();
+        server.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .addHeader("ETag", "\"v1\"")
+                .addHeader(CONTENT_TYPE, "image/png")
+                .addHeader(CONTENT_DISPOSITION, "attachment; fileName=\"thumbnail.png\"")
+                .setBody(new Buffer().write(content)));
+        server.enqueue(new MockResponse().setResponseCode(304));
+
+        cachingInterface.getThumbnailAsync().join();
+        try (StreamedFile actual = cachingInterface.getThumbnailAsStream()) {
+            assertEquals("thumbnail.png", actual.getFileName());
+            assertEquals("image/png", actual.getContentType());
+            assertArrayEquals(content, actual.getContent().readAllBytes());
+        }
+
+        server.takeRequest();
+        assertEquals("\"v1\"", server.takeRequest().getHeader("If-None-Match"));
+        assertEquals(1, fileCache.getHits());
+    }
+
+
+    @Test
+    public void testPutThumbnailSkipsUnchangedContentUntilDeleted() throws InterruptedException, ClientException, IOException {
+        FileCache fileCache = FileCache.builder()
+                .directory(temporaryFolder.newFolder("cache").toPath())
+                .build();
+        AASInterface cachingInterface = new AASInterface.Builder()
+                .endpoint(server.url("api/v3.0/aas").uri())
+                .fileCache(fileCache)
+                .build();
+        TypedInMemoryFile thumbnail = new TypedInMemoryFile.Builder()
+                .content("thumbnail-content".getBytes())
+                .path("TestFile.png")
+                .contentType("image/png")
+                .build();
+        server.enqueue(new MockResponse().setResponseCode(204));
+        server.enqueue(new MockResponse().setResponseCode(200));
+        server.enqueue(new MockResponse().setResponseCode(204));
+
+        cachingInterface.putThumbnail(thumbnail);
+        cachingInterface.putThumbnailAsync(thumbnail).join();
+        cachingInterface.deleteThumbnail();
+        cachingInterface.putThumbnail(thumbnail);
+
+        assertEquals("PUT", server.takeRequest().getMethod());
+        assertEquals("DELETE", server.takeRequest().getMethod());
+        assertEquals("PUT", server.takeRequest().getMethod());
+        assertEquals(1, fileCache.getSkippedUploads());
+    }
+
+
     @Test
     public void testPutThumbnail() throws InterruptedException, ClientException, IOException {
         server.enqueue(new MockResponse().setResponseCode(204));
@@ -207,10 +315,11 @@ public class AASInterfaceTest {
 
         String contentTypeHeader = recordedRequest.getHeader("Content-Type");
         assertNotNull(contentTypeHeader);
-        assertTrue(contentTypeHeader.startsWith("multipart/form-data"));
+        assertTrue(contentTypeHeader.startsWith("multipart/form-data; boundary="));
+        String boundary = contentTypeHeader.substring("multipart/form-data; boundary=".length());
 
         Path expectedPayloadPath = Paths.get("src/test/resources/expectedMultiPartPayloadThumbnail.txt");
-        String expectedPayload = Files.readString(expectedPayloadPath, StandardCharsets.UTF_8);
+        String expectedPayload = Files.readString(expectedPayloadPath, StandardCharsets.UTF_8).replace("{boundary}", boundary);
         String actualRequestBody = recordedRequest.getBody().readUtf8();
 
         // Remove trailing linebreaks to assure consistency across platforms.
@@ -220,6 +329,22 @@ public class AASInterfaceTest {
     }
 
 
+    @Test
+    public void testPutThumbnailFromFile() throws InterruptedException, ClientException, IOException {
+        server.enqueue(new MockResponse().setResponseCode(204));
+        Path file = temporaryFolder.newFile("thumbnail.png").toPath();
+        Files.writeString(file, "thumbnail-content");
+
+        aasInterface.putThumbnail(file, "image/png");
+        RecordedRequest request = server.takeRequest();
+
+        String body = request.getBody().readUtf8();
+        assertEquals("/api/v3.0/aas/asset-information/thumbnail", request.getPath());
+        assertTrue(body.contains("Content-Disposition: form-data; name=\"file\"; filename=\"thumbnail.png\"\r\nContent-Type: image/png"));
+        assertTrue(body.contains("\r\n\r\nthumbnail-content\r\n"));
+    }
+
+
     @Test
     public void testDeleteThumbnail() throws InterruptedException, ClientException {
         AssetAdministrationShell requestAas = new DefaultAssetAdministrationShell();
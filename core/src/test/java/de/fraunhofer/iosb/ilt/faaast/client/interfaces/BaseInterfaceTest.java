@@ -15,8 +15,18 @@
 package de.fraunhofer.iosb.ilt.faaast.client.interfaces;
 
 import de.fraunhofer.iosb.ilt.faaast.client.exception.ClientException;
+import de.fraunhofer.iosb.ilt.faaast.client.exception.DeadlineExceededException;
+import de.fraunhofer.iosb.ilt.faaast.client.query.SearchCriteria;
+import de.fraunhofer.iosb.ilt.faaast.client.util.Deadline;
+import de.fraunhofer.iosb.ilt.faaast.client.util.HttpClientHelper;
+import de.fraunhofer.iosb.ilt.faaast.client.util.JsonCodec;
+import de.fraunhofer.iosb.ilt.faaast.client.util.QueryHelper;
+import de.fraunhofer.iosb.ilt.faaast.client.util.SingleFlight;
 import de.fraunhofer.iosb.ilt.faaast.service.dataformat.SerializationException;
 import de.fraunhofer.iosb.ilt.faaast.service.dataformat.json.JsonApiSerializer;
+import de.fraunhofer.iosb.ilt.faaast.service.model.api.modifier.Content;
+import de.fraunhofer.iosb.ilt.faaast.service.model.api.modifier.Level;
+import de.fraunhofer.iosb.ilt.faaast.service.model.api.modifier.QueryModifier;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.Page;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.PagingInfo;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.PagingMetadata;
@@ -31,9 +41,18 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.Collections;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 
 
 public class BaseInterfaceTest {
@@ -83,4 +102,154 @@ public class BaseInterfaceTest {
         Page<Submodel> responseSubmodelPage = concreteSubclass.get(new PagingInfo.Builder().limit(5).build());
         assertEquals(requestPage.getMetadata(), responseSubmodelPage.getMetadata());
     }
+
+
+    @Test
+    public void testDeserializePageWithUnknownFields() throws JSONException, SerializationException, ClientException, UnsupportedModifierException {
+        Page<Submodel> requestPage = createPage();
+        JSONObject customPage = new JSONObject(serializePage(requestPage));
+        customPage.put("links", new JSONObject().put("next", "cursor"));
+        server.enqueue(new MockResponse().setBody(customPage.toString()));
+
+        Page<Submodel> responseSubmodelPage = concreteSubclass.get(new PagingInfo.Builder().limit(5).build());
+        assertEquals(requestPage.getContent(), responseSubmodelPage.getContent());
+        assertEquals(requestPage.getMetadata(), responseSubmodelPage.getMetadata());
+    }
+
+
+    @Test
+    public void testUseVirtualThreads() throws SerializationException, ClientException, UnsupportedModifierException {
+        SubmodelRepositoryInterface virtualThreadInterface = new SubmodelRepositoryInterface.Builder()
+                .endpoint(server.url("api/v3.0").uri())
+                .useVirtualThreads()
+                .build();
+        Page<Submodel> requestPage = createPage();
+        server.enqueue(new MockResponse().setBody(serializePage(requestPage)));
+
+        Page<Submodel> responseSubmodelPage = virtualThreadInterface.get(new PagingInfo.Builder().limit(5).build());
+        assertEquals(requestPage.getMetadata(), responseSubmodelPage.getMetadata());
+        assertEquals(HttpClientHelper.isVirtualThreadSupported(), virtualThreadInterface.httpClient.executor().isPresent());
+    }
+
+
+    @Test
+    public void testCustomCodecIsSharedWithSubInterfaces() throws SerializationException, ClientException, UnsupportedModifierException {
+        JsonCodec codec = new JsonCodec();
+        SubmodelRepositoryInterface codecInterface = new SubmodelRepositoryInterface.Builder()
+                .endpoint(server.url("api/v3.0").uri())
+                .codec(codec)
+                .build();
+        Page<Submodel> requestPage = createPage();
+        server.enqueue(new MockResponse().setBody(serializePage(requestPage)));
+
+        Page<Submodel> responseSubmodelPage = codecInterface.get(new PagingInfo.Builder().limit(5).build());
+        assertEquals(requestPage.getMetadata(), responseSubmodelPage.getMetadata());
+        assertSame(codec, codecInterface.codec);
+        assertSame(codec, codecInterface.getSubmodelInterface("submodel").codec);
+        assertSame(JsonCodec.getDefault(), concreteSubclass.codec);
+    }
+
+
+    @Test
+    public void testResolve() {
+        URI endpoint = URI.create("http://localhost:8080/api/v3.0");
+        assertEquals(URI.create("http://localhost:8080/api/v3.0/shells"), BaseInterface.resolve(endpoint, "/shells"));
+        assertEquals(URI.create("http://localhost:8080/api/v3.0/shells"), BaseInterface.resolve(endpoint, "shells/"));
+        assertEquals(URI.create("http://localhost:8080/api/v3.0?level=deep"), BaseInterface.resolve(endpoint, "?level=deep"));
+        assertEquals(URI.create("http://localhost:8080/api/v3.0/shells/$value?level=core&limit=1"),
+                BaseInterface.resolve(endpoint, QueryHelper.apply("/shells", Content.VALUE,
+                        new QueryModifier.Builder().level(Level.CORE).build(), new PagingInfo.Builder().limit(1).build(), SearchCriteria.DEFAULT)));
+        assertEquals(URI.create("http://localhost:8080/api/submodels"), BaseInterface.resolve(endpoint, "./../submodels"));
+        assertEquals(endpoint, BaseInterface.resolve(endpoint, ""));
+    }
+
+
+    @Test
+    public void testRequestCoalescing() throws SerializationException, UnsupportedModifierException, InterruptedException, ExecutionException {
+        SubmodelInterface submodelInterface = new SubmodelRepositoryInterface.Builder()
+                .endpoint(server.url("api/v3.0").uri())
+                .useRequestCoalescing()
+                .build()
+                .getSubmodelInterface("submodel");
+        Submodel submodel = new DefaultSubmodel.Builder().id("submodel").build();
+        server.enqueue(new MockResponse()
+                .setBody(new JsonApiSerializer().write(submodel))
+                .setHeadersDelay(500, TimeUnit.MILLISECONDS));
+        server.enqueue(new MockResponse().setBody(new JsonApiSerializer().write(submodel)));
+
+        CompletableFuture<Submodel> first = submodelInterface.getAsync();
+        CompletableFuture<Submodel> second = submodelInterface.getAsync();
+
+        assertEquals(submodel, first.get());
+        assertSame(first.get(), second.get());
+        assertEquals(1, server.getRequestCount());
+        assertEquals(submodel, submodelInterface.getAsync().get());
+        assertEquals(2, server.getRequestCount());
+    }
+
+
+    @Test
+    public void testRequestCoalescingIsScopedPerHttpClient() throws SerializationException, UnsupportedModifierException, InterruptedException, ExecutionException {
+        SingleFlight singleFlight = new SingleFlight();
+        Submodel submodel = new DefaultSubmodel.Builder().id("submodel").build();
+        for (int i = 0; i < 2; i++) {
+            server.enqueue(new MockResponse()
+                    .setBody(new JsonApiSerializer().write(submodel))
+                    .setHeadersDelay(300, TimeUnit.MILLISECONDS));
+        }
+
+        CompletableFuture<Submodel> first = coalescingSubmodelInterface(singleFlight).getAsync();
+        CompletableFuture<Submodel> second = coalescingSubmodelInterface(singleFlight).getAsync();
+
+        assertEquals(submodel, first.get());
+        assertEquals(submodel, second.get());
+        assertEquals(2, server.getRequestCount());
+    }
+
+
+    @Test
+    public void testRequestCoalescingWaiterIsBoundedByOwnDeadline() throws SerializationException, UnsupportedModifierException, InterruptedException, ExecutionException {
+        SubmodelInterface submodelInterface = coalescingSubmodelInterface(new SingleFlight());
+        Submodel submodel = new DefaultSubmodel.Builder().id("submodel").build();
+        server.enqueue(new MockResponse()
+                .setBody(new JsonApiSerializer().write(submodel))
+                .setHeadersDelay(1, TimeUnit.SECONDS));
+
+        CompletableFuture<Submodel> first = submodelInterface.getAsync();
+        CompletableFuture<Submodel> second = Deadline.after(Duration.ofMillis(100)).callAsync(submodelInterface::getAsync);
+
+        ExecutionException exception = assertThrows(ExecutionException.class, second::get);
+        assertTrue(exception.getCause() instanceof DeadlineExceededException);
+        assertFalse(first.isDone());
+        assertEquals(submodel, first.get());
+        assertEquals(1, server.getRequestCount());
+    }
+
+
+    @Test
+    public void testRequestCoalescingWaiterRetriesAfterDeadlineOfSender() throws SerializationException, UnsupportedModifierException, InterruptedException, ExecutionException {
+        SubmodelInterface submodelInterface = coalescingSubmodelInterface(new SingleFlight());
+        Submodel submodel = new DefaultSubmodel.Builder().id("submodel").build();
+        server.enqueue(new MockResponse()
+                .setBody(new JsonApiSerializer().write(submodel))
+                .setHeadersDelay(1, TimeUnit.SECONDS));
+        server.enqueue(new MockResponse().setBody(new JsonApiSerializer().write(submodel)));
+
+        CompletableFuture<Submodel> first = Deadline.after(Duration.ofMillis(100)).callAsync(submodelInterface::getAsync);
+        CompletableFuture<Submodel> second = submodelInterface.getAsync();
+
+        ExecutionException exception = assertThrows(ExecutionException.class, first::get);
+        assertTrue(exception.getCause() instanceof DeadlineExceededException);
+        assertEquals(submodel, second.get());
+        assertEquals(2, server.getRequestCount());
+    }
+
+
+    private SubmodelInterface coalescingSubmodelInterface(SingleFlight singleFlight) {
+        return new SubmodelRepositoryInterface.Builder()
+                .endpoint(server.url("api/v3.0").uri())
+                .requestCoalescing(singleFlight)
+                .build()
+                .getSubmodelInterface("submodel");
+    }
 }
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.interfaces;
+
+import de.fraunhofer.iosb.ilt.faaast.client.exception.ClientException;
+import de.fraunhofer.iosb.ilt.faaast.service.dataformat.ApiSerializer;
+import de.fraunhofer.iosb.ilt.faaast.service.dataformat.SerializationException;
+import de.fraunhofer.iosb.ilt.faaast.service.dataformat.json.JsonApiSerializer;
+import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.Page;
+import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.PagingMetadata;
+import de.fraunhofer.iosb.ilt.faaast.service.model.exception.UnsupportedModifierException;
+import de.fraunhofer.iosb.ilt.faaast.service.util.EncodingHelper;
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.eclipse.digitaltwin.aas4j.v3.model.Submodel;
+import org.eclipse.digitaltwin.aas4j.v3.model.SubmodelDescriptor;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultSubmodel;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultSubmodelDescriptor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+
+public class ClientSessionTest {
+    private static final String AUTHORIZATION = "Bearer token";
+
+    private MockWebServer server;
+    private ApiSerializer serializer;
+    private ClientSession session;
+
+    @Before
+    public void setup() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        serializer = new JsonApiSerializer();
+        session = new AASRepositoryInterface.Builder()
+                .endpoint(server.url("api/v3.0").uri())
+                .authenticationHeaderProvider(() -> AUTHORIZATION)
+                .buildSession();
+    }
+
+
+    @After
+    public void teardown() throws IOException {
+        server.shutdown();
+    }
+
+
+    @Test
+    public void derivedSubmodelInterfaceSharesTransport() throws SerializationException, InterruptedException, ClientException, UnsupportedModifierException {
+        Submodel expected = new DefaultSubmodel.Builder().id("submodel").build();
+        server.enqueue(new MockResponse().setBody(serializer.write(expected)));
+
+        Submodel actual = session.getAASInterface("aas").getSubmodelInterface("submodel").get();
+        RecordedRequest request = server.takeRequest();
+
+        assertEquals(expected, actual);
+        assertEquals("/api/v3.0/shells/" + EncodingHelper.base64UrlEncode("aas") + "/submodels/" + EncodingHelper.base64UrlEncode("submodel"),
+                request.getPath());
+        assertEquals(AUTHORIZATION, request.getHeader("Authorization"));
+    }
+
+
+    @Test
+    public void derivedSubmodelRegistryInterfaceSharesTransport() throws SerializationException, InterruptedException, ClientException, UnsupportedModifierException {
+        Page<SubmodelDescriptor> expected = Page.<SubmodelDescriptor> builder()
+                .result(new DefaultSubmodelDescriptor())
+                .metadata(new PagingMetadata.Builder().build())
+                .build();
+        server.enqueue(new MockResponse().setBody(serializer.write(expected)));
+
+        List<DefaultSubmodelDescriptor> actual = session.getSubmodelRegistryInterface("aas").getAll();
+        RecordedRequest request = server.takeRequest();
+
+        assertEquals(expected.getContent(), actual);
+        assertEquals("/api/v3.0/shell-descriptors/" + EncodingHelper.base64UrlEncode("aas") + "/submodel-descriptors", request.getPath());
+        assertEquals(AUTHORIZATION, request.getHeader("Authorization"));
+    }
+
+
+    @Test
+    public void interfacesUseSessionEndpoints() throws ClientException, InterruptedException {
+        server.enqueue(new MockResponse().setBody("{\"profiles\":[]}"));
+
+        session.getDescriptionInterface().get();
+
+        assertEquals("/api/v3.0/description", server.takeRequest().getPath());
+        assertSame(session.getHttpClient(), session.getSubmodelRepositoryInterface().httpClient);
+        assertSame(session.getAASRepositoryInterface(), session.getAASRepositoryInterface());
+        assertEquals(URI.create(server.url("api/v3.0") + "/lookup/shells"), session.getAASBasicDiscoveryInterface().endpoint);
+    }
+}
@@ -15,6 +15,8 @@
 package de.fraunhofer.iosb.ilt.faaast.client.interfaces;
 
 import de.fraunhofer.iosb.ilt.faaast.client.exception.ClientException;
+import de.fraunhofer.iosb.ilt.faaast.client.exception.NotFoundException;
+import de.fraunhofer.iosb.ilt.faaast.client.util.BulkResult;
 import de.fraunhofer.iosb.ilt.faaast.service.dataformat.ApiSerializer;
 import de.fraunhofer.iosb.ilt.faaast.service.dataformat.SerializationException;
 import de.fraunhofer.iosb.ilt.faaast.service.dataformat.json.JsonApiSerializer;
@@ -23,7 +25,12 @@ import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.PagingMetadata;
 import de.fraunhofer.iosb.ilt.faaast.service.model.exception.UnsupportedModifierException;
 import de.fraunhofer.iosb.ilt.faaast.service.util.EncodingHelper;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import okhttp3.mockwebserver.Dispatcher;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import okhttp3.mockwebserver.RecordedRequest;
@@ -33,6 +40,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 
 public class ConceptDescriptionRepositoryInterfaceTest {
@@ -143,4 +151,30 @@ public class ConceptDescriptionRepositoryInterfaceTest {
         assertEquals(0, request.getBodySize());
         assertEquals("/api/v3.0/concept-descriptions/" + EncodingHelper.base64UrlEncode(cdIdentifier), request.getPath());
     }
+
+
+    @Test
+    public void testGetByIdsCollectsFailures() throws SerializationException, UnsupportedModifierException {
+        List<String> ids = List.of("cd1", "missing", "cd2", "cd3");
+        Map<String, String> responses = new HashMap<>();
+        for (String id : List.of("cd1", "cd2", "cd3")) {
+            responses.put("/api/v3.0/concept-descriptions/" + EncodingHelper.base64UrlEncode(id),
+                    serializer.write(new DefaultConceptDescription.Builder().id(id).build()));
+        }
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String body = responses.get(request.getPath());
+                return body == null ? new MockResponse().setResponseCode(404) : new MockResponse().setBody(body);
+            }
+        });
+
+        BulkResult<ConceptDescription> result = conceptDescriptionRepositoryInterface.getByIds(ids, 2);
+
+        assertEquals(List.of("cd1", "cd2", "cd3"), new ArrayList<>(result.getResults().keySet()));
+        assertEquals("cd2", result.getResults().get("cd2").getId());
+        assertEquals(Set.of("missing"), result.getFailures().keySet());
+        assertTrue(result.getFailures().get("missing") instanceof NotFoundException);
+        assertEquals(4, server.getRequestCount());
+    }
 }
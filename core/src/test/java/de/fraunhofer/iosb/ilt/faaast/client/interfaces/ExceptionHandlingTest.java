@@ -17,13 +17,18 @@ package de.fraunhofer.iosb.ilt.faaast.client.interfaces;
 import de.fraunhofer.iosb.ilt.faaast.client.exception.*;
 import java.io.IOException;
 import java.net.URI;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultSubmodel;
 import org.junit.Before;
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 
 
 public class ExceptionHandlingTest {
@@ -50,6 +55,17 @@ public class ExceptionHandlingTest {
     }
 
 
+    @Test
+    public void testGetListBadRequestExceptionContainsBody() {
+        server.enqueue(new MockResponse().setResponseCode(400).setBody("invalid cursor"));
+
+        BadRequestException e = assertThrows(BadRequestException.class, () -> {
+            submodelRepositoryInterface.getAll();
+        });
+        assertEquals("invalid cursor", e.getBody());
+    }
+
+
     @Test
     public void testGetNotFoundException() {
         server.enqueue(new MockResponse().setResponseCode(404));
@@ -88,4 +104,48 @@ public class ExceptionHandlingTest {
             submodelRepositoryInterface.delete("path");
         });
     }
+
+
+    @Test
+    public void testGetTooManyRequestsExceptionContainsRetryAfter() {
+        server.enqueue(new MockResponse().setResponseCode(429).setHeader("Retry-After", "120"));
+
+        TooManyRequestsException e = assertThrows(TooManyRequestsException.class, () -> {
+            submodelRepositoryInterface.getAll();
+        });
+        assertEquals(Optional.of(Duration.ofSeconds(120)), e.getRetryAfter());
+    }
+
+
+    @Test
+    public void testGetServiceUnavailableException() {
+        server.enqueue(new MockResponse().setResponseCode(503));
+
+        ServiceUnavailableException e = assertThrows(ServiceUnavailableException.class, () -> {
+            submodelRepositoryInterface.getAll();
+        });
+        assertEquals(Optional.empty(), e.getRetryAfter());
+    }
+
+
+    @Test
+    public void testGetAsyncNotFoundException() {
+        server.enqueue(new MockResponse().setResponseCode(404));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> {
+            submodelRepositoryInterface.getSubmodelInterface("wrongId").getAsync().get();
+        });
+        assertTrue(e.getCause() instanceof NotFoundException);
+    }
+
+
+    @Test
+    public void testGetAsyncConnectivityException() throws IOException {
+        server.shutdown();
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> {
+            submodelRepositoryInterface.getAllAsync().get();
+        });
+        assertTrue(e.getCause() instanceof ConnectivityException);
+    }
 }
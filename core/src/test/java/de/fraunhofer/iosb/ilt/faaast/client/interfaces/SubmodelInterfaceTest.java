@@ -14,7 +14,16 @@
  */
 package de.fraunhofer.iosb.ilt.faaast.client.interfaces;
 
+import de.fraunhofer.iosb.ilt.faaast.client.exception.ChecksumMismatchException;
 import de.fraunhofer.iosb.ilt.faaast.client.exception.ClientException;
+import de.fraunhofer.iosb.ilt.faaast.client.exception.ConnectivityException;
+import de.fraunhofer.iosb.ilt.faaast.client.exception.NotFoundException;
+import de.fraunhofer.iosb.ilt.faaast.client.http.CompressionPolicy;
+import de.fraunhofer.iosb.ilt.faaast.client.http.HedgingPolicy;
+import de.fraunhofer.iosb.ilt.faaast.client.util.DownloadedFile;
+import de.fraunhofer.iosb.ilt.faaast.client.util.FileCache;
+import de.fraunhofer.iosb.ilt.faaast.client.util.RangeDownloadOptions;
+import de.fraunhofer.iosb.ilt.faaast.client.util.StreamedFile;
 import de.fraunhofer.iosb.ilt.faaast.service.dataformat.SerializationException;
 import de.fraunhofer.iosb.ilt.faaast.service.dataformat.json.JsonApiSerializer;
 import de.fraunhofer.iosb.ilt.faaast.service.model.IdShortPath;
@@ -30,14 +39,33 @@ import de.fraunhofer.iosb.ilt.faaast.service.model.value.PropertyValue;
 import de.fraunhofer.iosb.ilt.faaast.service.typing.ElementValueTypeInfo;
 import de.fraunhofer.iosb.ilt.faaast.service.util.EncodingHelper;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+import java.util.stream.Stream;
 
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
@@ -61,12 +89,20 @@ import org.junit.Test;
 
 import javax.xml.datatype.DatatypeConfigurationException;
 import javax.xml.datatype.DatatypeFactory;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.SocketPolicy;
+import org.junit.Rule;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertArrayEquals;
 
 import static org.apache.commons.fileupload.FileUploadBase.CONTENT_DISPOSITION;
 import static org.apache.commons.fileupload.FileUploadBase.CONTENT_TYPE;
 
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertEquals;
 
 
@@ -75,6 +111,8 @@ public class SubmodelInterfaceTest {
     private static MockWebServer server;
     private static JsonApiSerializer serializer;
     private static Submodel requestSubmodel;
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
 
     @Before
     public void setup() throws IOException {
@@ -139,6 +177,27 @@ public class SubmodelInterfaceTest {
     }
 
 
+    @Test
+    public void testPutLargeSubmodelIsStreamed() throws SerializationException, InterruptedException, ClientException, UnsupportedModifierException {
+        Submodel largeSubmodel = new DefaultSubmodel.Builder().id("large").build();
+        for (int i = 0; i < 2000; i++) {
+            largeSubmodel.getSubmodelElements().add(new DefaultProperty.Builder()
+                    .idShort("property" + i)
+                    .valueType(DataTypeDefXsd.STRING)
+                    .value("value" + i)
+                    .build());
+        }
+        String serializedSubmodel = serializer.write(largeSubmodel);
+        server.enqueue(new MockResponse().setResponseCode(204));
+        submodelInterface.put(largeSubmodel);
+        RecordedRequest request = server.takeRequest();
+
+        assertEquals("PUT", request.getMethod());
+        assertEquals("chunked", request.getHeader("Transfer-Encoding"));
+        assertEquals(serializedSubmodel, request.getBody().readUtf8());
+    }
+
+
     @Test
     public void testPatchDefault() throws SerializationException, InterruptedException, ClientException, UnsupportedModifierException {
         String serializedSubmodel = serializer.write(requestSubmodel);
@@ -335,6 +394,437 @@ public class SubmodelInterfaceTest {
     }
 
 
+    @Test
+    public void testGetAttachmentToFile() throws InterruptedException, ClientException, IOException {
+        byte[] content = new byte[1024 * 1024];
+        new Random(42).nextBytes(content);
+        Buffer buffer = new Buffer();
+        buffer.write(content);
+        server.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .addHeader(CONTENT_TYPE, "application/pdf")
+                .addHeader(CONTENT_DISPOSITION, "attachment; fileName=\"attachment.pdf\"")
+                .setBody(buffer));
+        Path target = temporaryFolder.getRoot().toPath().resolve("download.pdf");
+        Files.write(target, new byte[2 * content.length]);
+
+        IdShortPath idShort = IdShortPath.parse("idShort");
+        DownloadedFile actual = submodelInterface.getAttachment(idShort, target);
+        RecordedRequest request = server.takeRequest();
+
+        assertEquals(String.format("/api/v3.0/submodel/submodel-elements/%s/attachment", idShort), request.getPath());
+        assertEquals("attachment.pdf", actual.getFileName());
+        assertEquals("application/pdf", actual.getContentType());
+        assertEquals(content.length, actual.getSize());
+        assertEquals(target.toAbsolutePath(), actual.getPath());
+        assertArrayEquals(content, Files.readAllBytes(target));
+        try (Stream<Path> files = Files.list(temporaryFolder.getRoot().toPath())) {
+            assertEquals(1, files.count());
+        }
+    }
+
+
+    @Test
+    public void testGetAttachmentToFileKeepsTargetOnError() throws IOException {
+        server.enqueue(new MockResponse().setResponseCode(404).setBody("not found"));
+        Path target = temporaryFolder.getRoot().toPath().resolve("download.pdf");
+        Files.writeString(target, "existing");
+
+        assertThrows(NotFoundException.class, () -> submodelInterface.getAttachment(IdShortPath.parse("idShort"), target));
+        assertEquals("existing", Files.readString(target));
+        try (Stream<Path> files = Files.list(temporaryFolder.getRoot().toPath())) {
+            assertEquals(1, files.count());
+        }
+    }
+
+
+    @Test
+    public void testGetAttachmentAsStream() throws ClientException, IOException {
+        byte[] content = "attachment-content".getBytes();
+        Buffer buffer = new Buffer();
+        buffer.write(content);
+        server.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .addHeader(CONTENT_TYPE, "application/pdf")
+                .addHeader(CONTENT_DISPOSITION, "attachment; fileName=\"attachment.pdf\"")
+                .setBody(buffer));
+
+        try (StreamedFile actual = submodelInterface.getAttachmentAsStream(IdShortPath.parse("idShort"))) {
+            assertEquals("attachment.pdf", actual.getFileName());
+            assertEquals("application/pdf", actual.getContentType());
+            assertEquals(content.length, actual.getContentLength().getAsLong());
+            try (InputStream stream = actual.getContent()) {
+                assertArrayEquals(content, stream.readAllBytes());
+            }
+        }
+    }
+
+
+    @Test
+    public void testGetCompressedAttachmentAsStreamHasNoContentLength() throws ClientException, IOException {
+        byte[] content = "attachment-content".repeat(100).getBytes();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(content);
+        }
+        Buffer buffer = new Buffer();
+        buffer.write(compressed.toByteArray());
+        server.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .addHeader("Content-Encoding", "gzip")
+                .setBody(buffer));
+        SubmodelInterface compressingInterface = new SubmodelInterface.Builder()
+                .endpoint(server.url("api/v3.0/submodel").uri())
+                .compressionPolicy(CompressionPolicy.builder().decompressResponses(true).build())
+                .build();
+
+        try (StreamedFile actual = compressingInterface.getAttachmentAsStream(IdShortPath.parse("idShort"))) {
+            assertTrue(actual.getContentLength().isEmpty());
+            try (InputStream stream = actual.getContent()) {
+                assertArrayEquals(content, stream.readAllBytes());
+            }
+        }
+    }
+
+
+    @Test
+    public void testGetAttachmentResumesInterruptedDownload() throws ClientException, IOException {
+        byte[] content = randomContent(1024 * 1024);
+        RangeDispatcher dispatcher = new RangeDispatcher(content, true);
+        dispatcher.failFirstRequest = true;
+        server.setDispatcher(dispatcher);
+        Path target = temporaryFolder.getRoot().toPath().resolve("download.bin");
+        IdShortPath idShort = IdShortPath.parse("idShort");
+
+        assertThrows(ConnectivityException.class, () -> submodelInterface.getAttachment(idShort, target, RangeDownloadOptions.builder().build()));
+        Path partial = temporaryFolder.getRoot().toPath().resolve("download.bin.part");
+        long resumeFrom = Files.size(partial);
+        assertTrue(Files.exists(temporaryFolder.getRoot().toPath().resolve("download.bin.part.properties")));
+
+        DownloadedFile actual = submodelInterface.getAttachment(idShort, target, RangeDownloadOptions.builder().build());
+
+        assertEquals(List.of("bytes=0-", "bytes=" + resumeFrom + "-" + (content.length - 1)), dispatcher.ranges);
+        assertEquals("\"v1\"", dispatcher.ifRanges.get(1));
+        assertEquals("attachment.bin", actual.getFileName());
+        assertEquals(content.length, actual.getSize());
+        assertArrayEquals(content, Files.readAllBytes(target));
+        try (Stream<Path> files = Files.list(temporaryFolder.getRoot().toPath())) {
+            assertEquals(1, files.count());
+        }
+    }
+
+
+    @Test
+    public void testGetAttachmentInConcurrentRanges() throws ClientException, IOException {
+        byte[] content = randomContent(1024 * 1024);
+        RangeDispatcher dispatcher = new RangeDispatcher(content, true);
+        server.setDispatcher(dispatcher);
+        Path target = temporaryFolder.getRoot().toPath().resolve("download.bin");
+
+        submodelInterface.getAttachment(IdShortPath.parse("idShort"), target, RangeDownloadOptions.builder()
+                .parallelism(4)
+                .rangeSize(64 * 1024)
+                .build());
+
+        assertEquals(16, dispatcher.ranges.size());
+        assertTrue(dispatcher.ranges.contains("bytes=983040-1048575"));
+        assertArrayEquals(content, Files.readAllBytes(target));
+    }
+
+
+    @Test
+    public void testGetAttachmentRecordsProgressOfWinningHedge() throws ClientException, IOException {
+        byte[] content = randomContent(64 * 1024);
+        RangeDispatcher ranges = new RangeDispatcher(content, true);
+        AtomicInteger requests = new AtomicInteger();
+        // the hedge receives its headers after the original request but is cancelled before its body is complete
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                MockResponse response = ranges.dispatch(request);
+                return requests.getAndIncrement() == 0
+                        ? response.throttleBody(8 * 1024, 50, TimeUnit.MILLISECONDS)
+                        : response.setHeadersDelay(200, TimeUnit.MILLISECONDS).throttleBody(1024, 100, TimeUnit.MILLISECONDS);
+            }
+        });
+        SubmodelInterface hedgingInterface = new SubmodelInterface.Builder()
+                .endpoint(server.url("api/v3.0/submodel").uri())
+                .hedgingPolicy(HedgingPolicy.builder().initialDelay(Duration.ofMillis(100)).build())
+                .build();
+        Path target = temporaryFolder.getRoot().toPath().resolve("download.bin");
+
+        DownloadedFile actual = hedgingInterface.getAttachment(IdShortPath.parse("idShort"), target, RangeDownloadOptions.builder().build());
+
+        assertEquals(List.of("bytes=0-", "bytes=0-"), ranges.ranges);
+        assertEquals(content.length, actual.getSize());
+        assertArrayEquals(content, Files.readAllBytes(target));
+    }
+
+
+    @Test
+    public void testGetAttachmentFallsBackIfRangesAreIgnored() throws ClientException, IOException {
+        byte[] content = randomContent(256 * 1024);
+        RangeDispatcher dispatcher = new RangeDispatcher(content, false);
+        server.setDispatcher(dispatcher);
+        Path target = temporaryFolder.getRoot().toPath().resolve("download.bin");
+
+        DownloadedFile actual = submodelInterface.getAttachment(IdShortPath.parse("idShort"), target, RangeDownloadOptions.builder()
+                .parallelism(4)
+                .rangeSize(64 * 1024)
+                .build());
+
+        assertEquals(1, server.getRequestCount());
+        assertEquals(content.length, actual.getSize());
+        assertArrayEquals(content, Files.readAllBytes(target));
+    }
+
+
+    @Test
+    public void testGetAttachmentVerifiesChecksum() throws IOException {
+        byte[] content = randomContent(1024);
+        server.setDispatcher(new RangeDispatcher(content, true));
+        Path target = temporaryFolder.getRoot().toPath().resolve("download.bin");
+
+        assertThrows(ChecksumMismatchException.class, () -> submodelInterface.getAttachment(IdShortPath.parse("idShort"), target, RangeDownloadOptions.builder()
+                .checksum("SHA-256", HexFormat.of().formatHex(new byte[32]))
+                .build()));
+        try (Stream<Path> files = Files.list(temporaryFolder.getRoot().toPath())) {
+            assertEquals(0, files.count());
+        }
+    }
+
+
+    @Test
+    public void testGetAttachmentServedFromFileCacheIfNotModified() throws InterruptedException, ClientException, IOException, InvalidRequestException {
+        FileCache fileCache = FileCache.builder()
+                .directory(temporaryFolder.newFolder("cache").toPath())
+                .build();
+        SubmodelInterface cachingInterface = new SubmodelInterface.Builder()
+                .endpoint(server.url("api/v3.0/submodel").uri())
+                .fileCache(fileCache)
+                .build();
+        byte[] content = randomContent(64 * 1024);
+        server.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .addHeader("ETag", "\"v1\"")
+                .addHeader(CONTENT_DISPOSITION, "attachment; fileName=\"manual.pdf\"")
+                .setBody(new Buffer().write(content)));
+        server.enqueue(new MockResponse().setResponseCode(304).addHeader("ETag", "\"v1\""));
+        IdShortPath idShort = IdShortPath.parse("idShort");
+
+        InMemoryFile first = cachingInterface.getAttachment(idShort);
+        Path target = temporaryFolder.getRoot().toPath().resolve("manual.pdf");
+        DownloadedFile second = cachingInterface.getAttachment(idShort, target);
+
+        assertNull(server.takeRequest().getHeader("If-None-Match"));
+        assertEquals("\"v1\"", server.takeRequest().getHeader("If-None-Match"));
+        assertArrayEquals(content, first.getContent());
+        assertEquals("manual.pdf", second.getFileName());
+        assertArrayEquals(content, Files.readAllBytes(target));
+        assertEquals(1, fileCache.getHits());
+        assertEquals(1, fileCache.getMisses());
+    }
+
+
+    @Test
+    public void testGetAttachmentStoresIdenticalContentOnce() throws ClientException, IOException, InvalidRequestException {
+        FileCache fileCache = FileCache.builder()
+                .directory(temporaryFolder.newFolder("cache").toPath())
+                .build();
+        SubmodelInterface cachingInterface = new SubmodelInterface.Builder()
+                .endpoint(server.url("api/v3.0/submodel").uri())
+                .fileCache(fileCache)
+                .build();
+        byte[] content = randomContent(64 * 1024);
+        server.enqueue(new MockResponse().setBody(new Buffer().write(content)));
+        server.enqueue(new MockResponse().setBody(new Buffer().write(content)));
+
+        cachingInterface.getAttachment(IdShortPath.parse("first"));
+        cachingInterface.getAttachment(IdShortPath.parse("second"));
+
+        assertEquals(2, fileCache.getEntryCount());
+        assertEquals(content.length, fileCache.getSize());
+    }
+
+
+    @Test
+    public void testPutAttachmentSkipsUnchangedContent() throws InterruptedException, ClientException, IOException {
+        FileCache fileCache = FileCache.builder()
+                .directory(temporaryFolder.newFolder("cache").toPath())
+                .build();
+        SubmodelInterface cachingInterface = new SubmodelInterface.Builder()
+                .endpoint(server.url("api/v3.0/submodel").uri())
+                .fileCache(fileCache)
+                .build();
+        Path file = temporaryFolder.newFile("upload.pdf").toPath();
+        Files.write(file, randomContent(64 * 1024));
+        server.enqueue(new MockResponse().setResponseCode(204));
+        server.enqueue(new MockResponse().setResponseCode(204));
+        server.enqueue(new MockResponse().setResponseCode(204));
+        IdShortPath idShort = IdShortPath.parse("idShort");
+
+        cachingInterface.putAttachment(idShort, file, "application/pdf");
+        cachingInterface.putAttachment(idShort, file, "application/pdf");
+        cachingInterface.putAttachment(IdShortPath.parse("other"), file, "application/pdf");
+        Files.write(file, randomContent(1024));
+        cachingInterface.putAttachment(idShort, file, "application/pdf");
+
+        assertEquals(3, server.getRequestCount());
+        assertEquals("/api/v3.0/submodel/submodel-elements/idShort/attachment", server.takeRequest().getPath());
+        assertEquals("/api/v3.0/submodel/submodel-elements/other/attachment", server.takeRequest().getPath());
+        assertEquals("/api/v3.0/submodel/submodel-elements/idShort/attachment", server.takeRequest().getPath());
+        assertEquals(1, fileCache.getSkippedUploads());
+    }
+
+
+    @Test
+    public void testGetAttachmentRefetchesContentMissingFromFileCache() throws InterruptedException, ClientException, IOException, InvalidRequestException {
+        FileCache fileCache = FileCache.builder()
+                .directory(temporaryFolder.newFolder("cache").toPath())
+                .build();
+        SubmodelInterface cachingInterface = new SubmodelInterface.Builder()
+                .endpoint(server.url("api/v3.0/submodel").uri())
+                .fileCache(fileCache)
+                .build();
+        byte[] content = randomContent(1024);
+        server.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .addHeader("ETag", "\"v1\"")
+                .setBody(new Buffer().write(content)));
+        server.enqueue(new MockResponse().setResponseCode(304).addHeader("ETag", "\"v1\""));
+        server.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .addHeader("ETag", "\"v1\"")
+                .setBody(new Buffer().write(content)));
+        IdShortPath idShort = IdShortPath.parse("idShort");
+        cachingInterface.getAttachment(idShort);
+        // simulates an eviction between revalidating the entry and reading its content
+        Files.delete(fileCache.get(server.url("api/v3.0/submodel/submodel-elements/idShort/attachment").uri()).orElseThrow().getPath());
+
+        InMemoryFile actual = cachingInterface.getAttachment(idShort);
+
+        server.takeRequest();
+        assertEquals("\"v1\"", server.takeRequest().getHeader("If-None-Match"));
+        assertNull(server.takeRequest(1, TimeUnit.SECONDS).getHeader("If-None-Match"));
+        assertArrayEquals(content, actual.getContent());
+    }
+
+
+    @Test
+    public void testFileCacheEvictsLeastRecentlyUsed() throws InterruptedException, ClientException, IOException, InvalidRequestException {
+        FileCache fileCache = FileCache.builder()
+                .directory(temporaryFolder.newFolder("cache").toPath())
+                .maxSize(2 * 1024)
+                .build();
+        SubmodelInterface cachingInterface = new SubmodelInterface.Builder()
+                .endpoint(server.url("api/v3.0/submodel").uri())
+                .fileCache(fileCache)
+                .build();
+        for (String version : List.of("a", "b")) {
+            server.enqueue(new MockResponse().addHeader("ETag", "\"" + version + "\"").setBody(version.repeat(1024)));
+        }
+        server.enqueue(new MockResponse().setResponseCode(304));
+        server.enqueue(new MockResponse().addHeader("ETag", "\"c\"").setBody("c".repeat(1024)));
+        server.enqueue(new MockResponse().setResponseCode(304));
+        server.enqueue(new MockResponse().addHeader("ETag", "\"b\"").setBody("b".repeat(1024)));
+
+        cachingInterface.getAttachment(IdShortPath.parse("a"));
+        cachingInterface.getAttachment(IdShortPath.parse("b"));
+        cachingInterface.getAttachment(IdShortPath.parse("a"));
+        cachingInterface.getAttachment(IdShortPath.parse("c"));
+        cachingInterface.getAttachment(IdShortPath.parse("a"));
+        cachingInterface.getAttachment(IdShortPath.parse("b"));
+
+        List<String> validators = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            validators.add(server.takeRequest().getHeader("If-None-Match"));
+        }
+        assertEquals(Arrays.asList(null, null, "\"a\"", null, "\"a\"", null), validators);
+        assertEquals(2, fileCache.getEvictions());
+        assertEquals(2 * 1024, fileCache.getSize());
+    }
+
+
+    @Test
+    public void testFileCacheSurvivesRestart() throws InterruptedException, ClientException, IOException, InvalidRequestException {
+        Path directory = temporaryFolder.newFolder("cache").toPath();
+        byte[] content = randomContent(1024);
+        server.enqueue(new MockResponse()
+                .addHeader("Last-Modified", "Wed, 21 Oct 2015 07:28:00 GMT")
+                .setBody(new Buffer().write(content)));
+        server.enqueue(new MockResponse().setResponseCode(304));
+        new SubmodelInterface.Builder()
+                .endpoint(server.url("api/v3.0/submodel").uri())
+                .fileCache(FileCache.builder().directory(directory).build())
+                .build()
+                .getAttachment(IdShortPath.parse("idShort"));
+
+        InMemoryFile actual = new SubmodelInterface.Builder()
+                .endpoint(server.url("api/v3.0/submodel").uri())
+                .fileCache(FileCache.builder().directory(directory).build())
+                .build()
+                .getAttachment(IdShortPath.parse("idShort"));
+
+        server.takeRequest();
+        assertEquals("Wed, 21 Oct 2015 07:28:00 GMT", server.takeRequest().getHeader("If-Modified-Since"));
+        assertArrayEquals(content, actual.getContent());
+    }
+
+
+    private static byte[] randomContent(int size) {
+        byte[] result = new byte[size];
+        new Random(42).nextBytes(result);
+        return result;
+    }
+
+    /**
+     * Serves a file supporting range requests, entity tags and the Repr-Digest header.
+     */
+    private static class RangeDispatcher extends Dispatcher {
+        private static final Pattern RANGE = Pattern.compile("bytes=(\\d+)-(\\d*)");
+        private final byte[] content;
+        private final boolean supportRanges;
+        private final String digest;
+        private final List<String> ranges = new CopyOnWriteArrayList<>();
+        private final List<String> ifRanges = new CopyOnWriteArrayList<>();
+        private volatile boolean failFirstRequest;
+
+        RangeDispatcher(byte[] content, boolean supportRanges) {
+            this.content = content;
+            this.supportRanges = supportRanges;
+            try {
+                this.digest = "sha-256=:" + Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(content)) + ":";
+            }
+            catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+
+        @Override
+        public MockResponse dispatch(RecordedRequest request) {
+            ranges.add(request.getHeader("Range"));
+            ifRanges.add(String.valueOf(request.getHeader("If-Range")));
+            MockResponse response = new MockResponse()
+                    .addHeader("ETag", "\"v1\"")
+                    .addHeader("Repr-Digest", digest)
+                    .addHeader(CONTENT_DISPOSITION, "attachment; fileName=\"attachment.bin\"");
+            Matcher range = RANGE.matcher(String.valueOf(request.getHeader("Range")));
+            if (!supportRanges || !range.matches()) {
+                return response.setResponseCode(200).setBody(new Buffer().write(content));
+            }
+            int start = Integer.parseInt(range.group(1));
+            int end = range.group(2).isEmpty() ? content.length - 1 : Math.min(Integer.parseInt(range.group(2)), content.length - 1);
+            response.setResponseCode(206)
+                    .addHeader("Content-Range", String.format("bytes %d-%d/%d", start, end, content.length))
+                    .setBody(new Buffer().write(Arrays.copyOfRange(content, start, end + 1)));
+            if (failFirstRequest) {
+                failFirstRequest = false;
+                response.setSocketPolicy(SocketPolicy.DISCONNECT_DURING_RESPONSE_BODY);
+            }
+            return response;
+        }
+    }
     @Test
     public void testPutAttachment() throws InterruptedException, ClientException, IOException {
         server.enqueue(new MockResponse().setResponseCode(204));
@@ -356,10 +846,11 @@ public class SubmodelInterfaceTest {
 
         String contentTypeHeader = recordedRequest.getHeader("Content-Type");
         assertNotNull(contentTypeHeader);
-        assertTrue(contentTypeHeader.startsWith("multipart/form-data"));
+        assertTrue(contentTypeHeader.startsWith("multipart/form-data; boundary="));
+        String boundary = contentTypeHeader.substring("multipart/form-data; boundary=".length());
 
         Path expectedPayloadPath = Paths.get("src/test/resources/expectedMultiPartPayloadAttachment.txt");
-        String expectedPayload = Files.readString(expectedPayloadPath, StandardCharsets.UTF_8);
+        String expectedPayload = Files.readString(expectedPayloadPath, StandardCharsets.UTF_8).replace("{boundary}", boundary);
         String actualRequestBody = recordedRequest.getBody().readUtf8();
 
         // Remove  linebreaks to assure consistency across platforms.
@@ -369,6 +860,52 @@ public class SubmodelInterfaceTest {
     }
 
 
+    @Test
+    public void testPutAttachmentFromFile() throws InterruptedException, ClientException, IOException {
+        server.enqueue(new MockResponse().setResponseCode(204));
+        byte[] content = new byte[1024 * 1024];
+        new Random(42).nextBytes(content);
+        Path file = temporaryFolder.newFile("upload.pdf").toPath();
+        Files.write(file, content);
+
+        submodelInterface.putAttachment(IdShortPath.parse("idShort"), file, "application/pdf");
+        RecordedRequest request = server.takeRequest();
+
+        String boundary = request.getHeader("Content-Type").substring("multipart/form-data; boundary=".length());
+        byte[] body = request.getBody().readByteArray();
+        assertEquals(String.valueOf(body.length), request.getHeader("Content-Length"));
+        assertMultipartContent(body, boundary, "upload.pdf", content);
+    }
+
+
+    @Test
+    public void testPutAttachmentFromChannel() throws InterruptedException, ClientException {
+        server.enqueue(new MockResponse().setResponseCode(204));
+        byte[] content = new byte[1024 * 1024];
+        new Random(42).nextBytes(content);
+        ReadableByteChannel channel = Channels.newChannel(new ByteArrayInputStream(content));
+
+        submodelInterface.putAttachment(IdShortPath.parse("idShort"), channel, "upload.bin", "application/octet-stream");
+        RecordedRequest request = server.takeRequest();
+
+        String boundary = request.getHeader("Content-Type").substring("multipart/form-data; boundary=".length());
+        assertEquals("chunked", request.getHeader("Transfer-Encoding"));
+        assertMultipartContent(request.getBody().readByteArray(), boundary, "upload.bin", content);
+        assertFalse(channel.isOpen());
+    }
+
+
+    private static void assertMultipartContent(byte[] body, String boundary, String fileName, byte[] content) {
+        String text = new String(body, StandardCharsets.ISO_8859_1);
+        String fileHeader = String.format("Content-Disposition: form-data; name=\"file\"; filename=\"%s\"", fileName);
+        assertTrue(text.startsWith("--" + boundary + "\r\n"));
+        assertTrue(text.endsWith("\r\n--" + boundary + "--\r\n"));
+        int start = text.indexOf("\r\n\r\n", text.indexOf(fileHeader)) + 4;
+        int end = text.length() - ("\r\n--" + boundary + "--\r\n").length();
+        assertArrayEquals(content, Arrays.copyOfRange(body, start, end));
+    }
+
+
     @Test
     public void testDeleteFileByPath() throws InterruptedException, ClientException {
         server.enqueue(new MockResponse().setResponseCode(200));
@@ -15,12 +15,16 @@
 package de.fraunhofer.iosb.ilt.faaast.client.interfaces;
 
 import de.fraunhofer.iosb.ilt.faaast.client.exception.ClientException;
+import de.fraunhofer.iosb.ilt.faaast.client.exception.NotFoundException;
+import de.fraunhofer.iosb.ilt.faaast.client.exception.UncheckedClientException;
 import de.fraunhofer.iosb.ilt.faaast.client.query.SubmodelSearchCriteria;
+import de.fraunhofer.iosb.ilt.faaast.client.util.PagingIterator;
 import de.fraunhofer.iosb.ilt.faaast.service.dataformat.SerializationException;
 import de.fraunhofer.iosb.ilt.faaast.service.dataformat.json.JsonApiSerializer;
 import de.fraunhofer.iosb.ilt.faaast.service.model.IdShortPath;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.modifier.OutputModifier;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.Page;
+import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.PagingInfo;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.PagingMetadata;
 import de.fraunhofer.iosb.ilt.faaast.service.model.exception.UnsupportedModifierException;
 import de.fraunhofer.iosb.ilt.faaast.service.model.value.Datatype;
@@ -33,6 +37,9 @@ import java.io.IOException;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import okhttp3.mockwebserver.RecordedRequest;
@@ -43,6 +50,10 @@ import org.junit.Before;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 
 
 public class SubmodelRepositoryInterfaceTest {
@@ -175,6 +186,91 @@ public class SubmodelRepositoryInterfaceTest {
     }
 
 
+    @Test
+    public void testGetAllAsync() throws SerializationException, InterruptedException, ExecutionException, UnsupportedModifierException {
+        Page<Submodel> requestSubmodelPage = Page.<Submodel> builder()
+                .result(requestSubmodelList)
+                .metadata(new PagingMetadata.Builder().build())
+                .build();
+        server.enqueue(new MockResponse().setBody(serializer.write(requestSubmodelPage)));
+
+        List<Submodel> responseSubmodelList = submodelRepositoryInterface.getAllAsync().get();
+        RecordedRequest request = server.takeRequest();
+
+        assertEquals("GET", request.getMethod());
+        assertEquals("/api/v3.0/submodels", request.getPath());
+        assertEquals(requestSubmodelList, responseSubmodelList);
+    }
+
+
+    @Test
+    public void testStreamFollowsCursor() throws SerializationException, InterruptedException, UnsupportedModifierException {
+        server.enqueue(new MockResponse().setBody(serializer.write(Page.<Submodel> builder()
+                .result(requestSubmodelList.get(0))
+                .metadata(new PagingMetadata.Builder().cursor("page2").build())
+                .build())));
+        server.enqueue(new MockResponse().setBody(serializer.write(Page.<Submodel> builder()
+                .result(requestSubmodelList.get(1))
+                .metadata(new PagingMetadata.Builder().build())
+                .build())));
+
+        List<Submodel> responseSubmodelList;
+        try (Stream<Submodel> stream = submodelRepositoryInterface.stream(new PagingInfo.Builder().limit(1).build())) {
+            responseSubmodelList = stream.collect(Collectors.toList());
+        }
+
+        assertEquals(requestSubmodelList, responseSubmodelList);
+        assertEquals("/api/v3.0/submodels?limit=1", server.takeRequest().getPath());
+        assertEquals("/api/v3.0/submodels?limit=1&cursor=" + EncodingHelper.base64UrlEncode("page2"), server.takeRequest().getPath());
+    }
+
+
+    @Test
+    public void testIteratorResumesAfterError() throws SerializationException, UnsupportedModifierException {
+        server.enqueue(new MockResponse().setBody(serializer.write(Page.<Submodel> builder()
+                .result(requestSubmodelList.get(0))
+                .metadata(new PagingMetadata.Builder().cursor("page2").build())
+                .build())));
+        server.enqueue(new MockResponse().setResponseCode(404));
+
+        try (PagingIterator<Submodel> iterator = submodelRepositoryInterface.iterator(new PagingInfo.Builder().limit(1).build())) {
+            assertEquals(requestSubmodelList.get(0), iterator.next());
+            UncheckedClientException exception = assertThrows(UncheckedClientException.class, iterator::hasNext);
+            assertTrue(exception.getCause() instanceof NotFoundException);
+            assertEquals("page2", iterator.getNextPagingInfo().getCursor());
+
+            server.enqueue(new MockResponse().setBody(serializer.write(Page.<Submodel> builder()
+                    .result(requestSubmodelList.get(1))
+                    .metadata(new PagingMetadata.Builder().build())
+                    .build())));
+            assertEquals(requestSubmodelList.get(1), iterator.next());
+            assertFalse(iterator.hasNext());
+            assertNull(iterator.getNextPagingInfo());
+        }
+    }
+
+
+    @Test
+    public void testPostAndDeleteAsync() throws SerializationException, InterruptedException, ExecutionException, UnsupportedModifierException {
+        Submodel requestSubmodel = requestSubmodelList.get(0);
+        server.enqueue(new MockResponse()
+                .setResponseCode(201)
+                .setBody(serializer.write(requestSubmodel)));
+        server.enqueue(new MockResponse().setResponseCode(204));
+
+        Submodel responseSubmodel = submodelRepositoryInterface.postAsync(requestSubmodel)
+                .thenCompose(created -> submodelRepositoryInterface.deleteAsync(created.getId()).thenApply(x -> created))
+                .get();
+
+        RecordedRequest postRequest = server.takeRequest();
+        RecordedRequest deleteRequest = server.takeRequest();
+        assertEquals("POST", postRequest.getMethod());
+        assertEquals("DELETE", deleteRequest.getMethod());
+        assertEquals("/api/v3.0/submodels/" + EncodingHelper.base64UrlEncode(requestSubmodel.getId()), deleteRequest.getPath());
+        assertEquals(requestSubmodel, responseSubmodel);
+    }
+
+
     @Test
     public void testGetSubmodel() throws SerializationException, InterruptedException, ClientException, UnsupportedModifierException {
         Submodel requestSubmodel = requestSubmodelList.get(0);
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2024 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.ilt.faaast.client.util;
+
+import de.fraunhofer.iosb.ilt.faaast.service.model.api.modifier.OutputModifier;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+
+public class JsonBodyPublishersTest {
+    private static final int PAYLOAD_SIZE = 256 * 1024;
+
+    @Test
+    public void writesLargePayloadsOnGivenExecutor() throws Exception {
+        AtomicInteger tasks = new AtomicInteger();
+        Executor executor = task -> {
+            tasks.incrementAndGet();
+            new Thread(task).start();
+        };
+
+        HttpRequest.BodyPublisher publisher = JsonBodyPublishers.ofJson(serializer(false), "entity", OutputModifier.DEFAULT, executor);
+
+        assertEquals(PAYLOAD_SIZE, read(publisher).get(10, TimeUnit.SECONDS).size());
+        assertEquals(1, tasks.get());
+    }
+
+
+    @Test
+    public void abortsBodyIfSerializerFailsUnexpectedly() throws Exception {
+        HttpRequest.BodyPublisher publisher = JsonBodyPublishers.ofJson(serializer(true), "entity", OutputModifier.DEFAULT);
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> read(publisher).get(10, TimeUnit.SECONDS));
+
+        Throwable cause = e.getCause();
+        while (cause != null && !(cause instanceof IllegalStateException)) {
+            cause = cause.getCause();
+        }
+        assertTrue(cause instanceof IllegalStateException);
+    }
+
+
+    private static StreamingJsonSerializer serializer(boolean fail) {
+        return new StreamingJsonSerializer() {
+            @Override
+            public void write(OutputStream out, Object obj, OutputModifier modifier) {
+                try {
+                    out.write(new byte[PAYLOAD_SIZE]);
+                }
+                catch (IOException e) {
+                    throw new IllegalArgumentException(e);
+                }
+                if (fail) {
+                    throw new IllegalStateException("unexpected failure");
+                }
+            }
+        };
+    }
+
+
+    private static CompletableFuture<ByteArrayOutputStream> read(HttpRequest.BodyPublisher publisher) {
+        CompletableFuture<ByteArrayOutputStream> result = new CompletableFuture<>();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        publisher.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+
+            @Override
+            public void onNext(ByteBuffer item) {
+                byte[] bytes = new byte[item.remaining()];
+                item.get(bytes);
+                body.writeBytes(bytes);
+            }
+
+
+            @Override
+            public void onError(Throwable throwable) {
+                result.completeExceptionally(throwable);
+            }
+
+
+            @Override
+            public void onComplete() {
+                result.complete(body);
+            }
+        });
+        return result;
+    }
+}